@@ -22,15 +22,14 @@
  */
 package ta4jexamples.loaders;
 
-import eu.verdelhan.ta4j.BaseTick;
 import eu.verdelhan.ta4j.BaseTimeSeries;
-import eu.verdelhan.ta4j.Tick;
+import eu.verdelhan.ta4j.DecimalBackend;
+import eu.verdelhan.ta4j.TickAggregator;
 import eu.verdelhan.ta4j.TimeSeries;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
@@ -39,9 +38,7 @@ import java.util.logging.Logger;
 
 import com.opencsv.CSVReader;
 import java.time.Duration;
-import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
 
 /**
  * This class build a Ta4j time series from a CSV file containing trades.
@@ -72,71 +69,27 @@ public class CsvTradesLoader {
             }
         }
 
-        List<Tick> ticks = null;
+        TimeSeries series = new BaseTimeSeries("bitstamp_trades");
         if ((lines != null) && !lines.isEmpty()) {
 
-            // Getting the first and last trades timestamps
-            ZonedDateTime beginTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(lines.get(0)[0]) * 1000), ZoneId.systemDefault());
-            ZonedDateTime endTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(lines.get(lines.size() - 1)[0]) * 1000), ZoneId.systemDefault());
-            if (beginTime.isAfter(endTime)) {
-                Instant beginInstant = beginTime.toInstant();
-                Instant endInstant = endTime.toInstant();
-                beginTime = ZonedDateTime.ofInstant(endInstant, ZoneId.systemDefault());
-                endTime = ZonedDateTime.ofInstant(beginInstant, ZoneId.systemDefault());
-                // Since the CSV file has the most recent trades at the top of the file, we'll reverse the list to feed the List<Tick> correctly.
+            // Since the CSV file may have the most recent trades at the top of the file,
+            // we'll reverse the list to feed the aggregator in chronological order.
+            if (Long.parseLong(lines.get(0)[0]) > Long.parseLong(lines.get(lines.size() - 1)[0])) {
                 Collections.reverse(lines);
             }
-            // Building the empty ticks (every 300 seconds, yeah welcome in Bitcoin world)
-            ticks = buildEmptyTicks(beginTime, endTime, 300);
-            // Filling the ticks with trades
+            // Aggregating the trades into ticks (every 300 seconds, yeah welcome in Bitcoin world)
+            TickAggregator aggregator = TickAggregator.timeTicks(Duration.ofSeconds(300), ZoneId.systemDefault(),
+                    DecimalBackend.BIG_DECIMAL, series::addTick);
             for (String[] tradeLine : lines) {
-                ZonedDateTime tradeTimestamp = ZonedDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(tradeLine[0]) * 1000), ZoneId.systemDefault());
-                for (Tick tick : ticks) {
-                    if (tick.inPeriod(tradeTimestamp)) {
-                        double tradePrice = Double.parseDouble(tradeLine[1]);
-                        double tradeAmount = Double.parseDouble(tradeLine[2]);
-                        tick.addTrade(tradeAmount, tradePrice);
-                    }
-                }
+                long tradeTimestamp = Long.parseLong(tradeLine[0]) * 1000;
+                double tradePrice = Double.parseDouble(tradeLine[1]);
+                double tradeAmount = Double.parseDouble(tradeLine[2]);
+                aggregator.addTrade(tradeTimestamp, tradePrice, tradeAmount);
             }
-            // Removing still empty ticks
-            removeEmptyTicks(ticks);
+            aggregator.flush();
         }
 
-        return new BaseTimeSeries("bitstamp_trades", ticks);
-    }
-
-    /**
-     * Builds a list of empty ticks.
-     * @param beginTime the begin time of the whole period
-     * @param endTime the end time of the whole period
-     * @param duration the tick duration (in seconds)
-     * @return the list of empty ticks
-     */
-    private static List<Tick> buildEmptyTicks(ZonedDateTime beginTime, ZonedDateTime endTime, int duration) {
-
-        List<Tick> emptyTicks = new ArrayList<>();
-
-        Duration tickDuration = Duration.ofSeconds(duration);
-        ZonedDateTime tickEndTime = beginTime;
-        do {
-            tickEndTime = tickEndTime.plus(tickDuration);
-            emptyTicks.add(new BaseTick(tickDuration, tickEndTime));
-        } while (tickEndTime.isBefore(endTime));
-
-        return emptyTicks;
-    }
-
-    /**
-     * Removes all empty (i.e. with no trade) ticks of the list.
-     * @param ticks a list of ticks
-     */
-    private static void removeEmptyTicks(List<Tick> ticks) {
-        for (int i = ticks.size() - 1; i >= 0; i--) {
-            if (ticks.get(i).getTrades() == 0) {
-                ticks.remove(i);
-            }
-        }
+        return series;
     }
 
     public static void main(String[] args) {
@@ -34,7 +34,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.time.Duration;
-import java.time.ZonedDateTime;
+import java.time.Instant;
 
 import ta4jexamples.loaders.CsvTradesLoader;
 import ta4jexamples.strategies.CCICorrectionStrategy;
@@ -60,30 +60,21 @@ public class WalkForward {
         ArrayList<Integer> beginIndexes = new ArrayList<>();
 
         int beginIndex = series.getBeginIndex();
-        int endIndex = series.getEndIndex();
-        
+
         // Adding the first begin index
         beginIndexes.add(beginIndex);
 
-        // Building the first interval before next split
-        ZonedDateTime beginInterval = series.getFirstTick().getEndTime();
-        ZonedDateTime endInterval = beginInterval.plus(splitDuration);
-
-        for (int i = beginIndex; i <= endIndex; i++) {
-            // For each tick...
-            ZonedDateTime tickTime = series.getTick(i).getEndTime();
-            if (tickTime.isBefore(beginInterval) || !tickTime.isBefore(endInterval)) {
-                // Tick out of the interval
-                if (!endInterval.isAfter(tickTime)) {
-                    // Tick after the interval
-                    // --> Adding a new begin index
-                    beginIndexes.add(i);
-                }
-
-                // Building the new interval before next split
-                beginInterval = endInterval.isBefore(tickTime) ? tickTime : endInterval;
-                endInterval = beginInterval.plus(splitDuration);
+        // Seeking the first tick after each split (binary searches on the tick end times)
+        final long splitMillis = splitDuration.toMillis();
+        while (true) {
+            long endInterval = series.getEndTimeMillis(beginIndex) + splitMillis;
+            int nextBeginIndex = series.ceilingIndex(Instant.ofEpochMilli(endInterval));
+            if (nextBeginIndex <= beginIndex) {
+                // No more split
+                break;
             }
+            beginIndexes.add(nextBeginIndex);
+            beginIndex = nextBeginIndex;
         }
         return beginIndexes;
     }
@@ -100,26 +91,17 @@ public class WalkForward {
      */
     public static TimeSeries subseries(TimeSeries series, int beginIndex, Duration duration) {
 
-        // Calculating the sub-series interval
-        ZonedDateTime beginInterval = series.getTick(beginIndex).getEndTime();
-        ZonedDateTime endInterval = beginInterval.plus(duration);
-
-        // Checking ticks belonging to the sub-series (starting at the provided index)
-        int subseriesNbTicks = 0;
-        int endIndex = series.getEndIndex();
-        for (int i = beginIndex; i <= endIndex; i++) {
-            // For each tick...
-            ZonedDateTime tickTime = series.getTick(i).getEndTime();
-            if (tickTime.isBefore(beginInterval) || !tickTime.isBefore(endInterval)) {
-                // Tick out of the interval
-                break;
-            }
-            // Tick in the interval
-            // --> Incrementing the number of ticks in the subseries
-            subseriesNbTicks++;
+        // Calculating the sub-series interval (epoch milliseconds)
+        long endInterval = series.getEndTimeMillis(beginIndex) + duration.toMillis();
+
+        // Seeking the first tick out of the sub-series (binary search on the tick end times)
+        int endIndex = series.ceilingIndex(Instant.ofEpochMilli(endInterval));
+        if (endIndex == -1) {
+            // All the remaining ticks belong to the sub-series
+            endIndex = series.getEndIndex() + 1;
         }
 
-        return new BaseTimeSeries(series, beginIndex, beginIndex + subseriesNbTicks - 1);
+        return new BaseTimeSeries(series, beginIndex, endIndex - 1);
     }
 
     /**
@@ -22,6 +22,9 @@
  */
 package eu.verdelhan.ta4j;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.math.MathContext;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -37,6 +40,8 @@ public class BaseTick implements Tick {
     private Duration timePeriod;
     /** End time of the tick */
     private ZonedDateTime endTime;
+    /** End time of the tick (epoch milliseconds, for the time comparisons) */
+    private transient long endTimeMillis;
     /** Begin time of the tick */
     private ZonedDateTime beginTime;
     /** Open price of the period */
@@ -63,6 +68,7 @@ public class BaseTick implements Tick {
         checkTimeArguments(timePeriod, endTime);
         this.timePeriod = timePeriod;
         this.endTime = endTime;
+        this.endTimeMillis = endTime.toInstant().toEpochMilli();
         this.beginTime = endTime.minus(timePeriod);
     }
 
@@ -139,9 +145,26 @@ public class BaseTick implements Tick {
      * @param amount the amount of the tick period
      */
     public BaseTick(Duration timePeriod, ZonedDateTime endTime, Decimal openPrice, Decimal highPrice, Decimal lowPrice, Decimal closePrice, Decimal volume, Decimal amount) {
+        this(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount, 0);
+    }
+
+    /**
+     * Constructor.
+     * @param timePeriod the time period
+     * @param endTime the end time of the tick period
+     * @param openPrice the open price of the tick period
+     * @param highPrice the highest price of the tick period
+     * @param lowPrice the lowest price of the tick period
+     * @param closePrice the close price of the tick period
+     * @param volume the volume of the tick period
+     * @param amount the amount of the tick period
+     * @param trades the number of trades of the tick period
+     */
+    public BaseTick(Duration timePeriod, ZonedDateTime endTime, Decimal openPrice, Decimal highPrice, Decimal lowPrice, Decimal closePrice, Decimal volume, Decimal amount, int trades) {
         checkTimeArguments(timePeriod, endTime);
         this.timePeriod = timePeriod;
         this.endTime = endTime;
+        this.endTimeMillis = endTime.toInstant().toEpochMilli();
         this.beginTime = endTime.minus(timePeriod);
         this.openPrice = openPrice;
         this.maxPrice = highPrice;
@@ -149,6 +172,30 @@ public class BaseTick implements Tick {
         this.closePrice = closePrice;
         this.volume = volume;
         this.amount = amount;
+        this.trades = trades;
+    }
+
+    /**
+     * Constructor for the subclasses which store the times of their ticks.
+     * <p>
+     * The time period, begin time and end time of the tick are not set:
+     * {@link #getTimePeriod()}, {@link #getBeginTime()} and {@link #getEndTime()} must be overridden.
+     * @param openPrice the open price of the tick period
+     * @param highPrice the highest price of the tick period
+     * @param lowPrice the lowest price of the tick period
+     * @param closePrice the close price of the tick period
+     * @param volume the volume of the tick period
+     * @param amount the amount of the tick period
+     * @param trades the number of trades of the tick period
+     */
+    protected BaseTick(Decimal openPrice, Decimal highPrice, Decimal lowPrice, Decimal closePrice, Decimal volume, Decimal amount, int trades) {
+        this.openPrice = openPrice;
+        this.maxPrice = highPrice;
+        this.minPrice = lowPrice;
+        this.closePrice = closePrice;
+        this.volume = volume;
+        this.amount = amount;
+        this.trades = trades;
     }
 
     /**
@@ -221,6 +268,15 @@ public class BaseTick implements Tick {
         return endTime;
     }
 
+    @Override
+    public long getEndTimeMillis() {
+        if (endTime == null) {
+            // Subclass storing the time of its ticks
+            return Tick.super.getEndTimeMillis();
+        }
+        return endTimeMillis;
+    }
+
     /**
      * Adds a trade at the end of tick period.
      * @param tradeVolume the traded volume
@@ -247,10 +303,86 @@ public class BaseTick implements Tick {
         trades++;
     }
 
+    /**
+     * Aggregates a (finer) tick at the end of the tick period.
+     * @param tick the tick to be aggregated
+     */
+    void aggregate(Tick tick) {
+        final Decimal tickOpenPrice = tick.getOpenPrice();
+        final Decimal tickClosePrice = tick.getClosePrice();
+        final Decimal tickMaxPrice = tick.getMaxPrice();
+        final Decimal tickMinPrice = tick.getMinPrice();
+        if (openPrice == null) {
+            openPrice = tickOpenPrice;
+        }
+        if (tickClosePrice != null) {
+            closePrice = tickClosePrice;
+        }
+        if (maxPrice == null || (tickMaxPrice != null && maxPrice.isLessThan(tickMaxPrice))) {
+            maxPrice = tickMaxPrice;
+        }
+        if (minPrice == null || (tickMinPrice != null && minPrice.isGreaterThan(tickMinPrice))) {
+            minPrice = tickMinPrice;
+        }
+        if (tick.getVolume() != null) {
+            volume = volume == null ? tick.getVolume() : volume.plus(tick.getVolume());
+        }
+        if (tick.getAmount() != null) {
+            amount = amount == null ? tick.getAmount() : amount.plus(tick.getAmount());
+        }
+        trades += tick.getTrades();
+    }
+
+    /**
+     * Converts the prices, volume and amount of the tick to the provided backend and math context.
+     * @param backend the decimal backend
+     * @param mathContext the math context of BigDecimal-backed values (null for the default one)
+     */
+    void convertTo(DecimalBackend backend, MathContext mathContext) {
+        openPrice = convert(openPrice, backend, mathContext);
+        maxPrice = convert(maxPrice, backend, mathContext);
+        minPrice = convert(minPrice, backend, mathContext);
+        closePrice = convert(closePrice, backend, mathContext);
+        volume = convert(volume, backend, mathContext);
+        amount = convert(amount, backend, mathContext);
+    }
+
+    /**
+     * Interns the prices of the tick.
+     * @param priceInterner the price interner
+     */
+    void internPrices(PriceInterner priceInterner) {
+        openPrice = priceInterner.intern(openPrice);
+        maxPrice = priceInterner.intern(maxPrice);
+        minPrice = priceInterner.intern(minPrice);
+        closePrice = priceInterner.intern(closePrice);
+    }
+
     @Override
     public String toString() {
         return String.format("{end time: %1s, close price: %2$f, open price: %3$f, min price: %4$f, max price: %5$f, volume: %6$f}",
-                endTime.withZoneSameInstant(ZoneId.systemDefault()), closePrice.toDouble(), openPrice.toDouble(), minPrice.toDouble(), maxPrice.toDouble(), volume.toDouble());
+                getEndTime().withZoneSameInstant(ZoneId.systemDefault()), closePrice.toDouble(), openPrice.toDouble(), minPrice.toDouble(), maxPrice.toDouble(), volume.toDouble());
+    }
+
+    /**
+     * @param value a value (may be null)
+     * @param backend the decimal backend
+     * @param mathContext the math context of BigDecimal-backed values (null for the default one)
+     * @return the value converted to the provided backend and math context
+     */
+    private static Decimal convert(Decimal value, DecimalBackend backend, MathContext mathContext) {
+        Decimal convertedValue = backend.convert(value);
+        if (convertedValue == null || mathContext == null) {
+            return convertedValue;
+        }
+        return convertedValue.withMathContext(mathContext);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (endTime != null) {
+            endTimeMillis = endTime.toInstant().toEpochMilli();
+        }
     }
 
     /**
@@ -22,21 +22,33 @@
  */
 package eu.verdelhan.ta4j;
 
+import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.time.ZonedDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Base implementation of a {@link TimeSeries}.
  * <p>
+ * The ticks are stored in a {@link RingBuffer ring buffer} (a copy of the list provided at construction, except
+ * for a constrained series, which shares the ring buffer of its original series): when a maximum tick count
+ * has been set, the oldest ticks are evicted in constant time.
+ * <p>
+ * The end times of the ticks are indexed as epoch milliseconds, so that time lookups
+ * (e.g. {@link #floorIndex(java.time.Instant)}) are binary searches on a primitive array.
+ * <p>
+ * {@link #snapshot() Snapshots} and {@link #view(int, int) views} of the series share its ticks
+ * (i.e. they are taken in constant time): the ring buffer never overwrites the ticks of the snapshots.
  */
 public class BaseTimeSeries implements TimeSeries {
 
     private static final long serialVersionUID = -1878027009398790126L;
     /** Name for unnamed series */
     private static final String UNNAMED_SERIES_NAME = "unamed_series";
+    /** Initial capacity of the tick buffer */
+    private static final int INITIAL_CAPACITY = 16;
     /** The logger */
     private final Logger log = LoggerFactory.getLogger(getClass());
     /** Name of the series */
@@ -46,13 +58,23 @@ public class BaseTimeSeries implements TimeSeries {
     /** End index of the time series */
     private int seriesEndIndex = -1;
     /** List of ticks */
-    private final List<Tick> ticks;
+    private final RingBuffer<Tick> ticks;
     /** Maximum number of ticks for the time series */
     private int maximumTickCount = Integer.MAX_VALUE;
     /** Number of removed ticks */
     private int removedTicksCount = 0;
+    /** Number of updates of the last tick */
+    private long lastTickUpdateCount = 0;
     /** True if the current series is constrained (i.e. its indexes cannot change), false otherwise */
     private boolean constrained = false;
+    /** Backend of the decimals of the series */
+    private final DecimalBackend decimalBackend;
+    /** Math context of the decimals of the series (null for the default one) */
+    private final MathContext mathContext;
+    /** Interning table for the prices of the ticks (null if prices are not interned) */
+    private PriceInterner priceInterner;
+    /** Index of the end times of the ticks (lazily built) */
+    private transient TimestampIndex endTimes;
 
     /**
      * Constructor of an unnamed series.
@@ -69,6 +91,24 @@ public class BaseTimeSeries implements TimeSeries {
         this(name, new ArrayList<Tick>());
     }
 
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param decimalBackend the backend of the decimals of the series
+     */
+    public BaseTimeSeries(String name, DecimalBackend decimalBackend) {
+        this(name, new ArrayList<Tick>(), decimalBackend);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param precisionProfile the precision profile of the (BigDecimal-backed) decimals of the series
+     */
+    public BaseTimeSeries(String name, PrecisionProfile precisionProfile) {
+        this(name, new ArrayList<Tick>(), precisionProfile);
+    }
+
     /**
      * Constructor of an unnamed series.
      * @param ticks the list of ticks of the series
@@ -83,7 +123,50 @@ public class BaseTimeSeries implements TimeSeries {
      * @param ticks the list of ticks of the series
      */
     public BaseTimeSeries(String name, List<Tick> ticks) {
-        this(name, ticks, 0, ticks.size() - 1, false);
+        this(name, ticks, DecimalBackend.BIG_DECIMAL);
+    }
+
+    /**
+     * Constructor.
+     * <p>
+     * The values of the {@link BaseTick base ticks} are converted to the provided backend.
+     * The conversion is made in place: the provided ticks are used (i.e. not copied) by the series (only the list is copied).
+     * @param name the name of the series
+     * @param ticks the list of ticks of the series
+     * @param decimalBackend the backend of the decimals of the series
+     */
+    public BaseTimeSeries(String name, List<Tick> ticks, DecimalBackend decimalBackend) {
+        this(name, ticks, decimalBackend, null);
+    }
+
+    /**
+     * Constructor.
+     * <p>
+     * The values of the {@link BaseTick base ticks} are rounded to the math context of the provided profile.
+     * The rounding is made in place: the provided ticks are used (i.e. not copied) by the series (only the list is copied).
+     * @param name the name of the series
+     * @param ticks the list of ticks of the series
+     * @param precisionProfile the precision profile of the (BigDecimal-backed) decimals of the series
+     */
+    public BaseTimeSeries(String name, List<Tick> ticks, PrecisionProfile precisionProfile) {
+        this(name, ticks, DecimalBackend.BIG_DECIMAL, precisionProfile.getMathContext());
+    }
+
+    /**
+     * Constructor.
+     * <p>
+     * The values of the {@link BaseTick base ticks} are converted to the provided backend and math context.
+     * The conversion is made in place: the provided ticks are used (i.e. not copied) by the series (only the list is copied).
+     * @param name the name of the series
+     * @param ticks the list of ticks of the series
+     * @param decimalBackend the backend of the decimals of the series
+     * @param mathContext the math context of the BigDecimal-backed decimals of the series (null for the default one)
+     */
+    public BaseTimeSeries(String name, List<Tick> ticks, DecimalBackend decimalBackend, MathContext mathContext) {
+        this(name, ticks, 0, ticks.size() - 1, false, decimalBackend, mathContext);
+        for (Tick tick : ticks) {
+            convertTick(tick);
+        }
     }
 
     /**
@@ -95,7 +178,8 @@ public class BaseTimeSeries implements TimeSeries {
      * @param seriesEndIndex the end index (inclusive) of the time series
      */
     public BaseTimeSeries(TimeSeries defaultSeries, int seriesBeginIndex, int seriesEndIndex) {
-        this(defaultSeries.getName(), defaultSeries.getTickData(), seriesBeginIndex, seriesEndIndex, true);
+        this(defaultSeries.getName(), defaultSeries.getTickData(), seriesBeginIndex, seriesEndIndex, true,
+                defaultSeries.getDecimalBackend(), defaultSeries.getMathContext());
         if (defaultSeries.getTickData() == null || defaultSeries.getTickData().isEmpty()) {
             throw new IllegalArgumentException("Cannot create a constrained series from a time series with a null/empty list of ticks");
         }
@@ -111,11 +195,24 @@ public class BaseTimeSeries implements TimeSeries {
      * @param seriesBeginIndex the begin index (inclusive) of the time series
      * @param seriesEndIndex the end index (inclusive) of the time series
      * @param constrained true to constrain the time series (i.e. indexes cannot change), false otherwise
+     * @param decimalBackend the backend of the decimals of the series
+     * @param mathContext the math context of the decimals of the series (null for the default one)
      */
-    private BaseTimeSeries(String name, List<Tick> ticks, int seriesBeginIndex, int seriesEndIndex, boolean constrained) {
+    private BaseTimeSeries(String name, List<Tick> ticks, int seriesBeginIndex, int seriesEndIndex, boolean constrained,
+            DecimalBackend decimalBackend, MathContext mathContext) {
+        if (decimalBackend == null) {
+            throw new IllegalArgumentException("Decimal backend cannot be null");
+        }
         this.name = name;
-        this.ticks = ticks == null ? new ArrayList<>() : ticks;
-        if (ticks.isEmpty()) {
+        this.decimalBackend = decimalBackend;
+        this.mathContext = mathContext;
+        if (constrained && ticks instanceof RingBuffer) {
+            // Sharing the ticks of the original series
+            this.ticks = (RingBuffer<Tick>) ticks;
+        } else {
+            this.ticks = new RingBuffer<>(ticks == null ? Collections.<Tick>emptyList() : ticks, INITIAL_CAPACITY);
+        }
+        if (this.ticks.isEmpty()) {
         	// Tick list empty
             this.seriesBeginIndex = -1;
             this.seriesEndIndex = -1;
@@ -126,7 +223,7 @@ public class BaseTimeSeries implements TimeSeries {
         if (seriesEndIndex < seriesBeginIndex - 1) {
             throw new IllegalArgumentException("End index must be >= to begin index - 1");
         }
-        if (seriesEndIndex >= ticks.size()) {
+        if (seriesEndIndex >= this.ticks.size()) {
         	throw new IllegalArgumentException("End index must be < to the tick list size");
         }
         this.seriesBeginIndex = seriesBeginIndex;
@@ -139,6 +236,37 @@ public class BaseTimeSeries implements TimeSeries {
         return name;
     }
 
+    @Override
+    public DecimalBackend getDecimalBackend() {
+        return decimalBackend;
+    }
+
+    @Override
+    public MathContext getMathContext() {
+        return mathContext == null ? Decimal.MATH_CONTEXT : mathContext;
+    }
+
+    /**
+     * Sets the interning table for the prices of the ticks.
+     * <p>
+     * The prices of the {@link BaseTick base ticks} already in the series, and of the ones added afterwards,
+     * are interned so that identical prices share a single instance.
+     * @param priceInterner the price interner (null to stop interning prices)
+     */
+    public void setPriceInterner(PriceInterner priceInterner) {
+        this.priceInterner = priceInterner;
+        for (Tick tick : ticks) {
+            convertTick(tick);
+        }
+    }
+
+    /**
+     * @return the interning table for the prices of the ticks, null if prices are not interned
+     */
+    public PriceInterner getPriceInterner() {
+        return priceInterner;
+    }
+
     @Override
     public Tick getTick(int i) {
         int innerIndex = i - removedTicksCount;
@@ -159,6 +287,15 @@ public class BaseTimeSeries implements TimeSeries {
         return ticks.get(innerIndex);
     }
 
+    @Override
+    public long getEndTimeMillis(int i) {
+        final int innerIndex = i - removedTicksCount;
+        if (innerIndex < 0 || innerIndex >= ticks.size()) {
+            return getTick(i).getEndTimeMillis();
+        }
+        return indexedEndTimes().get(innerIndex);
+    }
+
     @Override
     public int getTickCount() {
         if (seriesEndIndex < 0) {
@@ -183,6 +320,28 @@ public class BaseTimeSeries implements TimeSeries {
         return seriesEndIndex;
     }
 
+    /**
+     * @return true if the series is constrained (i.e. its indexes cannot change), false otherwise
+     */
+    boolean isConstrained() {
+        return constrained;
+    }
+
+    /**
+     * Restores the number of removed ticks (e.g. for a decoded series).
+     * The indexes of the ticks of the series are shifted accordingly.
+     * @param removedTicksCount the number of ticks which were removed before the first tick of the series
+     */
+    void restoreRemovedTicksCount(int removedTicksCount) {
+        if (constrained || this.removedTicksCount != 0) {
+            throw new IllegalStateException("Cannot restore the removed ticks count of this time series");
+        }
+        this.removedTicksCount = removedTicksCount;
+        if (seriesEndIndex >= 0) {
+            seriesEndIndex += removedTicksCount;
+        }
+    }
+
     @Override
     public void setMaximumTickCount(int maximumTickCount) {
         if (constrained) {
@@ -212,13 +371,14 @@ public class BaseTimeSeries implements TimeSeries {
         }
         final int lastTickIndex = ticks.size() - 1;
         if (!ticks.isEmpty()) {
-            ZonedDateTime seriesEndTime = ticks.get(lastTickIndex).getEndTime();
-            if (!tick.getEndTime().isAfter(seriesEndTime)) {
+            if (!tick.endsAfter(ticks.get(lastTickIndex))) {
                 throw new IllegalArgumentException("Cannot add a tick with end time <= to series end time");
             }
         }
 
+        convertTick(tick);
         ticks.add(tick);
+        indexedEndTimes();
         if (seriesBeginIndex == -1) {
             // Begin index set to 0 only if if wasn't initialized
             seriesBeginIndex = 0;
@@ -227,6 +387,111 @@ public class BaseTimeSeries implements TimeSeries {
         removeExceedingTicks();
     }
 
+    @Override
+    public void updateLastTick(Tick tick) {
+        if (tick == null) {
+            throw new IllegalArgumentException("Cannot update the last tick with a null tick");
+        }
+        checkLastTickUpdatable();
+        final int lastTickIndex = ticks.size() - 1;
+        final Tick lastTick = ticks.get(lastTickIndex);
+        if (tick.endsAfter(lastTick) || lastTick.endsAfter(tick)) {
+            throw new IllegalArgumentException("Cannot update the last tick with a tick which does not end at the same time");
+        }
+        convertTick(tick);
+        if (tick != lastTick) {
+            ticks.set(lastTickIndex, tick);
+        }
+        lastTickUpdateCount++;
+    }
+
+    @Override
+    public void addTrade(Decimal tradeVolume, Decimal tradePrice) {
+        checkLastTickUpdatable();
+        final Tick lastTick = ticks.get(ticks.size() - 1);
+        lastTick.addTrade(tradeVolume, tradePrice);
+        updateLastTick(lastTick);
+    }
+
+    @Override
+    public long getLastTickUpdateCount() {
+        return lastTickUpdateCount;
+    }
+
+    /**
+     * Returns an immutable snapshot of a range of the series, in constant time.
+     * <p>
+     * The view shares the ticks of the series, except its last tick which is copied if it is the last tick
+     * of the series (which may still be updated, e.g. by {@link #addTrade(Decimal, Decimal)}).
+     * @param beginIndex the begin index (inclusive) of the view
+     * @param endIndex the end index (inclusive) of the view
+     * @return a snapshot of the range of the series
+     */
+    @Override
+    public TimeSeries view(int beginIndex, int endIndex) {
+        TimeSeriesSnapshot.checkIndexes(this, beginIndex, endIndex);
+        final int lastPosition = endIndex - removedTicksCount;
+        if (lastPosition < 0) {
+            return new TimeSeriesSnapshot(this, Collections.<Tick>emptyList(), null, beginIndex, endIndex);
+        }
+        final List<Tick> sharedTicks = ticks.snapshot(0, lastPosition);
+        Tick lastTick = ticks.get(lastPosition);
+        if (lastPosition == ticks.size() - 1) {
+            lastTick = TimeSeriesSnapshot.frozenCopy(lastTick);
+        }
+        return new TimeSeriesSnapshot(this, sharedTicks, lastTick, beginIndex, endIndex);
+    }
+
+    /**
+     * Checks that the last tick of the series can be updated.
+     */
+    private void checkLastTickUpdatable() {
+        if (constrained) {
+            throw new IllegalStateException("Cannot update the last tick of a constrained time series");
+        }
+        if (ticks.isEmpty()) {
+            throw new IllegalStateException("Cannot update the last tick of an empty time series");
+        }
+    }
+
+    /**
+     * Converts the values of a tick to the decimal backend (and math context) of the series,
+     * and interns its prices if a price interner has been set.
+     * Only {@link BaseTick base ticks} can be converted.
+     * @param tick the tick to be converted
+     */
+    private void convertTick(Tick tick) {
+        if (tick instanceof BaseTick) {
+            BaseTick baseTick = (BaseTick) tick;
+            Decimal closePrice = tick.getClosePrice();
+            if (closePrice == null || closePrice.getBackend() != decimalBackend
+                    || (mathContext != null && !mathContext.equals(closePrice.getMathContext()))) {
+                baseTick.convertTo(decimalBackend, mathContext);
+            }
+            if (priceInterner != null) {
+                baseTick.internPrices(priceInterner);
+            }
+        }
+    }
+
+    /**
+     * Indexes the end times of the ticks which are not indexed yet (e.g. the ones of the tick list
+     * provided at construction, or the ones added to a list shared with another series).
+     * @return the index of the end times of the ticks
+     */
+    private TimestampIndex indexedEndTimes() {
+        if (endTimes == null) {
+            endTimes = new TimestampIndex();
+        } else if (endTimes.size() > ticks.size()) {
+            // Tick list shrunk outside of the series
+            endTimes.clear();
+        }
+        for (int i = endTimes.size(); i < ticks.size(); i++) {
+            endTimes.add(ticks.get(i).getEndTimeMillis());
+        }
+        return endTimes;
+    }
+
     /**
      * Removes the N first ticks which exceed the maximum tick count.
      */
@@ -235,9 +500,8 @@ public class BaseTimeSeries implements TimeSeries {
         if (tickCount > maximumTickCount) {
             // Removing old ticks
             int nbTicksToRemove = tickCount - maximumTickCount;
-            for (int i = 0; i < nbTicksToRemove; i++) {
-                ticks.remove(0);
-            }
+            indexedEndTimes().removeFirst(nbTicksToRemove);
+            ticks.removeFirst(nbTicksToRemove);
             // Updating removed ticks count
             removedTicksCount += nbTicksToRemove;
         }
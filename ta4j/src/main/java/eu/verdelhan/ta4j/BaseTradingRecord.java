@@ -99,6 +99,13 @@ public class BaseTradingRecord implements TradingRecord {
         }
     }
     
+    /**
+     * @return the {@link OrderType order type} of entries in the trading session
+     */
+    OrderType getStartingType() {
+        return startingType;
+    }
+
     @Override
     public Trade getCurrentTrade() {
         return currentTrade;
@@ -0,0 +1,531 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import eu.verdelhan.ta4j.Order.OrderType;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary codec for {@link TimeSeries time series}, {@link TradingRecord trading records}
+ * and lists of {@link Decimal decimals} (e.g. indicator results).
+ * <p>
+ * Unlike the default Java serialization, it does not write class descriptors or object graphs:
+ * the values are written as packed primitive columns (zigzag-encoded varints, deltas for the times).
+ * The decimals are written losslessly: BigDecimal-backed ones as their unscaled value and scale,
+ * double-backed ones as their raw bits.
+ * <p>
+ * Each encoded object starts with a magic number ("TA4C"), the version of the codec and the kind of the object.
+ * <p>
+ * The time series are decoded as {@link BaseTimeSeries base time series} (with the same indexes, maximum tick count,
+ * decimal backend and math context). Their ticks are decoded as {@link CompactTick compact ticks}
+ * (or {@link BaseTick base ticks} for sub-millisecond times).
+ */
+public final class BinaryCodec {
+
+    /** Magic number of the encoded objects ("TA4C") */
+    static final int MAGIC_NUMBER = 0x54413443;
+
+    /** Version of the codec */
+    static final byte VERSION = 1;
+
+    /** Kind of the encoded time series */
+    static final byte TIME_SERIES = 1;
+
+    /** Kind of the encoded trading records */
+    static final byte TRADING_RECORD = 2;
+
+    /** Kind of the encoded lists of decimals */
+    static final byte DECIMALS = 3;
+
+    /** Tag of the null decimals */
+    private static final byte NULL_TAG = 0;
+
+    /** Tag of the NaN decimals */
+    private static final byte NAN_TAG = 1;
+
+    /** Tag of the double-backed decimals */
+    private static final byte DOUBLE_TAG = 2;
+
+    /** Tag of the BigDecimal-backed decimals with an unscaled value which fits in a long */
+    private static final byte LONG_TAG = 3;
+
+    /** Tag of the other BigDecimal-backed decimals */
+    private static final byte BIG_TAG = 4;
+
+    /** Number of nanoseconds in a millisecond */
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Writes a time series.
+     * <p>
+     * Only the ticks which are still available (i.e. not removed) are written.
+     * For a constrained {@link BaseTimeSeries base time series}, the ticks before its begin index are written too.
+     * @param series the time series to be written
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeTimeSeries(TimeSeries series, DataOutput out) throws IOException {
+        writeHeader(TIME_SERIES, out);
+        final boolean constrained = series instanceof BaseTimeSeries && ((BaseTimeSeries) series).isConstrained();
+        final int endIndex = series.getEndIndex();
+        final int firstIndex = constrained ? 0 : Math.max(Math.max(series.getBeginIndex(), series.getRemovedTicksCount()), 0);
+        final int tickCount = endIndex < 0 ? 0 : endIndex - firstIndex + 1;
+
+        writeNullableUTF(series.getName(), out);
+        out.writeByte(series.getDecimalBackend().ordinal());
+        writeMathContext(series.getMathContext(), out);
+        out.writeInt(series.getMaximumTickCount());
+        out.writeBoolean(constrained);
+        if (constrained) {
+            out.writeInt(series.getBeginIndex());
+        }
+        out.writeInt(firstIndex);
+        out.writeInt(tickCount);
+
+        // Times
+        final List<ZoneId> zones = new ArrayList<>();
+        long previousEndTime = 0;
+        long previousTimePeriod = 0;
+        for (int i = firstIndex; i <= endIndex; i++) {
+            final Tick tick = series.getTick(i);
+            final ZonedDateTime endTime = tick.getEndTime();
+            final long endTimeMillis = tick.getEndTimeMillis();
+            final long timePeriod = tick.getTimePeriod().toNanos();
+            int zoneIndex = zones.indexOf(endTime.getZone());
+            if (zoneIndex < 0) {
+                zoneIndex = zones.size();
+                zones.add(endTime.getZone());
+            }
+            writeVarLong(zigzag(endTimeMillis - previousEndTime), out);
+            writeVarLong(endTime.getNano() % NANOS_PER_MILLI, out);
+            writeVarLong(zigzag(timePeriod - previousTimePeriod), out);
+            writeVarLong(zoneIndex, out);
+            previousEndTime = endTimeMillis;
+            previousTimePeriod = timePeriod;
+        }
+        writeVarLong(zones.size(), out);
+        for (ZoneId zone : zones) {
+            out.writeUTF(zone.getId());
+        }
+
+        // Values
+        for (int i = firstIndex; i <= endIndex; i++) {
+            writeDecimal(series.getOpenPrice(i), out);
+        }
+        for (int i = firstIndex; i <= endIndex; i++) {
+            writeDecimal(series.getMaxPrice(i), out);
+        }
+        for (int i = firstIndex; i <= endIndex; i++) {
+            writeDecimal(series.getMinPrice(i), out);
+        }
+        for (int i = firstIndex; i <= endIndex; i++) {
+            writeDecimal(series.getClosePrice(i), out);
+        }
+        for (int i = firstIndex; i <= endIndex; i++) {
+            writeDecimal(series.getVolume(i), out);
+        }
+        for (int i = firstIndex; i <= endIndex; i++) {
+            writeDecimal(series.getAmount(i), out);
+        }
+        for (int i = firstIndex; i <= endIndex; i++) {
+            writeVarLong(series.getTrades(i), out);
+        }
+    }
+
+    /**
+     * Reads a time series.
+     * @param in the input
+     * @return the time series
+     * @throws IOException if an I/O error occurs, or if the input is not an encoded time series
+     */
+    public static BaseTimeSeries readTimeSeries(DataInput in) throws IOException {
+        readHeader(TIME_SERIES, in);
+        final String name = readNullableUTF(in);
+        final DecimalBackend decimalBackend = DecimalBackend.values()[in.readByte()];
+        final MathContext mathContext = readMathContext(in);
+        final int maximumTickCount = in.readInt();
+        final boolean constrained = in.readBoolean();
+        final int beginIndex = constrained ? in.readInt() : 0;
+        final int firstIndex = in.readInt();
+        final int tickCount = in.readInt();
+
+        // Times
+        final long[] endTimes = new long[tickCount];
+        final long[] endTimeNanos = new long[tickCount];
+        final long[] timePeriods = new long[tickCount];
+        final int[] zoneIndexes = new int[tickCount];
+        long endTime = 0;
+        long timePeriod = 0;
+        for (int i = 0; i < tickCount; i++) {
+            endTime += unzigzag(readVarLong(in));
+            endTimes[i] = endTime;
+            endTimeNanos[i] = readVarLong(in);
+            timePeriod += unzigzag(readVarLong(in));
+            timePeriods[i] = timePeriod;
+            zoneIndexes[i] = (int) readVarLong(in);
+        }
+        final ZoneId[] zones = new ZoneId[(int) readVarLong(in)];
+        for (int i = 0; i < zones.length; i++) {
+            zones[i] = ZoneId.of(in.readUTF());
+        }
+
+        // Values
+        final Decimal[][] values = new Decimal[6][tickCount];
+        for (Decimal[] column : values) {
+            for (int i = 0; i < tickCount; i++) {
+                column[i] = readDecimal(in, mathContext);
+            }
+        }
+        final List<Tick> ticks = new ArrayList<>(tickCount);
+        for (int i = 0; i < tickCount; i++) {
+            final int trades = (int) readVarLong(in);
+            final ZoneId zone = zones[zoneIndexes[i]];
+            if (endTimeNanos[i] == 0 && timePeriods[i] % NANOS_PER_MILLI == 0) {
+                ticks.add(new CompactTick(timePeriods[i] / NANOS_PER_MILLI, endTimes[i], zone, values[0][i], values[1][i],
+                        values[2][i], values[3][i], values[4][i], values[5][i], trades));
+            } else {
+                final ZonedDateTime tickEndTime = Instant.ofEpochMilli(endTimes[i]).plusNanos(endTimeNanos[i]).atZone(zone);
+                ticks.add(new BaseTick(Duration.ofNanos(timePeriods[i]), tickEndTime, values[0][i], values[1][i],
+                        values[2][i], values[3][i], values[4][i], values[5][i], trades));
+            }
+        }
+
+        final BaseTimeSeries series = new BaseTimeSeries(name, ticks, decimalBackend, mathContext);
+        if (constrained) {
+            return new BaseTimeSeries(series, beginIndex, tickCount - 1);
+        }
+        series.restoreRemovedTicksCount(firstIndex);
+        if (maximumTickCount != Integer.MAX_VALUE) {
+            series.setMaximumTickCount(maximumTickCount);
+        }
+        return series;
+    }
+
+    /**
+     * Writes a trading record.
+     * @param record the trading record to be written
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeTradingRecord(TradingRecord record, DataOutput out) throws IOException {
+        writeHeader(TRADING_RECORD, out);
+        final List<Order> orders = new ArrayList<>();
+        for (Trade trade : record.getTrades()) {
+            orders.add(trade.getEntry());
+            orders.add(trade.getExit());
+        }
+        final Trade currentTrade = record.getCurrentTrade();
+        if (currentTrade.isOpened()) {
+            orders.add(currentTrade.getEntry());
+        }
+        OrderType startingType = OrderType.BUY;
+        if (record instanceof BaseTradingRecord) {
+            startingType = ((BaseTradingRecord) record).getStartingType();
+        } else if (!orders.isEmpty()) {
+            startingType = orders.get(0).getType();
+        }
+
+        out.writeByte(startingType.ordinal());
+        writeVarLong(orders.size(), out);
+        int previousIndex = 0;
+        for (Order order : orders) {
+            writeVarLong(zigzag(order.getIndex() - previousIndex), out);
+            out.writeByte(order.getType().ordinal());
+            previousIndex = order.getIndex();
+        }
+        for (Order order : orders) {
+            writeDecimal(order.getPrice(), out);
+        }
+        for (Order order : orders) {
+            writeDecimal(order.getAmount(), out);
+        }
+    }
+
+    /**
+     * Reads a trading record.
+     * @param in the input
+     * @return the trading record
+     * @throws IOException if an I/O error occurs, or if the input is not an encoded trading record
+     */
+    public static BaseTradingRecord readTradingRecord(DataInput in) throws IOException {
+        readHeader(TRADING_RECORD, in);
+        final OrderType startingType = OrderType.values()[in.readByte()];
+        final int orderCount = (int) readVarLong(in);
+        final int[] indexes = new int[orderCount];
+        final OrderType[] types = new OrderType[orderCount];
+        int index = 0;
+        for (int i = 0; i < orderCount; i++) {
+            index += (int) unzigzag(readVarLong(in));
+            indexes[i] = index;
+            types[i] = OrderType.values()[in.readByte()];
+        }
+        final Decimal[] prices = new Decimal[orderCount];
+        for (int i = 0; i < orderCount; i++) {
+            prices[i] = readDecimal(in, null);
+        }
+        final Order[] orders = new Order[orderCount];
+        for (int i = 0; i < orderCount; i++) {
+            final Decimal amount = readDecimal(in, null);
+            orders[i] = types[i] == OrderType.BUY ? Order.buyAt(indexes[i], prices[i], amount)
+                    : Order.sellAt(indexes[i], prices[i], amount);
+        }
+        return orderCount == 0 ? new BaseTradingRecord(startingType) : new BaseTradingRecord(orders);
+    }
+
+    /**
+     * Writes a list of decimals (e.g. the results of an indicator).
+     * @param values the decimals to be written (may contain null values)
+     * @param mathContext the math context of the (BigDecimal-backed) decimals
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void writeDecimals(List<Decimal> values, MathContext mathContext, DataOutput out) throws IOException {
+        writeHeader(DECIMALS, out);
+        writeMathContext(mathContext, out);
+        writeVarLong(values.size(), out);
+        for (Decimal value : values) {
+            writeDecimal(value, out);
+        }
+    }
+
+    /**
+     * Reads a list of decimals.
+     * @param in the input
+     * @return the list of decimals
+     * @throws IOException if an I/O error occurs, or if the input is not an encoded list of decimals
+     */
+    public static List<Decimal> readDecimals(DataInput in) throws IOException {
+        readHeader(DECIMALS, in);
+        final MathContext mathContext = readMathContext(in);
+        final int size = (int) readVarLong(in);
+        final List<Decimal> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readDecimal(in, mathContext));
+        }
+        return values;
+    }
+
+    /**
+     * Writes a decimal.
+     * @param value the decimal to be written (may be null)
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeDecimal(Decimal value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_TAG);
+        } else if (value.isNaN()) {
+            out.writeByte(NAN_TAG);
+        } else if (value.getBackend() == DecimalBackend.DOUBLE) {
+            out.writeByte(DOUBLE_TAG);
+            out.writeLong(Double.doubleToRawLongBits(value.primitiveValue()));
+        } else {
+            final BigDecimal bigDecimal = value.bigDecimalValue();
+            final BigInteger unscaledValue = bigDecimal.unscaledValue();
+            if (unscaledValue.bitLength() < Long.SIZE) {
+                out.writeByte(LONG_TAG);
+                writeVarLong(zigzag(bigDecimal.scale()), out);
+                writeVarLong(zigzag(unscaledValue.longValue()), out);
+            } else {
+                out.writeByte(BIG_TAG);
+                writeVarLong(zigzag(bigDecimal.scale()), out);
+                final byte[] bytes = unscaledValue.toByteArray();
+                writeVarLong(bytes.length, out);
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Reads a decimal.
+     * @param in the input
+     * @param mathContext the math context of the (BigDecimal-backed) decimal, null for the default one
+     * @return the decimal (may be null)
+     * @throws IOException if an I/O error occurs
+     */
+    static Decimal readDecimal(DataInput in, MathContext mathContext) throws IOException {
+        final byte tag = in.readByte();
+        switch (tag) {
+            case NULL_TAG:
+                return null;
+            case NAN_TAG:
+                return Decimal.NaN;
+            case DOUBLE_TAG:
+                return Decimal.primitiveValueOf(Double.longBitsToDouble(in.readLong()));
+            case LONG_TAG: {
+                final int scale = (int) unzigzag(readVarLong(in));
+                return Decimal.exactValueOf(BigDecimal.valueOf(unzigzag(readVarLong(in)), scale), mathContext);
+            }
+            case BIG_TAG: {
+                final int scale = (int) unzigzag(readVarLong(in));
+                final byte[] bytes = new byte[(int) readVarLong(in)];
+                in.readFully(bytes);
+                return Decimal.exactValueOf(new BigDecimal(new BigInteger(bytes), scale), mathContext);
+            }
+            default:
+                throw new StreamCorruptedException("Unknown decimal tag: " + tag);
+        }
+    }
+
+    /**
+     * Writes the header of an encoded object.
+     * @param kind the kind of the object
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeHeader(byte kind, DataOutput out) throws IOException {
+        out.writeInt(MAGIC_NUMBER);
+        out.writeByte(VERSION);
+        out.writeByte(kind);
+    }
+
+    /**
+     * Reads (and checks) the header of an encoded object.
+     * @param kind the expected kind of the object
+     * @param in the input
+     * @throws IOException if an I/O error occurs, or if the header does not match
+     */
+    private static void readHeader(byte kind, DataInput in) throws IOException {
+        if (in.readInt() != MAGIC_NUMBER) {
+            throw new StreamCorruptedException("Not an encoded ta4j object (wrong magic number)");
+        }
+        final byte version = in.readByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Unsupported codec version: " + version);
+        }
+        final byte actualKind = in.readByte();
+        if (actualKind != kind) {
+            throw new StreamCorruptedException("Unexpected kind of encoded object: " + actualKind + " (expected " + kind + ")");
+        }
+    }
+
+    /**
+     * Writes a math context.
+     * @param mathContext the math context to be written
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeMathContext(MathContext mathContext, DataOutput out) throws IOException {
+        writeVarLong(mathContext.getPrecision(), out);
+        out.writeByte(mathContext.getRoundingMode().ordinal());
+    }
+
+    /**
+     * Reads a math context.
+     * @param in the input
+     * @return the math context
+     * @throws IOException if an I/O error occurs
+     */
+    private static MathContext readMathContext(DataInput in) throws IOException {
+        final int precision = (int) readVarLong(in);
+        final RoundingMode roundingMode = RoundingMode.values()[in.readByte()];
+        final MathContext mathContext = new MathContext(precision, roundingMode);
+        // The default context is kept implicit
+        return Decimal.MATH_CONTEXT.equals(mathContext) ? null : mathContext;
+    }
+
+    /**
+     * @param value a string (may be null)
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeNullableUTF(String value, DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * @param in the input
+     * @return the string (may be null)
+     * @throws IOException if an I/O error occurs
+     */
+    private static String readNullableUTF(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes an unsigned varint (7 bits per byte, least significant group first).
+     * @param value the value (considered as unsigned)
+     * @param out the output
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeVarLong(long value, DataOutput out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     * @param in the input
+     * @return the value
+     * @throws IOException if an I/O error occurs
+     */
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    /**
+     * @param value a signed value
+     * @return the zigzag encoding of the value (small absolute values are encoded as small positive values)
+     */
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * @param value a zigzag-encoded value
+     * @return the signed value
+     */
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,582 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Columnar implementation of a {@link TimeSeries}.
+ * <p>
+ * The ticks are not stored as objects: their end times (epoch milliseconds), time periods (milliseconds),
+ * prices, volumes and amounts ({@code double}s) and numbers of trades are stored in parallel primitive arrays.
+ * It takes about 70 bytes per tick (vs. more than 500 bytes for a {@link BaseTimeSeries base series}),
+ * and scanning a column of values is cache-friendly.
+ * <p>
+ * {@link #getTick(int)} returns a lightweight view over the columns of the series. The values of the ticks
+ * are converted to {@link Decimal decimals} (in the {@link DecimalBackend backend} of the series) only
+ * when they are read, and the {@link Indicator indicators} built over the price helpers (e.g. close price)
+ * directly read the columns of the series.
+ * <p>
+ * Note that:
+ * <ul>
+ * <li>the values of the added ticks are stored as doubles (i.e. with the precision of a double)
+ * <li>the times of the ticks are stored with a millisecond precision, and returned in the zone of the series
+ * <li>missing (null) values are stored as NaN (and returned as null)
+ * </ul>
+ */
+public class ColumnarTimeSeries implements TimeSeries {
+
+    private static final long serialVersionUID = 3614538218398545816L;
+    /** Name for unnamed series */
+    private static final String UNNAMED_SERIES_NAME = "unamed_series";
+    /** Default initial capacity */
+    private static final int DEFAULT_CAPACITY = 64;
+    /** The logger */
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    /** Name of the series */
+    private final String name;
+    /** Backend of the decimals returned by the series */
+    private final DecimalBackend decimalBackend;
+    /** Time zone of the ticks (null until the first tick is added, if not provided) */
+    private ZoneId zone;
+    /** End times of the ticks (epoch milliseconds) */
+    private long[] endTimes;
+    /** Time periods of the ticks (milliseconds) */
+    private long[] timePeriods;
+    /** Open prices of the ticks */
+    private double[] openPrices;
+    /** Max prices of the ticks */
+    private double[] maxPrices;
+    /** Min prices of the ticks */
+    private double[] minPrices;
+    /** Close prices of the ticks */
+    private double[] closePrices;
+    /** Volumes of the ticks */
+    private double[] volumes;
+    /** Amounts of the ticks */
+    private double[] amounts;
+    /** Numbers of trades of the ticks */
+    private int[] trades;
+    /** Position of the first (i.e. not removed) tick in the columns */
+    private int offset = 0;
+    /** Number of ticks stored in the columns */
+    private int size = 0;
+    /** Begin index of the time series */
+    private int seriesBeginIndex = -1;
+    /** End index of the time series */
+    private int seriesEndIndex = -1;
+    /** Maximum number of ticks for the time series */
+    private int maximumTickCount = Integer.MAX_VALUE;
+    /** Number of removed ticks */
+    private int removedTicksCount = 0;
+    /** Number of updates of the last tick */
+    private long lastTickUpdateCount = 0;
+    /** View of the ticks of the series */
+    private transient List<Tick> tickData;
+
+    /**
+     * Constructor of an unnamed series.
+     */
+    public ColumnarTimeSeries() {
+        this(UNNAMED_SERIES_NAME);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     */
+    public ColumnarTimeSeries(String name) {
+        this(name, DecimalBackend.BIG_DECIMAL);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param decimalBackend the backend of the decimals returned by the series
+     */
+    public ColumnarTimeSeries(String name, DecimalBackend decimalBackend) {
+        this(name, decimalBackend, null, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param decimalBackend the backend of the decimals returned by the series
+     * @param zone the time zone of the ticks (null for the zone of the first added tick)
+     * @param initialCapacity the initial capacity of the columns (i.e. the number of ticks which can be stored before growing them)
+     */
+    public ColumnarTimeSeries(String name, DecimalBackend decimalBackend, ZoneId zone, int initialCapacity) {
+        if (decimalBackend == null) {
+            throw new IllegalArgumentException("Decimal backend cannot be null");
+        }
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be strictly positive");
+        }
+        this.name = name;
+        this.decimalBackend = decimalBackend;
+        this.zone = zone;
+        endTimes = new long[initialCapacity];
+        timePeriods = new long[initialCapacity];
+        openPrices = new double[initialCapacity];
+        maxPrices = new double[initialCapacity];
+        minPrices = new double[initialCapacity];
+        closePrices = new double[initialCapacity];
+        volumes = new double[initialCapacity];
+        amounts = new double[initialCapacity];
+        trades = new int[initialCapacity];
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param ticks the list of ticks of the series
+     * @param decimalBackend the backend of the decimals returned by the series
+     */
+    public ColumnarTimeSeries(String name, List<Tick> ticks, DecimalBackend decimalBackend) {
+        this(name, decimalBackend, null, Math.max(1, ticks.size()));
+        for (Tick tick : ticks) {
+            addTick(tick);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public DecimalBackend getDecimalBackend() {
+        return decimalBackend;
+    }
+
+    /**
+     * @return the time zone of the ticks (null if it has not been set yet)
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Tick getTick(int i) {
+        return new ColumnarTick(this, i);
+    }
+
+    @Override
+    public Decimal getOpenPrice(int i) {
+        return toDecimal(openPrices[position(i)]);
+    }
+
+    @Override
+    public Decimal getMinPrice(int i) {
+        return toDecimal(minPrices[position(i)]);
+    }
+
+    @Override
+    public Decimal getMaxPrice(int i) {
+        return toDecimal(maxPrices[position(i)]);
+    }
+
+    @Override
+    public Decimal getClosePrice(int i) {
+        return toDecimal(closePrices[position(i)]);
+    }
+
+    @Override
+    public Decimal getVolume(int i) {
+        return toDecimal(volumes[position(i)]);
+    }
+
+    @Override
+    public Decimal getAmount(int i) {
+        return toDecimal(amounts[position(i)]);
+    }
+
+    @Override
+    public int getTrades(int i) {
+        return trades[position(i)];
+    }
+
+    @Override
+    public long getEndTimeMillis(int i) {
+        return endTimes[position(i)];
+    }
+
+    @Override
+    public int getTickCount() {
+        if (seriesEndIndex < 0) {
+            return 0;
+        }
+        final int startIndex = Math.max(removedTicksCount, seriesBeginIndex);
+        return seriesEndIndex - startIndex + 1;
+    }
+
+    /**
+     * Returns a read-only view of the ticks stored in the series.
+     * @return the raw tick data
+     */
+    @Override
+    public List<Tick> getTickData() {
+        if (tickData == null) {
+            tickData = new TickDataView();
+        }
+        return tickData;
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return seriesBeginIndex;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return seriesEndIndex;
+    }
+
+    @Override
+    public void setMaximumTickCount(int maximumTickCount) {
+        if (maximumTickCount <= 0) {
+            throw new IllegalArgumentException("Maximum tick count must be strictly positive");
+        }
+        this.maximumTickCount = maximumTickCount;
+        removeExceedingTicks();
+    }
+
+    @Override
+    public int getMaximumTickCount() {
+        return maximumTickCount;
+    }
+
+    @Override
+    public int getRemovedTicksCount() {
+        return removedTicksCount;
+    }
+
+    /**
+     * Adds a tick at the end of the series.
+     * <p>
+     * The values of the tick are copied into the columns of the series.
+     * @param tick the tick to be added
+     */
+    @Override
+    public void addTick(Tick tick) {
+        if (tick == null) {
+            throw new IllegalArgumentException("Cannot add null tick");
+        }
+        final long endTime = tick.getEndTimeMillis();
+        if (size > 0 && endTime <= endTimes[offset + size - 1]) {
+            throw new IllegalArgumentException("Cannot add a tick with end time <= to series end time");
+        }
+        if (zone == null) {
+            zone = tick.getEndTime().getZone();
+        }
+        ensureCapacity();
+        setColumns(offset + size, tick);
+        size++;
+        if (seriesBeginIndex == -1) {
+            // Begin index set to 0 only if if wasn't initialized
+            seriesBeginIndex = 0;
+        }
+        seriesEndIndex++;
+        removeExceedingTicks();
+    }
+
+    /**
+     * Replaces the last tick of the series.
+     * <p>
+     * The values of the tick are copied into the columns of the series.
+     * @param tick the new version of the last tick
+     */
+    @Override
+    public void updateLastTick(Tick tick) {
+        if (tick == null) {
+            throw new IllegalArgumentException("Cannot update the last tick with a null tick");
+        }
+        if (size == 0) {
+            throw new IllegalStateException("Cannot update the last tick of an empty time series");
+        }
+        final int position = offset + size - 1;
+        if (tick.getEndTimeMillis() != endTimes[position]) {
+            throw new IllegalArgumentException("Cannot update the last tick with a tick which does not end at the same time");
+        }
+        setColumns(position, tick);
+        lastTickUpdateCount++;
+    }
+
+    @Override
+    public void addTrade(Decimal tradeVolume, Decimal tradePrice) {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot update the last tick of an empty time series");
+        }
+        // The tick flyweight writes the trade into the columns
+        getTick(seriesEndIndex).addTrade(tradeVolume, tradePrice);
+        lastTickUpdateCount++;
+    }
+
+    @Override
+    public long getLastTickUpdateCount() {
+        return lastTickUpdateCount;
+    }
+
+    /**
+     * Copies the values of a tick into the columns.
+     * @param position the position of the tick in the columns
+     * @param tick the tick
+     */
+    private void setColumns(int position, Tick tick) {
+        endTimes[position] = tick.getEndTimeMillis();
+        timePeriods[position] = tick.getTimePeriod().toMillis();
+        openPrices[position] = toDouble(tick.getOpenPrice());
+        maxPrices[position] = toDouble(tick.getMaxPrice());
+        minPrices[position] = toDouble(tick.getMinPrice());
+        closePrices[position] = toDouble(tick.getClosePrice());
+        volumes[position] = toDouble(tick.getVolume());
+        amounts[position] = toDouble(tick.getAmount());
+        trades[position] = tick.getTrades();
+    }
+
+    /**
+     * @param i an index
+     * @return the position of the i-th tick in the columns
+     */
+    private int position(int i) {
+        int innerIndex = i - removedTicksCount;
+        if (innerIndex < 0) {
+            if (i < 0) {
+                // Cannot return the i-th tick if i < 0
+                throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+            }
+            log.trace("Time series `{}` ({} ticks): tick {} already removed, use {}-th instead", name, size, i, removedTicksCount);
+            if (size == 0) {
+                throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(removedTicksCount));
+            }
+            innerIndex = 0;
+        } else if (innerIndex >= size) {
+            // Cannot return the n-th tick if n >= size
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+        }
+        return offset + innerIndex;
+    }
+
+    /**
+     * Makes room for a new tick at the end of the columns.
+     * <p>
+     * The space of the removed ticks is reclaimed if they fill at least half of the columns,
+     * the columns are grown otherwise.
+     */
+    private void ensureCapacity() {
+        if (offset + size < endTimes.length) {
+            return;
+        }
+        if (offset >= size) {
+            // Reclaiming the space of the removed ticks (amortized O(1))
+            System.arraycopy(endTimes, offset, endTimes, 0, size);
+            System.arraycopy(timePeriods, offset, timePeriods, 0, size);
+            System.arraycopy(openPrices, offset, openPrices, 0, size);
+            System.arraycopy(maxPrices, offset, maxPrices, 0, size);
+            System.arraycopy(minPrices, offset, minPrices, 0, size);
+            System.arraycopy(closePrices, offset, closePrices, 0, size);
+            System.arraycopy(volumes, offset, volumes, 0, size);
+            System.arraycopy(amounts, offset, amounts, 0, size);
+            System.arraycopy(trades, offset, trades, 0, size);
+            offset = 0;
+            return;
+        }
+        final int newCapacity = endTimes.length + Math.max(1, endTimes.length >> 1);
+        endTimes = Arrays.copyOf(endTimes, newCapacity);
+        timePeriods = Arrays.copyOf(timePeriods, newCapacity);
+        openPrices = Arrays.copyOf(openPrices, newCapacity);
+        maxPrices = Arrays.copyOf(maxPrices, newCapacity);
+        minPrices = Arrays.copyOf(minPrices, newCapacity);
+        closePrices = Arrays.copyOf(closePrices, newCapacity);
+        volumes = Arrays.copyOf(volumes, newCapacity);
+        amounts = Arrays.copyOf(amounts, newCapacity);
+        trades = Arrays.copyOf(trades, newCapacity);
+    }
+
+    /**
+     * Removes the N first ticks which exceed the maximum tick count.
+     */
+    private void removeExceedingTicks() {
+        if (size > maximumTickCount) {
+            int nbTicksToRemove = size - maximumTickCount;
+            offset += nbTicksToRemove;
+            size -= nbTicksToRemove;
+            // Updating removed ticks count
+            removedTicksCount += nbTicksToRemove;
+        }
+    }
+
+    /**
+     * @param value a column value
+     * @return the corresponding decimal (null for NaN)
+     */
+    private Decimal toDecimal(double value) {
+        return Double.isNaN(value) ? null : decimalBackend.decimalOf(value);
+    }
+
+    /**
+     * @param value a decimal (may be null)
+     * @return the corresponding column value (NaN for null)
+     */
+    private static double toDouble(Decimal value) {
+        return value == null ? Double.NaN : value.toDouble();
+    }
+
+    /**
+     * @param index an out of bounds tick index
+     * @return a message for an OutOfBoundsException
+     */
+    private String buildOutOfBoundsMessage(int index) {
+        return "Size of series: " + size + " ticks, "
+                + removedTicksCount + " ticks removed, index = " + index;
+    }
+
+    /**
+     * Read-only list view of the ticks stored in the series.
+     */
+    private class TickDataView extends AbstractList<Tick> implements RandomAccess {
+
+        @Override
+        public Tick get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(index));
+            }
+            return new ColumnarTick(ColumnarTimeSeries.this, removedTicksCount + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Tick of a {@link ColumnarTimeSeries columnar series}.
+     * <p>
+     * It is a flyweight view over the columns of its series: it does not hold any value.
+     */
+    private static class ColumnarTick implements Tick {
+
+        private static final long serialVersionUID = -2373926151830567497L;
+
+        private final ColumnarTimeSeries series;
+
+        private final int index;
+
+        ColumnarTick(ColumnarTimeSeries series, int index) {
+            this.series = series;
+            this.index = series.removedTicksCount + (series.position(index) - series.offset);
+        }
+
+        @Override
+        public Decimal getOpenPrice() {
+            return series.getOpenPrice(index);
+        }
+
+        @Override
+        public Decimal getMinPrice() {
+            return series.getMinPrice(index);
+        }
+
+        @Override
+        public Decimal getMaxPrice() {
+            return series.getMaxPrice(index);
+        }
+
+        @Override
+        public Decimal getClosePrice() {
+            return series.getClosePrice(index);
+        }
+
+        @Override
+        public Decimal getVolume() {
+            return series.getVolume(index);
+        }
+
+        @Override
+        public int getTrades() {
+            return series.getTrades(index);
+        }
+
+        @Override
+        public Decimal getAmount() {
+            return series.getAmount(index);
+        }
+
+        @Override
+        public Duration getTimePeriod() {
+            return Duration.ofMillis(series.timePeriods[series.position(index)]);
+        }
+
+        @Override
+        public ZonedDateTime getBeginTime() {
+            final int position = series.position(index);
+            return Instant.ofEpochMilli(series.endTimes[position] - series.timePeriods[position]).atZone(series.zone);
+        }
+
+        @Override
+        public ZonedDateTime getEndTime() {
+            return Instant.ofEpochMilli(series.endTimes[series.position(index)]).atZone(series.zone);
+        }
+
+        @Override
+        public long getEndTimeMillis() {
+            return series.endTimes[series.position(index)];
+        }
+
+        @Override
+        public void addTrade(Decimal tradeVolume, Decimal tradePrice) {
+            final int position = series.position(index);
+            final double price = tradePrice.toDouble();
+            final double volume = tradeVolume.toDouble();
+            if (Double.isNaN(series.openPrices[position])) {
+                series.openPrices[position] = price;
+            }
+            series.closePrices[position] = price;
+            if (Double.isNaN(series.maxPrices[position]) || series.maxPrices[position] < price) {
+                series.maxPrices[position] = price;
+            }
+            if (Double.isNaN(series.minPrices[position]) || series.minPrices[position] > price) {
+                series.minPrices[position] = price;
+            }
+            series.volumes[position] = (Double.isNaN(series.volumes[position]) ? 0 : series.volumes[position]) + volume;
+            series.amounts[position] = (Double.isNaN(series.amounts[position]) ? 0 : series.amounts[position]) + volume * price;
+            series.trades[position]++;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{end time: %1s, close price: %2$f, open price: %3$f, min price: %4$f, max price: %5$f, volume: %6$f}",
+                    getEndTime(), toDouble(getClosePrice()), toDouble(getOpenPrice()), toDouble(getMinPrice()), toDouble(getMaxPrice()), toDouble(getVolume()));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Compact implementation of a {@link Tick}.
+ * <p>
+ * Unlike a {@link BaseTick base tick}, it does not hold {@link ZonedDateTime} and {@link Duration} objects:
+ * its end time and time period are stored as milliseconds, with a (shared) time zone.
+ * The {@link ZonedDateTime date-times} are only built when {@link #getBeginTime()} or {@link #getEndTime()} are called,
+ * and time comparisons (e.g. when the tick is added to a {@link TimeSeries time series}) are done on the milliseconds.
+ */
+public class CompactTick extends BaseTick {
+
+    private static final long serialVersionUID = -6253286137532651780L;
+    /** Time period of the tick (milliseconds) */
+    private final long timePeriod;
+    /** End time of the tick (epoch milliseconds) */
+    private final long endTime;
+    /** Time zone of the tick */
+    private final ZoneId zone;
+
+    /**
+     * Constructor of an empty tick (see {@link #addTrade(Decimal, Decimal)}).
+     * @param timePeriod the time period (milliseconds)
+     * @param endTime the end time of the tick period (epoch milliseconds)
+     * @param zone the time zone of the tick
+     */
+    public CompactTick(long timePeriod, long endTime, ZoneId zone) {
+        this(timePeriod, endTime, zone, null, null, null, null, Decimal.ZERO, Decimal.ZERO, 0);
+    }
+
+    /**
+     * Constructor.
+     * @param timePeriod the time period (milliseconds)
+     * @param endTime the end time of the tick period (epoch milliseconds)
+     * @param zone the time zone of the tick
+     * @param openPrice the open price of the tick period
+     * @param highPrice the highest price of the tick period
+     * @param lowPrice the lowest price of the tick period
+     * @param closePrice the close price of the tick period
+     * @param volume the volume of the tick period
+     * @param amount the amount of the tick period
+     * @param trades the number of trades of the tick period
+     */
+    public CompactTick(long timePeriod, long endTime, ZoneId zone, Decimal openPrice, Decimal highPrice, Decimal lowPrice,
+            Decimal closePrice, Decimal volume, Decimal amount, int trades) {
+        super(openPrice, highPrice, lowPrice, closePrice, volume, amount, trades);
+        if (timePeriod < 0) {
+            throw new IllegalArgumentException("Time period cannot be negative");
+        }
+        if (zone == null) {
+            throw new IllegalArgumentException("Zone cannot be null");
+        }
+        this.timePeriod = timePeriod;
+        this.endTime = endTime;
+        this.zone = zone;
+    }
+
+    @Override
+    public Duration getTimePeriod() {
+        return Duration.ofMillis(timePeriod);
+    }
+
+    @Override
+    public ZonedDateTime getBeginTime() {
+        return Instant.ofEpochMilli(endTime - timePeriod).atZone(zone);
+    }
+
+    @Override
+    public ZonedDateTime getEndTime() {
+        return Instant.ofEpochMilli(endTime).atZone(zone);
+    }
+
+    @Override
+    public long getEndTimeMillis() {
+        return endTime;
+    }
+
+    /**
+     * @return the begin time of the tick period (epoch milliseconds)
+     */
+    public long getBeginTimeMillis() {
+        return endTime - timePeriod;
+    }
+
+    /**
+     * @return the time zone of the tick
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public boolean endsAfter(Tick other) {
+        if (other instanceof CompactTick) {
+            return endTime > ((CompactTick) other).endTime;
+        }
+        return super.endsAfter(other);
+    }
+
+    @Override
+    public boolean inPeriod(ZonedDateTime timestamp) {
+        if (timestamp == null) {
+            return false;
+        }
+        // Epoch milliseconds are rounded down: the comparisons are exact
+        final long time = timestamp.toInstant().toEpochMilli();
+        return time >= endTime - timePeriod && time < endTime;
+    }
+}
@@ -0,0 +1,517 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concurrent implementation of a {@link TimeSeries}, for live feeds.
+ * <p>
+ * The series follows a single-writer/multi-reader protocol:
+ * <ul>
+ * <li>one writer (e.g. the feed thread) adds the ticks and sets the maximum tick count
+ * (the writing methods are synchronized, so several writers are serialized)
+ * <li>any number of readers (e.g. strategy and monitoring threads) read the ticks without ever blocking
+ * </ul>
+ * The ticks are stored in an append-only array which is never modified below its published size:
+ * the writer fills the next slot, then publishes a new immutable state (tick count, removed ticks count, last tick, etc.)
+ * through a volatile reference. The last tick is only written into the array once it is final
+ * (i.e. when the next tick is added), so that it can be {@link #updateLastTick(Tick) updated}. Evicted ticks are only dropped when the live ticks are copied to a new array.
+ * Each read therefore works on a consistent state: it never sees a torn or half-evicted series.
+ * <p>
+ * Reads which have to be consistent with each other (e.g. the end index and the last tick)
+ * should be done on a {@link #snapshot() snapshot} of the series.
+ * <p>
+ * The indicators are not meant to be shared between the reading threads: each reading thread should build
+ * its own indicators over a {@link #snapshot() snapshot} of the series. (The {@link eu.verdelhan.ta4j.indicators.CachedIndicator caches}
+ * of the indicators built on the concurrent series itself are synchronized, so that they are not corrupted
+ * if they are used by several threads anyway, but their calculations are then serialized.)
+ */
+public class ConcurrentTimeSeries implements TimeSeries {
+
+    private static final long serialVersionUID = 3418733596210593574L;
+    /** Name for unnamed series */
+    private static final String UNNAMED_SERIES_NAME = "unamed_series";
+    /** Default initial capacity */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Name of the series */
+    private final String name;
+    /** Backend of the decimals of the series */
+    private final DecimalBackend decimalBackend;
+    /** Math context of the decimals of the series (null for the default one) */
+    private final MathContext mathContext;
+    /** Maximum number of ticks for the time series */
+    private volatile int maximumTickCount = Integer.MAX_VALUE;
+    /** Current (published) state of the series */
+    private volatile Snapshot state;
+
+    /**
+     * Constructor of an unnamed series.
+     */
+    public ConcurrentTimeSeries() {
+        this(UNNAMED_SERIES_NAME);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     */
+    public ConcurrentTimeSeries(String name) {
+        this(name, DecimalBackend.BIG_DECIMAL);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param decimalBackend the backend of the decimals of the series
+     */
+    public ConcurrentTimeSeries(String name, DecimalBackend decimalBackend) {
+        this(name, decimalBackend, null);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param decimalBackend the backend of the decimals of the series
+     * @param mathContext the math context of the BigDecimal-backed decimals of the series (null for the default one)
+     */
+    public ConcurrentTimeSeries(String name, DecimalBackend decimalBackend, MathContext mathContext) {
+        if (decimalBackend == null) {
+            throw new IllegalArgumentException("Decimal backend cannot be null");
+        }
+        this.name = name;
+        this.decimalBackend = decimalBackend;
+        this.mathContext = mathContext;
+        this.state = new Snapshot(this, new Tick[INITIAL_CAPACITY], new long[INITIAL_CAPACITY], 0, 0, 0, null, 0);
+    }
+
+    /**
+     * Returns an immutable snapshot of the series.
+     * <p>
+     * The snapshot shares the storage of the series (i.e. no copy): it is a consistent view of the ticks
+     * which were in the series when it was taken, and is not affected by the ticks added (or evicted) afterwards.
+     * @return a snapshot of the current state of the series
+     */
+    @Override
+    public TimeSeries snapshot() {
+        return state;
+    }
+
+    @Override
+    public TimeSeries view(int beginIndex, int endIndex) {
+        return state.view(beginIndex, endIndex);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public DecimalBackend getDecimalBackend() {
+        return decimalBackend;
+    }
+
+    @Override
+    public MathContext getMathContext() {
+        return mathContext == null ? Decimal.MATH_CONTEXT : mathContext;
+    }
+
+    @Override
+    public Tick getTick(int i) {
+        return state.getTick(i);
+    }
+
+    @Override
+    public long getEndTimeMillis(int i) {
+        return state.getEndTimeMillis(i);
+    }
+
+    @Override
+    public int indexOf(Instant time) {
+        return state.indexOf(time);
+    }
+
+    @Override
+    public int floorIndex(Instant time) {
+        return state.floorIndex(time);
+    }
+
+    @Override
+    public int ceilingIndex(Instant time) {
+        return state.ceilingIndex(time);
+    }
+
+    @Override
+    public Tick getFirstTick() {
+        return state.getFirstTick();
+    }
+
+    @Override
+    public Tick getLastTick() {
+        return state.getLastTick();
+    }
+
+    @Override
+    public int getTickCount() {
+        return state.getTickCount();
+    }
+
+    @Override
+    public List<Tick> getTickData() {
+        return state.getTickData();
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return state.getBeginIndex();
+    }
+
+    @Override
+    public int getEndIndex() {
+        return state.getEndIndex();
+    }
+
+    @Override
+    public String getSeriesPeriodDescription() {
+        return state.getSeriesPeriodDescription();
+    }
+
+    @Override
+    public synchronized void setMaximumTickCount(int maximumTickCount) {
+        if (maximumTickCount <= 0) {
+            throw new IllegalArgumentException("Maximum tick count must be strictly positive");
+        }
+        this.maximumTickCount = maximumTickCount;
+        final Snapshot current = state;
+        if (current.size > maximumTickCount) {
+            final int nbTicksToRemove = current.size - maximumTickCount;
+            state = new Snapshot(this, current.ticks, current.endTimes, current.offset + nbTicksToRemove,
+                    maximumTickCount, current.removedTicksCount + nbTicksToRemove, current.lastTick, current.lastTickUpdateCount);
+        }
+    }
+
+    @Override
+    public int getMaximumTickCount() {
+        return maximumTickCount;
+    }
+
+    @Override
+    public int getRemovedTicksCount() {
+        return state.removedTicksCount;
+    }
+
+    /**
+     * Adds a tick at the end of the series, and publishes it to the readers.
+     * <p>
+     * The values of the {@link BaseTick base ticks} are converted to the backend (and math context) of the series.
+     * A tick must not be modified once it has been added.
+     * @param tick the tick to be added
+     */
+    @Override
+    public synchronized void addTick(Tick tick) {
+        if (tick == null) {
+            throw new IllegalArgumentException("Cannot add null tick");
+        }
+        final Snapshot current = state;
+        if (current.size > 0 && !tick.endsAfter(current.lastTick)) {
+            throw new IllegalArgumentException("Cannot add a tick with end time <= to series end time");
+        }
+        convertTick(tick);
+
+        Tick[] ticks = current.ticks;
+        long[] endTimes = current.endTimes;
+        int offset = current.offset;
+        if (offset + current.size == ticks.length) {
+            // No slot left: copying the live ticks to new arrays (the published ones are never modified)
+            final int capacity = Math.max(INITIAL_CAPACITY, current.size * 2);
+            ticks = Arrays.copyOfRange(current.ticks, offset, offset + capacity);
+            endTimes = Arrays.copyOfRange(current.endTimes, offset, offset + capacity);
+            offset = 0;
+        }
+        if (current.size > 0) {
+            // The previous last tick is final: filling its slot (the published states hold it as their last tick)
+            ticks[offset + current.size - 1] = current.lastTick;
+        }
+        // Filling the end time slot after the published ones (the new tick is held as the last tick)
+        endTimes[offset + current.size] = tick.getEndTimeMillis();
+
+        int size = current.size + 1;
+        int removedTicksCount = current.removedTicksCount;
+        if (size > maximumTickCount) {
+            // Removing old ticks
+            final int nbTicksToRemove = size - maximumTickCount;
+            offset += nbTicksToRemove;
+            size -= nbTicksToRemove;
+            removedTicksCount += nbTicksToRemove;
+        }
+        // Publishing the new state
+        state = new Snapshot(this, ticks, endTimes, offset, size, removedTicksCount, tick, current.lastTickUpdateCount);
+    }
+
+    /**
+     * Replaces the last tick of the series, and publishes it to the readers.
+     * <p>
+     * The snapshots taken before the update still see the previous version of the tick.
+     * @param tick the new version of the last tick
+     */
+    @Override
+    public synchronized void updateLastTick(Tick tick) {
+        if (tick == null) {
+            throw new IllegalArgumentException("Cannot update the last tick with a null tick");
+        }
+        final Snapshot current = state;
+        if (current.size == 0) {
+            throw new IllegalStateException("Cannot update the last tick of an empty time series");
+        }
+        if (tick.endsAfter(current.lastTick) || current.lastTick.endsAfter(tick)) {
+            throw new IllegalArgumentException("Cannot update the last tick with a tick which does not end at the same time");
+        }
+        convertTick(tick);
+        state = new Snapshot(this, current.ticks, current.endTimes, current.offset, current.size,
+                current.removedTicksCount, tick, current.lastTickUpdateCount + 1);
+    }
+
+    /**
+     * Adds a trade to the last tick of the series, and publishes it to the readers.
+     * <p>
+     * The published ticks are never modified: the trade is added to a copy of the last tick.
+     * @param tradeVolume the traded volume
+     * @param tradePrice the price
+     */
+    @Override
+    public synchronized void addTrade(Decimal tradeVolume, Decimal tradePrice) {
+        final Tick lastTick = state.lastTick;
+        if (lastTick == null) {
+            throw new IllegalStateException("Cannot update the last tick of an empty time series");
+        }
+        final BaseTick tick = new BaseTick(lastTick.getTimePeriod(), lastTick.getEndTime(), lastTick.getOpenPrice(),
+                lastTick.getMaxPrice(), lastTick.getMinPrice(), lastTick.getClosePrice(), lastTick.getVolume(),
+                lastTick.getAmount(), lastTick.getTrades());
+        tick.addTrade(tradeVolume, tradePrice);
+        updateLastTick(tick);
+    }
+
+    @Override
+    public long getLastTickUpdateCount() {
+        return state.lastTickUpdateCount;
+    }
+
+    /**
+     * Converts the values of a tick to the decimal backend (and math context) of the series.
+     * Only {@link BaseTick base ticks} can be converted.
+     * @param tick the tick to be converted
+     */
+    private void convertTick(Tick tick) {
+        if (tick instanceof BaseTick) {
+            Decimal closePrice = tick.getClosePrice();
+            if (closePrice == null || closePrice.getBackend() != decimalBackend
+                    || (mathContext != null && !mathContext.equals(closePrice.getMathContext()))) {
+                ((BaseTick) tick).convertTo(decimalBackend, mathContext);
+            }
+        }
+    }
+
+    /**
+     * Immutable state of a concurrent time series.
+     * <p>
+     * It is a view of a range of the (append-only) arrays of the series.
+     */
+    private static final class Snapshot implements TimeSeries {
+
+        private static final long serialVersionUID = -5329087137540224893L;
+        /** The logger */
+        private static final Logger log = LoggerFactory.getLogger(Snapshot.class);
+        /** The name of the series */
+        private final String name;
+        /** Backend of the decimals of the series */
+        private final DecimalBackend decimalBackend;
+        /** Math context of the decimals of the series */
+        private final MathContext mathContext;
+        /** Maximum number of ticks of the series (when the snapshot was taken) */
+        private final int maximumTickCount;
+        /** Ticks (only the ones in [offset, offset + size) belong to the snapshot) */
+        private final Tick[] ticks;
+        /** End times of the ticks (epoch milliseconds) */
+        private final long[] endTimes;
+        /** Position of the first tick */
+        private final int offset;
+        /** Number of ticks */
+        private final int size;
+        /** Number of removed ticks */
+        private final int removedTicksCount;
+        /** Last tick (its slot in the array is only filled once it is final) */
+        private final Tick lastTick;
+        /** Number of updates of the last tick */
+        private final long lastTickUpdateCount;
+
+        Snapshot(ConcurrentTimeSeries series, Tick[] ticks, long[] endTimes, int offset, int size, int removedTicksCount,
+                Tick lastTick, long lastTickUpdateCount) {
+            this.name = series.name;
+            this.decimalBackend = series.decimalBackend;
+            this.mathContext = series.getMathContext();
+            this.maximumTickCount = series.maximumTickCount;
+            this.ticks = ticks;
+            this.endTimes = endTimes;
+            this.offset = offset;
+            this.size = size;
+            this.removedTicksCount = removedTicksCount;
+            this.lastTick = lastTick;
+            this.lastTickUpdateCount = lastTickUpdateCount;
+        }
+
+        @Override
+        public TimeSeries snapshot() {
+            return this;
+        }
+
+        @Override
+        public TimeSeries view(int beginIndex, int endIndex) {
+            TimeSeriesSnapshot.checkIndexes(this, beginIndex, endIndex);
+            final int lastPosition = endIndex - removedTicksCount;
+            if (lastPosition < 0) {
+                return new TimeSeriesSnapshot(this, Collections.<Tick>emptyList(), null, beginIndex, endIndex);
+            }
+            final List<Tick> finalTicks = Arrays.asList(ticks).subList(offset, offset + lastPosition);
+            return new TimeSeriesSnapshot(this, finalTicks, getTick(endIndex), beginIndex, endIndex);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public DecimalBackend getDecimalBackend() {
+            return decimalBackend;
+        }
+
+        @Override
+        public MathContext getMathContext() {
+            return mathContext;
+        }
+
+        @Override
+        public Tick getTick(int i) {
+            final int position = position(i);
+            return position == offset + size - 1 ? lastTick : ticks[position];
+        }
+
+        @Override
+        public long getEndTimeMillis(int i) {
+            return endTimes[position(i)];
+        }
+
+        @Override
+        public int getTickCount() {
+            return size;
+        }
+
+        @Override
+        public List<Tick> getTickData() {
+            return new AbstractList<Tick>() {
+
+                @Override
+                public Tick get(int index) {
+                    if (index < 0 || index >= size) {
+                        throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(index));
+                    }
+                    return index == size - 1 ? lastTick : ticks[offset + index];
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        @Override
+        public long getLastTickUpdateCount() {
+            return lastTickUpdateCount;
+        }
+
+        @Override
+        public int getBeginIndex() {
+            return size == 0 && removedTicksCount == 0 ? -1 : 0;
+        }
+
+        @Override
+        public int getEndIndex() {
+            return removedTicksCount + size - 1;
+        }
+
+        @Override
+        public void setMaximumTickCount(int maximumTickCount) {
+            throw new UnsupportedOperationException("Cannot modify a snapshot of a time series");
+        }
+
+        @Override
+        public int getMaximumTickCount() {
+            return maximumTickCount;
+        }
+
+        @Override
+        public int getRemovedTicksCount() {
+            return removedTicksCount;
+        }
+
+        @Override
+        public void addTick(Tick tick) {
+            throw new UnsupportedOperationException("Cannot modify a snapshot of a time series");
+        }
+
+        /**
+         * @param i an index
+         * @return the position of the i-th tick in the arrays
+         */
+        private int position(int i) {
+            int innerIndex = i - removedTicksCount;
+            if (innerIndex < 0) {
+                if (i < 0 || size == 0) {
+                    throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+                }
+                log.trace("Time series `{}` ({} ticks): tick {} already removed, use {}-th instead", name, size, i, removedTicksCount);
+                innerIndex = 0;
+            } else if (innerIndex >= size) {
+                throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+            }
+            return offset + innerIndex;
+        }
+
+        /**
+         * @param index an out of bounds tick index
+         * @return a message for an OutOfBoundsException
+         */
+        private String buildOutOfBoundsMessage(int index) {
+            return "Size of series: " + size + " ticks, " + removedTicksCount + " ticks removed, index = " + index;
+        }
+    }
+}
@@ -26,12 +26,18 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import java.util.Objects;
 
 /**
  * Immutable, arbitrary-precision signed decimal numbers designed for technical analysis.
  * <p>
  * A {@code Decimal} consists of a {@code BigDecimal} with arbitrary {@link MathContext} (precision and rounding mode).
+ * It may also be backed by a primitive {@code double} (see {@link DecimalBackend#DOUBLE}), trading precision for speed.
+ * An operation involving at least one {@code double}-backed operand returns a {@code double}-backed result,
+ * so that a whole indicator graph follows the backend of its time series.
+ * <p>
+ * A BigDecimal-backed {@code Decimal} may also carry its own {@link MathContext} (see {@link PrecisionProfile}).
+ * Operations use the context of the first operand carrying one (else {@link #MATH_CONTEXT}),
+ * and the result carries this context.
  *
  * @see BigDecimal
  * @see MathContext
@@ -46,6 +52,21 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
     /** Not-a-Number instance (infinite error) */
     public static final Decimal NaN = new Decimal();
 
+    /** Lowest value of the small integers cache */
+    private static final int CACHE_LOW = -128;
+
+    /** Highest value of the small integers cache (window sizes, weights, etc.) */
+    private static final int CACHE_HIGH = 1024;
+
+    /** Cache of small integers */
+    private static final Decimal[] CACHE = new Decimal[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new Decimal(i + CACHE_LOW);
+        }
+    }
+
     public static final Decimal ZERO = valueOf(0);
     public static final Decimal ONE = valueOf(1);
     public static final Decimal TWO = valueOf(2);
@@ -54,14 +75,21 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
     public static final Decimal HUNDRED = valueOf(100);
     public static final Decimal THOUSAND = valueOf(1000);
 
+    /** The BigDecimal value (null for NaN and double-backed instances) */
     private final BigDecimal delegate;
 
+    /** The primitive value (only used for double-backed instances) */
+    private final double primitive;
+
+    /** The math context of the operations (null for the default one) */
+    private final MathContext mathContext;
+
     /**
      * Constructor.
      * Only used for NaN instance.
      */
     private Decimal() {
-        delegate = null;
+        this(null, Double.NaN);
     }
 
     /**
@@ -69,7 +97,7 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
      * @param val the string representation of the decimal value
      */
     private Decimal(String val) {
-        delegate = new BigDecimal(val, MATH_CONTEXT);
+        this(new BigDecimal(val, MATH_CONTEXT), 0);
     }
 
     /**
@@ -77,19 +105,44 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
      * @param val the double value
      */
     private Decimal(double val) {
-        delegate = new BigDecimal(val, MATH_CONTEXT);
+        this(new BigDecimal(val, MATH_CONTEXT), 0);
     }
 
     private Decimal(int val) {
-        delegate = new BigDecimal(val, MATH_CONTEXT);
+        this(new BigDecimal(val, MATH_CONTEXT), 0);
     }
 
     private Decimal(long val) {
-        delegate = new BigDecimal(val, MATH_CONTEXT);
+        this(new BigDecimal(val, MATH_CONTEXT), 0);
     }
 
     private Decimal(BigDecimal val) {
-        delegate = val;
+        this(val, 0);
+    }
+
+    private Decimal(BigDecimal val, MathContext mathContext) {
+        this(val, 0, mathContext);
+    }
+
+    /**
+     * Constructor.
+     * @param delegate the BigDecimal value, null for a double-backed instance
+     * @param primitive the primitive value (ignored if delegate is not null)
+     */
+    private Decimal(BigDecimal delegate, double primitive) {
+        this(delegate, primitive, null);
+    }
+
+    /**
+     * Constructor.
+     * @param delegate the BigDecimal value, null for a double-backed instance
+     * @param primitive the primitive value (ignored if delegate is not null)
+     * @param mathContext the math context of the operations, null for the default one
+     */
+    private Decimal(BigDecimal delegate, double primitive, MathContext mathContext) {
+        this.delegate = delegate;
+        this.primitive = primitive;
+        this.mathContext = mathContext;
     }
 
     /**
@@ -103,7 +156,11 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if ((this == NaN) || (augend == NaN)) {
             return NaN;
         }
-        return new Decimal(delegate.add(augend.delegate, MATH_CONTEXT));
+        if (delegate == null || augend.delegate == null) {
+            return primitiveValueOf(primitiveValue() + augend.primitiveValue());
+        }
+        final MathContext resultMathContext = mathContext != null ? mathContext : augend.mathContext;
+        return new Decimal(delegate.add(augend.delegate, orDefault(resultMathContext)), resultMathContext);
     }
 
     /**
@@ -117,7 +174,11 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if ((this == NaN) || (subtrahend == NaN)) {
             return NaN;
         }
-        return new Decimal(delegate.subtract(subtrahend.delegate, MATH_CONTEXT));
+        if (delegate == null || subtrahend.delegate == null) {
+            return primitiveValueOf(primitiveValue() - subtrahend.primitiveValue());
+        }
+        final MathContext resultMathContext = mathContext != null ? mathContext : subtrahend.mathContext;
+        return new Decimal(delegate.subtract(subtrahend.delegate, orDefault(resultMathContext)), resultMathContext);
     }
 
     /**
@@ -131,7 +192,11 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if ((this == NaN) || (multiplicand == NaN)) {
             return NaN;
         }
-        return new Decimal(delegate.multiply(multiplicand.delegate, MATH_CONTEXT));
+        if (delegate == null || multiplicand.delegate == null) {
+            return primitiveValueOf(primitiveValue() * multiplicand.primitiveValue());
+        }
+        final MathContext resultMathContext = mathContext != null ? mathContext : multiplicand.mathContext;
+        return new Decimal(delegate.multiply(multiplicand.delegate, orDefault(resultMathContext)), resultMathContext);
     }
 
     /**
@@ -145,7 +210,11 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if ((this == NaN) || (divisor == NaN) || divisor.isZero()) {
             return NaN;
         }
-        return new Decimal(delegate.divide(divisor.delegate, MATH_CONTEXT));
+        if (delegate == null || divisor.delegate == null) {
+            return primitiveValueOf(primitiveValue() / divisor.primitiveValue());
+        }
+        final MathContext resultMathContext = mathContext != null ? mathContext : divisor.mathContext;
+        return new Decimal(delegate.divide(divisor.delegate, orDefault(resultMathContext)), resultMathContext);
     }
 
     /**
@@ -159,7 +228,11 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if ((this == NaN) || (divisor == NaN) || divisor.isZero()) {
             return NaN;
         }
-        return new Decimal(delegate.remainder(divisor.delegate, MATH_CONTEXT));
+        if (delegate == null || divisor.delegate == null) {
+            return primitiveValueOf(primitiveValue() % divisor.primitiveValue());
+        }
+        final MathContext resultMathContext = mathContext != null ? mathContext : divisor.mathContext;
+        return new Decimal(delegate.remainder(divisor.delegate, orDefault(resultMathContext)), resultMathContext);
     }
 
 
@@ -173,33 +246,110 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return NaN;
         }
-        return new Decimal(delegate.pow(n, MATH_CONTEXT));
+        if (delegate == null) {
+            return primitiveValueOf(Math.pow(primitive, n));
+        }
+        return new Decimal(delegate.pow(n, orDefault(mathContext)), mathContext);
     }
     
     /**
-     * Returns the correctly rounded natural logarithm (base e) of the <code>double</code> value of this {@code Decimal}.
-     * /!\ Warning! Uses the {@code StrictMath#log(double)} method under the hood.
-     * @return the natural logarithm (base e) of {@code this}
-     * @see StrictMath#log(double)
+     * Returns a {@code Decimal} whose value is <tt>(this<sup>exponent</sup>)</tt>.
+     * <p>
+     * When {@code exponent} is an integer, this method is equivalent to {@link #pow(int)}.
+     * Otherwise the value is computed as <tt>exp(exponent * log(this))</tt>, with the precision of this {@code Decimal}.
+     * @param exponent the exponent
+     * @return <tt>this<sup>exponent</sup></tt>, or {@link #NaN} if this {@code Decimal} is negative
+     * and {@code exponent} is not an integer
+     */
+    public Decimal pow(Decimal exponent) {
+        if (this == NaN || exponent == NaN) {
+            return NaN;
+        }
+        if (delegate == null || exponent.delegate == null) {
+            return primitiveValueOf(Math.pow(toDouble(), exponent.toDouble()));
+        }
+        final MathContext resultMathContext = mathContext != null ? mathContext : exponent.mathContext;
+        final BigDecimal e = exponent.delegate;
+        if (e.signum() == 0 || e.stripTrailingZeros().scale() <= 0) {
+            // Integer exponent
+            try {
+                return new Decimal(delegate.pow(e.intValueExact(), orDefault(resultMathContext)), resultMathContext);
+            } catch (ArithmeticException ae) {
+                // Exponent out of the int range, or overflow
+                return primitiveValueOf(Math.pow(toDouble(), e.doubleValue()));
+            }
+        }
+        final int signum = delegate.signum();
+        if (signum < 0) {
+            return NaN;
+        }
+        if (signum == 0) {
+            return e.signum() > 0 ? ZERO : NaN;
+        }
+        return new Decimal(DecimalMath.pow(delegate, e, orDefault(resultMathContext)), resultMathContext);
+    }
+
+    /**
+     * Returns the natural logarithm (base e) of this {@code Decimal}.
+     * <p>
+     * The result is computed with the precision of this {@code Decimal} (see {@link #getMathContext()}).
+     * @return the natural logarithm (base e) of {@code this}, or {@link #NaN} if {@code this} is not strictly positive
      */
     public Decimal log() {
         if (this == NaN) {
             return NaN;
         }
-        return new Decimal(StrictMath.log(delegate.doubleValue()));
+        if (delegate == null) {
+            return primitiveValueOf(StrictMath.log(primitive));
+        }
+        if (delegate.signum() <= 0) {
+            return NaN;
+        }
+        return new Decimal(DecimalMath.log(delegate, orDefault(mathContext)), mathContext);
+    }
+
+    /**
+     * Returns e (the base of natural logarithms) raised to the power of this {@code Decimal}.
+     * <p>
+     * The result is computed with the precision of this {@code Decimal} (see {@link #getMathContext()}).
+     * @return <tt>e<sup>this</sup></tt>
+     */
+    public Decimal exp() {
+        if (this == NaN) {
+            return NaN;
+        }
+        if (delegate == null) {
+            return primitiveValueOf(StrictMath.exp(primitive));
+        }
+        try {
+            return new Decimal(DecimalMath.exp(delegate, orDefault(mathContext)), mathContext);
+        } catch (ArithmeticException ae) {
+            // Exponent overflow
+            return NaN;
+        }
     }
 
     /**
-     * Returns the correctly rounded positive square root of the <code>double</code> value of this {@code Decimal}.
-     * /!\ Warning! Uses the {@code StrictMath#sqrt(double)} method under the hood.
-     * @return the positive square root of {@code this}
-     * @see StrictMath#sqrt(double)
+     * Returns the positive square root of this {@code Decimal}.
+     * <p>
+     * The result is computed with the precision of this {@code Decimal} (see {@link #getMathContext()}).
+     * @return the positive square root of {@code this}, or {@link #NaN} if {@code this} is negative
      */
     public Decimal sqrt() {
         if (this == NaN) {
             return NaN;
         }
-        return new Decimal(StrictMath.sqrt(delegate.doubleValue()));
+        if (delegate == null) {
+            return primitiveValueOf(StrictMath.sqrt(primitive));
+        }
+        final int signum = delegate.signum();
+        if (signum < 0) {
+            return NaN;
+        }
+        if (signum == 0) {
+            return mathContext == null ? ZERO : new Decimal(BigDecimal.ZERO, mathContext);
+        }
+        return new Decimal(DecimalMath.sqrt(delegate, orDefault(mathContext)), mathContext);
     }
 
     /**
@@ -211,7 +361,10 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return NaN;
         }
-        return new Decimal(delegate.abs());
+        if (delegate == null) {
+            return primitive < 0 ? primitiveValueOf(-primitive) : this;
+        }
+        return delegate.signum() < 0 ? new Decimal(delegate.negate(), mathContext) : this;
     }
 
     /**
@@ -222,7 +375,10 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return false;
         }
-        return compareTo(ZERO) == 0;
+        if (delegate == null) {
+            return primitive == 0;
+        }
+        return delegate.signum() == 0;
     }
 
     /**
@@ -233,7 +389,10 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return false;
         }
-        return compareTo(ZERO) > 0;
+        if (delegate == null) {
+            return primitive > 0;
+        }
+        return delegate.signum() > 0;
     }
 
     /**
@@ -244,7 +403,10 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return false;
         }
-        return compareTo(ZERO) >= 0;
+        if (delegate == null) {
+            return primitive >= 0;
+        }
+        return delegate.signum() >= 0;
     }
 
     /**
@@ -263,7 +425,10 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return false;
         }
-        return compareTo(ZERO) < 0;
+        if (delegate == null) {
+            return primitive < 0;
+        }
+        return delegate.signum() < 0;
     }
 
     /**
@@ -274,7 +439,10 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return false;
         }
-        return compareTo(ZERO) <= 0;
+        if (delegate == null) {
+            return primitive <= 0;
+        }
+        return delegate.signum() <= 0;
     }
 
     /**
@@ -342,6 +510,11 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if ((this == NaN) || (other == NaN)) {
             return 0;
         }
+        if (delegate == null || other.delegate == null) {
+            final double value = primitiveValue();
+            final double otherValue = other.primitiveValue();
+            return value < otherValue ? -1 : (value > otherValue ? 1 : 0);
+        }
         return delegate.compareTo(other.delegate);
     }
 
@@ -384,7 +557,34 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return Double.NaN;
         }
-        return delegate.doubleValue();
+        return primitiveValue();
+    }
+
+    /**
+     * Returns a {@code Decimal} rounded to the provided math context, and carrying it for its operations.
+     * Double-backed and NaN instances are returned unchanged.
+     * @param mathContext the math context
+     * @return this value, rounded to the provided math context
+     */
+    public Decimal withMathContext(MathContext mathContext) {
+        if (this == NaN || delegate == null || mathContext == null || mathContext.equals(this.mathContext)) {
+            return this;
+        }
+        return new Decimal(delegate.round(mathContext), mathContext);
+    }
+
+    /**
+     * @return the math context of the operations on this {@code Decimal}
+     */
+    public MathContext getMathContext() {
+        return orDefault(mathContext);
+    }
+
+    /**
+     * @return the backend of this {@code Decimal} ({@link DecimalBackend#BIG_DECIMAL} for NaN)
+     */
+    public DecimalBackend getBackend() {
+        return (delegate == null && this != NaN) ? DecimalBackend.DOUBLE : DecimalBackend.BIG_DECIMAL;
     }
 
     @Override
@@ -392,12 +592,22 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (this == NaN) {
             return "NaN";
         }
+        if (delegate == null) {
+            return Double.toString(primitive);
+        }
         return delegate.toString();
     }
 
+    /**
+     * {@inheritDoc}
+     * The hash code only depends on the value of the decimal (not on its backend, scale or math context),
+     * so that decimals which are {@link #equals(Object) equal} across backends have the same hash code.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(delegate);
+        double value = primitiveValue();
+        // -0.0 and 0.0 are equal decimals
+        return value == 0 ? 0 : Double.hashCode(value);
     }
 
     /**
@@ -413,11 +623,10 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
             return false;
         }
         final Decimal other = (Decimal) obj;
-        if (this.delegate != other.delegate
-                && (this.delegate == null || (this.delegate.compareTo(other.delegate) != 0))) {
-            return false;
+        if ((this == NaN) || (other == NaN)) {
+            return this == other;
         }
-        return true;
+        return compareTo(other) == 0;
     }
 
     public static Decimal valueOf(String val) {
@@ -431,14 +640,148 @@ public final class Decimal implements Comparable<Decimal>, Serializable {
         if (Double.isNaN(val)) {
             return NaN;
         }
+        if (val >= CACHE_LOW && val <= CACHE_HIGH && val == (int) val) {
+            return CACHE[(int) val - CACHE_LOW];
+        }
         return new Decimal(val);
     }
 
+    /**
+     * Returns a {@code Decimal} for an integer.
+     * Small integers (from -128 to 1024) are cached.
+     * @param val the int value
+     * @return a {@code Decimal} for the provided value
+     */
     public static Decimal valueOf(int val) {
+        if (val >= CACHE_LOW && val <= CACHE_HIGH) {
+            return CACHE[val - CACHE_LOW];
+        }
         return new Decimal(val);
     }
 
+    /**
+     * Returns a {@code Decimal} for an integer.
+     * Small integers (from -128 to 1024) are cached.
+     * @param val the long value
+     * @return a {@code Decimal} for the provided value
+     */
     public static Decimal valueOf(long val) {
+        if (val >= CACHE_LOW && val <= CACHE_HIGH) {
+            return CACHE[(int) val - CACHE_LOW];
+        }
         return new Decimal(val);
     }
+
+    /**
+     * @param val the double value
+     * @return a double-backed {@code Decimal}, NaN if the value is not finite
+     * @see DecimalBackend#DOUBLE
+     */
+    static Decimal primitiveValueOf(double val) {
+        if (Double.isNaN(val) || Double.isInfinite(val)) {
+            return NaN;
+        }
+        return new Decimal(null, val);
+    }
+
+    /**
+     * @param val the BigDecimal value (not null)
+     * @param mathContext the math context, null for the default one
+     * @return a BigDecimal-backed {@code Decimal}, rounded according to the context settings
+     */
+    static Decimal bigDecimalValueOf(BigDecimal val, MathContext mathContext) {
+        return new Decimal(val.round(orDefault(mathContext)), mathContext);
+    }
+
+    /**
+     * @param val the BigDecimal value (not null)
+     * @param mathContext the math context, null for the default one
+     * @return a BigDecimal-backed {@code Decimal}, not rounded (e.g. for a decoded value)
+     */
+    static Decimal exactValueOf(BigDecimal val, MathContext mathContext) {
+        return new Decimal(val, mathContext);
+    }
+
+    /**
+     * @return the BigDecimal value of this {@code Decimal}, null for NaN and double-backed instances
+     */
+    BigDecimal bigDecimalValue() {
+        return delegate;
+    }
+
+    /**
+     * @return the math context carried by this {@code Decimal}, null for the default one
+     */
+    MathContext explicitMathContext() {
+        return mathContext;
+    }
+
+    /**
+     * @param mathContext a math context (may be null)
+     * @return the provided math context, or the default one if null
+     */
+    private static MathContext orDefault(MathContext mathContext) {
+        return mathContext == null ? MATH_CONTEXT : mathContext;
+    }
+
+    /**
+     * @return the value of this (non-NaN) {@code Decimal} as a double
+     */
+    double primitiveValue() {
+        return delegate == null ? primitive : delegate.doubleValue();
+    }
+
+    /**
+     * Serializes the {@code Decimal} through its {@link SerializedForm serialized form}.
+     * @return the serialized form of this {@code Decimal}
+     */
+    private Object writeReplace() {
+        return new SerializedForm(delegate, primitive, mathContext);
+    }
+
+    /**
+     * Resolves a {@code Decimal} serialized directly (i.e. without its {@link SerializedForm serialized form}).
+     * <p>
+     * Such a {@code Decimal} has been written by a version without double-backed instances: it only carries
+     * its BigDecimal value, which is null for NaN. Keeps the NaN instance unique (it is compared by identity).
+     * @return the deserialized {@code Decimal}
+     */
+    private Object readResolve() {
+        return delegate == null ? NaN : this;
+    }
+
+    /**
+     * Serialized form of a {@code Decimal}.
+     * <p>
+     * The backend and the math context of the values are kept, and the NaN instance stays unique.
+     */
+    private static final class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = -5328215364309472937L;
+
+        /** The BigDecimal value (null for NaN and double-backed instances) */
+        private final BigDecimal delegate;
+
+        /** The primitive value (NaN for the NaN instance) */
+        private final double primitive;
+
+        /** The math context of the operations (null for the default one) */
+        private final MathContext mathContext;
+
+        SerializedForm(BigDecimal delegate, double primitive, MathContext mathContext) {
+            this.delegate = delegate;
+            this.primitive = primitive;
+            this.mathContext = mathContext;
+        }
+
+        /**
+         * @return the deserialized {@code Decimal}
+         */
+        private Object readResolve() {
+            if (delegate == null) {
+                return primitiveValueOf(primitive);
+            }
+            return new Decimal(delegate, 0, mathContext);
+        }
+    }
 }
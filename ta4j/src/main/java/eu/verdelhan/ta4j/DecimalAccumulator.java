@@ -0,0 +1,223 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Mutable accumulator of {@link Decimal decimals}.
+ * <p>
+ * Designed for sums computed in loops (e.g. over the time frame of an indicator):
+ * the intermediate results are not boxed into {@code Decimal} instances, only the final result is.
+ * <ul>
+ * <li>While all the accumulated values are BigDecimal-backed, the sum is an exact {@code BigDecimal}
+ * (rounded according to the {@link Decimal#getMathContext() math context} of the operands when boxed).
+ * <li>As soon as a double-backed value is accumulated, the sum switches to a primitive {@code double}
+ * and no allocation is made anymore (see {@link DecimalBackend#DOUBLE}).
+ * <li>As soon as a NaN value is accumulated, the sum is NaN until the accumulator is {@link #reset() reset}.
+ * </ul>
+ * Not thread-safe.
+ */
+public final class DecimalAccumulator implements Serializable {
+
+    private static final long serialVersionUID = 6371285612735405874L;
+
+    /** The exact sum (used while all the accumulated values are BigDecimal-backed) */
+    private BigDecimal sum = BigDecimal.ZERO;
+
+    /** The primitive sum (used once a double-backed value has been accumulated) */
+    private double primitiveSum;
+
+    /** True if a double-backed value has been accumulated, false otherwise */
+    private boolean primitive;
+
+    /** True if a NaN value has been accumulated, false otherwise */
+    private boolean nan;
+
+    /** The math context of the first operand carrying one (null for the default one) */
+    private MathContext mathContext;
+
+    /**
+     * Resets the accumulator to zero.
+     * @return this accumulator
+     */
+    public DecimalAccumulator reset() {
+        sum = BigDecimal.ZERO;
+        primitiveSum = 0;
+        primitive = false;
+        nan = false;
+        mathContext = null;
+        return this;
+    }
+
+    /**
+     * Adds a value to the accumulator.
+     * @param augend the value to be added
+     * @return this accumulator
+     */
+    public DecimalAccumulator add(Decimal augend) {
+        if (checkOperand(augend)) {
+            if (primitive) {
+                primitiveSum += augend.primitiveValue();
+            } else {
+                sum = sum.add(augend.bigDecimalValue());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Subtracts a value from the accumulator.
+     * @param subtrahend the value to be subtracted
+     * @return this accumulator
+     */
+    public DecimalAccumulator subtract(Decimal subtrahend) {
+        if (checkOperand(subtrahend)) {
+            if (primitive) {
+                primitiveSum -= subtrahend.primitiveValue();
+            } else {
+                sum = sum.subtract(subtrahend.bigDecimalValue());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the product of two values to the accumulator.
+     * @param multiplier the first factor
+     * @param multiplicand the second factor
+     * @return this accumulator
+     */
+    public DecimalAccumulator multiplyAdd(Decimal multiplier, Decimal multiplicand) {
+        if (checkOperand(multiplier) && checkOperand(multiplicand)) {
+            if (primitive) {
+                primitiveSum += multiplier.primitiveValue() * multiplicand.primitiveValue();
+            } else {
+                sum = sum.add(multiplier.bigDecimalValue().multiply(multiplicand.bigDecimalValue(), getMathContext()));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the product of two differences, {@code (minuend1 - subtrahend1) * (minuend2 - subtrahend2)},
+     * to the accumulator (e.g. a squared deviation).
+     * @param minuend1 the minuend of the first difference
+     * @param subtrahend1 the subtrahend of the first difference
+     * @param minuend2 the minuend of the second difference
+     * @param subtrahend2 the subtrahend of the second difference
+     * @return this accumulator
+     */
+    public DecimalAccumulator multiplyAddDifferences(Decimal minuend1, Decimal subtrahend1, Decimal minuend2, Decimal subtrahend2) {
+        if (checkOperand(minuend1) && checkOperand(subtrahend1)
+                && checkOperand(minuend2) && checkOperand(subtrahend2)) {
+            if (primitive) {
+                primitiveSum += (minuend1.primitiveValue() - subtrahend1.primitiveValue())
+                        * (minuend2.primitiveValue() - subtrahend2.primitiveValue());
+            } else {
+                final MathContext operationMathContext = getMathContext();
+                BigDecimal difference1 = minuend1.bigDecimalValue().subtract(subtrahend1.bigDecimalValue(), operationMathContext);
+                BigDecimal difference2 = minuend2.bigDecimalValue().subtract(subtrahend2.bigDecimalValue(), operationMathContext);
+                sum = sum.add(difference1.multiply(difference2, operationMathContext));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the absolute difference of two values, {@code |minuend - subtrahend|}, to the accumulator.
+     * @param minuend the minuend
+     * @param subtrahend the subtrahend
+     * @return this accumulator
+     */
+    public DecimalAccumulator addAbsoluteDifference(Decimal minuend, Decimal subtrahend) {
+        if (checkOperand(minuend) && checkOperand(subtrahend)) {
+            if (primitive) {
+                primitiveSum += Math.abs(minuend.primitiveValue() - subtrahend.primitiveValue());
+            } else {
+                sum = sum.add(minuend.bigDecimalValue().subtract(subtrahend.bigDecimalValue()).abs());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return true if a NaN value has been accumulated since the last reset, false otherwise
+     */
+    public boolean isNaN() {
+        return nan;
+    }
+
+    /**
+     * @return the current value of the accumulator, boxed into a {@code Decimal}
+     */
+    public Decimal toDecimal() {
+        if (nan) {
+            return Decimal.NaN;
+        }
+        if (primitive) {
+            return Decimal.primitiveValueOf(primitiveSum);
+        }
+        return Decimal.bigDecimalValueOf(sum, mathContext);
+    }
+
+    /**
+     * @return the math context of the operations of the accumulator
+     */
+    private MathContext getMathContext() {
+        return mathContext == null ? Decimal.MATH_CONTEXT : mathContext;
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toString();
+    }
+
+    /**
+     * Checks an operand of an accumulation.
+     * <p>
+     * Switches the accumulator to NaN or to the primitive mode if needed.
+     * @param operand an operand of the accumulation
+     * @return true if the accumulation has to be done, false if the accumulator is NaN
+     */
+    private boolean checkOperand(Decimal operand) {
+        if (nan) {
+            return false;
+        }
+        if (operand.isNaN()) {
+            nan = true;
+            return false;
+        }
+        if (mathContext == null) {
+            mathContext = operand.explicitMathContext();
+        }
+        if (!primitive && operand.getBackend() == DecimalBackend.DOUBLE) {
+            primitive = true;
+            primitiveSum = sum.doubleValue();
+            sum = BigDecimal.ZERO;
+        }
+        return true;
+    }
+}
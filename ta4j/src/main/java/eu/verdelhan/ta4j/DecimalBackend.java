@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+/**
+ * Numeric backend of {@link Decimal decimals}.
+ * <p>
+ * The backend is chosen when a {@link TimeSeries time series} is built.
+ * Since an operation involving a {@link #DOUBLE double-backed} operand returns a double-backed result,
+ * all the {@link Indicator indicators} built over a series use the backend of this series.
+ */
+public enum DecimalBackend {
+
+    /** Arbitrary-precision values backed by {@link java.math.BigDecimal} (default backend) */
+    BIG_DECIMAL {
+        @Override
+        public Decimal decimalOf(double val) {
+            return Decimal.valueOf(val);
+        }
+
+        @Override
+        public Decimal decimalOf(String val) {
+            return Decimal.valueOf(val);
+        }
+
+        @Override
+        public Decimal decimalOf(long val) {
+            return Decimal.valueOf(val);
+        }
+
+        @Override
+        public Decimal convert(Decimal val) {
+            if (val == null || val.getBackend() == this) {
+                return val;
+            }
+            return Decimal.valueOf(val.toDouble());
+        }
+    },
+
+    /** Primitive double values: much faster, but subject to floating-point rounding */
+    DOUBLE {
+        @Override
+        public Decimal decimalOf(double val) {
+            return Decimal.primitiveValueOf(val);
+        }
+
+        @Override
+        public Decimal decimalOf(String val) {
+            return Decimal.primitiveValueOf(Double.parseDouble(val));
+        }
+
+        @Override
+        public Decimal decimalOf(long val) {
+            return Decimal.primitiveValueOf(val);
+        }
+
+        @Override
+        public Decimal convert(Decimal val) {
+            if (val == null || val.isNaN() || val.getBackend() == this) {
+                return val;
+            }
+            return Decimal.primitiveValueOf(val.toDouble());
+        }
+    };
+
+    /**
+     * @param val the double value
+     * @return a decimal backed by this backend
+     */
+    public abstract Decimal decimalOf(double val);
+
+    /**
+     * @param val the string representation of the decimal value
+     * @return a decimal backed by this backend
+     */
+    public abstract Decimal decimalOf(String val);
+
+    /**
+     * @param val the long value
+     * @return a decimal backed by this backend
+     */
+    public abstract Decimal decimalOf(long val);
+
+    /**
+     * @param val a decimal (may be null)
+     * @return the provided decimal converted to this backend (the same instance if no conversion is needed)
+     */
+    public abstract Decimal convert(Decimal val);
+}
@@ -0,0 +1,258 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Transcendental functions on {@code BigDecimal}s, correct to the precision of a {@link MathContext}.
+ * <p>
+ * The functions are seeded with a {@code double} estimate which is then refined (Newton or Halley iterations),
+ * so that only a few iterations are needed. When the requested precision does not exceed the precision
+ * of a {@code double}, the functions are directly computed from their {@code double} value, as long as its error bound
+ * (i.e. the rounding of the arguments and of the {@code Math} function) does not reach the last requested digit.
+ * @see Decimal#sqrt()
+ * @see Decimal#log()
+ * @see Decimal#exp()
+ * @see Decimal#pow(Decimal)
+ */
+final class DecimalMath {
+
+    /** Number of significant digits which are exact in a correctly rounded double */
+    private static final int DOUBLE_PRECISION = 15;
+
+    /** Relative rounding error of a double (i.e. 2^-53) */
+    private static final double DOUBLE_EPSILON = Math.ulp(1d) / 2;
+
+    /** Number of guard digits of the intermediate computations */
+    private static final int GUARD_DIGITS = 4;
+
+    /** Precision of the cached natural logarithm of 10 */
+    private static final int LN10_PRECISION = 64;
+
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    /** Natural logarithm of 10 (lazily computed, with LN10_PRECISION digits) */
+    private static volatile BigDecimal ln10;
+
+    private DecimalMath() {
+    }
+
+    /**
+     * @param x a strictly positive value
+     * @param mc the math context
+     * @return the square root of x, rounded according to the math context
+     */
+    static BigDecimal sqrt(BigDecimal x, MathContext mc) {
+        // Normalization: x = m * 10^(2k), with m in [1, 100)
+        final int k = Math.floorDiv(exponent(x), 2);
+        final BigDecimal m = x.movePointLeft(2 * k);
+        final BigDecimal seed = new BigDecimal(Math.sqrt(m.doubleValue()));
+        if (mc.getPrecision() <= DOUBLE_PRECISION) {
+            // Fast path: the double value is correctly rounded
+            return seed.round(mc).movePointRight(k);
+        }
+        final MathContext workMc = new MathContext(mc.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        BigDecimal y = seed;
+        // Newton iterations: y = (y + m / y) / 2 (each iteration doubles the number of correct digits)
+        for (int digits = DOUBLE_PRECISION; digits < workMc.getPrecision(); digits *= 2) {
+            y = y.add(m.divide(y, workMc), workMc).divide(BigDecimal.valueOf(2), workMc);
+        }
+        return y.round(mc).movePointRight(k);
+    }
+
+    /**
+     * @param x a value
+     * @param mc the math context
+     * @return e raised to the power of x, rounded according to the math context
+     */
+    static BigDecimal exp(BigDecimal x, MathContext mc) {
+        if (x.signum() == 0) {
+            return BigDecimal.ONE;
+        }
+        if (mc.getPrecision() <= DOUBLE_PRECISION) {
+            // Fast path: the rounding error of x is multiplied by |x| (Math.exp is within 1 ulp)
+            final double xValue = x.doubleValue();
+            final double estimate = Math.exp(xValue);
+            if (isAccurate(estimate, Math.abs(xValue) + 2, mc)) {
+                return new BigDecimal(estimate, mc);
+            }
+        }
+        // Range reduction: exp(x) = exp(x / 2^n)^(2^n), with |x / 2^n| < 1/1024
+        final int n = Math.max(0, exponentBase2(x) + 11);
+        // Each squaring may double the relative error: about 0.3 digit lost per squaring
+        final MathContext workMc = new MathContext(mc.getPrecision() + GUARD_DIGITS + (n * 3 + 9) / 10, RoundingMode.HALF_EVEN);
+        final BigDecimal r = x.divide(BigDecimal.valueOf(2).pow(n), workMc);
+        // Taylor series
+        BigDecimal sum = BigDecimal.ONE;
+        BigDecimal term = BigDecimal.ONE;
+        final BigDecimal epsilon = BigDecimal.ONE.movePointLeft(workMc.getPrecision());
+        for (int i = 1; i < 10 * workMc.getPrecision(); i++) {
+            term = term.multiply(r, workMc).divide(BigDecimal.valueOf(i), workMc);
+            sum = sum.add(term, workMc);
+            if (term.abs().compareTo(epsilon) < 0) {
+                break;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            sum = sum.multiply(sum, workMc);
+        }
+        return sum.round(mc);
+    }
+
+    /**
+     * @param x a strictly positive value
+     * @param mc the math context
+     * @return the natural logarithm of x, rounded according to the math context
+     */
+    static BigDecimal log(BigDecimal x, MathContext mc) {
+        if (x.compareTo(BigDecimal.ONE) == 0) {
+            return BigDecimal.ZERO;
+        }
+        final BigDecimal xMinusOne = x.subtract(BigDecimal.ONE);
+        final boolean closeToOne = xMinusOne.abs().compareTo(HALF) < 0;
+        if (mc.getPrecision() <= DOUBLE_PRECISION) {
+            // Fast path: close to 1, ln(1 + d) is computed from the exact difference d (Math.log1p is within 1 ulp),
+            // else the rounding error of x is divided by |ln(x)| > ln(1.5) (Math.log is within 1 ulp)
+            final double xValue = x.doubleValue();
+            final double estimate = closeToOne ? Math.log1p(xMinusOne.doubleValue()) : Math.log(xValue);
+            final double errorBound = closeToOne ? 4 : 1 / Math.abs(estimate) + 2;
+            if (xValue >= Double.MIN_NORMAL && isAccurate(estimate, errorBound, mc)) {
+                return new BigDecimal(estimate, mc);
+            }
+        }
+        // Normalization: x = m * 10^k, with m in [1, 10) (no normalization close to 1, to avoid cancellations)
+        final int k = closeToOne ? 0 : exponent(x);
+        final BigDecimal m = x.movePointLeft(k);
+        // The absolute error must be small relatively to the result
+        final BigDecimal mMinusOne = k == 0 ? xMinusOne : m.subtract(BigDecimal.ONE);
+        int guardDigits = GUARD_DIGITS;
+        if (k == 0 && mMinusOne.signum() != 0) {
+            // Result close to 0: ln(1 + d) ~ d
+            guardDigits += Math.max(0, -exponent(mMinusOne));
+        }
+        if (k != 0) {
+            // Digits of the integer part of the result
+            guardDigits += exponent(BigDecimal.valueOf(Math.abs(k) * 2.31)) + 1;
+        }
+        final MathContext workMc = new MathContext(mc.getPrecision() + guardDigits, RoundingMode.HALF_EVEN);
+        BigDecimal result = logOfNormalized(m, mMinusOne, workMc);
+        if (k != 0) {
+            result = result.add(ln10(workMc).multiply(BigDecimal.valueOf(k), workMc), workMc);
+        }
+        return result.round(mc);
+    }
+
+    /**
+     * @param x a strictly positive value
+     * @param y an exponent
+     * @param mc the math context
+     * @return x raised to the power of y, rounded according to the math context
+     */
+    static BigDecimal pow(BigDecimal x, BigDecimal y, MathContext mc) {
+        // x^y = exp(y * ln(x)): the absolute error of y * ln(x) is the relative error of the result
+        final double yValue = y.doubleValue();
+        final double estimate = yValue * Math.log(x.doubleValue());
+        if (mc.getPrecision() <= DOUBLE_PRECISION) {
+            // Fast path: the rounding errors of x and y are multiplied by |y| and |y * ln(x)| (Math.pow is within 1 ulp)
+            final double power = Math.pow(x.doubleValue(), yValue);
+            if (isAccurate(power, Math.abs(estimate) + Math.abs(yValue) + 2, mc)) {
+                return new BigDecimal(power, mc);
+            }
+        }
+        final int integerDigits = (Double.isInfinite(estimate) || Math.abs(estimate) < 1) ? 0
+                : (int) Math.ceil(Math.log10(Math.abs(estimate)));
+        final MathContext workMc = new MathContext(mc.getPrecision() + GUARD_DIGITS + integerDigits, RoundingMode.HALF_EVEN);
+        return exp(y.multiply(log(x, workMc), workMc), mc);
+    }
+
+    /**
+     * @param estimate a double estimate of a result
+     * @param errorBound a bound of the relative error of the estimate, in units of {@link #DOUBLE_EPSILON}
+     * @param mc the math context
+     * @return true if the estimate is a normal double whose error does not reach the last digit of the math context
+     */
+    private static boolean isAccurate(double estimate, double errorBound, MathContext mc) {
+        final double magnitude = Math.abs(estimate);
+        return mc.getPrecision() > 0 && magnitude >= Double.MIN_NORMAL && magnitude <= Double.MAX_VALUE
+                && errorBound * DOUBLE_EPSILON < Math.pow(10, -mc.getPrecision());
+    }
+
+    /**
+     * @param m a strictly positive value
+     * @param mMinusOne m - 1
+     * @param workMc the math context
+     * @return the natural logarithm of m
+     */
+    private static BigDecimal logOfNormalized(BigDecimal m, BigDecimal mMinusOne, MathContext workMc) {
+        // The seed has the relative precision of a double (ln(1 + d) ~ d when d is below the double range)
+        final double seed = Math.log1p(mMinusOne.doubleValue());
+        BigDecimal y = (seed == 0) ? mMinusOne : new BigDecimal(seed);
+        final BigDecimal two = BigDecimal.valueOf(2);
+        // Halley iterations: y = y + 2 * (m - exp(y)) / (m + exp(y)) (each iteration triples the number of correct digits)
+        for (int digits = DOUBLE_PRECISION; digits < workMc.getPrecision(); digits *= 3) {
+            BigDecimal expY = exp(y, workMc);
+            BigDecimal delta = two.multiply(m.subtract(expY, workMc), workMc).divide(m.add(expY, workMc), workMc);
+            if (delta.signum() == 0) {
+                break;
+            }
+            y = y.add(delta, workMc);
+        }
+        return y;
+    }
+
+    /**
+     * @param mc the math context
+     * @return the natural logarithm of 10, rounded according to the math context
+     */
+    private static BigDecimal ln10(MathContext mc) {
+        if (mc.getPrecision() > LN10_PRECISION) {
+            return logOfNormalized(BigDecimal.TEN, BigDecimal.valueOf(9), mc);
+        }
+        BigDecimal value = ln10;
+        if (value == null) {
+            value = logOfNormalized(BigDecimal.TEN, BigDecimal.valueOf(9), new MathContext(LN10_PRECISION + GUARD_DIGITS, RoundingMode.HALF_EVEN));
+            ln10 = value;
+        }
+        return value.round(mc);
+    }
+
+    /**
+     * @param x a non-zero value
+     * @return the power of ten of the most significant digit of x (e.g. 2 for 123.4, -3 for 0.0012)
+     */
+    private static int exponent(BigDecimal x) {
+        return x.precision() - x.scale() - 1;
+    }
+
+    /**
+     * @param x a non-zero value
+     * @return an upper bound of the power of two of |x|
+     */
+    private static int exponentBase2(BigDecimal x) {
+        // log2(10) < 3.33
+        return (int) Math.ceil((exponent(x) + 1) * 3.33);
+    }
+}
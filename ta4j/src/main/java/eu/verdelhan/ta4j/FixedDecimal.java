@@ -0,0 +1,424 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Immutable, fixed-point signed decimal numbers.
+ * <p>
+ * A {@code FixedDecimal} consists of an unscaled {@code long} value and a scale (i.e. the number of digits
+ * after the decimal point, from 0 to {@value #MAX_SCALE}). Its value is {@code unscaledValue / 10^scale}.
+ * <p>
+ * Additions and subtractions are exact. Multiplications and divisions are rounded (half-up, as
+ * {@link Decimal#MATH_CONTEXT}) to the greatest scale of the two operands.
+ * An {@link ArithmeticException} is thrown if a result does not fit into a {@code long}, or on a division by zero.
+ * It is intended for instruments with fixed tick sizes, for which it gives exact results without any
+ * {@code BigDecimal} allocation.
+ *
+ * @see Decimal
+ */
+public final class FixedDecimal implements Comparable<FixedDecimal>, Serializable {
+
+    private static final long serialVersionUID = -2837564125634925173L;
+
+    /** The maximum scale */
+    public static final int MAX_SCALE = 18;
+
+    /** Powers of ten which fit into a long */
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** The unscaled value */
+    private final long unscaledValue;
+
+    /** The number of digits after the decimal point */
+    private final int scale;
+
+    /**
+     * Constructor.
+     * @param unscaledValue the unscaled value
+     * @param scale the scale
+     */
+    private FixedDecimal(long unscaledValue, int scale) {
+        this.unscaledValue = unscaledValue;
+        this.scale = scale;
+    }
+
+    /**
+     * @return the unscaled value
+     */
+    public long getUnscaledValue() {
+        return unscaledValue;
+    }
+
+    /**
+     * @return the number of digits after the decimal point
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns a {@code FixedDecimal} whose value is {@code (this + augend)}.
+     * @param augend value to be added to this {@code FixedDecimal}
+     * @return {@code this + augend}
+     * @throws ArithmeticException if the result overflows
+     */
+    public FixedDecimal plus(FixedDecimal augend) {
+        final int resultScale = Math.max(scale, augend.scale);
+        return new FixedDecimal(Math.addExact(rescale(resultScale), augend.rescale(resultScale)), resultScale);
+    }
+
+    /**
+     * Returns a {@code FixedDecimal} whose value is {@code (this - subtrahend)}.
+     * @param subtrahend value to be subtracted from this {@code FixedDecimal}
+     * @return {@code this - subtrahend}
+     * @throws ArithmeticException if the result overflows
+     */
+    public FixedDecimal minus(FixedDecimal subtrahend) {
+        final int resultScale = Math.max(scale, subtrahend.scale);
+        return new FixedDecimal(Math.subtractExact(rescale(resultScale), subtrahend.rescale(resultScale)), resultScale);
+    }
+
+    /**
+     * Returns a {@code FixedDecimal} whose value is {@code (this * multiplicand)},
+     * rounded to the greatest scale of the two operands.
+     * @param multiplicand value to be multiplied by this {@code FixedDecimal}
+     * @return {@code this * multiplicand}, rounded as necessary
+     * @throws ArithmeticException if the result overflows
+     */
+    public FixedDecimal multipliedBy(FixedDecimal multiplicand) {
+        final int resultScale = Math.max(scale, multiplicand.scale);
+        // The product has a (scale + multiplicand.scale) scale
+        final long divisor = POWERS_OF_TEN[Math.min(scale, multiplicand.scale)];
+        if (productFits(unscaledValue, multiplicand.unscaledValue)) {
+            return new FixedDecimal(divideHalfUp(unscaledValue * multiplicand.unscaledValue, divisor), resultScale);
+        }
+        BigInteger product = BigInteger.valueOf(unscaledValue).multiply(BigInteger.valueOf(multiplicand.unscaledValue));
+        return new FixedDecimal(divideHalfUp(product, BigInteger.valueOf(divisor)), resultScale);
+    }
+
+    /**
+     * Returns a {@code FixedDecimal} whose value is {@code (this / divisor)},
+     * rounded to the greatest scale of the two operands.
+     * @param divisor value by which this {@code FixedDecimal} is to be divided
+     * @return {@code this / divisor}, rounded as necessary
+     * @throws ArithmeticException if the divisor is zero or if the result overflows
+     */
+    public FixedDecimal dividedBy(FixedDecimal divisor) {
+        if (divisor.unscaledValue == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        final int resultScale = Math.max(scale, divisor.scale);
+        // Unscaled result: unscaledValue * 10^(resultScale + divisor.scale - scale) / divisor.unscaledValue
+        final int exponent = resultScale + divisor.scale - scale;
+        if (exponent <= MAX_SCALE) {
+            final long multiplier = POWERS_OF_TEN[exponent];
+            if (productFits(unscaledValue, multiplier)) {
+                return new FixedDecimal(divideHalfUp(unscaledValue * multiplier, divisor.unscaledValue), resultScale);
+            }
+        }
+        BigInteger dividend = BigInteger.valueOf(unscaledValue).multiply(BigInteger.TEN.pow(exponent));
+        return new FixedDecimal(divideHalfUp(dividend, BigInteger.valueOf(divisor.unscaledValue)), resultScale);
+    }
+
+    /**
+     * Returns a {@code FixedDecimal} whose value is the absolute value of this {@code FixedDecimal}.
+     * @return {@code abs(this)}
+     * @throws ArithmeticException if the result overflows
+     */
+    public FixedDecimal abs() {
+        if (unscaledValue >= 0) {
+            return this;
+        }
+        return new FixedDecimal(Math.negateExact(unscaledValue), scale);
+    }
+
+    /**
+     * Returns the minimum of this {@code FixedDecimal} and {@code other}.
+     * @param other value with which the minimum is to be computed
+     * @return the {@code FixedDecimal} whose value is the lesser of this {@code FixedDecimal} and {@code other}.
+     *         If they are equal, as defined by the {@link #compareTo(FixedDecimal) compareTo} method,
+     *         {@code this} is returned.
+     */
+    public FixedDecimal min(FixedDecimal other) {
+        return (compareTo(other) <= 0 ? this : other);
+    }
+
+    /**
+     * Returns the maximum of this {@code FixedDecimal} and {@code other}.
+     * @param other value with which the maximum is to be computed
+     * @return the {@code FixedDecimal} whose value is the greater of this {@code FixedDecimal} and {@code other}.
+     *         If they are equal, as defined by the {@link #compareTo(FixedDecimal) compareTo} method,
+     *         {@code this} is returned.
+     */
+    public FixedDecimal max(FixedDecimal other) {
+        return (compareTo(other) >= 0 ? this : other);
+    }
+
+    /**
+     * Returns a {@code FixedDecimal} with the provided scale and the value of this one,
+     * rounded as necessary.
+     * @param newScale the new scale
+     * @return this value with the provided scale
+     * @throws ArithmeticException if the result overflows
+     */
+    public FixedDecimal withScale(int newScale) {
+        checkScale(newScale);
+        if (newScale >= scale) {
+            return new FixedDecimal(rescale(newScale), newScale);
+        }
+        return new FixedDecimal(divideHalfUp(unscaledValue, POWERS_OF_TEN[scale - newScale]), newScale);
+    }
+
+    /**
+     * @return true if the value is zero, false otherwise
+     */
+    public boolean isZero() {
+        return unscaledValue == 0;
+    }
+
+    /**
+     * @return true if the value is greater than zero, false otherwise
+     */
+    public boolean isPositive() {
+        return unscaledValue > 0;
+    }
+
+    /**
+     * @return true if the value is less than zero, false otherwise
+     */
+    public boolean isNegative() {
+        return unscaledValue < 0;
+    }
+
+    @Override
+    public int compareTo(FixedDecimal other) {
+        if (scale == other.scale) {
+            return Long.compare(unscaledValue, other.unscaledValue);
+        }
+        final int commonScale = Math.max(scale, other.scale);
+        try {
+            return Long.compare(rescale(commonScale), other.rescale(commonScale));
+        } catch (ArithmeticException ae) {
+            // Too large to be rescaled: comparing exact values
+            return toBigDecimal().compareTo(other.toBigDecimal());
+        }
+    }
+
+    /**
+     * Converts this {@code FixedDecimal} to a {@code double}.
+     * @return this {@code FixedDecimal} converted to a {@code double}
+     */
+    public double toDouble() {
+        return (double) unscaledValue / POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * Converts this {@code FixedDecimal} to a (BigDecimal-backed) {@link Decimal}.
+     * @return this {@code FixedDecimal} converted to a {@code Decimal}
+     */
+    public Decimal toDecimal() {
+        return Decimal.valueOf(toString());
+    }
+
+    /**
+     * @return this {@code FixedDecimal} converted to a {@code BigDecimal}
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaledValue, scale);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    @Override
+    public int hashCode() {
+        // Consistent with equals: trailing zeros are ignored
+        long normalizedValue = unscaledValue;
+        int normalizedScale = scale;
+        while (normalizedScale > 0 && normalizedValue % 10 == 0) {
+            normalizedValue /= 10;
+            normalizedScale--;
+        }
+        return 31 * Long.hashCode(normalizedValue) + normalizedScale;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Two {@code FixedDecimal}s are equal if they have the same value, whatever their scales.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof FixedDecimal)) {
+            return false;
+        }
+        return compareTo((FixedDecimal) obj) == 0;
+    }
+
+    /**
+     * @param unscaledValue the unscaled value
+     * @param scale the scale
+     * @return a {@code FixedDecimal} whose value is {@code unscaledValue / 10^scale}
+     */
+    public static FixedDecimal valueOf(long unscaledValue, int scale) {
+        checkScale(scale);
+        return new FixedDecimal(unscaledValue, scale);
+    }
+
+    /**
+     * @param val the string representation of the value
+     * @param scale the scale
+     * @return a {@code FixedDecimal} with the provided scale, rounded as necessary
+     * @throws ArithmeticException if the value does not fit into the scale
+     */
+    public static FixedDecimal valueOf(String val, int scale) {
+        return valueOf(new BigDecimal(val), scale);
+    }
+
+    /**
+     * @param val the double value
+     * @param scale the scale
+     * @return a {@code FixedDecimal} with the provided scale, rounded as necessary
+     * @throws ArithmeticException if the value does not fit into the scale
+     */
+    public static FixedDecimal valueOf(double val, int scale) {
+        if (Double.isNaN(val) || Double.isInfinite(val)) {
+            throw new ArithmeticException("Cannot convert " + val + " to a fixed-point decimal");
+        }
+        return valueOf(BigDecimal.valueOf(val), scale);
+    }
+
+    /**
+     * @param val the decimal value
+     * @param scale the scale
+     * @return a {@code FixedDecimal} with the provided scale, rounded as necessary
+     * @throws ArithmeticException if the value is NaN or if it does not fit into the scale
+     */
+    public static FixedDecimal valueOf(Decimal val, int scale) {
+        if (val.isNaN()) {
+            throw new ArithmeticException("Cannot convert NaN to a fixed-point decimal");
+        }
+        return valueOf(val.toString(), scale);
+    }
+
+    /**
+     * @param val the BigDecimal value
+     * @param scale the scale
+     * @return a {@code FixedDecimal} with the provided scale, rounded as necessary
+     * @throws ArithmeticException if the value does not fit into the scale
+     */
+    private static FixedDecimal valueOf(BigDecimal val, int scale) {
+        checkScale(scale);
+        return new FixedDecimal(val.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact(), scale);
+    }
+
+    /**
+     * @param newScale a scale greater than or equal to the current one
+     * @return the unscaled value for the new scale
+     * @throws ArithmeticException if the result overflows
+     */
+    private long rescale(int newScale) {
+        if (newScale == scale) {
+            return unscaledValue;
+        }
+        return Math.multiplyExact(unscaledValue, POWERS_OF_TEN[newScale - scale]);
+    }
+
+    /**
+     * @param x a long value
+     * @param y another long value
+     * @return true if {@code x * y} fits into a long, false otherwise
+     */
+    private static boolean productFits(long x, long y) {
+        if (((Math.abs(x) | Math.abs(y)) >>> 31) == 0) {
+            // Both values fit into 31 bits
+            return true;
+        }
+        final long product = x * y;
+        return (y == 0 || product / y == x) && !(x == Long.MIN_VALUE && y == -1);
+    }
+
+    /**
+     * @param dividend the dividend
+     * @param divisor the divisor (not zero)
+     * @return the quotient, rounded half-up
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        if (divisor == 1) {
+            return dividend;
+        }
+        if (dividend == Long.MIN_VALUE && divisor == -1) {
+            throw new ArithmeticException("Fixed-point decimal overflow");
+        }
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder >= Math.abs(divisor) - remainder) {
+            // Rounding away from zero
+            quotient += ((dividend < 0) == (divisor < 0)) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    /**
+     * @param dividend the dividend
+     * @param divisor the divisor (not zero)
+     * @return the quotient, rounded half-up
+     * @throws ArithmeticException if the quotient does not fit into a long
+     */
+    private static long divideHalfUp(BigInteger dividend, BigInteger divisor) {
+        BigInteger[] quotientAndRemainder = dividend.divideAndRemainder(divisor);
+        BigInteger quotient = quotientAndRemainder[0];
+        BigInteger doubledRemainder = quotientAndRemainder[1].abs().shiftLeft(1);
+        if (doubledRemainder.compareTo(divisor.abs()) >= 0) {
+            // Rounding away from zero
+            quotient = quotient.add(BigInteger.valueOf(dividend.signum() * divisor.signum()));
+        }
+        if (quotient.bitLength() > 63) {
+            throw new ArithmeticException("Fixed-point decimal overflow");
+        }
+        return quotient.longValue();
+    }
+
+    /**
+     * @param scale a scale
+     * @throws IllegalArgumentException if the scale is out of the [0, MAX_SCALE] range
+     */
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE);
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * File-backed implementation of a {@link TimeSeries}.
+ * <p>
+ * The ticks are read from a tick file with fixed-width records (see {@link TickFileFormat}, and {@link TickFileWriter}
+ * to write such files), and the file is memory-mapped (see {@link FileChannel#map(FileChannel.MapMode, long, long)}):
+ * opening a series is almost instantaneous whatever its size, the records being lazily paged in by the operating system.
+ * Since the file is mapped in read-only mode, several JVMs can share the same pages.
+ * <p>
+ * A mapped series is read-only: ticks cannot be added, and no maximum tick count can be set.
+ * Its ticks are views over the records of the file.
+ * @see PagedTimeSeries
+ */
+public class MappedTimeSeries implements TimeSeries {
+
+    private static final long serialVersionUID = -7000618370213592826L;
+    /** Size of a tick record (bytes) */
+    private static final int RECORD_SIZE = TickFileFormat.FIXED_RECORD_SIZE;
+    /** Maximum number of records per mapped segment (a mapped buffer cannot exceed 2 GB) */
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_SIZE;
+
+    /** Name of the series */
+    private final String name;
+    /** Path of the file */
+    private final String path;
+    /** Backend of the decimals returned by the series */
+    private final DecimalBackend decimalBackend;
+    /** Time zone of the ticks */
+    private transient ZoneId zone;
+    /** Time period of the ticks (milliseconds) */
+    private transient long timePeriod;
+    /** Scale of the values */
+    private transient int scale;
+    /** Number of ticks */
+    private transient int tickCount;
+    /** Mapped segments of the file */
+    private transient MappedByteBuffer[] segments;
+    /** View of the ticks of the series */
+    private transient List<Tick> tickData;
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param file the file of the series (a tick file with fixed-width records)
+     */
+    public MappedTimeSeries(String name, Path file) {
+        this(name, file, DecimalBackend.BIG_DECIMAL);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param file the file of the series (a tick file with fixed-width records)
+     * @param decimalBackend the backend of the decimals returned by the series
+     */
+    public MappedTimeSeries(String name, Path file, DecimalBackend decimalBackend) {
+        if (decimalBackend == null) {
+            throw new IllegalArgumentException("Decimal backend cannot be null");
+        }
+        this.name = name;
+        this.path = file.toAbsolutePath().toString();
+        this.decimalBackend = decimalBackend;
+        map();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public DecimalBackend getDecimalBackend() {
+        return decimalBackend;
+    }
+
+    /**
+     * @return the path of the file of the series
+     */
+    public Path getPath() {
+        return Paths.get(path);
+    }
+
+    /**
+     * @return the time zone of the ticks
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @return the time period of the ticks
+     */
+    public Duration getTimePeriod() {
+        return Duration.ofMillis(timePeriod);
+    }
+
+    @Override
+    public Tick getTick(int i) {
+        checkIndex(i);
+        return new MappedTick(this, i);
+    }
+
+    @Override
+    public Decimal getOpenPrice(int i) {
+        return readDecimal(i, TickFileFormat.OPEN_PRICE_OFFSET);
+    }
+
+    @Override
+    public Decimal getMinPrice(int i) {
+        return readDecimal(i, TickFileFormat.MIN_PRICE_OFFSET);
+    }
+
+    @Override
+    public Decimal getMaxPrice(int i) {
+        return readDecimal(i, TickFileFormat.MAX_PRICE_OFFSET);
+    }
+
+    @Override
+    public Decimal getClosePrice(int i) {
+        return readDecimal(i, TickFileFormat.CLOSE_PRICE_OFFSET);
+    }
+
+    @Override
+    public Decimal getVolume(int i) {
+        return readDecimal(i, TickFileFormat.VOLUME_OFFSET);
+    }
+
+    @Override
+    public Decimal getAmount(int i) {
+        return readDecimal(i, TickFileFormat.AMOUNT_OFFSET);
+    }
+
+    @Override
+    public int getTrades(int i) {
+        checkIndex(i);
+        return segment(i).getInt(recordPosition(i) + TickFileFormat.TRADES_OFFSET);
+    }
+
+    @Override
+    public long getEndTimeMillis(int i) {
+        checkIndex(i);
+        return segment(i).getLong(recordPosition(i) + TickFileFormat.END_TIME_OFFSET);
+    }
+
+    @Override
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns a read-only view of the ticks of the series.
+     * @return the raw tick data
+     */
+    @Override
+    public List<Tick> getTickData() {
+        if (tickData == null) {
+            tickData = new TickDataView();
+        }
+        return tickData;
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return tickCount == 0 ? -1 : 0;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return tickCount - 1;
+    }
+
+    @Override
+    public void setMaximumTickCount(int maximumTickCount) {
+        throw new UnsupportedOperationException("Cannot set a maximum tick count on a mapped time series");
+    }
+
+    @Override
+    public int getMaximumTickCount() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getRemovedTicksCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the series itself, which is immutable.
+     * @return the series
+     */
+    @Override
+    public TimeSeries snapshot() {
+        return this;
+    }
+
+    @Override
+    public TimeSeries view(int beginIndex, int endIndex) {
+        return TimeSeriesSnapshot.of(this, getTickData(), beginIndex, endIndex);
+    }
+
+    @Override
+    public void addTick(Tick tick) {
+        throw new UnsupportedOperationException("Cannot add a tick to a mapped time series");
+    }
+
+    /**
+     * Maps the file of the series.
+     */
+    private void map() {
+        final TickFileReader header;
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            header = new TickFileReader(in);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Cannot read tick file: " + path, ioe);
+        }
+        if (header.isCompressed()) {
+            throw new IllegalArgumentException("Cannot map a tick file with compressed records: " + path);
+        }
+        zone = header.getZone();
+        timePeriod = header.getTimePeriod().toMillis();
+        scale = header.getScale();
+        final int headerSize = header.getHeaderSize();
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            final long count = (channel.size() - headerSize) / RECORD_SIZE;
+            if (count > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many ticks in tick file: " + path);
+            }
+            tickCount = (int) count;
+
+            final int segmentCount = (tickCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT;
+            segments = new MappedByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                final long firstRecord = (long) s * RECORDS_PER_SEGMENT;
+                final long recordCount = Math.min(RECORDS_PER_SEGMENT, count - firstRecord);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, headerSize + firstRecord * RECORD_SIZE,
+                        recordCount * RECORD_SIZE);
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Cannot map tick file: " + path, ioe);
+        }
+    }
+
+    /**
+     * @param i an index
+     * @param fieldOffset the offset of a field in the records
+     * @return the decimal value of the field for the i-th tick (null for missing values)
+     */
+    private Decimal readDecimal(int i, int fieldOffset) {
+        checkIndex(i);
+        return TickFileFormat.toDecimal(segment(i).getLong(recordPosition(i) + fieldOffset), scale, decimalBackend);
+    }
+
+    /**
+     * @param i an index
+     * @return the segment of the i-th record
+     */
+    private ByteBuffer segment(int i) {
+        return segments[i / RECORDS_PER_SEGMENT];
+    }
+
+    /**
+     * @param i an index
+     * @return the position of the i-th record in its segment
+     */
+    private static int recordPosition(int i) {
+        return (i % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+
+    /**
+     * @param i an index
+     */
+    private void checkIndex(int i) {
+        if (i < 0 || i >= tickCount) {
+            throw new IndexOutOfBoundsException("Size of series: " + tickCount + " ticks, index = " + i);
+        }
+    }
+
+    /**
+     * @param value a decimal (may be null)
+     * @return the double value of the decimal (NaN for null)
+     */
+    private static double toDouble(Decimal value) {
+        return value == null ? Double.NaN : value.toDouble();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        map();
+    }
+
+    /**
+     * Read-only list view of the ticks of the series.
+     */
+    private class TickDataView extends AbstractList<Tick> implements RandomAccess {
+
+        @Override
+        public Tick get(int index) {
+            return getTick(index);
+        }
+
+        @Override
+        public int size() {
+            return tickCount;
+        }
+    }
+
+    /**
+     * Tick of a {@link MappedTimeSeries mapped series}.
+     * <p>
+     * It is a read-only view over a record of the file of its series.
+     */
+    private static class MappedTick implements Tick {
+
+        private static final long serialVersionUID = 5010398733186224342L;
+
+        private final MappedTimeSeries series;
+
+        private final int index;
+
+        MappedTick(MappedTimeSeries series, int index) {
+            this.series = series;
+            this.index = index;
+        }
+
+        @Override
+        public Decimal getOpenPrice() {
+            return series.getOpenPrice(index);
+        }
+
+        @Override
+        public Decimal getMinPrice() {
+            return series.getMinPrice(index);
+        }
+
+        @Override
+        public Decimal getMaxPrice() {
+            return series.getMaxPrice(index);
+        }
+
+        @Override
+        public Decimal getClosePrice() {
+            return series.getClosePrice(index);
+        }
+
+        @Override
+        public Decimal getVolume() {
+            return series.getVolume(index);
+        }
+
+        @Override
+        public int getTrades() {
+            return series.getTrades(index);
+        }
+
+        @Override
+        public Decimal getAmount() {
+            return series.getAmount(index);
+        }
+
+        @Override
+        public Duration getTimePeriod() {
+            return series.getTimePeriod();
+        }
+
+        @Override
+        public ZonedDateTime getBeginTime() {
+            return getEndTime().minus(getTimePeriod());
+        }
+
+        @Override
+        public ZonedDateTime getEndTime() {
+            return Instant.ofEpochMilli(series.getEndTimeMillis(index)).atZone(series.zone);
+        }
+
+        @Override
+        public long getEndTimeMillis() {
+            return series.getEndTimeMillis(index);
+        }
+
+        @Override
+        public void addTrade(Decimal tradeVolume, Decimal tradePrice) {
+            throw new UnsupportedOperationException("Cannot add a trade to a tick of a mapped time series");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{end time: %1s, close price: %2$f, open price: %3$f, min price: %4$f, max price: %5$f, volume: %6$f}",
+                    getEndTime(), toDouble(getClosePrice()), toDouble(getOpenPrice()), toDouble(getMinPrice()), toDouble(getMaxPrice()), toDouble(getVolume()));
+        }
+    }
+}
@@ -0,0 +1,450 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazily paged, file-backed implementation of a {@link TimeSeries}.
+ * <p>
+ * The ticks are read from a tick file with fixed-width records (see {@link TickFileWriter}),
+ * by pages of {@link #getPageSize() page size} consecutive ticks: a page is read from the file (faulted in)
+ * the first time one of its ticks is accessed. At most {@link #getMaximumResidentPages() maximum resident pages}
+ * pages are kept in memory, the least recently used page being evicted when a new one is faulted in.
+ * Opening a series only reads the header of the file, and the memory footprint of a series is bounded
+ * whatever the size of its file.
+ * <p>
+ * When the pages are accessed sequentially (e.g. by {@link TimeSeriesManager#run(Strategy)}),
+ * the next page is prefetched in a background thread so that the scan does not wait on the disk.
+ * <p>
+ * A paged series is read-only: ticks cannot be added, and no maximum tick count can be set.
+ * It is named after the symbol of its file, and should be {@link #close() closed} when no longer used.
+ */
+public class PagedTimeSeries implements TimeSeries, Closeable {
+
+    private static final long serialVersionUID = 3591744213590283626L;
+    /** Default number of ticks per page */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    /** Default maximum number of pages kept in memory */
+    public static final int DEFAULT_MAXIMUM_RESIDENT_PAGES = 8;
+
+    /** Path of the file */
+    private final String path;
+    /** Backend of the decimals returned by the series */
+    private final DecimalBackend decimalBackend;
+    /** Number of ticks per page */
+    private final int pageSize;
+    /** Maximum number of pages kept in memory */
+    private final int maximumResidentPages;
+    /** Reader of the header of the file (template of the page readers) */
+    private transient TickFileReader header;
+    /** Size of the header of the file (bytes) */
+    private transient int headerSize;
+    /** Number of ticks */
+    private transient int tickCount;
+    /**
+     * File of the series.
+     * A random access file is used (rather than a file channel) because its reads cannot be interrupted:
+     * an interrupted read of a file channel closes the channel, and would make the series unusable.
+     */
+    private transient RandomAccessFile file;
+    /** Resident pages, by page number (in access order) */
+    private transient LinkedHashMap<Integer, Tick[]> pages;
+    /** Pages being prefetched, by page number */
+    private transient Map<Integer, Future<Tick[]>> prefetchedPages;
+    /** Executor of the prefetches (lazily created) */
+    private transient ExecutorService prefetcher;
+    /** Number of the last accessed page */
+    private transient int lastAccessedPage;
+    /** Number of pages read from the file */
+    private transient AtomicInteger pageLoadCount;
+    /** View of the ticks of the series */
+    private transient List<Tick> tickData;
+
+    /**
+     * Constructor.
+     * @param file the tick file of the series (with fixed-width records)
+     */
+    public PagedTimeSeries(Path file) {
+        this(file, DecimalBackend.BIG_DECIMAL);
+    }
+
+    /**
+     * Constructor.
+     * @param file the tick file of the series (with fixed-width records)
+     * @param decimalBackend the backend of the decimals returned by the series
+     */
+    public PagedTimeSeries(Path file, DecimalBackend decimalBackend) {
+        this(file, decimalBackend, DEFAULT_PAGE_SIZE, DEFAULT_MAXIMUM_RESIDENT_PAGES);
+    }
+
+    /**
+     * Constructor.
+     * @param file the tick file of the series (with fixed-width records)
+     * @param decimalBackend the backend of the decimals returned by the series
+     * @param pageSize the number of ticks per page
+     * @param maximumResidentPages the maximum number of pages kept in memory
+     */
+    public PagedTimeSeries(Path file, DecimalBackend decimalBackend, int pageSize, int maximumResidentPages) {
+        if (decimalBackend == null) {
+            throw new IllegalArgumentException("Decimal backend cannot be null");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be strictly positive");
+        }
+        if (maximumResidentPages <= 0) {
+            throw new IllegalArgumentException("Maximum resident pages must be strictly positive");
+        }
+        this.path = file.toAbsolutePath().toString();
+        this.decimalBackend = decimalBackend;
+        this.pageSize = pageSize;
+        this.maximumResidentPages = maximumResidentPages;
+        open();
+    }
+
+    @Override
+    public String getName() {
+        return header.getSymbol();
+    }
+
+    @Override
+    public DecimalBackend getDecimalBackend() {
+        return decimalBackend;
+    }
+
+    /**
+     * @return the path of the file of the series
+     */
+    public Path getPath() {
+        return Paths.get(path);
+    }
+
+    /**
+     * @return the number of ticks per page
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return the maximum number of pages kept in memory
+     */
+    public int getMaximumResidentPages() {
+        return maximumResidentPages;
+    }
+
+    /**
+     * @return the number of pages currently kept in memory
+     */
+    public synchronized int getResidentPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * @return the number of pages read from the file (including the prefetched ones)
+     */
+    int getPageLoadCount() {
+        return pageLoadCount.get();
+    }
+
+    @Override
+    public Tick getTick(int i) {
+        checkIndex(i);
+        return page(i / pageSize)[i % pageSize];
+    }
+
+    @Override
+    public long getEndTimeMillis(int i) {
+        checkIndex(i);
+        final Tick[] page;
+        synchronized (this) {
+            page = pages.get(i / pageSize);
+        }
+        if (page != null) {
+            return page[i % pageSize].getEndTimeMillis();
+        }
+        // Binary searches should not fault whole pages in: the end time is read directly
+        byte[] endTime = new byte[8];
+        readFully(endTime, headerSize + (long) i * TickFileFormat.FIXED_RECORD_SIZE);
+        return ByteBuffer.wrap(endTime).getLong();
+    }
+
+    @Override
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns a read-only view of the ticks of the series.
+     * @return the raw tick data
+     */
+    @Override
+    public List<Tick> getTickData() {
+        if (tickData == null) {
+            tickData = new TickDataView();
+        }
+        return tickData;
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return tickCount == 0 ? -1 : 0;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return tickCount - 1;
+    }
+
+    @Override
+    public void setMaximumTickCount(int maximumTickCount) {
+        throw new UnsupportedOperationException("Cannot set a maximum tick count on a paged time series");
+    }
+
+    @Override
+    public int getMaximumTickCount() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getRemovedTicksCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the series itself, which is immutable.
+     * @return the series
+     */
+    @Override
+    public TimeSeries snapshot() {
+        return this;
+    }
+
+    @Override
+    public TimeSeries view(int beginIndex, int endIndex) {
+        return TimeSeriesSnapshot.of(this, getTickData(), beginIndex, endIndex);
+    }
+
+    @Override
+    public void addTick(Tick tick) {
+        throw new UnsupportedOperationException("Cannot add a tick to a paged time series");
+    }
+
+    /**
+     * Closes the file of the series, and stops the prefetches.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (prefetcher != null) {
+            prefetcher.shutdownNow();
+            prefetcher = null;
+        }
+        prefetchedPages.clear();
+        pages.clear();
+        file.close();
+    }
+
+    /**
+     * Opens the file of the series.
+     */
+    private void open() {
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            header = new TickFileReader(in);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Cannot read tick file: " + path, ioe);
+        }
+        if (header.isCompressed()) {
+            throw new IllegalArgumentException("Cannot page a tick file with compressed records: " + path);
+        }
+        headerSize = header.getHeaderSize();
+        try {
+            file = new RandomAccessFile(path, "r");
+            tickCount = (int) ((file.length() - headerSize) / TickFileFormat.FIXED_RECORD_SIZE);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Cannot open tick file: " + path, ioe);
+        }
+        pages = new LinkedHashMap<Integer, Tick[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2379012651932437474L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Tick[]> eldest) {
+                return size() > maximumResidentPages;
+            }
+        };
+        prefetchedPages = new HashMap<>();
+        pageLoadCount = new AtomicInteger();
+        lastAccessedPage = -1;
+    }
+
+    /**
+     * Returns a page, faulting it in if it is not resident.
+     * <p>
+     * Prefetches the next page when the pages are accessed sequentially.
+     * @param pageNumber the number of the page
+     * @return the ticks of the page
+     */
+    private synchronized Tick[] page(int pageNumber) {
+        Tick[] page = pages.get(pageNumber);
+        if (page == null) {
+            final Future<Tick[]> prefetchedPage = prefetchedPages.remove(pageNumber);
+            page = prefetchedPage == null ? loadPage(pageNumber) : awaitPage(pageNumber, prefetchedPage);
+            pages.put(pageNumber, page);
+        }
+        if (pageNumber == lastAccessedPage + 1) {
+            prefetch(pageNumber + 1);
+        }
+        lastAccessedPage = pageNumber;
+        return page;
+    }
+
+    /**
+     * Starts the prefetch of a page (if it exists, and is neither resident nor already being prefetched).
+     * @param pageNumber the number of the page
+     */
+    private void prefetch(int pageNumber) {
+        if (maximumResidentPages < 2 || (long) pageNumber * pageSize >= tickCount
+                || pages.containsKey(pageNumber) || prefetchedPages.containsKey(pageNumber)) {
+            return;
+        }
+        if (prefetcher == null) {
+            prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ta4j-page-prefetcher-" + header.getSymbol());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        prefetchedPages.put(pageNumber, prefetcher.submit(() -> loadPage(pageNumber)));
+    }
+
+    /**
+     * @param pageNumber the number of a page
+     * @param prefetchedPage the prefetch of the page
+     * @return the ticks of the page
+     */
+    private Tick[] awaitPage(int pageNumber, Future<Tick[]> prefetchedPage) {
+        try {
+            return prefetchedPage.get();
+        } catch (InterruptedException ie) {
+            // The interrupt status is kept for the caller (the reads of the file are not interrupted by it)
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof UncheckedIOException) {
+                throw (UncheckedIOException) ee.getCause();
+            }
+        }
+        // Interrupted wait or failed prefetch: the page is read in the calling thread
+        return loadPage(pageNumber);
+    }
+
+    /**
+     * Reads a page from the file.
+     * @param pageNumber the number of the page
+     * @return the ticks of the page
+     */
+    private Tick[] loadPage(int pageNumber) {
+        final int firstIndex = pageNumber * pageSize;
+        final int size = Math.min(pageSize, tickCount - firstIndex);
+        byte[] records = new byte[size * TickFileFormat.FIXED_RECORD_SIZE];
+        readFully(records, headerSize + (long) firstIndex * TickFileFormat.FIXED_RECORD_SIZE);
+        Tick[] page = new Tick[size];
+        try (TickFileReader reader = new TickFileReader(new ByteArrayInputStream(records), header)) {
+            for (int i = 0; i < size; i++) {
+                page[i] = reader.readTick(decimalBackend);
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Cannot read tick file: " + path, ioe);
+        }
+        pageLoadCount.incrementAndGet();
+        return page;
+    }
+
+    /**
+     * Fills a buffer from the file.
+     * <p>
+     * The reads are serialized, since the calling thread and the prefetch thread share the position of the file.
+     * @param buffer the buffer to be filled
+     * @param position the position of the first byte to be read in the file
+     */
+    private void readFully(byte[] buffer, long position) {
+        try {
+            synchronized (file) {
+                file.seek(position);
+                file.readFully(buffer);
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Cannot read tick file: " + path, ioe);
+        }
+    }
+
+    /**
+     * @param i an index
+     */
+    private void checkIndex(int i) {
+        if (i < 0 || i >= tickCount) {
+            throw new IndexOutOfBoundsException("Size of series: " + tickCount + " ticks, index = " + i);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        open();
+    }
+
+    /**
+     * Read-only list view of the ticks of the series.
+     */
+    private class TickDataView extends AbstractList<Tick> implements RandomAccess {
+
+        @Override
+        public Tick get(int index) {
+            return getTick(index);
+        }
+
+        @Override
+        public int size() {
+            return tickCount;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Named precision profiles for BigDecimal-backed {@link Decimal decimals}.
+ * <p>
+ * A profile is chosen when a {@link TimeSeries time series} is built. The prices and volumes of the series
+ * are rounded to the {@link MathContext math context} of the profile, and all the operations of the indicators
+ * built over the series use this context. Lower precisions make the operations (especially divisions) cheaper.
+ */
+public enum PrecisionProfile {
+
+    /** 8 significant digits (e.g. for FX data) */
+    FAST_8("fast-8", new MathContext(8, RoundingMode.HALF_UP)),
+
+    /** 16 significant digits */
+    STANDARD_16("standard-16", new MathContext(16, RoundingMode.HALF_UP)),
+
+    /** 32 significant digits (i.e. {@link Decimal#MATH_CONTEXT}) */
+    EXACT_32("exact-32", Decimal.MATH_CONTEXT);
+
+    /** The name of the profile */
+    private final String profileName;
+
+    /** The math context of the profile */
+    private final MathContext mathContext;
+
+    /**
+     * Constructor.
+     * @param profileName the name of the profile
+     * @param mathContext the math context of the profile
+     */
+    PrecisionProfile(String profileName, MathContext mathContext) {
+        this.profileName = profileName;
+        this.mathContext = mathContext;
+    }
+
+    /**
+     * @return the name of the profile (e.g. "fast-8")
+     */
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * @return the math context of the profile
+     */
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+
+    /**
+     * @param profileName the name of a profile (e.g. "fast-8")
+     * @return the profile with the provided name
+     * @throws IllegalArgumentException if there is no profile with the provided name
+     */
+    public static PrecisionProfile forName(String profileName) {
+        for (PrecisionProfile profile : values()) {
+            if (profile.profileName.equals(profileName)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown precision profile: " + profileName);
+    }
+}
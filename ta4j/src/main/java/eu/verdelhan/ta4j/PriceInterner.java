@@ -0,0 +1,192 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.Serializable;
+
+/**
+ * Interning table for prices quantized to a tick size.
+ * <p>
+ * Prices which are multiples of the tick size share a single {@link Decimal} instance
+ * (e.g. the identical close prices of millions of {@link BaseTick ticks}).
+ * The table is bounded: once the maximum number of prices is reached, new prices are not interned anymore.
+ * Not thread-safe.
+ * @see BaseTimeSeries#setPriceInterner(PriceInterner)
+ */
+public class PriceInterner implements Serializable {
+
+    private static final long serialVersionUID = -6428391170284764325L;
+
+    /** The tick size (i.e. the minimum price movement) */
+    private final Decimal tickSize;
+
+    /** The tick size as a double */
+    private final double primitiveTickSize;
+
+    /** The backend of the interned prices */
+    private final DecimalBackend decimalBackend;
+
+    /** The maximum number of interned prices */
+    private final int maximumSize;
+
+    /** Quantized prices (i.e. prices divided by the tick size) of the hash table */
+    private final long[] keys;
+
+    /** Interned prices of the hash table (null for empty slots) */
+    private final Decimal[] prices;
+
+    /** Number of interned prices */
+    private int size;
+
+    /**
+     * Constructor.
+     * @param tickSize the tick size (i.e. the minimum price movement)
+     * @param decimalBackend the backend of the interned prices
+     * @param maximumSize the maximum number of interned prices
+     */
+    public PriceInterner(Decimal tickSize, DecimalBackend decimalBackend, int maximumSize) {
+        if (tickSize == null || tickSize.isNaN() || !tickSize.isPositive()) {
+            throw new IllegalArgumentException("Tick size must be strictly positive");
+        }
+        if (decimalBackend == null) {
+            throw new IllegalArgumentException("Decimal backend cannot be null");
+        }
+        if (maximumSize <= 0 || maximumSize > (1 << 29)) {
+            throw new IllegalArgumentException("Maximum size must be between 1 and 2^29");
+        }
+        this.tickSize = decimalBackend.convert(tickSize);
+        this.primitiveTickSize = tickSize.toDouble();
+        this.decimalBackend = decimalBackend;
+        this.maximumSize = maximumSize;
+        // Load factor <= 0.5
+        final int capacity = Integer.highestOneBit(maximumSize * 2 - 1) << 1;
+        keys = new long[capacity];
+        prices = new Decimal[capacity];
+    }
+
+    /**
+     * Constructor of a price interner for the BigDecimal backend.
+     * @param tickSize the tick size (i.e. the minimum price movement)
+     * @param maximumSize the maximum number of interned prices
+     */
+    public PriceInterner(Decimal tickSize, int maximumSize) {
+        this(tickSize, DecimalBackend.BIG_DECIMAL, maximumSize);
+    }
+
+    /**
+     * Returns the interned price for a double value, rounded to the nearest multiple of the tick size.
+     * @param price the price
+     * @return the interned price (or a new instance if the table is full)
+     */
+    public Decimal valueOf(double price) {
+        if (Double.isNaN(price) || Double.isInfinite(price)) {
+            return Decimal.NaN;
+        }
+        final long quantizedPrice = Math.round(price / primitiveTickSize);
+        final int slot = findSlot(quantizedPrice);
+        if (prices[slot] != null) {
+            return prices[slot];
+        }
+        final Decimal newPrice = tickSize.multipliedBy(decimalBackend.decimalOf(quantizedPrice));
+        if (size < maximumSize) {
+            insert(slot, quantizedPrice, newPrice);
+        }
+        return newPrice;
+    }
+
+    /**
+     * Interns a price.
+     * <p>
+     * Only the prices which are exact multiples of the tick size (with the backend of this interner) are interned.
+     * @param price the price (may be null)
+     * @return the interned price, or the provided one if it cannot be interned
+     */
+    public Decimal intern(Decimal price) {
+        if (price == null || price.isNaN() || price.getBackend() != decimalBackend) {
+            return price;
+        }
+        final double quantizedPrice = price.toDouble() / primitiveTickSize;
+        if (Math.abs(quantizedPrice) >= Long.MAX_VALUE) {
+            return price;
+        }
+        final long roundedQuantizedPrice = Math.round(quantizedPrice);
+        final int slot = findSlot(roundedQuantizedPrice);
+        final Decimal internedPrice = prices[slot];
+        if (internedPrice != null) {
+            return internedPrice.isEqual(price) ? internedPrice : price;
+        }
+        if (size < maximumSize
+                && tickSize.multipliedBy(decimalBackend.decimalOf(roundedQuantizedPrice)).isEqual(price)) {
+            insert(slot, roundedQuantizedPrice, price);
+        }
+        return price;
+    }
+
+    /**
+     * @return the number of interned prices
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the tick size
+     */
+    public Decimal getTickSize() {
+        return tickSize;
+    }
+
+    /**
+     * @param quantizedPrice a quantized price
+     * @return the slot of the quantized price in the hash table (empty if the price is not interned)
+     */
+    private int findSlot(long quantizedPrice) {
+        final int mask = keys.length - 1;
+        int slot = mix(quantizedPrice) & mask;
+        while (prices[slot] != null && keys[slot] != quantizedPrice) {
+            // Linear probing
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @param slot an empty slot
+     * @param quantizedPrice the quantized price
+     * @param price the price to be interned
+     */
+    private void insert(int slot, long quantizedPrice, Decimal price) {
+        keys[slot] = quantizedPrice;
+        prices[slot] = price;
+        size++;
+    }
+
+    /**
+     * @param key a key
+     * @return a well-distributed hash of the key
+     */
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
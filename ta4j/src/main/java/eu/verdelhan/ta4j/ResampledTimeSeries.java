@@ -0,0 +1,366 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.MathContext;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resampled view of a {@link TimeSeries time series}.
+ * <p>
+ * It is a coarser time series (e.g. 1 hour) derived from a finer source series (e.g. 1 minute):
+ * each of its ticks aggregates the source ticks which begin in its time period. The resampled series
+ * is incrementally updated when ticks are added to the source series: the in-progress (i.e. last) tick
+ * is updated with the new source ticks instead of being re-aggregated. Then only the finest series
+ * has to be loaded, and the indicators may be built over the source series or over the resampled one.
+ * When the last source tick is {@link TimeSeries#updateLastTick(Tick) updated}, the in-progress tick is
+ * re-aggregated from its source ticks.
+ * <p>
+ * The time periods of the resampled ticks are aligned on the local midnight (in the zone of the source ticks)
+ * when they divide a day, and on the epoch otherwise.
+ * <p>
+ * The index of the resampled tick which contains a source tick is given by {@link #getIndex(int)}.
+ * Note that in a backtest, this tick also aggregates the next source ticks of its period:
+ * {@link #getCompletedIndex(int)} gives the last resampled tick which is completed at a source index
+ * (i.e. without look-ahead bias).
+ * <p>
+ * Ticks cannot be directly added to a resampled series.
+ */
+public class ResampledTimeSeries implements TimeSeries {
+
+    private static final long serialVersionUID = -4021318734571087632L;
+    /** Number of milliseconds in a day */
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+    /** Source (finer) series */
+    private final TimeSeries source;
+    /** Time period of the resampled ticks */
+    private final Duration timePeriod;
+    /** Resampled ticks */
+    private final BaseTimeSeries resampled;
+    /** Source index of the first source tick of each remaining (i.e. not removed) resampled tick */
+    private int[] firstSourceIndexes = new int[16];
+    /** Position of the first source index of the first remaining resampled tick */
+    private int firstSourceIndexesOffset = 0;
+    /** Index of the first remaining resampled tick (i.e. of the first source index at the offset) */
+    private int firstSourceIndexesBase = 0;
+    /** Index of the last aggregated source tick */
+    private int lastSourceIndex = -1;
+    /** Update count of the last source tick when it was aggregated */
+    private long sourceUpdateCount;
+    /** Begin time of the in-progress resampled tick (epoch milliseconds) */
+    private long currentBeginTime;
+    /** End time of the in-progress resampled tick (epoch milliseconds) */
+    private long currentEndTime;
+
+    /**
+     * Constructor.
+     * @param source the source (finer) series
+     * @param timePeriod the time period of the resampled ticks
+     */
+    public ResampledTimeSeries(TimeSeries source, Duration timePeriod) {
+        this(source.getName(), source, timePeriod);
+    }
+
+    /**
+     * Constructor.
+     * @param name the name of the series
+     * @param source the source (finer) series
+     * @param timePeriod the time period of the resampled ticks
+     */
+    public ResampledTimeSeries(String name, TimeSeries source, Duration timePeriod) {
+        if (timePeriod.toMillis() <= 0) {
+            throw new IllegalArgumentException("Time period must be at least 1 millisecond");
+        }
+        this.source = source;
+        this.timePeriod = timePeriod;
+        this.resampled = new BaseTimeSeries(name, new ArrayList<Tick>(), source.getDecimalBackend(), source.getMathContext());
+        synchronize();
+    }
+
+    /**
+     * @return the source (finer) series
+     */
+    public TimeSeries getSource() {
+        return source;
+    }
+
+    /**
+     * @return the time period of the resampled ticks
+     */
+    public Duration getTimePeriod() {
+        return timePeriod;
+    }
+
+    /**
+     * @param sourceIndex an index of the source series
+     * @return the index of the resampled tick which contains the source tick (the first remaining resampled tick
+     * if it has been removed, -1 if the source index precedes the resampled ticks)
+     */
+    public int getIndex(int sourceIndex) {
+        synchronize();
+        trimFirstSourceIndexes();
+        final int from = firstSourceIndexesOffset;
+        final int to = from + resampled.getEndIndex() + 1 - firstSourceIndexesBase;
+        // Binary search of the last resampled tick with a first source index <= sourceIndex
+        int position = Arrays.binarySearch(firstSourceIndexes, from, to, sourceIndex);
+        position = position >= 0 ? position : -position - 2;
+        if (position < from) {
+            // The source tick precedes the remaining resampled ticks
+            return firstSourceIndexesBase == 0 ? -1 : firstSourceIndexesBase;
+        }
+        return firstSourceIndexesBase + position - from;
+    }
+
+    /**
+     * @param sourceIndex an index of the source series
+     * @return the index of the last resampled tick which is completed at the source index
+     * (the first remaining resampled tick if it has been removed, -1 if there is none)
+     */
+    public int getCompletedIndex(int sourceIndex) {
+        final int index = getIndex(sourceIndex);
+        if (index < 0) {
+            return -1;
+        }
+        if (sourceIndex < getFirstSourceIndex(index)) {
+            // The resampled ticks completed at the source index have been removed
+            return index;
+        }
+        final int nextFirstSourceIndex = index < resampled.getEndIndex() ? getFirstSourceIndex(index + 1) : Integer.MAX_VALUE;
+        final boolean completed = sourceIndex == nextFirstSourceIndex - 1
+                || !source.getTick(sourceIndex).getEndTime().isBefore(resampled.getTick(index).getEndTime());
+        return completed ? index : index - 1;
+    }
+
+    @Override
+    public String getName() {
+        return resampled.getName();
+    }
+
+    @Override
+    public DecimalBackend getDecimalBackend() {
+        return resampled.getDecimalBackend();
+    }
+
+    @Override
+    public MathContext getMathContext() {
+        return resampled.getMathContext();
+    }
+
+    @Override
+    public Tick getTick(int i) {
+        synchronize();
+        return resampled.getTick(i);
+    }
+
+    @Override
+    public long getEndTimeMillis(int i) {
+        synchronize();
+        return resampled.getEndTimeMillis(i);
+    }
+
+    @Override
+    public int getTickCount() {
+        synchronize();
+        return resampled.getTickCount();
+    }
+
+    @Override
+    public List<Tick> getTickData() {
+        synchronize();
+        return resampled.getTickData();
+    }
+
+    @Override
+    public int getBeginIndex() {
+        synchronize();
+        return resampled.getBeginIndex();
+    }
+
+    @Override
+    public int getEndIndex() {
+        synchronize();
+        return resampled.getEndIndex();
+    }
+
+    @Override
+    public void setMaximumTickCount(int maximumTickCount) {
+        resampled.setMaximumTickCount(maximumTickCount);
+    }
+
+    @Override
+    public int getMaximumTickCount() {
+        return resampled.getMaximumTickCount();
+    }
+
+    @Override
+    public int getRemovedTicksCount() {
+        synchronize();
+        return resampled.getRemovedTicksCount();
+    }
+
+    @Override
+    public TimeSeries view(int beginIndex, int endIndex) {
+        synchronize();
+        return resampled.view(beginIndex, endIndex);
+    }
+
+    @Override
+    public void addTick(Tick tick) {
+        throw new UnsupportedOperationException("Cannot add a tick to a resampled time series");
+    }
+
+    @Override
+    public void addTrade(Decimal tradeVolume, Decimal tradePrice) {
+        throw new UnsupportedOperationException("Cannot add a trade to a resampled time series");
+    }
+
+    @Override
+    public long getLastTickUpdateCount() {
+        synchronize();
+        return resampled.getLastTickUpdateCount();
+    }
+
+    /**
+     * Aggregates the source ticks which have been added since the last synchronization.
+     */
+    private void synchronize() {
+        final long updateCount = source.getLastTickUpdateCount();
+        if (updateCount != sourceUpdateCount) {
+            // The last aggregated source tick may have been updated
+            sourceUpdateCount = updateCount;
+            if (!resampled.isEmpty()) {
+                reaggregateLastTick();
+            }
+        }
+        final int sourceEndIndex = source.getEndIndex();
+        if (sourceEndIndex <= lastSourceIndex) {
+            return;
+        }
+        final int firstIndex = Math.max(lastSourceIndex + 1, Math.max(source.getBeginIndex(), source.getRemovedTicksCount()));
+        for (int i = firstIndex; i <= sourceEndIndex; i++) {
+            final Tick sourceTick = source.getTick(i);
+            final ZonedDateTime sourceBeginTime = sourceTick.getBeginTime();
+            final long sourceBeginMillis = sourceBeginTime.toInstant().toEpochMilli();
+            if (resampled.isEmpty() || sourceBeginMillis >= currentEndTime || sourceBeginMillis < currentBeginTime) {
+                // New resampled tick
+                currentBeginTime = periodStart(sourceBeginTime);
+                currentEndTime = currentBeginTime + timePeriod.toMillis();
+                final ZonedDateTime endTime = Instant.ofEpochMilli(currentEndTime).atZone(sourceBeginTime.getZone());
+                resampled.addTick(createTick(endTime, sourceTick));
+                addFirstSourceIndex(i);
+            } else {
+                // In-progress resampled tick
+                final BaseTick lastTick = (BaseTick) resampled.getLastTick();
+                lastTick.aggregate(sourceTick);
+                resampled.updateLastTick(lastTick);
+            }
+        }
+        lastSourceIndex = sourceEndIndex;
+    }
+
+    /**
+     * Re-aggregates the in-progress (i.e. last) resampled tick from its source ticks.
+     */
+    private void reaggregateLastTick() {
+        final Tick lastTick = resampled.getLastTick();
+        final int firstIndex = Math.max(getFirstSourceIndex(resampled.getEndIndex()), source.getRemovedTicksCount());
+        BaseTick tick = createTick(lastTick.getEndTime(), source.getTick(firstIndex));
+        for (int i = firstIndex + 1; i <= lastSourceIndex; i++) {
+            tick.aggregate(source.getTick(i));
+        }
+        resampled.updateLastTick(tick);
+    }
+
+    /**
+     * @param index the index of a remaining resampled tick
+     * @return the source index of the first source tick of the resampled tick
+     */
+    private int getFirstSourceIndex(int index) {
+        return firstSourceIndexes[firstSourceIndexesOffset + index - firstSourceIndexesBase];
+    }
+
+    /**
+     * Appends the first source index of the last resampled tick (i.e. which has just been added).
+     * @param sourceIndex the source index of the first source tick of the last resampled tick
+     */
+    private void addFirstSourceIndex(int sourceIndex) {
+        trimFirstSourceIndexes();
+        final int count = resampled.getEndIndex() - firstSourceIndexesBase;
+        if (firstSourceIndexesOffset + count == firstSourceIndexes.length) {
+            if (firstSourceIndexesOffset >= count) {
+                // Enough room at the beginning: compacting
+                System.arraycopy(firstSourceIndexes, firstSourceIndexesOffset, firstSourceIndexes, 0, count);
+            } else {
+                firstSourceIndexes = Arrays.copyOfRange(firstSourceIndexes, firstSourceIndexesOffset,
+                        firstSourceIndexesOffset + firstSourceIndexes.length * 2);
+            }
+            firstSourceIndexesOffset = 0;
+        }
+        firstSourceIndexes[firstSourceIndexesOffset + count] = sourceIndex;
+    }
+
+    /**
+     * Drops the first source indexes of the removed resampled ticks.
+     */
+    private void trimFirstSourceIndexes() {
+        final int removedTicksCount = resampled.getRemovedTicksCount();
+        if (removedTicksCount > firstSourceIndexesBase) {
+            firstSourceIndexesOffset += removedTicksCount - firstSourceIndexesBase;
+            firstSourceIndexesBase = removedTicksCount;
+        }
+    }
+
+    /**
+     * @param endTime the end time of the resampled tick
+     * @param sourceTick the first source tick of the resampled tick
+     * @return a new resampled tick
+     */
+    private BaseTick createTick(ZonedDateTime endTime, Tick sourceTick) {
+        return new BaseTick(timePeriod, endTime, sourceTick.getOpenPrice(), sourceTick.getMaxPrice(),
+                sourceTick.getMinPrice(), sourceTick.getClosePrice(), sourceTick.getVolume(), sourceTick.getAmount(),
+                sourceTick.getTrades());
+    }
+
+    /**
+     * @param time a time
+     * @return the begin time of the resampled period which contains the time (epoch milliseconds)
+     */
+    private long periodStart(ZonedDateTime time) {
+        final long periodMillis = timePeriod.toMillis();
+        final long timeMillis = time.toInstant().toEpochMilli();
+        if (DAY_MILLIS % periodMillis == 0) {
+            // Aligned on the local midnight
+            final ZoneId zone = time.getZone();
+            final long midnight = time.toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli();
+            return midnight + Math.floorDiv(timeMillis - midnight, periodMillis) * periodMillis;
+        }
+        // Aligned on the epoch
+        return Math.floorDiv(timeMillis, periodMillis) * periodMillis;
+    }
+}
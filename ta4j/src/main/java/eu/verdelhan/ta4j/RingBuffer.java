@@ -0,0 +1,332 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * List backed by a circular array.
+ * <p>
+ * Elements can be appended to the end of the list, and removed from its beginning, in constant time
+ * (whereas removing the first element of an {@link java.util.ArrayList array list} shifts all the other ones).
+ * It is used to store the ticks of the moving {@link TimeSeries time series} (i.e. with a maximum tick count),
+ * and the results of the {@link Indicator indicators} built over them.
+ * <p>
+ * Immutable {@link #snapshot(int, int) snapshots} of ranges of the buffer can be taken in constant time:
+ * they share the array of the buffer, whose shared slots are never overwritten afterwards
+ * (the buffer moves to a new array instead, i.e. copy-on-write).
+ * @param <E> the type of the elements
+ */
+public class RingBuffer<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 6163458357416813207L;
+
+    /** Circular array of elements */
+    private Object[] elements;
+    /** Position of the first element in the array */
+    private int head = 0;
+    /** Number of elements */
+    private int size = 0;
+    /** Sequence number of the first element (i.e. number of elements removed from the beginning of the buffer) */
+    private transient long firstSequence = 0;
+    /** First sequence number of the elements shared with snapshots since the array was allocated */
+    private transient long sharedFrom = 0;
+    /** Last sequence number (exclusive) of the elements shared with snapshots since the array was allocated */
+    private transient long sharedTo = 0;
+
+    /**
+     * Constructor.
+     * @param capacity the initial capacity of the buffer (it grows when needed)
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be strictly positive");
+        }
+        elements = new Object[capacity];
+    }
+
+    /**
+     * Constructor.
+     * @param elements the initial elements of the buffer
+     * @param capacity the minimum initial capacity of the buffer (it grows when needed)
+     */
+    public RingBuffer(Collection<? extends E> elements, int capacity) {
+        this(Math.max(Math.max(1, capacity), elements.size()));
+        for (E element : elements) {
+            this.elements[size++] = element;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index);
+        return (E) elements[position(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        checkIndex(index);
+        if (isShared(firstSequence + index)) {
+            reallocate(elements.length);
+        }
+        final int position = position(index);
+        E previousElement = (E) elements[position];
+        elements[position] = element;
+        return previousElement;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (size == elements.length) {
+            grow();
+        } else if (isShared(firstSequence + size - elements.length)) {
+            // The slot still holds an element of a snapshot
+            reallocate(Math.max(elements.length, size * 2));
+        }
+        elements[position(size)] = element;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(index));
+        }
+        if (index == size) {
+            add(element);
+            return;
+        }
+        if (size == elements.length) {
+            grow();
+        } else if (sharedFrom < sharedTo) {
+            reallocate(elements.length);
+        }
+        // Shifting the next elements
+        for (int i = size; i > index; i--) {
+            elements[position(i)] = elements[position(i - 1)];
+        }
+        elements[position(index)] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        E removedElement = get(index);
+        if (index == 0) {
+            removeFirst(1);
+            return removedElement;
+        }
+        if (sharedFrom < sharedTo) {
+            reallocate(elements.length);
+        }
+        // Shifting the next elements
+        for (int i = index; i < size - 1; i++) {
+            elements[position(i)] = elements[position(i + 1)];
+        }
+        elements[position(size - 1)] = null;
+        size--;
+        modCount++;
+        return removedElement;
+    }
+
+    /**
+     * Removes the first elements of the buffer.
+     * @param count the number of elements to be removed
+     */
+    public void removeFirst(int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(count));
+        }
+        for (int i = 0; i < count; i++) {
+            if (!isShared(firstSequence + i)) {
+                // Releasing the reference
+                elements[head] = null;
+            }
+            head = (head + 1) % elements.length;
+        }
+        firstSequence += count;
+        size -= count;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        if (sharedFrom < sharedTo) {
+            // Leaving the shared array to the snapshots
+            elements = new Object[elements.length];
+            sharedFrom = sharedTo = 0;
+        } else {
+            Arrays.fill(elements, null);
+        }
+        firstSequence += size;
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an immutable snapshot of a range of the buffer.
+     * <p>
+     * The snapshot shares the array of the buffer (i.e. no copy): it is not affected by the later modifications
+     * of the buffer, which moves to a new array before overwriting a shared slot.
+     * @param fromIndex the first index of the range (inclusive)
+     * @param toIndex the last index of the range (exclusive)
+     * @return a read-only list of the elements of the range
+     */
+    public List<E> snapshot(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Size of buffer: " + size + ", range = [" + fromIndex + ", " + toIndex + ")");
+        }
+        if (fromIndex < toIndex) {
+            final long from = firstSequence + fromIndex;
+            final long to = firstSequence + toIndex;
+            if (sharedFrom < sharedTo) {
+                sharedFrom = Math.min(sharedFrom, from);
+                sharedTo = Math.max(sharedTo, to);
+            } else {
+                sharedFrom = from;
+                sharedTo = to;
+            }
+        }
+        return new Snapshot<>(elements, position(fromIndex), toIndex - fromIndex);
+    }
+
+    /**
+     * @return the capacity of the buffer (i.e. the number of elements it can hold without growing)
+     */
+    public int getCapacity() {
+        return elements.length;
+    }
+
+    /**
+     * Doubles the capacity of the buffer.
+     */
+    private void grow() {
+        reallocate(Math.max(1, elements.length * 2));
+    }
+
+    /**
+     * Moves the elements to a new array (the previous one is left untouched for the snapshots).
+     * @param capacity the capacity of the new array
+     */
+    private void reallocate(int capacity) {
+        Object[] newElements = new Object[capacity];
+        for (int i = 0; i < size; i++) {
+            newElements[i] = elements[position(i)];
+        }
+        elements = newElements;
+        head = 0;
+        sharedFrom = sharedTo = 0;
+    }
+
+    /**
+     * @param sequence the sequence number of an element
+     * @return true if the slot of the element is shared with a snapshot, false otherwise
+     */
+    private boolean isShared(long sequence) {
+        return sequence >= sharedFrom && sequence < sharedTo;
+    }
+
+    /**
+     * @param index an index in the list
+     * @return the position of the index-th element in the circular array
+     */
+    private int position(int index) {
+        final int position = head + index;
+        return position < elements.length ? position : position - elements.length;
+    }
+
+    /**
+     * @param index an index in the list
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(index));
+        }
+    }
+
+    /**
+     * @param index an out of bounds index
+     * @return a message for an OutOfBoundsException
+     */
+    private String buildOutOfBoundsMessage(int index) {
+        return "Size of buffer: " + size + ", index = " + index;
+    }
+
+    /**
+     * Immutable view of a range of the array of a ring buffer.
+     * @param <E> the type of the elements
+     */
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+        private static final long serialVersionUID = -3514236281950861127L;
+
+        private final Object[] elements;
+
+        private final int head;
+
+        private final int size;
+
+        Snapshot(Object[] elements, int head, int size) {
+            this.elements = elements;
+            this.head = head;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Size of snapshot: " + size + ", index = " + index);
+            }
+            final int position = head + index;
+            return (E) elements[position < elements.length ? position : position - elements.length];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private Object writeReplace() {
+            // Only the elements of the range are serialized
+            return new ArrayList<>(this);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.Serializable;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * Base of the running aggregates (e.g. sums) of the {@link Decimal decimals} of a sliding window.
+ * <p>
+ * An aggregate is maintained in constant time per slide as long as the values of the window have
+ * the same backend and math context (see {@link #isSlidable()}):
+ * <ul>
+ * <li>with BigDecimal-backed values, the aggregate is exact
+ * <li>with double-backed values, the aggregate is primitive: to bound its rounding errors, the window has to be
+ * re-summed once all its values have been replaced
+ * </ul>
+ * When the aggregate cannot be maintained, its slides return false: the aggregate then has to be reset,
+ * and the values of the window added again.
+ * <p>
+ * Not thread-safe.
+ */
+abstract class RunningAggregate implements Serializable {
+
+    private static final long serialVersionUID = 2947705296474434531L;
+
+    /** Backend of the values (null while no value has been added) */
+    DecimalBackend backend;
+
+    /** The math context of the values (null for the default one) */
+    MathContext mathContext;
+
+    /** Number of slides since the last reset */
+    int slideCount;
+
+    /** False if the values of the window mix backends or math contexts, true otherwise */
+    private boolean uniform = true;
+
+    /**
+     * @return true if the aggregate can be maintained by slides (i.e. the values of the window have the same backend
+     * and math context), false otherwise
+     */
+    public boolean isSlidable() {
+        return uniform;
+    }
+
+    /**
+     * Resets the backend, the math context and the slide count of the values.
+     */
+    void resetOperands() {
+        backend = null;
+        mathContext = null;
+        slideCount = 0;
+        uniform = true;
+    }
+
+    /**
+     * @param count the number of values of the window
+     * @return true if the aggregate can be slid, false if it has to be recomputed from scratch
+     */
+    boolean canSlide(int count) {
+        if (!uniform) {
+            return false;
+        }
+        // All the values of the window have been replaced: re-summing to bound the rounding errors
+        return backend != DecimalBackend.DOUBLE || slideCount < count;
+    }
+
+    /**
+     * Checks that an operand has the backend and the math context of the other values of the window.
+     * @param operand a (non-NaN) operand
+     * @return true if the operation has to be done, false if the aggregate cannot be maintained anymore
+     */
+    boolean checkOperand(Decimal operand) {
+        if (backend == null) {
+            backend = operand.getBackend();
+            mathContext = operand.explicitMathContext();
+        } else if (backend != operand.getBackend() || !Objects.equals(mathContext, operand.explicitMathContext())) {
+            uniform = false;
+        }
+        return uniform;
+    }
+}
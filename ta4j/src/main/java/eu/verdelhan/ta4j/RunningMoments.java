@@ -0,0 +1,481 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Running moments (variances, covariance and correlation) of the pairs of {@link Decimal decimals} of a sliding window.
+ * <p>
+ * The pairs entering the window are {@link #add(Decimal, Decimal) added}, and the window is then
+ * {@link #slide(Decimal, Decimal, Decimal, Decimal) slid} in constant time. The sums of the values, of their squares
+ * and of their products are maintained over the values shifted by the first ones of the window (i.e. the sums of
+ * {@code x - x0}, {@code (x - x0)²}, etc.), so that the moments do not suffer from the cancellation of large sums
+ * (see {@link RunningAggregate} for the backends). With BigDecimal-backed values, only the moments are rounded
+ * (according to the math context of the values). The moments are NaN while a NaN value is in the window.
+ * <p>
+ * When a slide returns false, the moments have to be {@link #reset() reset}, and the values of the window added again.
+ * <p>
+ * The first values may also be abscissas (e.g. the indexes of the time series, see {@link #add(long, Decimal)}),
+ * so that the moments give the least squares regression line of the second values.
+ * Single values may also be added (see {@link #add(Decimal)}): only the moments of the first values
+ * (i.e. {@link #getMeanX()} and {@link #getVarianceX()}) are then maintained.
+ * <p>
+ * The moments are the population ones (i.e. divided by the number of pairs of the window).
+ * <p>
+ * Not thread-safe.
+ */
+public final class RunningMoments extends RunningAggregate {
+
+    private static final long serialVersionUID = 5394021178386307420L;
+
+    /** True once the shifts of the values (i.e. the first non-NaN values of the window) have been set */
+    private boolean shifted;
+
+    /** Shifts of the values */
+    private BigDecimal shiftX, shiftY;
+
+    /** The exact sums (for BigDecimal-backed values) */
+    private BigDecimal sumX, sumY, sumXX, sumYY, sumXY;
+
+    /** Shifts of the primitive values */
+    private double primitiveShiftX, primitiveShiftY;
+
+    /** The primitive sums (for double-backed values) */
+    private double primitiveSumX, primitiveSumY, primitiveSumXX, primitiveSumYY, primitiveSumXY;
+
+    /** Number of pairs in the window */
+    private int count;
+
+    /** Number of pairs with a NaN value in the window */
+    private int nanCount;
+
+    /**
+     * Constructor of empty running moments.
+     */
+    public RunningMoments() {
+        reset();
+    }
+
+    /**
+     * Resets the moments (i.e. empty window).
+     * @return these running moments
+     */
+    public RunningMoments reset() {
+        shifted = false;
+        shiftX = shiftY = BigDecimal.ZERO;
+        sumX = sumY = sumXX = sumYY = sumXY = BigDecimal.ZERO;
+        primitiveShiftX = primitiveShiftY = 0;
+        primitiveSumX = primitiveSumY = primitiveSumXX = primitiveSumYY = primitiveSumXY = 0;
+        count = 0;
+        nanCount = 0;
+        resetOperands();
+        return this;
+    }
+
+    /**
+     * Adds a single value entering the window.
+     * @param x the value
+     * @return these running moments
+     */
+    public RunningMoments add(Decimal x) {
+        accumulate(x, 1);
+        return this;
+    }
+
+    /**
+     * Adds a pair of values entering the window.
+     * @param x the first value
+     * @param y the second value
+     * @return these running moments
+     */
+    public RunningMoments add(Decimal x, Decimal y) {
+        accumulate(x, y, 1);
+        return this;
+    }
+
+    /**
+     * Adds a pair entering the window.
+     * @param x the abscissa
+     * @param y the value
+     * @return these running moments
+     */
+    public RunningMoments add(long x, Decimal y) {
+        accumulate(x, y, 1);
+        return this;
+    }
+
+    /**
+     * Slides the window: adds the incoming single value and subtracts the outgoing one.
+     * <p>
+     * It may also replace a value of the window (e.g. the last one, when it has been updated).
+     * @param incoming the value entering the window
+     * @param outgoing the value leaving the window (null if the window grows)
+     * @return true if the moments have been updated, false if they have to be recomputed from scratch
+     * (i.e. reset, then all the values of the window added)
+     */
+    public boolean slide(Decimal incoming, Decimal outgoing) {
+        if (!canSlide(count)) {
+            return false;
+        }
+        if (outgoing != null) {
+            slideCount++;
+            accumulate(outgoing, -1);
+        }
+        accumulate(incoming, 1);
+        return isSlidable();
+    }
+
+    /**
+     * Slides the window: adds the incoming pair and subtracts the outgoing one.
+     * <p>
+     * It may also replace a pair of the window (e.g. the last one, when it has been updated).
+     * @param incomingX the first value entering the window
+     * @param incomingY the second value entering the window
+     * @param outgoingX the first value leaving the window (null if the window grows)
+     * @param outgoingY the second value leaving the window (null if the window grows)
+     * @return true if the moments have been updated, false if they have to be recomputed from scratch
+     * (i.e. reset, then all the pairs of the window added)
+     */
+    public boolean slide(Decimal incomingX, Decimal incomingY, Decimal outgoingX, Decimal outgoingY) {
+        if (!canSlide(count)) {
+            return false;
+        }
+        if (outgoingX != null) {
+            slideCount++;
+            accumulate(outgoingX, outgoingY, -1);
+        }
+        accumulate(incomingX, incomingY, 1);
+        return isSlidable();
+    }
+
+    /**
+     * Slides the window: adds the incoming pair and subtracts the outgoing one.
+     * <p>
+     * It may also replace a pair of the window (e.g. the last one, when it has been updated).
+     * @param incomingX the abscissa entering the window
+     * @param incomingY the value entering the window
+     * @param outgoingX the abscissa leaving the window
+     * @param outgoingY the value leaving the window
+     * @return true if the moments have been updated, false if they have to be recomputed from scratch
+     * (i.e. reset, then all the pairs of the window added)
+     */
+    public boolean slide(long incomingX, Decimal incomingY, long outgoingX, Decimal outgoingY) {
+        if (!canSlide(count)) {
+            return false;
+        }
+        slideCount++;
+        accumulate(outgoingX, outgoingY, -1);
+        accumulate(incomingX, incomingY, 1);
+        return isSlidable();
+    }
+
+    /**
+     * @return the number of pairs in the window
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean of the first values of the window
+     */
+    public Decimal getMeanX() {
+        if (backend == DecimalBackend.DOUBLE) {
+            return primitiveMean(primitiveShiftX, primitiveSumX);
+        }
+        return mean(shiftX, sumX);
+    }
+
+    /**
+     * @return the mean of the second values of the window
+     */
+    public Decimal getMeanY() {
+        if (backend == DecimalBackend.DOUBLE) {
+            return primitiveMean(primitiveShiftY, primitiveSumY);
+        }
+        return mean(shiftY, sumY);
+    }
+
+    /**
+     * @return the variance of the first values of the window
+     */
+    public Decimal getVarianceX() {
+        if (backend == DecimalBackend.DOUBLE) {
+            return primitiveMoment(Math.max(0, primitiveCoMoment(primitiveSumXX, primitiveSumX, primitiveSumX)));
+        }
+        return moment(coMoment(sumXX, sumX, sumX));
+    }
+
+    /**
+     * @return the variance of the second values of the window
+     */
+    public Decimal getVarianceY() {
+        if (backend == DecimalBackend.DOUBLE) {
+            return primitiveMoment(Math.max(0, primitiveCoMoment(primitiveSumYY, primitiveSumY, primitiveSumY)));
+        }
+        return moment(coMoment(sumYY, sumY, sumY));
+    }
+
+    /**
+     * @return the covariance of the values of the window
+     */
+    public Decimal getCovariance() {
+        if (backend == DecimalBackend.DOUBLE) {
+            return primitiveMoment(primitiveCoMoment(primitiveSumXY, primitiveSumX, primitiveSumY));
+        }
+        return moment(coMoment(sumXY, sumX, sumY));
+    }
+
+    /**
+     * @return the (Pearson) correlation coefficient of the values of the window
+     */
+    public Decimal getCorrelation() {
+        if (nanCount > 0 || count == 0) {
+            return Decimal.NaN;
+        }
+        if (backend == DecimalBackend.DOUBLE) {
+            final double varianceX = Math.max(0, primitiveCoMoment(primitiveSumXX, primitiveSumX, primitiveSumX));
+            final double varianceY = Math.max(0, primitiveCoMoment(primitiveSumYY, primitiveSumY, primitiveSumY));
+            return Decimal.primitiveValueOf(primitiveCoMoment(primitiveSumXY, primitiveSumX, primitiveSumY)
+                    / Math.sqrt(varianceX * varianceY));
+        }
+        // The count factors cancel out: cov / sqrt(var1 * var2)
+        final Decimal covariance = Decimal.bigDecimalValueOf(coMoment(sumXY, sumX, sumY), mathContext);
+        final BigDecimal varianceProduct = coMoment(sumXX, sumX, sumX).multiply(coMoment(sumYY, sumY, sumY));
+        return covariance.dividedBy(Decimal.bigDecimalValueOf(varianceProduct, mathContext).sqrt());
+    }
+
+    @Override
+    public String toString() {
+        return "count: " + count + " covariance: " + getCovariance();
+    }
+
+    /**
+     * @param shift the shift of the values
+     * @param sum the sum of the shifted values
+     * @return the mean, boxed into a {@code Decimal}
+     */
+    private Decimal mean(BigDecimal shift, BigDecimal sum) {
+        if (nanCount > 0 || count == 0) {
+            return Decimal.NaN;
+        }
+        final MathContext operationMathContext = mathContext == null ? Decimal.MATH_CONTEXT : mathContext;
+        return Decimal.bigDecimalValueOf(shift.add(sum.divide(BigDecimal.valueOf(count), operationMathContext)), mathContext);
+    }
+
+    /**
+     * @param shift the shift of the primitive values
+     * @param sum the sum of the shifted primitive values
+     * @return the mean, boxed into a {@code Decimal}
+     */
+    private Decimal primitiveMean(double shift, double sum) {
+        if (nanCount > 0 || count == 0) {
+            return Decimal.NaN;
+        }
+        return Decimal.primitiveValueOf(shift + sum / count);
+    }
+
+    /**
+     * @param sumAB the sum of the products of the shifted values
+     * @param sumA the sum of the first shifted values
+     * @param sumB the sum of the second shifted values
+     * @return the exact co-moment, multiplied by the square of the count: {@code n * sumAB - sumA * sumB}
+     */
+    private BigDecimal coMoment(BigDecimal sumAB, BigDecimal sumA, BigDecimal sumB) {
+        return sumAB.multiply(BigDecimal.valueOf(count)).subtract(sumA.multiply(sumB));
+    }
+
+    /**
+     * @param sumAB the sum of the products of the shifted values
+     * @param sumA the sum of the first shifted values
+     * @param sumB the sum of the second shifted values
+     * @return the primitive co-moment, multiplied by the square of the count: {@code n * sumAB - sumA * sumB}
+     */
+    private double primitiveCoMoment(double sumAB, double sumA, double sumB) {
+        return count * sumAB - sumA * sumB;
+    }
+
+    /**
+     * @param coMoment a co-moment, multiplied by the square of the count
+     * @return the moment, boxed into a {@code Decimal}
+     */
+    private Decimal moment(BigDecimal coMoment) {
+        if (nanCount > 0 || count == 0) {
+            return Decimal.NaN;
+        }
+        final BigDecimal squaredCount = BigDecimal.valueOf((long) count * count);
+        final MathContext operationMathContext = mathContext == null ? Decimal.MATH_CONTEXT : mathContext;
+        return Decimal.bigDecimalValueOf(coMoment.divide(squaredCount, operationMathContext), mathContext);
+    }
+
+    /**
+     * @param coMoment a primitive co-moment, multiplied by the square of the count
+     * @return the moment, boxed into a {@code Decimal}
+     */
+    private Decimal primitiveMoment(double coMoment) {
+        if (nanCount > 0 || count == 0) {
+            return Decimal.NaN;
+        }
+        return Decimal.primitiveValueOf(coMoment / ((double) count * count));
+    }
+
+    /**
+     * Adds (or subtracts) a single value to the sums of the first values.
+     * @param x the value
+     * @param sign 1 to add the value, -1 to subtract it
+     */
+    private void accumulate(Decimal x, int sign) {
+        count += sign;
+        if (x.isNaN()) {
+            nanCount += sign;
+        } else if (checkOperand(x)) {
+            if (backend == DecimalBackend.DOUBLE) {
+                accumulatePrimitive(x.primitiveValue(), sign);
+            } else {
+                accumulateExact(x.bigDecimalValue(), sign);
+            }
+        }
+    }
+
+    /**
+     * Adds (or subtracts) a pair to the sums.
+     * @param x the first value
+     * @param y the second value
+     * @param sign 1 to add the pair, -1 to subtract it
+     */
+    private void accumulate(Decimal x, Decimal y, int sign) {
+        count += sign;
+        if (x.isNaN() || y.isNaN()) {
+            nanCount += sign;
+        } else if (checkOperand(x) && checkOperand(y)) {
+            if (backend == DecimalBackend.DOUBLE) {
+                accumulatePrimitive(x.primitiveValue(), y.primitiveValue(), sign);
+            } else {
+                accumulateExact(x.bigDecimalValue(), y.bigDecimalValue(), sign);
+            }
+        }
+    }
+
+    /**
+     * Adds (or subtracts) a pair to the sums.
+     * @param x the abscissa
+     * @param y the value
+     * @param sign 1 to add the pair, -1 to subtract it
+     */
+    private void accumulate(long x, Decimal y, int sign) {
+        count += sign;
+        if (y.isNaN()) {
+            nanCount += sign;
+        } else if (checkOperand(y)) {
+            if (backend == DecimalBackend.DOUBLE) {
+                accumulatePrimitive(x, y.primitiveValue(), sign);
+            } else {
+                accumulateExact(BigDecimal.valueOf(x), y.bigDecimalValue(), sign);
+            }
+        }
+    }
+
+    /**
+     * Adds (or subtracts) a first value to the primitive sums.
+     * @param x the first value
+     * @param sign 1 to add the value, -1 to subtract it
+     * @return the shifted first value
+     */
+    private double accumulatePrimitive(double x, int sign) {
+        if (!shifted) {
+            shifted = true;
+            primitiveShiftX = x;
+        }
+        final double deltaX = x - primitiveShiftX;
+        primitiveSumX += sign * deltaX;
+        primitiveSumXX += sign * deltaX * deltaX;
+        return deltaX;
+    }
+
+    /**
+     * Adds (or subtracts) a pair to the primitive sums.
+     * @param x the first value
+     * @param y the second value
+     * @param sign 1 to add the pair, -1 to subtract it
+     */
+    private void accumulatePrimitive(double x, double y, int sign) {
+        if (!shifted) {
+            primitiveShiftY = y;
+        }
+        final double deltaX = accumulatePrimitive(x, sign);
+        final double deltaY = y - primitiveShiftY;
+        primitiveSumY += sign * deltaY;
+        primitiveSumYY += sign * deltaY * deltaY;
+        primitiveSumXY += sign * deltaX * deltaY;
+    }
+
+    /**
+     * Adds (or subtracts) a first value to the exact sums.
+     * @param x the first value
+     * @param sign 1 to add the value, -1 to subtract it
+     * @return the shifted first value
+     */
+    private BigDecimal accumulateExact(BigDecimal x, int sign) {
+        if (!shifted) {
+            shifted = true;
+            shiftX = x;
+        }
+        final BigDecimal deltaX = x.subtract(shiftX);
+        final BigDecimal productXX = deltaX.multiply(deltaX);
+        if (sign > 0) {
+            sumX = sumX.add(deltaX);
+            sumXX = sumXX.add(productXX);
+        } else {
+            sumX = sumX.subtract(deltaX);
+            sumXX = sumXX.subtract(productXX);
+        }
+        return deltaX;
+    }
+
+    /**
+     * Adds (or subtracts) a pair to the exact sums.
+     * @param x the first value
+     * @param y the second value
+     * @param sign 1 to add the pair, -1 to subtract it
+     */
+    private void accumulateExact(BigDecimal x, BigDecimal y, int sign) {
+        if (!shifted) {
+            shiftY = y;
+        }
+        final BigDecimal deltaX = accumulateExact(x, sign);
+        final BigDecimal deltaY = y.subtract(shiftY);
+        final BigDecimal productYY = deltaY.multiply(deltaY);
+        final BigDecimal productXY = deltaX.multiply(deltaY);
+        if (sign > 0) {
+            sumY = sumY.add(deltaY);
+            sumYY = sumYY.add(productYY);
+            sumXY = sumXY.add(productXY);
+        } else {
+            sumY = sumY.subtract(deltaY);
+            sumYY = sumYY.subtract(productYY);
+            sumXY = sumXY.subtract(productXY);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.BigDecimal;
+
+/**
+ * Running sum of the {@link Decimal decimals} of a sliding window.
+ * <p>
+ * The values entering the window are {@link #add(Decimal) added}, and the window is then
+ * {@link #slide(Decimal, Decimal) slid} in constant time (the incoming value is added, the outgoing one subtracted).
+ * The sum is the same as the one of a {@link DecimalAccumulator decimal accumulator} over the values of the window
+ * (see {@link RunningAggregate} for the backends): with BigDecimal-backed values, it has the scale of the most precise
+ * value of the window, so that it is identical to a sum computed from scratch. The sum is NaN while a NaN value
+ * is in the window.
+ * <p>
+ * When {@link #slide(Decimal, Decimal)} returns false, the sum has to be {@link #reset() reset},
+ * and the values of the window added again.
+ * <p>
+ * Not thread-safe.
+ */
+public final class RunningSum extends RunningAggregate {
+
+    private static final long serialVersionUID = -2853180377414506529L;
+
+    /** The exact sum (for BigDecimal-backed values) */
+    private BigDecimal sum = BigDecimal.ZERO;
+
+    /** Scale of the sum (i.e. the greatest scale of the values of the window, at least 0) */
+    private int scale;
+
+    /** The primitive sum (for double-backed values) */
+    private double primitiveSum;
+
+    /** Number of NaN values in the window */
+    private int nanCount;
+
+    /** Number of values added since the last reset */
+    private int addedCount;
+
+    /**
+     * Resets the sum to zero (i.e. empty window).
+     * @return this running sum
+     */
+    public RunningSum reset() {
+        sum = BigDecimal.ZERO;
+        scale = 0;
+        primitiveSum = 0;
+        nanCount = 0;
+        addedCount = 0;
+        resetOperands();
+        return this;
+    }
+
+    /**
+     * Adds a value entering the window.
+     * @param value the value to be added
+     * @return this running sum
+     */
+    public RunningSum add(Decimal value) {
+        addedCount++;
+        accumulate(value);
+        return this;
+    }
+
+    /**
+     * Slides the window: adds the incoming value and subtracts the outgoing one.
+     * <p>
+     * It may also replace a value of the window (e.g. the last one, when it has been updated).
+     * @param incoming the value entering the window
+     * @param outgoing the value leaving the window (null if the window grows)
+     * @return true if the sum has been updated, false if it has to be recomputed from scratch
+     * (i.e. reset, then all the values of the window added)
+     */
+    public boolean slide(Decimal incoming, Decimal outgoing) {
+        if (!canSlide(addedCount)) {
+            return false;
+        }
+        if (outgoing != null && !outgoing.isNaN() && outgoing.getBackend() == DecimalBackend.BIG_DECIMAL
+                && scale > 0 && outgoing.bigDecimalValue().scale() >= scale
+                && (incoming.isNaN() || incoming.getBackend() != DecimalBackend.BIG_DECIMAL
+                        || incoming.bigDecimalValue().scale() < scale)) {
+            // The scale of the sum may decrease
+            return false;
+        }
+        if (outgoing == null) {
+            addedCount++;
+        } else {
+            slideCount++;
+        }
+        accumulate(incoming);
+        if (outgoing != null) {
+            if (outgoing.isNaN()) {
+                nanCount--;
+            } else if (checkOperand(outgoing)) {
+                if (backend == DecimalBackend.DOUBLE) {
+                    primitiveSum -= outgoing.primitiveValue();
+                } else {
+                    sum = sum.subtract(outgoing.bigDecimalValue());
+                }
+            }
+        }
+        return isSlidable();
+    }
+
+    /**
+     * @return the current sum, boxed into a {@code Decimal}
+     */
+    public Decimal toDecimal() {
+        if (nanCount > 0) {
+            return Decimal.NaN;
+        }
+        if (backend == DecimalBackend.DOUBLE) {
+            return Decimal.primitiveValueOf(primitiveSum);
+        }
+        return Decimal.bigDecimalValueOf(sum.setScale(scale), mathContext);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toString();
+    }
+
+    /**
+     * Adds a value to the sum.
+     * @param value the value to be added
+     */
+    private void accumulate(Decimal value) {
+        if (value.isNaN()) {
+            nanCount++;
+        } else if (checkOperand(value)) {
+            if (backend == DecimalBackend.DOUBLE) {
+                primitiveSum += value.primitiveValue();
+            } else {
+                final BigDecimal augend = value.bigDecimalValue();
+                sum = sum.add(augend);
+                scale = Math.max(scale, augend.scale());
+            }
+        }
+    }
+}
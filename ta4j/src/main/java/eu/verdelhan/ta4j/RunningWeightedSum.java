@@ -0,0 +1,178 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.BigDecimal;
+
+/**
+ * Running linearly weighted sum of the {@link Decimal decimals} of a sliding window.
+ * <p>
+ * The values of the window are weighted by their position: 1 for the oldest one, n for the most recent one
+ * (where n is the number of values of the window). Along with the weighted sum, the plain sum {@code S}
+ * of the window is maintained, so that the window is slid in constant time:
+ * <ul>
+ * <li>when the window grows, the weights of the previous values do not change: {@code W += n * x}
+ * <li>when the window slides, the weights of the previous values decrease by one (the outgoing value then has
+ * a zero weight): {@code W += n * x - S}
+ * </ul>
+ * See {@link RunningAggregate} for the backends. The sum is NaN while a NaN value is in the window.
+ * <p>
+ * When a slide returns false, the sum has to be {@link #reset() reset}, and the values of the window added again.
+ * <p>
+ * Not thread-safe.
+ */
+public final class RunningWeightedSum extends RunningAggregate {
+
+    private static final long serialVersionUID = 8127703412880415934L;
+
+    /** The exact weighted sum (for BigDecimal-backed values) */
+    private BigDecimal weightedSum = BigDecimal.ZERO;
+
+    /** The exact plain sum (for BigDecimal-backed values) */
+    private BigDecimal sum = BigDecimal.ZERO;
+
+    /** The primitive weighted sum (for double-backed values) */
+    private double primitiveWeightedSum;
+
+    /** The primitive plain sum (for double-backed values) */
+    private double primitiveSum;
+
+    /** Number of values in the window */
+    private int count;
+
+    /** Number of NaN values in the window */
+    private int nanCount;
+
+    /**
+     * Resets the sum to zero (i.e. empty window).
+     * @return this running sum
+     */
+    public RunningWeightedSum reset() {
+        weightedSum = BigDecimal.ZERO;
+        sum = BigDecimal.ZERO;
+        primitiveWeightedSum = 0;
+        primitiveSum = 0;
+        count = 0;
+        nanCount = 0;
+        resetOperands();
+        return this;
+    }
+
+    /**
+     * Adds a value entering the window (i.e. the window grows).
+     * @param value the value to be added, with the greatest weight
+     * @return this running sum
+     */
+    public RunningWeightedSum add(Decimal value) {
+        count++;
+        accumulate(value, count, 1);
+        return this;
+    }
+
+    /**
+     * Slides the window: adds the incoming value (with the greatest weight), and removes the oldest one.
+     * @param incoming the value entering the window
+     * @param outgoing the (oldest) value leaving the window
+     * @return true if the sum has been updated, false if it has to be recomputed from scratch
+     * (i.e. reset, then all the values of the window added)
+     */
+    public boolean slide(Decimal incoming, Decimal outgoing) {
+        if (!canSlide(count)) {
+            return false;
+        }
+        slideCount++;
+        // The weights of the values decrease by one: W -= S
+        if (backend == DecimalBackend.DOUBLE) {
+            primitiveWeightedSum -= primitiveSum;
+        } else if (backend != null) {
+            weightedSum = weightedSum.subtract(sum);
+        }
+        // The outgoing value has a zero weight from now on
+        accumulate(outgoing, 0, -1);
+        accumulate(incoming, count, 1);
+        return isSlidable();
+    }
+
+    /**
+     * Replaces the most recent value of the window (e.g. when it has been updated).
+     * @param value the new value
+     * @param previousValue the replaced value
+     * @return true if the sum has been updated, false if it has to be recomputed from scratch
+     */
+    public boolean replaceLast(Decimal value, Decimal previousValue) {
+        if (!canSlide(count)) {
+            return false;
+        }
+        slideCount++;
+        accumulate(previousValue, -count, -1);
+        accumulate(value, count, 1);
+        return isSlidable();
+    }
+
+    /**
+     * @return the number of values in the window
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the current weighted sum, boxed into a {@code Decimal}
+     */
+    public Decimal toDecimal() {
+        if (nanCount > 0) {
+            return Decimal.NaN;
+        }
+        if (backend == DecimalBackend.DOUBLE) {
+            return Decimal.primitiveValueOf(primitiveWeightedSum);
+        }
+        return Decimal.bigDecimalValueOf(weightedSum, mathContext);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toString();
+    }
+
+    /**
+     * Adds a weighted value to the sums.
+     * @param value the value
+     * @param weight the weight of the value in the weighted sum
+     * @param sign 1 to add the value to the plain sum, -1 to subtract it
+     */
+    private void accumulate(Decimal value, int weight, int sign) {
+        if (value.isNaN()) {
+            nanCount += sign;
+        } else if (checkOperand(value)) {
+            if (backend == DecimalBackend.DOUBLE) {
+                final double primitiveValue = value.primitiveValue();
+                primitiveWeightedSum += weight * primitiveValue;
+                primitiveSum += sign * primitiveValue;
+            } else {
+                final BigDecimal bigDecimalValue = value.bigDecimalValue();
+                weightedSum = weightedSum.add(bigDecimalValue.multiply(BigDecimal.valueOf(weight)));
+                sum = sign > 0 ? sum.add(bigDecimalValue) : sum.subtract(bigDecimalValue);
+            }
+        }
+    }
+}
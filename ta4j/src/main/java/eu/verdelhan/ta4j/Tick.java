@@ -96,6 +96,27 @@ public interface Tick extends Serializable {
                 && !timestamp.isBefore(getBeginTime())
                 && timestamp.isBefore(getEndTime());
     }
+
+    /**
+     * @return the end time of the tick period (epoch milliseconds)
+     */
+    default long getEndTimeMillis() {
+        return getEndTime().toInstant().toEpochMilli();
+    }
+
+    /**
+     * @param other another tick
+     * @return true if the end time of this tick is after the end time of the other one, false otherwise
+     */
+    default boolean endsAfter(Tick other) {
+        final long endTime = getEndTimeMillis();
+        final long otherEndTime = other.getEndTimeMillis();
+        if (endTime != otherEndTime) {
+            return endTime > otherEndTime;
+        }
+        // Same millisecond: comparing the full end times
+        return getEndTime().isAfter(other.getEndTime());
+    }
     
     /**
      * @return a human-friendly string of the end timestamp
@@ -0,0 +1,271 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Aggregator of trades into {@link Tick ticks}.
+ * <p>
+ * Trades are consumed in a single pass (in chronological order) and the ticks are emitted to a listener
+ * (e.g. {@code series::addTick}) as soon as they are completed. Trades are accumulated in primitive values:
+ * no object is created until a tick is emitted.
+ * <p>
+ * A tick is completed:
+ * <ul>
+ * <li>{@link AggregationType#TIME TIME}: at the end of its time period (periods are aligned on the epoch,
+ * and periods without trades do not produce any tick)
+ * <li>{@link AggregationType#TRADE_COUNT TRADE_COUNT}: when it contains a given number of trades
+ * <li>{@link AggregationType#VOLUME VOLUME}: when its volume reaches a threshold
+ * <li>{@link AggregationType#AMOUNT AMOUNT}: when its amount (i.e. traded value: price * volume) reaches a threshold
+ * </ul>
+ * For the three last types, the time period of a tick runs from its first trade to its last one (plus 1 millisecond),
+ * and the trades which occur at the same millisecond as the completing trade are added to the same tick
+ * (so that the end times of the ticks are strictly increasing).
+ */
+public class TickAggregator {
+
+    /**
+     * Type of aggregation (i.e. condition for completing a tick).
+     */
+    public enum AggregationType {
+        /** Ticks of a fixed time period */
+        TIME,
+        /** Ticks of a fixed number of trades */
+        TRADE_COUNT,
+        /** Ticks of a fixed volume */
+        VOLUME,
+        /** Ticks of a fixed amount (traded value) */
+        AMOUNT
+    }
+
+    private final AggregationType aggregationType;
+
+    /** Time period of the ticks (milliseconds, for time aggregation) */
+    private final long periodMillis;
+
+    /** Threshold of the trade count, volume or amount (for the other types of aggregation) */
+    private final double threshold;
+
+    private final ZoneId zone;
+
+    private final DecimalBackend decimalBackend;
+
+    private final Consumer<Tick> listener;
+
+    /** Time of the last trade (epoch milliseconds) */
+    private long lastTradeTime = Long.MIN_VALUE;
+
+    /* Current tick */
+    private int trades = 0;
+    /** Begin time of the current tick (epoch milliseconds) */
+    private long beginTime;
+    /** End time of the current tick for time aggregation, time of its last trade otherwise (epoch milliseconds) */
+    private long endTime;
+    private double openPrice;
+    private double maxPrice;
+    private double minPrice;
+    private double closePrice;
+    private double volume;
+    private double amount;
+    /** True if the threshold of the current tick has been reached */
+    private boolean thresholdReached;
+
+    /**
+     * Constructor.
+     * @param aggregationType the type of aggregation
+     * @param periodMillis the time period of the ticks (milliseconds, for time aggregation)
+     * @param threshold the threshold of the trade count, volume or amount (for the other types of aggregation)
+     * @param zone the time zone of the ticks
+     * @param decimalBackend the backend of the values of the ticks
+     * @param listener the listener of the completed ticks
+     */
+    private TickAggregator(AggregationType aggregationType, long periodMillis, double threshold, ZoneId zone,
+            DecimalBackend decimalBackend, Consumer<Tick> listener) {
+        if (zone == null || decimalBackend == null || listener == null) {
+            throw new IllegalArgumentException("Zone, decimal backend and listener cannot be null");
+        }
+        this.aggregationType = aggregationType;
+        this.periodMillis = periodMillis;
+        this.threshold = threshold;
+        this.zone = zone;
+        this.decimalBackend = decimalBackend;
+        this.listener = listener;
+    }
+
+    /**
+     * @param timePeriod the time period of the ticks
+     * @param zone the time zone of the ticks
+     * @param decimalBackend the backend of the values of the ticks
+     * @param listener the listener of the completed ticks
+     * @return an aggregator of trades into ticks of a fixed time period
+     */
+    public static TickAggregator timeTicks(Duration timePeriod, ZoneId zone, DecimalBackend decimalBackend, Consumer<Tick> listener) {
+        if (timePeriod.toMillis() <= 0) {
+            throw new IllegalArgumentException("Time period must be at least 1 millisecond");
+        }
+        return new TickAggregator(AggregationType.TIME, timePeriod.toMillis(), 0, zone, decimalBackend, listener);
+    }
+
+    /**
+     * @param tradeCount the number of trades of the ticks
+     * @param zone the time zone of the ticks
+     * @param decimalBackend the backend of the values of the ticks
+     * @param listener the listener of the completed ticks
+     * @return an aggregator of trades into ticks of a fixed number of trades
+     */
+    public static TickAggregator tradeCountTicks(int tradeCount, ZoneId zone, DecimalBackend decimalBackend, Consumer<Tick> listener) {
+        if (tradeCount <= 0) {
+            throw new IllegalArgumentException("Trade count must be strictly positive");
+        }
+        return new TickAggregator(AggregationType.TRADE_COUNT, 0, tradeCount, zone, decimalBackend, listener);
+    }
+
+    /**
+     * @param volume the volume of the ticks
+     * @param zone the time zone of the ticks
+     * @param decimalBackend the backend of the values of the ticks
+     * @param listener the listener of the completed ticks
+     * @return an aggregator of trades into ticks of a fixed volume
+     */
+    public static TickAggregator volumeTicks(Decimal volume, ZoneId zone, DecimalBackend decimalBackend, Consumer<Tick> listener) {
+        if (!volume.isPositive()) {
+            throw new IllegalArgumentException("Volume must be strictly positive");
+        }
+        return new TickAggregator(AggregationType.VOLUME, 0, volume.toDouble(), zone, decimalBackend, listener);
+    }
+
+    /**
+     * @param amount the amount (traded value) of the ticks
+     * @param zone the time zone of the ticks
+     * @param decimalBackend the backend of the values of the ticks
+     * @param listener the listener of the completed ticks
+     * @return an aggregator of trades into ticks of a fixed amount
+     */
+    public static TickAggregator amountTicks(Decimal amount, ZoneId zone, DecimalBackend decimalBackend, Consumer<Tick> listener) {
+        if (!amount.isPositive()) {
+            throw new IllegalArgumentException("Amount must be strictly positive");
+        }
+        return new TickAggregator(AggregationType.AMOUNT, 0, amount.toDouble(), zone, decimalBackend, listener);
+    }
+
+    /**
+     * @return the type of aggregation
+     */
+    public AggregationType getAggregationType() {
+        return aggregationType;
+    }
+
+    /**
+     * Adds a trade.
+     * @param time the time of the trade
+     * @param price the price of the trade
+     * @param volume the volume of the trade
+     */
+    public void addTrade(ZonedDateTime time, Decimal price, Decimal volume) {
+        addTrade(time.toInstant().toEpochMilli(), price.toDouble(), volume.toDouble());
+    }
+
+    /**
+     * Adds a trade.
+     * <p>
+     * Completed ticks are emitted to the listener.
+     * @param time the time of the trade (epoch milliseconds, not before the time of the previous trade)
+     * @param price the price of the trade
+     * @param volume the volume of the trade
+     */
+    public void addTrade(long time, double price, double volume) {
+        if (time < lastTradeTime) {
+            throw new IllegalArgumentException("Cannot add a trade with time < to previous trade time");
+        }
+        lastTradeTime = time;
+        if (trades > 0 && (aggregationType == AggregationType.TIME ? time >= endTime : (thresholdReached && time > endTime))) {
+            emitTick();
+        }
+        if (trades == 0) {
+            // New tick
+            if (aggregationType == AggregationType.TIME) {
+                beginTime = Math.floorDiv(time, periodMillis) * periodMillis;
+                endTime = beginTime + periodMillis;
+            } else {
+                beginTime = time;
+            }
+            openPrice = price;
+            maxPrice = price;
+            minPrice = price;
+            this.volume = 0;
+            amount = 0;
+            thresholdReached = false;
+        } else {
+            if (price > maxPrice) {
+                maxPrice = price;
+            }
+            if (price < minPrice) {
+                minPrice = price;
+            }
+        }
+        closePrice = price;
+        this.volume += volume;
+        amount += volume * price;
+        trades++;
+        if (aggregationType != AggregationType.TIME) {
+            endTime = time;
+            if (!thresholdReached) {
+                thresholdReached = (aggregationType == AggregationType.TRADE_COUNT && trades >= threshold)
+                        || (aggregationType == AggregationType.VOLUME && this.volume >= threshold)
+                        || (aggregationType == AggregationType.AMOUNT && amount >= threshold);
+            }
+        }
+    }
+
+    /**
+     * Emits the current (i.e. uncompleted) tick, if it contains trades.
+     * <p>
+     * It should be called after the last trade.
+     */
+    public void flush() {
+        if (trades > 0) {
+            emitTick();
+        }
+    }
+
+    /**
+     * Emits the current tick to the listener, and resets it.
+     */
+    private void emitTick() {
+        final long tickEndTime = aggregationType == AggregationType.TIME ? endTime : endTime + 1;
+        final Tick tick = new CompactTick(tickEndTime - beginTime, tickEndTime, zone,
+                decimalBackend.decimalOf(openPrice),
+                decimalBackend.decimalOf(maxPrice),
+                decimalBackend.decimalOf(minPrice),
+                decimalBackend.decimalOf(closePrice),
+                decimalBackend.decimalOf(volume),
+                decimalBackend.decimalOf(amount),
+                trades);
+        trades = 0;
+        listener.accept(tick);
+    }
+}
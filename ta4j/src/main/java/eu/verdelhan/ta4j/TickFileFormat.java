@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.BigDecimal;
+
+/**
+ * Binary tick file format.
+ * <p>
+ * A tick file is made of:
+ * <ul>
+ * <li>a header: magic number (int), format version (byte), flags (byte), symbol (UTF), time period
+ * of the ticks (milliseconds, long), zone id of the ticks (UTF) and scale of the values (byte)
+ * <li>a record per tick, until the end of the file
+ * </ul>
+ * The prices, volumes and amounts are stored as longs: their unscaled values with the scale of the file
+ * (e.g. 12345 for 123.45 with a scale of 2). Missing (null) values are stored as {@link #MISSING_VALUE}.
+ * <p>
+ * Fixed-width records (big-endian) contain: the end time (epoch milliseconds, long),
+ * the open/max/min/close prices, the volume and the amount (longs), and the number of trades (int).
+ * Files with fixed-width records can be randomly accessed (see {@link PagedTimeSeries} and {@link MappedTimeSeries}).
+ * <p>
+ * Compressed records contain the same fields as zigzag-encoded varints: the end time as the delta
+ * from the end time of the previous tick, the open price as the delta from the close price of the previous tick,
+ * the max/min/close prices as deltas from the open price, then the volume, the amount and the number of trades.
+ * @see TickFileWriter
+ * @see TickFileReader
+ */
+final class TickFileFormat {
+
+    /** Magic number of the files ("TA4T") */
+    static final int MAGIC_NUMBER = 0x54413454;
+
+    /** Version of the file format */
+    static final byte FORMAT_VERSION = 1;
+
+    /** Flag of the files with compressed records */
+    static final byte COMPRESSED_FLAG = 0x01;
+
+    /** Maximum scale of the values */
+    static final int MAX_SCALE = 18;
+
+    /** Size of a fixed-width record (bytes) */
+    static final int FIXED_RECORD_SIZE = 7 * 8 + 4;
+
+    /** Unscaled value of missing (null) values */
+    static final long MISSING_VALUE = Long.MIN_VALUE;
+
+    /** Offsets of the fields in the fixed-width records (bytes) */
+    static final int END_TIME_OFFSET = 0;
+    static final int OPEN_PRICE_OFFSET = 8;
+    static final int MAX_PRICE_OFFSET = 16;
+    static final int MIN_PRICE_OFFSET = 24;
+    static final int CLOSE_PRICE_OFFSET = 32;
+    static final int VOLUME_OFFSET = 40;
+    static final int AMOUNT_OFFSET = 48;
+    static final int TRADES_OFFSET = 56;
+
+    /** Divisors of the unscaled values (i.e. 10^scale) */
+    private static final double[] DOUBLE_DIVISORS = new double[MAX_SCALE + 1];
+
+    static {
+        for (int scale = 0; scale <= MAX_SCALE; scale++) {
+            DOUBLE_DIVISORS[scale] = Math.pow(10, scale);
+        }
+    }
+
+    private TickFileFormat() {
+    }
+
+    /**
+     * @param symbol the symbol of a tick file
+     * @param zoneId the zone id of a tick file
+     * @return the size of the header of the tick file (bytes)
+     */
+    static int headerSize(String symbol, String zoneId) {
+        // Magic number, version, flags, symbol, time period, zone id, scale
+        return 4 + 1 + 1 + (2 + utfLength(symbol)) + 8 + (2 + utfLength(zoneId)) + 1;
+    }
+
+    /**
+     * @param unscaledValue an unscaled value
+     * @param scale the scale of the value
+     * @param decimalBackend the decimal backend
+     * @return the corresponding decimal (null for missing values)
+     */
+    static Decimal toDecimal(long unscaledValue, int scale, DecimalBackend decimalBackend) {
+        if (unscaledValue == MISSING_VALUE) {
+            return null;
+        }
+        if (decimalBackend == DecimalBackend.DOUBLE) {
+            return Decimal.primitiveValueOf(unscaledValue / DOUBLE_DIVISORS[scale]);
+        }
+        if (scale == 0) {
+            return Decimal.valueOf(unscaledValue);
+        }
+        return Decimal.bigDecimalValueOf(BigDecimal.valueOf(unscaledValue, scale), null);
+    }
+
+    /**
+     * @param value a string
+     * @return the length of the modified UTF-8 encoding of the string (see {@link java.io.DataOutput#writeUTF(String)})
+     */
+    private static int utfLength(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                length++;
+            } else if (c <= 0x07FF) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
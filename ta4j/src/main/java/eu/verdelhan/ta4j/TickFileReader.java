@@ -0,0 +1,315 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * Streaming reader of binary tick files.
+ * <p>
+ * The ticks are read one by one, and may be directly added to a {@link TimeSeries time series}
+ * (see {@link #readInto(TimeSeries)}).
+ * @see TickFileFormat
+ * @see TickFileWriter
+ */
+public class TickFileReader implements Closeable {
+
+    private final DataInputStream in;
+
+    private final String symbol;
+
+    private final Duration timePeriod;
+
+    private final long timePeriodMillis;
+
+    private final ZoneId zone;
+
+    private final int scale;
+
+    private final boolean compressed;
+
+    /** Buffer of the fixed-width records */
+    private final byte[] record = new byte[TickFileFormat.FIXED_RECORD_SIZE];
+
+    /** End time of the previous tick (epoch milliseconds) */
+    private long previousEndTime = 0;
+
+    /** Close price of the previous tick (unscaled) */
+    private long previousClosePrice = 0;
+
+    /**
+     * Constructor.
+     * <p>
+     * Reads the header of the file.
+     * @param in the input stream
+     * @throws IOException if the header cannot be read, or if the stream is not a tick file
+     */
+    public TickFileReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if (this.in.readInt() != TickFileFormat.MAGIC_NUMBER) {
+            throw new IOException("Not a tick file");
+        }
+        final byte version = this.in.readByte();
+        if (version != TickFileFormat.FORMAT_VERSION) {
+            throw new IOException("Unsupported tick file version: " + version);
+        }
+        compressed = (this.in.readByte() & TickFileFormat.COMPRESSED_FLAG) != 0;
+        symbol = this.in.readUTF();
+        timePeriodMillis = this.in.readLong();
+        timePeriod = Duration.ofMillis(timePeriodMillis);
+        zone = ZoneId.of(this.in.readUTF());
+        scale = this.in.readByte();
+        if (scale < 0 || scale > TickFileFormat.MAX_SCALE) {
+            throw new IOException("Invalid scale: " + scale);
+        }
+    }
+
+    /**
+     * Constructor of a reader of fixed-width records (e.g. a range of the records of a file).
+     * @param records the input stream of the records (positioned at the beginning of a record)
+     * @param header the reader of the header of the file
+     */
+    TickFileReader(InputStream records, TickFileReader header) {
+        if (header.compressed) {
+            throw new IllegalArgumentException("Compressed records cannot be read from an arbitrary position");
+        }
+        this.in = new DataInputStream(records);
+        this.symbol = header.symbol;
+        this.timePeriodMillis = header.timePeriodMillis;
+        this.timePeriod = header.timePeriod;
+        this.zone = header.zone;
+        this.scale = header.scale;
+        this.compressed = false;
+    }
+
+    /**
+     * @return the symbol of the ticks
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * @return the time period of the ticks
+     */
+    public Duration getTimePeriod() {
+        return timePeriod;
+    }
+
+    /**
+     * @return the time zone of the ticks
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @return the scale of the values
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * @return the size of the header of the file (bytes)
+     */
+    int getHeaderSize() {
+        return TickFileFormat.headerSize(symbol, zone.getId());
+    }
+
+    /**
+     * @return true if the records are compressed, false otherwise
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Reads the next tick, with BigDecimal-backed values.
+     * @return the next tick, null at the end of the file
+     * @throws IOException if the tick cannot be read
+     */
+    public Tick readTick() throws IOException {
+        return readTick(DecimalBackend.BIG_DECIMAL);
+    }
+
+    /**
+     * Reads the next tick.
+     * @param decimalBackend the backend of the values of the tick
+     * @return the next tick, null at the end of the file
+     * @throws IOException if the tick cannot be read
+     */
+    public Tick readTick(DecimalBackend decimalBackend) throws IOException {
+        long endTime, openPrice, maxPrice, minPrice, closePrice, volume, amount;
+        int trades;
+        if (compressed) {
+            final int firstByte = in.read();
+            if (firstByte < 0) {
+                // End of file
+                return null;
+            }
+            endTime = previousEndTime + unzigzag(readVarLong(firstByte));
+            openPrice = previousClosePrice + unzigzag(readVarLong(in.readUnsignedByte()));
+            maxPrice = openPrice + unzigzag(readVarLong(in.readUnsignedByte()));
+            minPrice = openPrice + unzigzag(readVarLong(in.readUnsignedByte()));
+            closePrice = openPrice + unzigzag(readVarLong(in.readUnsignedByte()));
+            volume = unzigzag(readVarLong(in.readUnsignedByte()));
+            amount = unzigzag(readVarLong(in.readUnsignedByte()));
+            trades = (int) readVarLong(in.readUnsignedByte());
+        } else {
+            if (!readRecord()) {
+                // End of file
+                return null;
+            }
+            endTime = longAt(TickFileFormat.END_TIME_OFFSET);
+            openPrice = longAt(TickFileFormat.OPEN_PRICE_OFFSET);
+            maxPrice = longAt(TickFileFormat.MAX_PRICE_OFFSET);
+            minPrice = longAt(TickFileFormat.MIN_PRICE_OFFSET);
+            closePrice = longAt(TickFileFormat.CLOSE_PRICE_OFFSET);
+            volume = longAt(TickFileFormat.VOLUME_OFFSET);
+            amount = longAt(TickFileFormat.AMOUNT_OFFSET);
+            trades = intAt(TickFileFormat.TRADES_OFFSET);
+        }
+        previousEndTime = endTime;
+        previousClosePrice = closePrice;
+        return new CompactTick(timePeriodMillis, endTime, zone,
+                TickFileFormat.toDecimal(openPrice, scale, decimalBackend),
+                TickFileFormat.toDecimal(maxPrice, scale, decimalBackend),
+                TickFileFormat.toDecimal(minPrice, scale, decimalBackend),
+                TickFileFormat.toDecimal(closePrice, scale, decimalBackend),
+                TickFileFormat.toDecimal(volume, scale, decimalBackend),
+                TickFileFormat.toDecimal(amount, scale, decimalBackend),
+                trades);
+    }
+
+    /**
+     * Reads all the remaining ticks, and adds them to a time series.
+     * @param series the time series (the values of the ticks use its decimal backend)
+     * @return the number of added ticks
+     * @throws IOException if the ticks cannot be read
+     */
+    public int readInto(TimeSeries series) throws IOException {
+        final DecimalBackend decimalBackend = series.getDecimalBackend();
+        int tickCount = 0;
+        Tick tick;
+        while ((tick = readTick(decimalBackend)) != null) {
+            series.addTick(tick);
+            tickCount++;
+        }
+        return tickCount;
+    }
+
+    /**
+     * Reads all the remaining ticks into a new time series.
+     * @return a {@link BaseTimeSeries base series}, named after the symbol of the file
+     * @throws IOException if the ticks cannot be read
+     */
+    public TimeSeries readTimeSeries() throws IOException {
+        TimeSeries series = new BaseTimeSeries(symbol);
+        readInto(series);
+        return series;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads a fixed-width record into the record buffer.
+     * @return true if a record has been read, false at the end of the file
+     * @throws IOException if the record cannot be read
+     */
+    private boolean readRecord() throws IOException {
+        int offset = 0;
+        while (offset < record.length) {
+            final int count = in.read(record, offset, record.length - offset);
+            if (count < 0) {
+                if (offset == 0) {
+                    return false;
+                }
+                throw new EOFException("Truncated tick record");
+            }
+            offset += count;
+        }
+        return true;
+    }
+
+    /**
+     * @param offset an offset in the record buffer
+     * @return the (big-endian) long at the offset
+     */
+    private long longAt(int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (record[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * @param offset an offset in the record buffer
+     * @return the (big-endian) int at the offset
+     */
+    private int intAt(int offset) {
+        int value = 0;
+        for (int i = offset; i < offset + 4; i++) {
+            value = (value << 8) | (record[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Reads a varint.
+     * @param firstByte the first (already read) byte of the varint
+     * @return the unsigned value of the varint
+     * @throws IOException if the varint cannot be read
+     */
+    private long readVarLong(int firstByte) throws IOException {
+        long value = firstByte & 0x7F;
+        int b = firstByte;
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            if (shift > 63) {
+                throw new IOException("Malformed varint");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    /**
+     * @param value a zigzag-encoded value
+     * @return the decoded signed value
+     */
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -23,6 +23,8 @@
 package eu.verdelhan.ta4j;
 
 import java.io.Serializable;
+import java.math.MathContext;
+import java.time.Instant;
 import java.util.List;
 import java.time.format.DateTimeFormatter;
 
@@ -43,12 +45,140 @@ public interface TimeSeries extends Serializable {
      */
     String getName();
 
+    /**
+     * @return the backend of the decimals of the series
+     */
+    default DecimalBackend getDecimalBackend() {
+        return DecimalBackend.BIG_DECIMAL;
+    }
+
+    /**
+     * @return the math context of the (BigDecimal-backed) decimals of the series
+     */
+    default MathContext getMathContext() {
+        return Decimal.MATH_CONTEXT;
+    }
+
     /**
      * @param i an index
      * @return the tick at the i-th position
      */
     Tick getTick(int i);
 
+    /**
+     * @param i an index
+     * @return the open price of the tick at the i-th position
+     */
+    default Decimal getOpenPrice(int i) {
+        return getTick(i).getOpenPrice();
+    }
+
+    /**
+     * @param i an index
+     * @return the min price of the tick at the i-th position
+     */
+    default Decimal getMinPrice(int i) {
+        return getTick(i).getMinPrice();
+    }
+
+    /**
+     * @param i an index
+     * @return the max price of the tick at the i-th position
+     */
+    default Decimal getMaxPrice(int i) {
+        return getTick(i).getMaxPrice();
+    }
+
+    /**
+     * @param i an index
+     * @return the close price of the tick at the i-th position
+     */
+    default Decimal getClosePrice(int i) {
+        return getTick(i).getClosePrice();
+    }
+
+    /**
+     * @param i an index
+     * @return the volume of the tick at the i-th position
+     */
+    default Decimal getVolume(int i) {
+        return getTick(i).getVolume();
+    }
+
+    /**
+     * @param i an index
+     * @return the amount of the tick at the i-th position
+     */
+    default Decimal getAmount(int i) {
+        return getTick(i).getAmount();
+    }
+
+    /**
+     * @param i an index
+     * @return the number of trades of the tick at the i-th position
+     */
+    default int getTrades(int i) {
+        return getTick(i).getTrades();
+    }
+
+    /**
+     * @param i an index
+     * @return the end time of the tick at the i-th position (epoch milliseconds)
+     */
+    default long getEndTimeMillis(int i) {
+        return getTick(i).getEndTimeMillis();
+    }
+
+    /**
+     * Returns the index of the tick whose period contains a time.
+     * <p>
+     * The lookup is a binary search on the end times of the ticks (see {@link #getEndTimeMillis(int)}),
+     * with a millisecond precision.
+     * @param time a time
+     * @return the index of the tick whose period contains the time (begin time included, end time excluded),
+     * -1 if there is no such tick in the series
+     */
+    default int indexOf(Instant time) {
+        final long millis = time.toEpochMilli();
+        final int index = TimestampIndex.ceiling(this, millis + 1);
+        if (index > getEndIndex()) {
+            return -1;
+        }
+        final long beginTime = getEndTimeMillis(index) - getTick(index).getTimePeriod().toMillis();
+        return beginTime <= millis ? index : -1;
+    }
+
+    /**
+     * Returns the index of the last tick which ends at or before a time.
+     * <p>
+     * The lookup is a binary search on the end times of the ticks (see {@link #getEndTimeMillis(int)}),
+     * with a millisecond precision.
+     * @param time a time
+     * @return the index of the last tick ending at or before the time, -1 if there is no such tick in the series
+     */
+    default int floorIndex(Instant time) {
+        final int index = TimestampIndex.ceiling(this, time.toEpochMilli() + 1) - 1;
+        return index < Math.max(getBeginIndex(), getRemovedTicksCount()) ? -1 : index;
+    }
+
+    /**
+     * Returns the index of the first tick which ends at or after a time.
+     * <p>
+     * The lookup is a binary search on the end times of the ticks (see {@link #getEndTimeMillis(int)}),
+     * with a millisecond precision.
+     * @param time a time
+     * @return the index of the first tick ending at or after the time, -1 if there is no such tick in the series
+     */
+    default int ceilingIndex(Instant time) {
+        long millis = time.toEpochMilli();
+        if (time.getNano() % 1000000 != 0) {
+            // Sub-millisecond time: the tick has to end strictly after its millisecond
+            millis++;
+        }
+        final int index = TimestampIndex.ceiling(this, millis);
+        return index > getEndIndex() ? -1 : index;
+    }
+
     /**
      * @return the first tick of the series
      */
@@ -141,4 +271,66 @@ public interface TimeSeries extends Serializable {
      * @see TimeSeries#setMaximumTickCount(int)
      */
     void addTick(Tick tick);
+
+    /**
+     * Replaces the last tick of the series (e.g. with the newer state of an in-progress tick).
+     * <p>
+     * The new tick must end at the same time as the last one.
+     * The {@link #getLastTickUpdateCount() update count} of the series is incremented, so that the cached
+     * values of the indicators for the last index are recomputed.
+     * @param tick the new version of the last tick
+     */
+    default void updateLastTick(Tick tick) {
+        throw new UnsupportedOperationException("Cannot update the last tick of a " + getClass().getSimpleName());
+    }
+
+    /**
+     * Adds a trade to the last tick of the series (i.e. the in-progress tick).
+     * @param tradeVolume the traded volume
+     * @param tradePrice the price
+     * @see #updateLastTick(Tick)
+     */
+    default void addTrade(Decimal tradeVolume, Decimal tradePrice) {
+        Tick lastTick = getLastTick();
+        lastTick.addTrade(tradeVolume, tradePrice);
+        updateLastTick(lastTick);
+    }
+
+    /**
+     * Returns the number of updates of the last tick of the series.
+     * <p>
+     * It is incremented on each {@link #updateLastTick(Tick) update} (or {@link #addTrade(Decimal, Decimal) trade})
+     * of the last tick. Cached values which were computed for the last index are outdated when it has changed.
+     * @return the number of updates of the last tick
+     */
+    default long getLastTickUpdateCount() {
+        return 0;
+    }
+
+    /**
+     * Returns an immutable snapshot of the series.
+     * <p>
+     * The snapshot is not affected by the ticks which are added to (or evicted from) the series afterwards,
+     * nor by the updates of its last tick: it can be handed to another thread (e.g. for a background analysis).
+     * @return a snapshot of the series
+     * @see #view(int, int)
+     */
+    default TimeSeries snapshot() {
+        return view(getBeginIndex(), getEndIndex());
+    }
+
+    /**
+     * Returns an immutable snapshot of a range of the series.
+     * <p>
+     * The view keeps the indexes of the series (as a constrained {@link BaseTimeSeries base series}),
+     * and the ticks before its begin index remain available to the indicators.
+     * The default implementation copies the ticks of the series; the implementations which can share
+     * their storage with the view (e.g. {@link BaseTimeSeries}) return it in constant time.
+     * @param beginIndex the begin index (inclusive) of the view
+     * @param endIndex the end index (inclusive) of the view
+     * @return a snapshot of the range of the series
+     */
+    default TimeSeries view(int beginIndex, int endIndex) {
+        return TimeSeriesSnapshot.copyOf(this, beginIndex, endIndex);
+    }
 }
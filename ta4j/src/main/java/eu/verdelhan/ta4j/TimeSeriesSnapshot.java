@@ -0,0 +1,286 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.MathContext;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable snapshot of a range of a {@link TimeSeries time series} (see {@link TimeSeries#view(int, int)}).
+ * <p>
+ * It keeps the indexes of the original series, and holds the ticks which were stored in the series
+ * (i.e. not removed) up to its end index: the ticks before its begin index are still available
+ * to the indicators, as for a constrained {@link BaseTimeSeries base series}.
+ * The ticks are usually shared with the storage of the original series, which never modifies them afterwards.
+ */
+final class TimeSeriesSnapshot implements TimeSeries {
+
+    private static final long serialVersionUID = 6043209512573019463L;
+    /** The logger */
+    private static final Logger log = LoggerFactory.getLogger(TimeSeriesSnapshot.class);
+    /** Name of the series */
+    private final String name;
+    /** Backend of the decimals of the series */
+    private final DecimalBackend decimalBackend;
+    /** Math context of the decimals of the series */
+    private final MathContext mathContext;
+    /** Maximum number of ticks of the series (when the snapshot was taken) */
+    private final int maximumTickCount;
+    /** Number of removed ticks (i.e. index of the first held tick) */
+    private final int removedTicksCount;
+    /** Begin index of the snapshot */
+    private final int beginIndex;
+    /** End index of the snapshot */
+    private final int endIndex;
+    /** Ticks from the first held index to the end index (exclusive) */
+    private final List<Tick> ticks;
+    /** Tick at the end index (null if the snapshot holds no tick) */
+    private final Tick lastTick;
+    /** Number of updates of the last tick of the series (when the snapshot was taken) */
+    private final long lastTickUpdateCount;
+
+    /**
+     * Constructor.
+     * @param series the original series (or one of its snapshots)
+     * @param ticks the ticks from the first held index of the original series to the end index (exclusive),
+     * which must never be modified
+     * @param lastTick the tick at the end index (null if the snapshot holds no tick), which must never be modified
+     * @param beginIndex the begin index of the snapshot
+     * @param endIndex the end index of the snapshot
+     */
+    TimeSeriesSnapshot(TimeSeries series, List<Tick> ticks, Tick lastTick, int beginIndex, int endIndex) {
+        this.name = series.getName();
+        this.decimalBackend = series.getDecimalBackend();
+        this.mathContext = series.getMathContext();
+        this.maximumTickCount = series.getMaximumTickCount();
+        this.removedTicksCount = series.getRemovedTicksCount();
+        this.lastTickUpdateCount = series.getLastTickUpdateCount();
+        this.ticks = ticks;
+        this.lastTick = lastTick;
+        this.beginIndex = beginIndex;
+        this.endIndex = endIndex;
+    }
+
+    /**
+     * Builds a snapshot over the ticks of an immutable series.
+     * @param series an immutable series
+     * @param ticks the ticks of the series, from its first held index
+     * @param beginIndex the begin index of the snapshot
+     * @param endIndex the end index of the snapshot
+     * @return the snapshot of the range of the series
+     */
+    static TimeSeries of(TimeSeries series, List<Tick> ticks, int beginIndex, int endIndex) {
+        checkIndexes(series, beginIndex, endIndex);
+        final int lastPosition = endIndex - series.getRemovedTicksCount();
+        if (lastPosition < 0) {
+            return new TimeSeriesSnapshot(series, Collections.<Tick>emptyList(), null, beginIndex, endIndex);
+        }
+        return new TimeSeriesSnapshot(series, ticks.subList(0, lastPosition), ticks.get(lastPosition), beginIndex, endIndex);
+    }
+
+    /**
+     * Builds a snapshot by copying the ticks of a series.
+     * @param series a series
+     * @param beginIndex the begin index of the snapshot
+     * @param endIndex the end index of the snapshot
+     * @return the snapshot of the range of the series
+     */
+    static TimeSeries copyOf(TimeSeries series, int beginIndex, int endIndex) {
+        checkIndexes(series, beginIndex, endIndex);
+        final int firstIndex = series.getRemovedTicksCount();
+        List<Tick> ticks = new ArrayList<>(Math.max(0, endIndex - firstIndex));
+        for (int i = firstIndex; i < endIndex; i++) {
+            ticks.add(frozenCopy(series.getTick(i)));
+        }
+        final Tick lastTick = endIndex < firstIndex ? null : frozenCopy(series.getTick(endIndex));
+        return new TimeSeriesSnapshot(series, ticks, lastTick, beginIndex, endIndex);
+    }
+
+    /**
+     * Checks the indexes of a snapshot.
+     * @param series the original series
+     * @param beginIndex the begin index of the snapshot
+     * @param endIndex the end index of the snapshot
+     */
+    static void checkIndexes(TimeSeries series, int beginIndex, int endIndex) {
+        if (beginIndex < series.getBeginIndex()) {
+            throw new IllegalArgumentException("Begin index must be >= to the begin index of the series");
+        }
+        if (endIndex > series.getEndIndex()) {
+            throw new IllegalArgumentException("End index must be <= to the end index of the series");
+        }
+        if (endIndex < beginIndex - 1) {
+            throw new IllegalArgumentException("End index must be >= to begin index - 1");
+        }
+    }
+
+    /**
+     * @param tick a tick
+     * @return a copy of the tick, which is not affected by the later modifications of the tick (e.g. trades)
+     */
+    static Tick frozenCopy(Tick tick) {
+        return new BaseTick(tick.getTimePeriod(), tick.getEndTime(), tick.getOpenPrice(), tick.getMaxPrice(),
+                tick.getMinPrice(), tick.getClosePrice(), tick.getVolume(), tick.getAmount(), tick.getTrades());
+    }
+
+    @Override
+    public TimeSeries snapshot() {
+        return this;
+    }
+
+    @Override
+    public TimeSeries view(int beginIndex, int endIndex) {
+        checkIndexes(this, beginIndex, endIndex);
+        final int lastPosition = endIndex - removedTicksCount;
+        if (lastPosition < 0) {
+            return new TimeSeriesSnapshot(this, Collections.<Tick>emptyList(), null, beginIndex, endIndex);
+        }
+        return new TimeSeriesSnapshot(this, ticks.subList(0, lastPosition), getTick(endIndex), beginIndex, endIndex);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public DecimalBackend getDecimalBackend() {
+        return decimalBackend;
+    }
+
+    @Override
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+
+    @Override
+    public Tick getTick(int i) {
+        int innerIndex = i - removedTicksCount;
+        if (innerIndex < 0) {
+            if (i < 0 || lastTick == null) {
+                throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+            }
+            log.trace("Time series `{}` ({} ticks): tick {} already removed, use {}-th instead", name, getTickCount(), i, removedTicksCount);
+            innerIndex = 0;
+        } else if (i > endIndex) {
+            throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+        }
+        return innerIndex == ticks.size() ? lastTick : ticks.get(innerIndex);
+    }
+
+    @Override
+    public int getTickCount() {
+        if (endIndex < 0) {
+            return 0;
+        }
+        return endIndex - Math.max(removedTicksCount, beginIndex) + 1;
+    }
+
+    /**
+     * Returns a read-only view of the ticks held by the snapshot.
+     * @return the raw tick data
+     */
+    @Override
+    public List<Tick> getTickData() {
+        return new TickDataView();
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return beginIndex;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return endIndex;
+    }
+
+    @Override
+    public void setMaximumTickCount(int maximumTickCount) {
+        throw new UnsupportedOperationException("Cannot modify a snapshot of a time series");
+    }
+
+    @Override
+    public int getMaximumTickCount() {
+        return maximumTickCount;
+    }
+
+    @Override
+    public int getRemovedTicksCount() {
+        return removedTicksCount;
+    }
+
+    @Override
+    public void addTick(Tick tick) {
+        throw new UnsupportedOperationException("Cannot modify a snapshot of a time series");
+    }
+
+    @Override
+    public void addTrade(Decimal tradeVolume, Decimal tradePrice) {
+        throw new UnsupportedOperationException("Cannot modify a snapshot of a time series");
+    }
+
+    @Override
+    public long getLastTickUpdateCount() {
+        return lastTickUpdateCount;
+    }
+
+    /**
+     * @param index an out of bounds tick index
+     * @return a message for an OutOfBoundsException
+     */
+    private String buildOutOfBoundsMessage(int index) {
+        return "Size of series: " + getTickCount() + " ticks, " + removedTicksCount + " ticks removed, index = " + index;
+    }
+
+    private Object writeReplace() {
+        // The ticks may be a view over a larger (or non-serializable) storage
+        return ticks instanceof ArrayList ? this
+                : new TimeSeriesSnapshot(this, new ArrayList<>(ticks), lastTick, beginIndex, endIndex);
+    }
+
+    /**
+     * Read-only list view of the ticks held by the snapshot.
+     */
+    private class TickDataView extends AbstractList<Tick> implements RandomAccess {
+
+        @Override
+        public Tick get(int index) {
+            if (index == ticks.size() && lastTick != null) {
+                return lastTick;
+            }
+            return ticks.get(index);
+        }
+
+        @Override
+        public int size() {
+            return lastTick == null ? 0 : ticks.size() + 1;
+        }
+    }
+}
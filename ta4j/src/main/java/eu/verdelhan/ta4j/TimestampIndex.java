@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.util.Arrays;
+
+/**
+ * Index of the end times of the ticks of a {@link TimeSeries time series}.
+ * <p>
+ * The end times are stored as epoch milliseconds in a primitive array, in the order of the ticks.
+ * The oldest end times can be removed in constant time (the array is compacted when it has to grow).
+ */
+final class TimestampIndex {
+
+    /** Default initial capacity */
+    private static final int INITIAL_CAPACITY = 16;
+    /** End times (epoch milliseconds) */
+    private long[] endTimes = new long[INITIAL_CAPACITY];
+    /** Position of the first end time */
+    private int offset = 0;
+    /** Number of end times */
+    private int size = 0;
+
+    /**
+     * @return the number of end times in the index
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param i an (inner) index
+     * @return the i-th end time (epoch milliseconds)
+     */
+    long get(int i) {
+        return endTimes[offset + i];
+    }
+
+    /**
+     * Appends an end time to the index.
+     * @param endTime an end time (epoch milliseconds)
+     */
+    void add(long endTime) {
+        if (offset + size == endTimes.length) {
+            if (offset >= size) {
+                // Enough room at the beginning: compacting
+                System.arraycopy(endTimes, offset, endTimes, 0, size);
+            } else {
+                endTimes = Arrays.copyOfRange(endTimes, offset, offset + endTimes.length + (endTimes.length >> 1));
+            }
+            offset = 0;
+        }
+        endTimes[offset + size] = endTime;
+        size++;
+    }
+
+    /**
+     * Removes the first end times of the index.
+     * @param n the number of end times to be removed
+     */
+    void removeFirst(int n) {
+        n = Math.min(n, size);
+        offset += n;
+        size -= n;
+    }
+
+    /**
+     * Removes all the end times of the index.
+     */
+    void clear() {
+        offset = 0;
+        size = 0;
+    }
+
+    /**
+     * Searches the first tick of a series which ends at or after a time.
+     * <p>
+     * The search is a binary search on {@link TimeSeries#getEndTimeMillis(int)},
+     * between the first available (i.e. not removed) index and the end index of the series.
+     * @param series the time series
+     * @param endTime a time (epoch milliseconds)
+     * @return the index of the first tick ending at or after the time, the end index + 1 if there is no such tick
+     */
+    static int ceiling(TimeSeries series, long endTime) {
+        int low = Math.max(series.getBeginIndex(), series.getRemovedTicksCount());
+        int high = series.getEndIndex();
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (series.getEndTimeMillis(middle) < endTime) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -25,13 +25,15 @@ package eu.verdelhan.ta4j.indicators;
 import eu.verdelhan.ta4j.Decimal;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
-import eu.verdelhan.ta4j.indicators.helpers.LowestValueIndicator;
 import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.SlidingExtremum;
 
 
 /**
  * Aroon down indicator.
  * <p>
+ * The number of ticks since the lowest close price is given by the index of its most recent occurrence
+ * (see {@link SlidingExtremum}).
  */
 public class AroonDownIndicator extends CachedIndicator<Decimal> {
 
@@ -39,13 +41,13 @@ public class AroonDownIndicator extends CachedIndicator<Decimal> {
 
     private final ClosePriceIndicator closePriceIndicator;
 
-    private final LowestValueIndicator lowestClosePriceIndicator;
+    private final SlidingExtremum lowestClosePrice;
 
     public AroonDownIndicator(TimeSeries series, int timeFrame) {
         super(series);
         this.timeFrame = timeFrame;
         closePriceIndicator = new ClosePriceIndicator(series);
-        lowestClosePriceIndicator = new LowestValueIndicator(closePriceIndicator, timeFrame);
+        lowestClosePrice = new SlidingExtremum(closePriceIndicator, timeFrame, false, true);
     }
 
     @Override
@@ -53,15 +55,14 @@ public class AroonDownIndicator extends CachedIndicator<Decimal> {
         int realTimeFrame = Math.min(timeFrame, index + 1);
 
         // Getting the number of ticks since the lowest close price
-        int endIndex = index - realTimeFrame;
-        int nbTicks = 0;
-        for (int i = index; i > endIndex; i--) {
-            if (closePriceIndicator.getValue(i).isEqual(lowestClosePriceIndicator.getValue(index))) {
-                break;
+        int nbTicks = realTimeFrame;
+        if (!closePriceIndicator.getValue(index - realTimeFrame + 1).isNaN()) {
+            int lowestIndex = lowestClosePrice.getIndex(index);
+            if (lowestIndex >= 0) {
+                nbTicks = index - lowestIndex;
             }
-            nbTicks++;
         }
-        
+
         return Decimal.valueOf(realTimeFrame - nbTicks).dividedBy(Decimal.valueOf(realTimeFrame)).multipliedBy(Decimal.HUNDRED);
     }
 }
@@ -25,13 +25,15 @@ package eu.verdelhan.ta4j.indicators;
 import eu.verdelhan.ta4j.Decimal;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
-import eu.verdelhan.ta4j.indicators.helpers.HighestValueIndicator;
 import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.SlidingExtremum;
 
 
 /**
  * Aroon up indicator.
  * <p>
+ * The number of ticks since the highest close price is given by the index of its most recent occurrence
+ * (see {@link SlidingExtremum}).
  */
 public class AroonUpIndicator extends CachedIndicator<Decimal> {
 
@@ -39,13 +41,13 @@ public class AroonUpIndicator extends CachedIndicator<Decimal> {
 
     private final ClosePriceIndicator closePriceIndicator;
 
-    private final HighestValueIndicator highestClosePriceIndicator;
+    private final SlidingExtremum highestClosePrice;
 
     public AroonUpIndicator(TimeSeries series, int timeFrame) {
         super(series);
         this.timeFrame = timeFrame;
         closePriceIndicator = new ClosePriceIndicator(series);
-        highestClosePriceIndicator = new HighestValueIndicator(closePriceIndicator, timeFrame);
+        highestClosePrice = new SlidingExtremum(closePriceIndicator, timeFrame, true, true);
     }
 
     @Override
@@ -53,13 +55,12 @@ public class AroonUpIndicator extends CachedIndicator<Decimal> {
         int realTimeFrame = Math.min(timeFrame, index + 1);
 
         // Getting the number of ticks since the highest close price
-        int endIndex = index - realTimeFrame;
-        int nbTicks = 0;
-        for (int i = index; i > endIndex; i--) {
-            if (closePriceIndicator.getValue(i).isEqual(highestClosePriceIndicator.getValue(index))) {
-                break;
+        int nbTicks = realTimeFrame;
+        if (!closePriceIndicator.getValue(index - realTimeFrame + 1).isNaN()) {
+            int highestIndex = highestClosePrice.getIndex(index);
+            if (highestIndex >= 0) {
+                nbTicks = index - highestIndex;
             }
-            nbTicks++;
         }
 
         return Decimal.valueOf(realTimeFrame - nbTicks).dividedBy(Decimal.valueOf(realTimeFrame)).multipliedBy(Decimal.HUNDRED);
@@ -33,11 +33,18 @@ import eu.verdelhan.ta4j.indicators.RecursiveCachedIndicator;
 public class AverageDirectionalMovementIndicator extends RecursiveCachedIndicator<Decimal> {
 
     private final int timeFrame;
+
+    private final Decimal nbPeriods;
+
+    private final Decimal nbPeriodsMinusOne;
+
     private final DirectionalMovementIndicator dm;
 
     public AverageDirectionalMovementIndicator(TimeSeries series, int timeFrame) {
         super(series);
         this.timeFrame = timeFrame;
+        this.nbPeriods = Decimal.valueOf(timeFrame);
+        this.nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
         this.dm = new DirectionalMovementIndicator(series, timeFrame);
     }
 
@@ -46,8 +53,6 @@ public class AverageDirectionalMovementIndicator extends RecursiveCachedIndicato
         if (index == 0) {
             return Decimal.ONE;
         }
-        Decimal nbPeriods = Decimal.valueOf(timeFrame);
-        Decimal nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
         return getValue(index - 1).multipliedBy(nbPeriodsMinusOne).dividedBy(nbPeriods).plus(dm.getValue(index).dividedBy(nbPeriods));
     }
 }
\ No newline at end of file
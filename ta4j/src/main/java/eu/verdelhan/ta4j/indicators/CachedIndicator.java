@@ -22,27 +22,49 @@
  */
 package eu.verdelhan.ta4j.indicators;
 
+import eu.verdelhan.ta4j.ConcurrentTimeSeries;
 import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.RingBuffer;
 import eu.verdelhan.ta4j.TimeSeries;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * Cached {@link Indicator indicator}.
  * <p>
  * Caches the constructor of the indicator. Avoid to calculate the same index of the indicator twice.
+ * <p>
+ * An indicator is not meant to be shared between threads: the reading threads of a {@link ConcurrentTimeSeries concurrent time series}
+ * should build their own indicators over a {@link TimeSeries#snapshot() snapshot} of the series.
+ * When the indicator is built on the concurrent series itself, the accesses to the cache are synchronized
+ * (so that the cache is not corrupted), but the whole calculation of a value, including the recursive ones, then holds the lock.
  */
 public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
 
-    /** List of cached results */
-    private final List<T> results = new ArrayList<T>();
+    /** Initial capacity of the results buffer */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * List of cached results.
+     * It is a ring buffer so that the oldest results are evicted in constant time (see {@link TimeSeries#getMaximumTickCount()}).
+     */
+    private final RingBuffer<T> results = new RingBuffer<T>(INITIAL_CAPACITY);
 
     /**
      * Should always be the index of the last result in the results list.
      * I.E. the last calculated result.
      */
     protected int highestResultIndex = -1;
+
+    /**
+     * Index of the result which was calculated while it was the last index of the series (-1 if none).
+     * The last tick of the series may have been updated since (see {@link TimeSeries#updateLastTick(eu.verdelhan.ta4j.Tick)}).
+     */
+    private int provisionalResultIndex = -1;
+
+    /** Update count of the last tick of the series when the provisional result was calculated */
+    private long provisionalResultUpdateCount;
+
+    /** True if the accesses to the cache are synchronized (i.e. for a concurrent time series), false otherwise */
+    private final boolean synchronizedCache;
     
     /**
      * Constructor.
@@ -50,6 +72,7 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
      */
     public CachedIndicator(TimeSeries series) {
         super(series);
+        this.synchronizedCache = series instanceof ConcurrentTimeSeries;
     }
 
     /**
@@ -71,7 +94,20 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
         }
 
         // Series is not null
-        
+        if (synchronizedCache) {
+            synchronized (results) {
+                return getCachedValue(series, index);
+            }
+        }
+        return getCachedValue(series, index);
+    }
+
+    /**
+     * @param series the related time series
+     * @param index the tick index
+     * @return the (cached) value of the indicator
+     */
+    private T getCachedValue(TimeSeries series, int index) {
         final int removedTicksCount = series.getRemovedTicksCount();
         final int maximumResultCount = series.getMaximumTickCount();
         
@@ -95,14 +131,14 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
             if (index > highestResultIndex) {
                 // Result not calculated yet
                 highestResultIndex = index;
-                result = calculate(index);
+                result = calculateResult(series, index);
                 results.set(results.size()-1, result);
             } else {
                 // Result covered by current cache
                 int resultInnerIndex = results.size() - 1 - (highestResultIndex - index);
                 result = results.get(resultInnerIndex);
-                if (result == null) {
-                    result = calculate(index);
+                if (result == null || isOutdated(series, index)) {
+                    result = calculateResult(series, index);
                 }
                 results.set(resultInnerIndex, result);
             }
@@ -116,6 +152,50 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
      */
     protected abstract T calculate(int index);
 
+    /**
+     * Calculates a result, and keeps track of it if it is provisional
+     * (i.e. if it is calculated for the last index of the series, whose tick may still be updated).
+     * @param series the related time series
+     * @param index the tick index
+     * @return the value of the indicator
+     */
+    private T calculateResult(TimeSeries series, int index) {
+        final long updateCount = series.getLastTickUpdateCount();
+        final boolean provisional = index == series.getEndIndex();
+        final T result = calculate(index);
+        if (provisional) {
+            if (provisionalResultIndex >= 0 && provisionalResultIndex != index && isOutdated(series, provisionalResultIndex)) {
+                // The previous last tick was updated before the new one was added
+                invalidateResult(provisionalResultIndex);
+            }
+            provisionalResultIndex = index;
+            provisionalResultUpdateCount = updateCount;
+        } else if (index == provisionalResultIndex) {
+            provisionalResultIndex = -1;
+        }
+        return result;
+    }
+
+    /**
+     * @param series the related time series
+     * @param index the tick index
+     * @return true if the cached result for the index is outdated (i.e. the last tick has been updated since), false otherwise
+     */
+    private boolean isOutdated(TimeSeries series, int index) {
+        return index == provisionalResultIndex && series.getLastTickUpdateCount() != provisionalResultUpdateCount;
+    }
+
+    /**
+     * Drops a cached result, so that it is recalculated on the next access.
+     * @param index the tick index
+     */
+    private void invalidateResult(int index) {
+        final int resultInnerIndex = results.size() - 1 - (highestResultIndex - index);
+        if (resultInnerIndex >= 0) {
+            results.set(resultInnerIndex, null);
+        }
+    }
+
     /**
      * Increases the size of cached results buffer.
      * @param index the index to increase length to
@@ -126,15 +206,25 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
             int newResultsCount = Math.min(index-highestResultIndex, maxLength);
             if (newResultsCount == maxLength) {
                 results.clear();
-                results.addAll(Collections.<T> nCopies(maxLength, null));
+                addEmptyResults(maxLength);
             } else if (newResultsCount > 0) {
-                results.addAll(Collections.<T> nCopies(newResultsCount, null));
+                addEmptyResults(newResultsCount);
                 removeExceedingResults(maxLength);
             }
         } else {
             // First use of cache
             assert results.isEmpty() : "Cache results list should be empty";
-            results.addAll(Collections.<T> nCopies(Math.min(index+1, maxLength), null));
+            addEmptyResults(Math.min(index+1, maxLength));
+        }
+    }
+
+    /**
+     * Adds empty (i.e. not calculated yet) results at the end of the results buffer.
+     * @param count the number of results to add
+     */
+    private void addEmptyResults(int count) {
+        for (int i = 0; i < count; i++) {
+            results.add(null);
         }
     }
 
@@ -147,10 +237,7 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
         int resultCount = results.size();
         if (resultCount > maximumResultCount) {
             // Removing old results
-            final int nbResultsToRemove = resultCount - maximumResultCount;
-            for (int i = 0; i < nbResultsToRemove; i++) {
-                results.remove(0);
-            }
+            results.removeFirst(resultCount - maximumResultCount);
         }
     }
 }
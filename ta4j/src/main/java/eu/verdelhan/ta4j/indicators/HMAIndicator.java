@@ -31,6 +31,8 @@ import eu.verdelhan.ta4j.indicators.helpers.MultiplierIndicator;
 /**
  * Hull moving average (HMA) indicator.
  * <p>
+ * It is built on {@link WMAIndicator weighted moving averages}: when the indexes are calculated sequentially,
+ * each value is calculated in constant time, whatever the time frame.
  * @see http://alanhull.com/hull-moving-average
  */
 public class HMAIndicator extends CachedIndicator<Decimal> {
@@ -46,7 +48,7 @@ public class HMAIndicator extends CachedIndicator<Decimal> {
         WMAIndicator halfWma = new WMAIndicator(indicator, timeFrame / 2);
         WMAIndicator origWma = new WMAIndicator(indicator, timeFrame);
         
-        Indicator indicatorForSqrtWma = new DifferenceIndicator(new MultiplierIndicator(halfWma, Decimal.TWO), origWma);
+        Indicator<Decimal> indicatorForSqrtWma = new DifferenceIndicator(new MultiplierIndicator(halfWma, Decimal.TWO), origWma);
         sqrtWma = new WMAIndicator(indicatorForSqrtWma, (int) Math.sqrt(timeFrame));
     }
 
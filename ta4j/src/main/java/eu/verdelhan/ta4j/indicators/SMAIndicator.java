@@ -24,11 +24,19 @@ package eu.verdelhan.ta4j.indicators;
 
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalAccumulator;
+import eu.verdelhan.ta4j.RunningSum;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.SlidingWindow;
 
 /**
  * Simple moving average (SMA) indicator.
  * <p>
+ * The sum of the time frame is a {@link RunningSum running sum} over a {@link SlidingWindow sliding window}:
+ * when the indexes are calculated sequentially, each value is calculated in constant time
+ * (the incoming value is added, the outgoing one subtracted).
+ * Other indexes (e.g. random accesses) are calculated by summing their whole time frame.
+ * The results are identical in both cases with BigDecimal-backed values.
  */
 public class SMAIndicator extends CachedIndicator<Decimal> {
 
@@ -36,21 +44,33 @@ public class SMAIndicator extends CachedIndicator<Decimal> {
 
     private final int timeFrame;
 
+    private final DecimalAccumulator sum = new DecimalAccumulator();
+
+    /** Running sum of the time frame of the last calculated index */
+    private final RunningSum runningSum = new RunningSum();
+
+    /** Sliding time frame of the running sum */
+    private final SlidingWindow window;
+
     public SMAIndicator(Indicator<Decimal> indicator, int timeFrame) {
         super(indicator);
         this.indicator = indicator;
         this.timeFrame = timeFrame;
+        this.window = new RunningSumWindow();
     }
 
     @Override
     protected Decimal calculate(int index) {
-        Decimal sum = Decimal.ZERO;
+        final int realTimeFrame = Math.min(timeFrame, index + 1);
+        if (window.moveTo(index)) {
+            return runningSum.toDecimal().dividedBy(Decimal.valueOf(realTimeFrame));
+        }
+        // Mixed backends or math contexts
+        sum.reset();
         for (int i = Math.max(0, index - timeFrame + 1); i <= index; i++) {
-            sum = sum.plus(indicator.getValue(i));
+            sum.add(indicator.getValue(i));
         }
-
-        final int realTimeFrame = Math.min(timeFrame, index + 1);
-        return sum.dividedBy(Decimal.valueOf(realTimeFrame));
+        return sum.toDecimal().dividedBy(Decimal.valueOf(realTimeFrame));
     }
 
     @Override
@@ -58,4 +78,34 @@ public class SMAIndicator extends CachedIndicator<Decimal> {
         return getClass().getSimpleName() + " timeFrame: " + timeFrame;
     }
 
+    /**
+     * Sliding time frame of the running sum.
+     */
+    private class RunningSumWindow extends SlidingWindow {
+
+        private static final long serialVersionUID = 6520193374738302648L;
+
+        RunningSumWindow() {
+            super(timeFrame, indicator);
+        }
+
+        @Override
+        protected boolean fill(int startIndex, int endIndex) {
+            runningSum.reset();
+            for (int i = startIndex; i <= endIndex; i++) {
+                runningSum.add(indicator.getValue(i));
+            }
+            return runningSum.isSlidable();
+        }
+
+        @Override
+        protected boolean replaceLast(int index, Decimal[] values, Decimal[] previousValues) {
+            return runningSum.slide(values[0], previousValues[0]);
+        }
+
+        @Override
+        protected boolean slide(int index, Decimal[] values, int outgoingIndex) {
+            return runningSum.slide(values[0], outgoingIndex < 0 ? null : indicator.getValue(outgoingIndex));
+        }
+    }
 }
@@ -24,11 +24,17 @@ package eu.verdelhan.ta4j.indicators;
 
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.RunningWeightedSum;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.SlidingWindow;
 
 /**
  * WMA indicator.
  * <p>
+ * The weighted sum of the time frame is a {@link RunningWeightedSum running weighted sum} over a
+ * {@link SlidingWindow sliding window}: when the indexes are calculated sequentially, each value is calculated
+ * in constant time (from the previous weighted sum and the plain sum of the time frame).
+ * Other indexes (e.g. random accesses) are calculated by summing their whole time frame.
  */
 public class WMAIndicator extends CachedIndicator<Decimal> {
 
@@ -36,10 +42,21 @@ public class WMAIndicator extends CachedIndicator<Decimal> {
 
     private Indicator<Decimal> indicator;
 
+    /** Sum of the weights over the whole time frame */
+    private final Decimal weightsSum;
+
+    /** Running weighted sum of the time frame of the last calculated index */
+    private final RunningWeightedSum runningSum = new RunningWeightedSum();
+
+    /** Sliding time frame of the running weighted sum */
+    private final SlidingWindow window;
+
     public WMAIndicator(Indicator<Decimal> indicator, int timeFrame) {
         super(indicator);
         this.indicator = indicator;
         this.timeFrame = timeFrame;
+        this.weightsSum = Decimal.valueOf((timeFrame * (timeFrame + 1)) / 2);
+        this.window = new RunningWeightedSumWindow();
     }
 
     @Override
@@ -47,6 +64,22 @@ public class WMAIndicator extends CachedIndicator<Decimal> {
         if (index == 0) {
             return indicator.getValue(0);
         }
+        if (!window.moveTo(index)) {
+            // Mixed backends or math contexts
+            return calculateWeightedAverage(index);
+        }
+        if (index - timeFrame < 0) {
+            return runningSum.toDecimal().dividedBy(Decimal.valueOf(((index + 1) * (index + 2)) / 2));
+        }
+        return runningSum.toDecimal().dividedBy(weightsSum);
+    }
+
+    /**
+     * Calculates the weighted average of the time frame of an index from scratch.
+     * @param index the index to be calculated
+     * @return the weighted average of the time frame
+     */
+    private Decimal calculateWeightedAverage(int index) {
         Decimal value = Decimal.ZERO;
         if(index - timeFrame < 0) {
             
@@ -61,11 +94,45 @@ public class WMAIndicator extends CachedIndicator<Decimal> {
             value = value.plus(Decimal.valueOf(i).multipliedBy(indicator.getValue(actualIndex)));
             actualIndex--;
         }
-        return value.dividedBy(Decimal.valueOf((timeFrame * (timeFrame + 1)) / 2));
+        return value.dividedBy(weightsSum);
     }
 
     @Override
     public String toString() {
         return String.format("%s timeFrame: %s", getClass().getSimpleName(), timeFrame);
     }
+
+    /**
+     * Sliding time frame of the running weighted sum.
+     */
+    private class RunningWeightedSumWindow extends SlidingWindow {
+
+        private static final long serialVersionUID = -3034889920713516437L;
+
+        RunningWeightedSumWindow() {
+            super(timeFrame, indicator);
+        }
+
+        @Override
+        protected boolean fill(int startIndex, int endIndex) {
+            runningSum.reset();
+            for (int i = startIndex; i <= endIndex; i++) {
+                runningSum.add(indicator.getValue(i));
+            }
+            return runningSum.isSlidable();
+        }
+
+        @Override
+        protected boolean replaceLast(int index, Decimal[] values, Decimal[] previousValues) {
+            return runningSum.replaceLast(values[0], previousValues[0]);
+        }
+
+        @Override
+        protected boolean slide(int index, Decimal[] values, int outgoingIndex) {
+            if (outgoingIndex < 0) {
+                return runningSum.add(values[0]).isSlidable();
+            }
+            return runningSum.slide(values[0], indicator.getValue(outgoingIndex));
+        }
+    }
 }
@@ -26,6 +26,7 @@ import eu.verdelhan.ta4j.Decimal;
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
 import eu.verdelhan.ta4j.indicators.statistics.StandardDeviationIndicator;
+import eu.verdelhan.ta4j.indicators.statistics.StatisticsAlgorithm;
 import eu.verdelhan.ta4j.indicators.SMAIndicator;
 
 /**
@@ -49,10 +50,21 @@ public class PercentBIndicator extends CachedIndicator<Decimal> {
      * @param k the K multiplier (usually 2.0)
      */
     public PercentBIndicator(Indicator<Decimal> indicator, int timeFrame, Decimal k) {
+        this(indicator, timeFrame, k, StatisticsAlgorithm.TWO_PASS);
+    }
+
+    /**
+     * Constructor.
+     * @param indicator an indicator (usually close price)
+     * @param timeFrame the time frame
+     * @param k the K multiplier (usually 2.0)
+     * @param algorithm the statistics algorithm of the standard deviation
+     */
+    public PercentBIndicator(Indicator<Decimal> indicator, int timeFrame, Decimal k, StatisticsAlgorithm algorithm) {
         super(indicator);
         this.indicator = indicator;
         this.bbm = new BollingerBandsMiddleIndicator(new SMAIndicator(indicator, timeFrame));
-        StandardDeviationIndicator sd = new StandardDeviationIndicator(indicator, timeFrame);
+        StandardDeviationIndicator sd = new StandardDeviationIndicator(indicator, timeFrame, algorithm);
         this.bbu = new BollingerBandsUpperIndicator(bbm, sd, k);
         this.bbl = new BollingerBandsLowerIndicator(bbm, sd, k);;
     }
@@ -33,11 +33,17 @@ import eu.verdelhan.ta4j.indicators.RecursiveCachedIndicator;
 public class AverageDirectionalMovementDownIndicator extends RecursiveCachedIndicator<Decimal> {
     private final int timeFrame;
 
+    private final Decimal nbPeriods;
+
+    private final Decimal nbPeriodsMinusOne;
+
     private final DirectionalMovementDownIndicator dmdown;
 
     public AverageDirectionalMovementDownIndicator(TimeSeries series, int timeFrame) {
         super(series);
         this.timeFrame = timeFrame;
+        this.nbPeriods = Decimal.valueOf(timeFrame);
+        this.nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
         dmdown = new DirectionalMovementDownIndicator(series);
     }
 
@@ -46,8 +52,6 @@ public class AverageDirectionalMovementDownIndicator extends RecursiveCachedIndi
         if (index == 0) {
             return Decimal.ONE;
         }
-        Decimal nbPeriods = Decimal.valueOf(timeFrame);
-        Decimal nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
         return getValue(index - 1).multipliedBy(nbPeriodsMinusOne).dividedBy(nbPeriods).plus(dmdown.getValue(index).dividedBy(nbPeriods));
 
     }
@@ -34,11 +34,17 @@ public class AverageDirectionalMovementUpIndicator extends RecursiveCachedIndica
 
     private final int timeFrame;
 
+    private final Decimal nbPeriods;
+
+    private final Decimal nbPeriodsMinusOne;
+
     private final DirectionalMovementUpIndicator dmup;
 
     public AverageDirectionalMovementUpIndicator(TimeSeries series, int timeFrame) {
         super(series);
         this.timeFrame = timeFrame;
+        this.nbPeriods = Decimal.valueOf(timeFrame);
+        this.nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
         dmup = new DirectionalMovementUpIndicator(series);
     }
 
@@ -47,8 +53,6 @@ public class AverageDirectionalMovementUpIndicator extends RecursiveCachedIndica
         if (index == 0) {
             return Decimal.ONE;
         }
-        Decimal nbPeriods = Decimal.valueOf(timeFrame);
-        Decimal nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
         return getValue(index - 1).multipliedBy(nbPeriodsMinusOne).dividedBy(nbPeriods).plus(dmup.getValue(index).dividedBy(nbPeriods));
     }
 }
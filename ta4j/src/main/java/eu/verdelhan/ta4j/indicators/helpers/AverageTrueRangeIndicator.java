@@ -33,11 +33,18 @@ import eu.verdelhan.ta4j.indicators.RecursiveCachedIndicator;
 public class AverageTrueRangeIndicator extends RecursiveCachedIndicator<Decimal> {
 
     private final int timeFrame;
+
+    private final Decimal nbPeriods;
+
+    private final Decimal nbPeriodsMinusOne;
+
     private final TrueRangeIndicator tr;
 
     public AverageTrueRangeIndicator(TimeSeries series, int timeFrame) {
         super(series);
         this.timeFrame = timeFrame;
+        this.nbPeriods = Decimal.valueOf(timeFrame);
+        this.nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
         this.tr = new TrueRangeIndicator(series);
     }
     
@@ -46,8 +53,6 @@ public class AverageTrueRangeIndicator extends RecursiveCachedIndicator<Decimal>
         if (index == 0) {
             return Decimal.ONE;
         }
-        Decimal nbPeriods = Decimal.valueOf(timeFrame);
-        Decimal nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
         return getValue(index - 1).multipliedBy(nbPeriodsMinusOne).plus(tr.getValue(index)).dividedBy(nbPeriods);
     }
 }
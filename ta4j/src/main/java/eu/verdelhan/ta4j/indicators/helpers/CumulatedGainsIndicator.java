@@ -24,6 +24,7 @@ package eu.verdelhan.ta4j.indicators.helpers;
 
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalAccumulator;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
 
 /**
@@ -36,6 +37,8 @@ public class CumulatedGainsIndicator extends CachedIndicator<Decimal> {
 
     private final int timeFrame;
 
+    private final DecimalAccumulator sumOfGains = new DecimalAccumulator();
+
     public CumulatedGainsIndicator(Indicator<Decimal> indicator, int timeFrame) {
         super(indicator);
         this.indicator = indicator;
@@ -44,12 +47,14 @@ public class CumulatedGainsIndicator extends CachedIndicator<Decimal> {
 
     @Override
     protected Decimal calculate(int index) {
-        Decimal sumOfGains = Decimal.ZERO;
+        sumOfGains.reset();
         for (int i = Math.max(1, index - timeFrame + 1); i <= index; i++) {
-            if (indicator.getValue(i).isGreaterThan(indicator.getValue(i - 1))) {
-                sumOfGains = sumOfGains.plus(indicator.getValue(i).minus(indicator.getValue(i - 1)));
+            Decimal value = indicator.getValue(i);
+            Decimal previousValue = indicator.getValue(i - 1);
+            if (value.isGreaterThan(previousValue)) {
+                sumOfGains.add(value).subtract(previousValue);
             }
         }
-        return sumOfGains;
+        return sumOfGains.toDecimal();
     }
 }
@@ -0,0 +1,55 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.helpers;
+
+import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.indicators.CachedIndicator;
+
+/**
+ * Index of the extremum (i.e. highest or lowest value) of a sliding time frame over an indicator.
+ * <p>
+ * The indexes are cached, so that the {@link SlidingExtremum sliding extremum} is only used by the calculations
+ * of the indicator (i.e. sequentially, and under the cache lock of a concurrent time series).
+ * The result is -1 when all the values of the time frame are NaN.
+ */
+class ExtremumIndexIndicator extends CachedIndicator<Integer> {
+
+    private final SlidingExtremum extremum;
+
+    /**
+     * Constructor.
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     * @param highest true for the highest value, false for the lowest one
+     */
+    ExtremumIndexIndicator(Indicator<Decimal> indicator, int timeFrame, boolean highest) {
+        super(indicator);
+        this.extremum = new SlidingExtremum(indicator, timeFrame, highest, false);
+    }
+
+    @Override
+    protected Integer calculate(int index) {
+        return extremum.getIndex(index);
+    }
+}
@@ -29,6 +29,8 @@ import eu.verdelhan.ta4j.indicators.CachedIndicator;
 /**
  * Highest value indicator.
  * <p>
+ * The highest value of the time frame is found in amortized constant time when the indexes are requested sequentially
+ * (see {@link SlidingExtremum}). The NaN values are ignored, unless the first value of the time frame is NaN.
  */
 public class HighestValueIndicator extends CachedIndicator<Decimal> {
 
@@ -36,22 +38,31 @@ public class HighestValueIndicator extends CachedIndicator<Decimal> {
 
     private final int timeFrame;
 
+    private final ExtremumIndexIndicator highestIndex;
+
     public HighestValueIndicator(Indicator<Decimal> indicator, int timeFrame) {
         super(indicator);
         this.indicator = indicator;
         this.timeFrame = timeFrame;
+        this.highestIndex = new ExtremumIndexIndicator(indicator, timeFrame, true);
     }
 
     @Override
     protected Decimal calculate(int index) {
         int start = Math.max(0, index - timeFrame + 1);
-        Decimal highest = indicator.getValue(start);
-        for (int i = start + 1; i <= index; i++) {
-            if (highest.isLessThan(indicator.getValue(i))) {
-                highest = indicator.getValue(i);
-            }
+        Decimal startValue = indicator.getValue(start);
+        if (startValue.isNaN()) {
+            return startValue;
         }
-        return highest;
+        return indicator.getValue(highestIndex.getValue(index));
+    }
+
+    /**
+     * @param index the tick index
+     * @return the index of the highest value of the time frame ending at the index (the earliest one in case of a tie), -1 if all its values are NaN
+     */
+    public int getHighestIndex(int index) {
+        return highestIndex.getValue(index);
     }
 
     @Override
@@ -29,6 +29,8 @@ import eu.verdelhan.ta4j.indicators.CachedIndicator;
 /**
  * Lowest value indicator.
  * <p>
+ * The lowest value of the time frame is found in amortized constant time when the indexes are requested sequentially
+ * (see {@link SlidingExtremum}). The NaN values are ignored, unless the first value of the time frame is NaN.
  */
 public class LowestValueIndicator extends CachedIndicator<Decimal> {
 
@@ -36,22 +38,31 @@ public class LowestValueIndicator extends CachedIndicator<Decimal> {
 
     private final int timeFrame;
 
+    private final ExtremumIndexIndicator lowestIndex;
+
     public LowestValueIndicator(Indicator<Decimal> indicator, int timeFrame) {
         super(indicator);
         this.indicator = indicator;
         this.timeFrame = timeFrame;
+        this.lowestIndex = new ExtremumIndexIndicator(indicator, timeFrame, false);
     }
 
     @Override
     protected Decimal calculate(int index) {
         int start = Math.max(0, index - timeFrame + 1);
-        Decimal lowest = indicator.getValue(start);
-        for (int i = start + 1; i <= index; i++) {
-            if (lowest.isGreaterThan(indicator.getValue(i))) {
-                lowest = indicator.getValue(i);
-            }
+        Decimal startValue = indicator.getValue(start);
+        if (startValue.isNaN()) {
+            return startValue;
         }
-        return lowest;
+        return indicator.getValue(lowestIndex.getValue(index));
+    }
+
+    /**
+     * @param index the tick index
+     * @return the index of the lowest value of the time frame ending at the index (the earliest one in case of a tie), -1 if all its values are NaN
+     */
+    public int getLowestIndex(int index) {
+        return lowestIndex.getValue(index);
     }
 
     @Override
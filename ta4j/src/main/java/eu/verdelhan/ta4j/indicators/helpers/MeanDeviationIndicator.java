@@ -24,6 +24,7 @@ package eu.verdelhan.ta4j.indicators.helpers;
 
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalAccumulator;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
 import eu.verdelhan.ta4j.indicators.SMAIndicator;
 
@@ -39,7 +40,9 @@ public class MeanDeviationIndicator extends CachedIndicator<Decimal> {
     private int timeFrame;
 
     private SMAIndicator sma;
-    
+
+    private final DecimalAccumulator absoluteDeviations = new DecimalAccumulator();
+
     /**
      * Constructor.
      * @param indicator the indicator
@@ -54,7 +57,7 @@ public class MeanDeviationIndicator extends CachedIndicator<Decimal> {
 
     @Override
     protected Decimal calculate(int index) {
-        Decimal absoluteDeviations = Decimal.ZERO;
+        absoluteDeviations.reset();
 
         final Decimal average = sma.getValue(index);
         final int startIndex = Math.max(0, index - timeFrame + 1);
@@ -62,9 +65,9 @@ public class MeanDeviationIndicator extends CachedIndicator<Decimal> {
 
         for (int i = startIndex; i <= index; i++) {
             // For each period...
-            absoluteDeviations = absoluteDeviations.plus(indicator.getValue(i).minus(average).abs());
+            absoluteDeviations.addAbsoluteDifference(indicator.getValue(i), average);
         }
-        return absoluteDeviations.dividedBy(Decimal.valueOf(nbValues));
+        return absoluteDeviations.toDecimal().dividedBy(Decimal.valueOf(nbValues));
     }
 
     @Override
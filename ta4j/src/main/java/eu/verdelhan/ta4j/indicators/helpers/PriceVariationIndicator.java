@@ -41,8 +41,8 @@ public class PriceVariationIndicator extends CachedIndicator<Decimal> {
 
     @Override
     protected Decimal calculate(int index) {
-        Decimal previousTickClosePrice = series.getTick(Math.max(0, index - 1)).getClosePrice();
-        Decimal currentTickClosePrice = series.getTick(index).getClosePrice();
+        Decimal previousTickClosePrice = series.getClosePrice(Math.max(0, index - 1));
+        Decimal currentTickClosePrice = series.getClosePrice(index);
         return currentTickClosePrice.dividedBy(previousTickClosePrice);
     }
 }
\ No newline at end of file
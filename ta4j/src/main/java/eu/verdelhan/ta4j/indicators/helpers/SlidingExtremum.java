@@ -0,0 +1,215 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.helpers;
+
+import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.TimeSeries;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Extremum (i.e. highest or lowest value) of a sliding time frame over an indicator.
+ * <p>
+ * The candidate indexes of the time frame are kept in a monotonic deque: when the time frames are
+ * requested sequentially, the index of the extremum is found in amortized constant time
+ * (instead of scanning the whole time frame). Other requests (e.g. random accesses) rebuild the deque.
+ * <p>
+ * NaN values are ignored. The value at the requested index is never stored in the deque,
+ * since it may still change (see {@link TimeSeries#updateLastTick(eu.verdelhan.ta4j.Tick)}).
+ * The time frames reaching ticks removed from the series are scanned
+ * (see {@link SlidingWindow#isRemovedIndex(Indicator, int)}).
+ * <p>
+ * Not thread-safe (i.e. to be used by the calculations of a cached indicator).
+ */
+public class SlidingExtremum implements Serializable {
+
+    private static final long serialVersionUID = 4815740295613907012L;
+
+    private final Indicator<Decimal> indicator;
+
+    private final int timeFrame;
+
+    /** True for the highest value, false for the lowest one */
+    private final boolean highest;
+
+    /** True to keep the most recent occurrence of the extremum, false to keep the earliest one */
+    private final boolean mostRecent;
+
+    /** Candidate indexes (circular array), from the extremum to the most recent index */
+    private int[] indexes;
+
+    /** Values of the candidate indexes */
+    private Decimal[] values;
+
+    /** Position of the first candidate */
+    private int head;
+
+    /** Number of candidates */
+    private int size;
+
+    /** Last index pushed into the deque (-1 if none) */
+    private int lastPushedIndex = -1;
+
+    /**
+     * Constructor.
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     * @param highest true for the highest value, false for the lowest one
+     * @param mostRecent true to return the most recent occurrence of the extremum, false to return the earliest one
+     */
+    public SlidingExtremum(Indicator<Decimal> indicator, int timeFrame, boolean highest, boolean mostRecent) {
+        this.indicator = indicator;
+        this.timeFrame = timeFrame;
+        this.highest = highest;
+        this.mostRecent = mostRecent;
+        final int capacity = Math.max(1, Math.min(timeFrame, 16));
+        this.indexes = new int[capacity];
+        this.values = new Decimal[capacity];
+    }
+
+    /**
+     * @param index the (last) index of the time frame
+     * @return the index of the extremum of the time frame ending at the index, -1 if all its values are NaN
+     */
+    public int getIndex(int index) {
+        final int startIndex = Math.max(0, index - timeFrame + 1);
+        if (SlidingWindow.isRemovedIndex(indicator, startIndex)) {
+            // The time frame reaches removed ticks (whose values are replaced by the first remaining one)
+            clear();
+            return scan(startIndex, index);
+        }
+        if (lastPushedIndex < 0 || lastPushedIndex >= index || index - 1 - lastPushedIndex > timeFrame) {
+            clear();
+            lastPushedIndex = startIndex - 1;
+        }
+        for (int i = Math.max(lastPushedIndex + 1, startIndex); i < index; i++) {
+            push(i, indicator.getValue(i));
+        }
+        lastPushedIndex = index - 1;
+        while (size > 0 && indexes[head] < startIndex) {
+            pollFirst();
+        }
+
+        final Decimal value = indicator.getValue(index);
+        if (value.isNaN()) {
+            return size == 0 ? -1 : indexes[head];
+        }
+        return size == 0 || isCandidate(value, values[head]) ? index : indexes[head];
+    }
+
+    /**
+     * Scans a time frame.
+     * @param startIndex the first index of the time frame
+     * @param index the last index of the time frame
+     * @return the index of the extremum of the time frame, -1 if all its values are NaN
+     */
+    private int scan(int startIndex, int index) {
+        int extremumIndex = -1;
+        Decimal extremum = null;
+        for (int i = startIndex; i <= index; i++) {
+            final Decimal value = indicator.getValue(i);
+            if (!value.isNaN() && (extremum == null || isCandidate(value, extremum))) {
+                extremumIndex = i;
+                extremum = value;
+            }
+        }
+        return extremumIndex;
+    }
+
+    /**
+     * @param value a value
+     * @param previousValue a previous value
+     * @return true if the value supersedes the previous one as the extremum, false otherwise
+     */
+    private boolean isCandidate(Decimal value, Decimal previousValue) {
+        final int comparison = highest ? value.compareTo(previousValue) : previousValue.compareTo(value);
+        return mostRecent ? comparison >= 0 : comparison > 0;
+    }
+
+    /**
+     * Pushes a value at the end of the deque (after the candidates it supersedes have been removed).
+     * @param index the index of the value
+     * @param value the value
+     */
+    private void push(int index, Decimal value) {
+        if (value.isNaN()) {
+            return;
+        }
+        while (size > 0 && isCandidate(value, values[position(size - 1)])) {
+            final int last = position(size - 1);
+            values[last] = null;
+            size--;
+        }
+        if (size == indexes.length) {
+            grow();
+        }
+        final int position = position(size);
+        indexes[position] = index;
+        values[position] = value;
+        size++;
+    }
+
+    /**
+     * Removes the first candidate.
+     */
+    private void pollFirst() {
+        values[head] = null;
+        head = (head + 1) % indexes.length;
+        size--;
+    }
+
+    /**
+     * Empties the deque.
+     */
+    private void clear() {
+        Arrays.fill(values, null);
+        head = 0;
+        size = 0;
+        lastPushedIndex = -1;
+    }
+
+    /**
+     * Doubles the capacity of the deque.
+     */
+    private void grow() {
+        int[] newIndexes = new int[indexes.length * 2];
+        Decimal[] newValues = new Decimal[indexes.length * 2];
+        for (int i = 0; i < size; i++) {
+            newIndexes[i] = indexes[position(i)];
+            newValues[i] = values[position(i)];
+        }
+        indexes = newIndexes;
+        values = newValues;
+        head = 0;
+    }
+
+    /**
+     * @param i a position in the deque
+     * @return the position of the i-th candidate in the circular arrays
+     */
+    private int position(int i) {
+        final int position = head + i;
+        return position < indexes.length ? position : position - indexes.length;
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.helpers;
+
+import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.TimeSeries;
+import java.io.Serializable;
+
+/**
+ * Sliding time frame over indicators, whose aggregate (e.g. a running sum) is maintained by a subclass.
+ * <p>
+ * When the indexes are requested sequentially, the window is slid: the values of the next index enter the time frame,
+ * and the ones of the oldest index leave it. Before each slide, the values of the last index of the window are
+ * checked, since they may have been updated since (see {@link TimeSeries#updateLastTick(eu.verdelhan.ta4j.Tick)}):
+ * the aggregate then replaces them. Other indexes (e.g. random accesses), and the time frames reaching
+ * ticks removed from the series, are filled from scratch.
+ * <p>
+ * Not thread-safe (i.e. to be used by the calculations of a cached indicator).
+ */
+public abstract class SlidingWindow implements Serializable {
+
+    private static final long serialVersionUID = -1950413830357614126L;
+
+    /** The indicators (the first one provides the time series) */
+    private final Indicator<Decimal>[] indicators;
+
+    private final int timeFrame;
+
+    /** Last index of the window (-1 if none) */
+    private int index = -1;
+
+    /** Values of the indicators at the last index of the window */
+    private Decimal[] lastValues;
+
+    /** Buffer of the values of the indicators */
+    private Decimal[] values;
+
+    /**
+     * Constructor.
+     * @param timeFrame the time frame
+     * @param indicators the indicators whose values are aggregated
+     */
+    @SafeVarargs
+    protected SlidingWindow(int timeFrame, Indicator<Decimal>... indicators) {
+        if (indicators.length == 0) {
+            throw new IllegalArgumentException("A sliding window needs at least one indicator");
+        }
+        this.indicators = indicators;
+        this.timeFrame = timeFrame;
+        this.lastValues = new Decimal[indicators.length];
+        this.values = new Decimal[indicators.length];
+    }
+
+    /**
+     * Moves the window to an index: slides it if possible, fills it otherwise.
+     * @param index the (last) index of the time frame
+     * @return true if the aggregate is the one of the time frame ending at the index, false if it cannot be
+     * maintained (e.g. the values mix backends or math contexts)
+     */
+    public final boolean moveTo(int index) {
+        if (!slideTo(index)) {
+            this.index = -1;
+            if (!fill(Math.max(0, index - timeFrame + 1), index)) {
+                return false;
+            }
+            this.index = index;
+            readValues(index, lastValues);
+        }
+        return true;
+    }
+
+    /**
+     * @return the time frame
+     */
+    public int getTimeFrame() {
+        return timeFrame;
+    }
+
+    /**
+     * @param indicator an indicator
+     * @param index an index
+     * @return true if the tick of the index has been removed from the series of the indicator
+     * (i.e. its values are replaced by the ones of the first remaining tick), false otherwise
+     */
+    public static boolean isRemovedIndex(Indicator<?> indicator, int index) {
+        final TimeSeries series = indicator.getTimeSeries();
+        final int removedTicksCount = series == null ? 0 : series.getRemovedTicksCount();
+        return removedTicksCount > 0 && index < removedTicksCount;
+    }
+
+    /**
+     * Fills the aggregate with a whole time frame.
+     * @param startIndex the first index of the time frame
+     * @param endIndex the last index of the time frame
+     * @return true if the aggregate can be slid from the time frame, false otherwise
+     */
+    protected abstract boolean fill(int startIndex, int endIndex);
+
+    /**
+     * Replaces the values of the last index of the window in the aggregate.
+     * @param index the last index of the window
+     * @param values the new values of the indicators
+     * @param previousValues the replaced values of the indicators
+     * @return true if the aggregate has been updated, false if it has to be filled from scratch
+     */
+    protected abstract boolean replaceLast(int index, Decimal[] values, Decimal[] previousValues);
+
+    /**
+     * Slides the aggregate to the next index.
+     * @param index the index entering the time frame
+     * @param values the values of the indicators at the index
+     * @param outgoingIndex the index leaving the time frame (-1 if the time frame grows)
+     * @return true if the aggregate has been updated, false if it has to be filled from scratch
+     */
+    protected abstract boolean slide(int index, Decimal[] values, int outgoingIndex);
+
+    /**
+     * Slides the window to an index.
+     * @param index the (last) index of the time frame
+     * @return true if the window has been slid to the index, false if it has to be filled
+     */
+    private boolean slideTo(int index) {
+        if (this.index < 0 || (index != this.index && index != this.index + 1)) {
+            return false;
+        }
+        if (isRemovedIndex(indicators[0], index - timeFrame)) {
+            // The time frame reaches removed ticks
+            return false;
+        }
+        // The last values may have been updated since (see TimeSeries#updateLastTick(Tick))
+        if (readValues(this.index, values) && !replaceLast(this.index, values, lastValues)) {
+            return false;
+        }
+        swapValues();
+        if (index == this.index) {
+            return true;
+        }
+        readValues(index, values);
+        if (!slide(index, values, index >= timeFrame ? index - timeFrame : -1)) {
+            return false;
+        }
+        swapValues();
+        this.index = index;
+        return true;
+    }
+
+    /**
+     * Reads the values of the indicators.
+     * @param index an index
+     * @param buffer the buffer of the values
+     * @return true if the values differ from the last ones, false otherwise
+     */
+    private boolean readValues(int index, Decimal[] buffer) {
+        boolean updated = false;
+        for (int i = 0; i < indicators.length; i++) {
+            buffer[i] = indicators[i].getValue(index);
+            updated |= buffer[i] != lastValues[i];
+        }
+        return updated;
+    }
+
+    /**
+     * Makes the read values the last ones.
+     */
+    private void swapValues() {
+        final Decimal[] previousValues = lastValues;
+        lastValues = values;
+        values = previousValues;
+    }
+}
@@ -37,20 +37,26 @@ public class SmoothedAverageGainIndicator extends RecursiveCachedIndicator<Decim
 
     private final int timeFrame;
 
+    private final Decimal nbPeriods;
+
+    private final Decimal nbPeriodsMinusOne;
+
     public SmoothedAverageGainIndicator(Indicator<Decimal> indicator, int timeFrame) {
         super(indicator);
         this.indicator = indicator;
         this.averageGains = new AverageGainIndicator(indicator, timeFrame);
         this.timeFrame = timeFrame;
+        this.nbPeriods = Decimal.valueOf(timeFrame);
+        this.nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
     }
 
     @Override
     protected Decimal calculate(int index) {
         if(index > timeFrame) {
             return getValue(index - 1)
-                .multipliedBy(Decimal.valueOf(timeFrame - 1))
+                .multipliedBy(nbPeriodsMinusOne)
                 .plus(calculateGain(index))
-                .dividedBy(Decimal.valueOf(timeFrame));
+                .dividedBy(nbPeriods);
         }
         return averageGains.getValue(index);
     }
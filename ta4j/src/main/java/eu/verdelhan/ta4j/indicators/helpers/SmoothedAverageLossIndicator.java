@@ -37,20 +37,26 @@ public class SmoothedAverageLossIndicator extends RecursiveCachedIndicator<Decim
 
     private final int timeFrame;
 
+    private final Decimal nbPeriods;
+
+    private final Decimal nbPeriodsMinusOne;
+
     public SmoothedAverageLossIndicator(Indicator<Decimal> indicator, int timeFrame) {
         super(indicator);
         this.indicator = indicator;
         this.averageLosses = new AverageLossIndicator(indicator, timeFrame);
         this.timeFrame = timeFrame;
+        this.nbPeriods = Decimal.valueOf(timeFrame);
+        this.nbPeriodsMinusOne = Decimal.valueOf(timeFrame - 1);
     }
 
     @Override
     protected Decimal calculate(int index) {
         if (index > timeFrame) {
             return getValue(index - 1)
-                .multipliedBy(Decimal.valueOf(timeFrame - 1))
+                .multipliedBy(nbPeriodsMinusOne)
                 .plus(calculateLoss(index))
-                .dividedBy(Decimal.valueOf(timeFrame));
+                .dividedBy(nbPeriods);
         }
         return averageLosses.getValue(index);
     }
@@ -41,9 +41,9 @@ public class TrueRangeIndicator extends CachedIndicator<Decimal>{
     
     @Override
     protected Decimal calculate(int index) {
-        Decimal ts = series.getTick(index).getMaxPrice().minus(series.getTick(index).getMinPrice());
-        Decimal ys = index == 0 ? Decimal.ZERO : series.getTick(index).getMaxPrice().minus(series.getTick(index - 1).getClosePrice());
-        Decimal yst = index == 0 ? Decimal.ZERO : series.getTick(index - 1).getClosePrice().minus(series.getTick(index).getMinPrice());
+        Decimal ts = series.getMaxPrice(index).minus(series.getMinPrice(index));
+        Decimal ys = index == 0 ? Decimal.ZERO : series.getMaxPrice(index).minus(series.getClosePrice(index - 1));
+        Decimal yst = index == 0 ? Decimal.ZERO : series.getClosePrice(index - 1).minus(series.getMinPrice(index));
         
         return ts.abs().max(ys.abs()).max(yst.abs());
     }
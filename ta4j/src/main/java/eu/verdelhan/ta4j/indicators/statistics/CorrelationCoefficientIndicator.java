@@ -24,11 +24,15 @@ package eu.verdelhan.ta4j.indicators.statistics;
 
 import eu.verdelhan.ta4j.Decimal;
 import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.RunningMoments;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
 
 /**
  * Correlation coefficient indicator.
  * <p>
+ * The variances and the covariance of the time frame are calculated with a
+ * {@link StatisticsAlgorithm statistics algorithm} (two-pass by default).
+ * <p>
  * See also: http://stockcharts.com/school/doku.php?id=chart_school:technical_indicators:correlation_coeffici
  */
 public class CorrelationCoefficientIndicator extends CachedIndicator<Decimal> {
@@ -38,7 +42,10 @@ public class CorrelationCoefficientIndicator extends CachedIndicator<Decimal> {
     private VarianceIndicator variance2;
     
     private CovarianceIndicator covariance;
-    
+
+    /** Moments of the time frame (null for the two-pass algorithm) */
+    private final SlidingMoments moments;
+
     /**
      * Constructor.
      * @param indicator1 the first indicator
@@ -46,14 +53,34 @@ public class CorrelationCoefficientIndicator extends CachedIndicator<Decimal> {
      * @param timeFrame the time frame
      */
     public CorrelationCoefficientIndicator(Indicator<Decimal> indicator1, Indicator<Decimal> indicator2, int timeFrame) {
+        this(indicator1, indicator2, timeFrame, StatisticsAlgorithm.TWO_PASS);
+    }
+
+    /**
+     * Constructor.
+     * @param indicator1 the first indicator
+     * @param indicator2 the second indicator
+     * @param timeFrame the time frame
+     * @param algorithm the statistics algorithm
+     */
+    public CorrelationCoefficientIndicator(Indicator<Decimal> indicator1, Indicator<Decimal> indicator2, int timeFrame,
+            StatisticsAlgorithm algorithm) {
         super(indicator1);
         variance1 = new VarianceIndicator(indicator1, timeFrame);
         variance2 = new VarianceIndicator(indicator2, timeFrame);
         covariance = new CovarianceIndicator(indicator1, indicator2, timeFrame);
+        moments = algorithm == StatisticsAlgorithm.ONLINE ? new SlidingMoments(indicator1, indicator2, timeFrame) : null;
     }
 
     @Override
     protected Decimal calculate(int index) {
+        if (moments != null) {
+            RunningMoments runningMoments = moments.momentsAt(index);
+            if (runningMoments != null) {
+                return runningMoments.getCorrelation();
+            }
+            // Mixed backends or math contexts
+        }
         Decimal cov = covariance.getValue(index);
         Decimal var1 = variance1.getValue(index);
         Decimal var2 = variance2.getValue(index);
@@ -24,12 +24,16 @@ package eu.verdelhan.ta4j.indicators.statistics;
 
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalAccumulator;
+import eu.verdelhan.ta4j.RunningMoments;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
 import eu.verdelhan.ta4j.indicators.SMAIndicator;
 
 /**
  * Covariance indicator.
  * <p>
+ * The covariance of the time frame is calculated with a {@link StatisticsAlgorithm statistics algorithm}
+ * (two-pass by default).
  */
 public class CovarianceIndicator extends CachedIndicator<Decimal> {
 
@@ -43,6 +47,11 @@ public class CovarianceIndicator extends CachedIndicator<Decimal> {
     
     private SMAIndicator sma2;
 
+    private final DecimalAccumulator covariance = new DecimalAccumulator();
+
+    /** Moments of the time frame (null for the two-pass algorithm) */
+    private final SlidingMoments moments;
+
     /**
      * Constructor.
      * @param indicator1 the first indicator
@@ -50,27 +59,45 @@ public class CovarianceIndicator extends CachedIndicator<Decimal> {
      * @param timeFrame the time frame
      */
     public CovarianceIndicator(Indicator<Decimal> indicator1, Indicator<Decimal> indicator2, int timeFrame) {
+        this(indicator1, indicator2, timeFrame, StatisticsAlgorithm.TWO_PASS);
+    }
+
+    /**
+     * Constructor.
+     * @param indicator1 the first indicator
+     * @param indicator2 the second indicator
+     * @param timeFrame the time frame
+     * @param algorithm the statistics algorithm
+     */
+    public CovarianceIndicator(Indicator<Decimal> indicator1, Indicator<Decimal> indicator2, int timeFrame,
+            StatisticsAlgorithm algorithm) {
         super(indicator1);
         this.indicator1 = indicator1;
         this.indicator2 = indicator2;
         this.timeFrame = timeFrame;
         sma1 = new SMAIndicator(indicator1, timeFrame);
         sma2 = new SMAIndicator(indicator2, timeFrame);
+        moments = algorithm == StatisticsAlgorithm.ONLINE ? new SlidingMoments(indicator1, indicator2, timeFrame) : null;
     }
 
     @Override
     protected Decimal calculate(int index) {
+        if (moments != null) {
+            RunningMoments runningMoments = moments.momentsAt(index);
+            if (runningMoments != null) {
+                return runningMoments.getCovariance();
+            }
+            // Mixed backends or math contexts
+        }
         final int startIndex = Math.max(0, index - timeFrame + 1);
         final int numberOfObservations = index - startIndex + 1;
-        Decimal covariance = Decimal.ZERO;
+        covariance.reset();
         Decimal average1 = sma1.getValue(index);
         Decimal average2 = sma2.getValue(index);
         for (int i = startIndex; i <= index; i++) {
-            Decimal mul = indicator1.getValue(i).minus(average1).multipliedBy(indicator2.getValue(i).minus(average2));
-            covariance = covariance.plus(mul);
+            covariance.multiplyAddDifferences(indicator1.getValue(i), average1, indicator2.getValue(i), average2);
         }
-        covariance = covariance.dividedBy(Decimal.valueOf(numberOfObservations));
-        return covariance;
+        return covariance.toDecimal().dividedBy(Decimal.valueOf(numberOfObservations));
     }
 
     @Override
@@ -0,0 +1,131 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.statistics;
+
+import eu.verdelhan.ta4j.Decimal;
+import java.io.Serializable;
+
+/**
+ * Least squares regression line of the values of a time frame.
+ * <p>
+ * The abscissa of a value is its position in the time frame (i.e. its index minus the start index of the time frame):
+ * y = slope * x + intercept
+ * <p>
+ * Immutable.
+ */
+public final class LinearRegression implements Serializable {
+
+    private static final long serialVersionUID = -3281725094185670154L;
+
+    /** Regression of a time frame with less than 2 observations */
+    public static final LinearRegression NaN = new LinearRegression(0, Decimal.NaN, Decimal.NaN, Decimal.NaN, Decimal.NaN);
+
+    private final int observationCount;
+
+    private final Decimal slope;
+
+    private final Decimal intercept;
+
+    private final Decimal rSquared;
+
+    private final Decimal standardError;
+
+    /**
+     * Constructor.
+     * @param observationCount the number of observations (i.e. the number of values of the time frame)
+     * @param slope the slope
+     * @param intercept the intercept
+     * @param rSquared the coefficient of determination
+     * @param standardError the residual standard error
+     */
+    LinearRegression(int observationCount, Decimal slope, Decimal intercept, Decimal rSquared, Decimal standardError) {
+        this.observationCount = observationCount;
+        this.slope = slope;
+        this.intercept = intercept;
+        this.rSquared = rSquared;
+        this.standardError = standardError;
+    }
+
+    /**
+     * @return the number of observations (i.e. the number of values of the time frame)
+     */
+    public int getObservationCount() {
+        return observationCount;
+    }
+
+    /**
+     * @return the slope of the line
+     */
+    public Decimal getSlope() {
+        return slope;
+    }
+
+    /**
+     * @return the intercept of the line (i.e. its value at the start of the time frame)
+     */
+    public Decimal getIntercept() {
+        return intercept;
+    }
+
+    /**
+     * @return the coefficient of determination (R²), NaN if the values are constant
+     */
+    public Decimal getRSquared() {
+        return rSquared;
+    }
+
+    /**
+     * @return the residual standard error (i.e. the standard deviation of the residuals,
+     * with n - 2 degrees of freedom), NaN if there are less than 3 observations
+     */
+    public Decimal getStandardError() {
+        return standardError;
+    }
+
+    /**
+     * @param x a position in the time frame
+     * @return the value of the line at the position
+     */
+    public Decimal getValue(int x) {
+        return slope.multipliedBy(Decimal.valueOf(x)).plus(intercept);
+    }
+
+    /**
+     * @return the value of the line at the end of the time frame
+     */
+    public Decimal getEndValue() {
+        return getValue(observationCount - 1);
+    }
+
+    /**
+     * @return the value of the line at the next position (i.e. the forecast of the next value)
+     */
+    public Decimal getForecast() {
+        return getValue(observationCount);
+    }
+
+    @Override
+    public String toString() {
+        return "LinearRegression slope: " + slope + " intercept: " + intercept;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.statistics;
+
+import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalAccumulator;
+import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.RunningMoments;
+import eu.verdelhan.ta4j.indicators.CachedIndicator;
+
+/**
+ * Linear regression indicator.
+ * <p>
+ * A moving (i.e. over the time frame) least squares {@link LinearRegression regression line}.
+ * The sums of the time frame are {@link RunningMoments running moments}: when the indexes are calculated sequentially,
+ * each regression is calculated in constant time. All the outputs of a regression (slope, intercept, R², etc.)
+ * are calculated at once (see {@link SimpleLinearRegressionIndicator}).
+ */
+public class LinearRegressionIndicator extends CachedIndicator<LinearRegression> {
+
+    private final Indicator<Decimal> indicator;
+
+    private final int timeFrame;
+
+    /** Moments of the values of the time frame against the indexes */
+    private final SlidingMoments moments;
+
+    private final DecimalAccumulator sumOfPositions = new DecimalAccumulator();
+
+    private final DecimalAccumulator sumOfValues = new DecimalAccumulator();
+
+    private final DecimalAccumulator varianceX = new DecimalAccumulator();
+
+    private final DecimalAccumulator varianceY = new DecimalAccumulator();
+
+    private final DecimalAccumulator covariance = new DecimalAccumulator();
+
+    /**
+     * Constructor.
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     */
+    public LinearRegressionIndicator(Indicator<Decimal> indicator, int timeFrame) {
+        super(indicator);
+        this.indicator = indicator;
+        this.timeFrame = timeFrame;
+        moments = SlidingMoments.againstIndexes(indicator, timeFrame);
+    }
+
+    @Override
+    protected LinearRegression calculate(int index) {
+        final int startIndex = Math.max(0, index - timeFrame + 1);
+        final int numberOfObservations = index - startIndex + 1;
+        if (numberOfObservations < 2) {
+            // Not enough observations to compute a regression line
+            return LinearRegression.NaN;
+        }
+        RunningMoments runningMoments = moments.momentsAt(index);
+        if (runningMoments == null) {
+            // Mixed backends or math contexts
+            return calculateTwoPass(startIndex, index);
+        }
+        Decimal meanPosition = runningMoments.getMeanX().minus(Decimal.valueOf(startIndex));
+        return regression(numberOfObservations, meanPosition, runningMoments.getMeanY(),
+                runningMoments.getVarianceX(), runningMoments.getVarianceY(), runningMoments.getCovariance());
+    }
+
+    /**
+     * Calculates the regression line from scratch.
+     * <p>
+     * The x values are the positions in the time frame (i.e. the indexes relative to the start index).
+     * @param startIndex the start index (inclusive) in the time series
+     * @param endIndex the end index (inclusive) in the time series
+     * @return the regression line
+     */
+    private LinearRegression calculateTwoPass(int startIndex, int endIndex) {
+        // First pass: compute xBar and yBar
+        sumOfPositions.reset();
+        sumOfValues.reset();
+        for (int i = startIndex; i <= endIndex; i++) {
+            sumOfPositions.add(Decimal.valueOf(i - startIndex));
+            sumOfValues.add(indicator.getValue(i));
+        }
+        Decimal nbObservations = Decimal.valueOf(endIndex - startIndex + 1);
+        Decimal xBar = sumOfPositions.toDecimal().dividedBy(nbObservations);
+        Decimal yBar = sumOfValues.toDecimal().dividedBy(nbObservations);
+
+        // Second pass: compute the (co)variances
+        varianceX.reset();
+        varianceY.reset();
+        covariance.reset();
+        for (int i = startIndex; i <= endIndex; i++) {
+            Decimal x = Decimal.valueOf(i - startIndex);
+            Decimal y = indicator.getValue(i);
+            varianceX.multiplyAddDifferences(x, xBar, x, xBar);
+            varianceY.multiplyAddDifferences(y, yBar, y, yBar);
+            covariance.multiplyAddDifferences(x, xBar, y, yBar);
+        }
+        return regression(endIndex - startIndex + 1, xBar, yBar, varianceX.toDecimal().dividedBy(nbObservations),
+                varianceY.toDecimal().dividedBy(nbObservations), covariance.toDecimal().dividedBy(nbObservations));
+    }
+
+    /**
+     * @param numberOfObservations the number of observations
+     * @param meanPosition the mean of the positions in the time frame (i.e. of the indexes relative to its start index)
+     * @param meanY the mean of the values
+     * @param varianceX the variance of the indexes
+     * @param varianceY the variance of the values
+     * @param covariance the covariance of the indexes and the values
+     * @return the regression line
+     */
+    private static LinearRegression regression(int numberOfObservations, Decimal meanPosition, Decimal meanY,
+            Decimal varianceX, Decimal varianceY, Decimal covariance) {
+        Decimal slope = covariance.dividedBy(varianceX);
+        Decimal intercept = meanY.minus(slope.multipliedBy(meanPosition));
+        Decimal rSquared = covariance.multipliedBy(slope).dividedBy(varianceY);
+        // Sum of the squared residuals: n * (varY - cov² / varX)
+        Decimal residualSumOfSquares = varianceY.minus(covariance.multipliedBy(slope))
+                .max(Decimal.ZERO).multipliedBy(Decimal.valueOf(numberOfObservations));
+        Decimal standardError = residualSumOfSquares.dividedBy(Decimal.valueOf(numberOfObservations - 2)).sqrt();
+        return new LinearRegression(numberOfObservations, slope, intercept, rSquared, standardError);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " timeFrame: " + timeFrame;
+    }
+}
@@ -98,7 +98,7 @@ public class PeriodicalGrowthRateIndicator extends CachedIndicator<Decimal> {
             }
         }
 
-        return (Math.pow(totalProduct.toDouble(), (1.0 / completeTimeframes)));
+        return totalProduct.pow(Decimal.ONE.dividedBy(Decimal.valueOf(completeTimeframes))).toDouble();
     }
     
     @Override
@@ -110,8 +110,9 @@ public class PeriodicalGrowthRateIndicator extends CachedIndicator<Decimal> {
         double helpFullTimeframes = Math.floor((double) indicator.getTimeSeries().getTickCount() / (double) timeFrame);
         double helpIndexTimeframes = (double) index / (double) timeFrame;
 
-        double helpPartialTimeframeHeld = (double) helpPartialTimeframe / (double) timeFrame;
-        double partialTimeframeHeld = (helpPartialTimeframeHeld == 0) ? 1.0 : helpPartialTimeframeHeld;
+        // Inverse of the part of the time frame which is held
+        Decimal inversePartialTimeframeHeld = (helpPartialTimeframe == 0) ? Decimal.ONE
+                : Decimal.valueOf(timeFrame).dividedBy(Decimal.valueOf(helpPartialTimeframe));
 
         // Avoid calculations of returns:
         // a.) if index number is below timeframe
@@ -122,8 +123,7 @@ public class PeriodicalGrowthRateIndicator extends CachedIndicator<Decimal> {
             Decimal movingValue = indicator.getValue(index - timeFrame);
             Decimal movingSimpleReturn = (currentValue.minus(movingValue)).dividedBy(movingValue);
 
-            double timeframedReturn_double = Math.pow((1 + movingSimpleReturn.toDouble()), (1 / partialTimeframeHeld)) - 1;
-            timeframedReturn = Decimal.valueOf(timeframedReturn_double);
+            timeframedReturn = movingSimpleReturn.plus(Decimal.ONE).pow(inversePartialTimeframeHeld).minus(Decimal.ONE);
         }
 
         return timeframedReturn;
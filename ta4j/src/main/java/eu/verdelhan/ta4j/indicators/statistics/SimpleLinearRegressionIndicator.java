@@ -31,64 +31,86 @@ import eu.verdelhan.ta4j.indicators.CachedIndicator;
  * <p>
  * A moving (i.e. over the time frame) simple linear regression (least squares).
  * y = slope * x + intercept
+ * <p>
+ * Gives an output (see {@link SimpleLinearRegressionType}) of a {@link LinearRegressionIndicator linear regression}:
+ * the outputs built over the same linear regression indicator share its calculations.
  * See also: http://introcs.cs.princeton.edu/java/97data/LinearRegression.java.html
  */
 public class SimpleLinearRegressionIndicator extends CachedIndicator<Decimal> {
 
-    private Indicator<Decimal> indicator;
-    
-    private int timeFrame;
-    
-    private Decimal slope;
-    
-    private Decimal intercept;
-    
+    /**
+     * Output of a simple linear regression.
+     */
+    public enum SimpleLinearRegressionType {
+        /** Value of the regression line at the index (i.e. at the end of the time frame) */
+        Y,
+        /** Slope of the regression line */
+        SLOPE,
+        /** Intercept of the regression line (i.e. its value at the start of the time frame) */
+        INTERCEPT,
+        /** Coefficient of determination (R²) */
+        R_SQUARED,
+        /** Residual standard error */
+        STANDARD_ERROR,
+        /** Value of the regression line at the next index */
+        FORECAST
+    }
+
+    private final LinearRegressionIndicator regression;
+
+    private final SimpleLinearRegressionType type;
+
+    /**
+     * Constructor of the value of the regression line.
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     */
     public SimpleLinearRegressionIndicator(Indicator<Decimal> indicator, int timeFrame) {
-        super(indicator);
-        this.indicator = indicator;
-        this.timeFrame = timeFrame;
+        this(indicator, timeFrame, SimpleLinearRegressionType.Y);
     }
 
-    @Override
-    protected Decimal calculate(int index) {
-        final int startIndex = Math.max(0, index - timeFrame + 1);
-        final int endIndex = index;
-        if (endIndex - startIndex + 1 < 2) {
-            // Not enough observations to compute a regression line
-            return Decimal.NaN;
-        }
-        calculateRegressionLine(startIndex, endIndex);
-        return slope.multipliedBy(Decimal.valueOf(index)).plus(intercept);
+    /**
+     * Constructor.
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     * @param type the output of the regression
+     */
+    public SimpleLinearRegressionIndicator(Indicator<Decimal> indicator, int timeFrame, SimpleLinearRegressionType type) {
+        this(new LinearRegressionIndicator(indicator, timeFrame), type);
     }
-    
+
     /**
-     * Calculates the regression line.
-     * @param startIndex the start index (inclusive) in the time series
-     * @param endIndex the end index (inclusive) in the time series
+     * Constructor.
+     * @param regression the linear regression indicator
+     * @param type the output of the regression
      */
-    private void calculateRegressionLine(int startIndex, int endIndex) {
-        // First pass: compute xBar and yBar
-        Decimal sumX = Decimal.ZERO;
-        Decimal sumY = Decimal.ZERO;
-        for (int i = startIndex; i <= endIndex; i++) {
-            sumX = sumX.plus(Decimal.valueOf(i));
-            sumY = sumY.plus(indicator.getValue(i));
-        }
-        Decimal nbObservations = Decimal.valueOf(endIndex - startIndex + 1);
-        Decimal xBar = sumX.dividedBy(nbObservations);
-        Decimal yBar = sumY.dividedBy(nbObservations);
-        
-        // Second pass: compute slope and intercept
-        Decimal xxBar = Decimal.ZERO;
-        Decimal xyBar = Decimal.ZERO;
-        for (int i = startIndex; i <= endIndex; i++) {
-            Decimal dX = Decimal.valueOf(i).minus(xBar);
-            Decimal dY = indicator.getValue(i).minus(yBar);
-            xxBar = xxBar.plus(dX.multipliedBy(dX));
-            xyBar = xyBar.plus(dX.multipliedBy(dY));
+    public SimpleLinearRegressionIndicator(LinearRegressionIndicator regression, SimpleLinearRegressionType type) {
+        super(regression);
+        this.regression = regression;
+        this.type = type;
+    }
+
+    @Override
+    protected Decimal calculate(int index) {
+        final LinearRegression line = regression.getValue(index);
+        switch (type) {
+            case SLOPE:
+                return line.getSlope();
+            case INTERCEPT:
+                return line.getIntercept();
+            case R_SQUARED:
+                return line.getRSquared();
+            case STANDARD_ERROR:
+                return line.getStandardError();
+            case FORECAST:
+                return line.getForecast();
+            default:
+                return line.getEndValue();
         }
-        
-        slope = xyBar.dividedBy(xxBar);
-        intercept = yBar.minus(slope.multipliedBy(xBar));
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " " + type + " " + regression;
     }
 }
@@ -0,0 +1,165 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.statistics;
+
+import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.RunningMoments;
+import eu.verdelhan.ta4j.indicators.helpers.SlidingWindow;
+
+/**
+ * {@link RunningMoments Running moments} of the sliding time frame of two indicators, of an indicator
+ * against the indexes (i.e. for its regression line), or of the single values of an indicator (i.e. for its variance).
+ * <p>
+ * When the indexes are requested sequentially, the moments are slid in constant time (see {@link SlidingWindow}).
+ * Other indexes (e.g. random accesses) are calculated by adding their whole time frame.
+ * <p>
+ * Not thread-safe (i.e. to be used by the calculations of a cached indicator).
+ */
+final class SlidingMoments extends SlidingWindow {
+
+    private static final long serialVersionUID = -6170947458215294370L;
+
+    /**
+     * Mode of the moments (i.e. their values).
+     */
+    private enum Mode {
+        /** Pairs of values of two indicators */
+        PAIRS,
+        /** Values of an indicator against the indexes */
+        AGAINST_INDEXES,
+        /** Single values of an indicator */
+        SINGLE
+    }
+
+    private final Mode mode;
+
+    /** The first indicator (or the only one) */
+    private final Indicator<Decimal> indicator1;
+
+    /** The second indicator (null if there is only one indicator) */
+    private final Indicator<Decimal> indicator2;
+
+    private final RunningMoments moments = new RunningMoments();
+
+    /**
+     * Constructor of the moments of two indicators.
+     * @param indicator1 the first indicator
+     * @param indicator2 the second indicator
+     * @param timeFrame the time frame
+     */
+    SlidingMoments(Indicator<Decimal> indicator1, Indicator<Decimal> indicator2, int timeFrame) {
+        super(timeFrame, indicator1, indicator2);
+        this.mode = Mode.PAIRS;
+        this.indicator1 = indicator1;
+        this.indicator2 = indicator2;
+    }
+
+    /**
+     * Constructor of the moments of a single indicator.
+     * @param mode the mode of the moments (against the indexes, or single values)
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     */
+    private SlidingMoments(Mode mode, Indicator<Decimal> indicator, int timeFrame) {
+        super(timeFrame, indicator);
+        this.mode = mode;
+        this.indicator1 = indicator;
+        this.indicator2 = null;
+    }
+
+    /**
+     * @param indicator an indicator
+     * @param timeFrame the time frame
+     * @return the moments of the indicator (second values) against the indexes (first values)
+     */
+    static SlidingMoments againstIndexes(Indicator<Decimal> indicator, int timeFrame) {
+        return new SlidingMoments(Mode.AGAINST_INDEXES, indicator, timeFrame);
+    }
+
+    /**
+     * @param indicator an indicator
+     * @param timeFrame the time frame
+     * @return the moments of the values of the indicator (first values only)
+     */
+    static SlidingMoments of(Indicator<Decimal> indicator, int timeFrame) {
+        return new SlidingMoments(Mode.SINGLE, indicator, timeFrame);
+    }
+
+    /**
+     * @param index the (last) index of the time frame
+     * @return the moments of the time frame ending at the index, null if they cannot be maintained
+     * (i.e. the values mix backends or math contexts)
+     */
+    RunningMoments momentsAt(int index) {
+        return moveTo(index) ? moments : null;
+    }
+
+    @Override
+    protected boolean fill(int startIndex, int endIndex) {
+        moments.reset();
+        for (int i = startIndex; i <= endIndex; i++) {
+            switch (mode) {
+                case PAIRS:
+                    moments.add(indicator1.getValue(i), indicator2.getValue(i));
+                    break;
+                case AGAINST_INDEXES:
+                    moments.add(i, indicator1.getValue(i));
+                    break;
+                default:
+                    moments.add(indicator1.getValue(i));
+            }
+        }
+        return moments.isSlidable();
+    }
+
+    @Override
+    protected boolean replaceLast(int index, Decimal[] values, Decimal[] previousValues) {
+        switch (mode) {
+            case PAIRS:
+                return moments.slide(values[0], values[1], previousValues[0], previousValues[1]);
+            case AGAINST_INDEXES:
+                return moments.slide(index, values[0], index, previousValues[0]);
+            default:
+                return moments.slide(values[0], previousValues[0]);
+        }
+    }
+
+    @Override
+    protected boolean slide(int index, Decimal[] values, int outgoingIndex) {
+        final boolean grows = outgoingIndex < 0;
+        switch (mode) {
+            case PAIRS:
+                return moments.slide(values[0], values[1],
+                        grows ? null : indicator1.getValue(outgoingIndex),
+                        grows ? null : indicator2.getValue(outgoingIndex));
+            case AGAINST_INDEXES:
+                if (grows) {
+                    return moments.add(index, values[0]).isSlidable();
+                }
+                return moments.slide(index, values[0], outgoingIndex, indicator1.getValue(outgoingIndex));
+            default:
+                return moments.slide(values[0], grows ? null : indicator1.getValue(outgoingIndex));
+        }
+    }
+}
@@ -30,6 +30,8 @@ import eu.verdelhan.ta4j.indicators.statistics.VarianceIndicator;
 /**
  * Standard deviation indicator.
  * <p>
+ * The variance of the time frame is calculated with a {@link StatisticsAlgorithm statistics algorithm}
+ * (two-pass by default).
  * @see http://stockcharts.com/school/doku.php?id=chart_school:technical_indicators:standard_deviation_volatility
  */
 public class StandardDeviationIndicator extends CachedIndicator<Decimal> {
@@ -42,8 +44,18 @@ public class StandardDeviationIndicator extends CachedIndicator<Decimal> {
      * @param timeFrame the time frame
      */
     public StandardDeviationIndicator(Indicator<Decimal> indicator, int timeFrame) {
+        this(indicator, timeFrame, StatisticsAlgorithm.TWO_PASS);
+    }
+
+    /**
+     * Constructor.
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     * @param algorithm the statistics algorithm
+     */
+    public StandardDeviationIndicator(Indicator<Decimal> indicator, int timeFrame, StatisticsAlgorithm algorithm) {
         super(indicator);
-        variance = new VarianceIndicator(indicator, timeFrame);
+        variance = new VarianceIndicator(indicator, timeFrame, algorithm);
     }
 
     @Override
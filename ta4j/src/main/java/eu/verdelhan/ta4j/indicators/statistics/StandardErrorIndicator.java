@@ -29,6 +29,8 @@ import eu.verdelhan.ta4j.indicators.CachedIndicator;
 /**
  * Standard error indicator.
  * <p>
+ * The variance of the time frame is calculated with a {@link StatisticsAlgorithm statistics algorithm}
+ * (two-pass by default).
  */
 public class StandardErrorIndicator extends CachedIndicator<Decimal> {
 
@@ -42,15 +44,25 @@ public class StandardErrorIndicator extends CachedIndicator<Decimal> {
      * @param timeFrame the time frame
      */
     public StandardErrorIndicator(Indicator<Decimal> indicator, int timeFrame) {
+        this(indicator, timeFrame, StatisticsAlgorithm.TWO_PASS);
+    }
+
+    /**
+     * Constructor.
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     * @param algorithm the statistics algorithm
+     */
+    public StandardErrorIndicator(Indicator<Decimal> indicator, int timeFrame, StatisticsAlgorithm algorithm) {
         super(indicator);
         this.timeFrame = timeFrame;
-        sdev = new StandardDeviationIndicator(indicator, timeFrame);
+        sdev = new StandardDeviationIndicator(indicator, timeFrame, algorithm);
     }
 
     @Override
     protected Decimal calculate(int index) {
         final int startIndex = Math.max(0, index - timeFrame + 1);
         final int numberOfObservations = index - startIndex + 1;
-        return sdev.getValue(index).dividedBy(Decimal.valueOf(Math.sqrt(numberOfObservations)));
+        return sdev.getValue(index).dividedBy(Decimal.valueOf(numberOfObservations).sqrt());
     }
 }
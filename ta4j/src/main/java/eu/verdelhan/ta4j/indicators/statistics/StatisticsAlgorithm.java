@@ -0,0 +1,45 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.statistics;
+
+/**
+ * Algorithm of the statistics (variance, covariance, etc.) of a sliding time frame.
+ */
+public enum StatisticsAlgorithm {
+
+    /**
+     * The mean of the time frame is calculated first, then the deviations from the mean are summed
+     * over the whole time frame (i.e. in linear time for each index).
+     */
+    TWO_PASS,
+
+    /**
+     * The sums of the (shifted) values, of their squares and of their products are slid with the time frame
+     * (i.e. in constant time for each index when the indexes are calculated sequentially).
+     * See {@link eu.verdelhan.ta4j.RunningMoments}.
+     * <p>
+     * The results may differ from the two-pass ones in the last digits: the mean is not rounded
+     * before the deviations are computed.
+     */
+    ONLINE
+}
@@ -24,12 +24,16 @@ package eu.verdelhan.ta4j.indicators.statistics;
 
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalAccumulator;
+import eu.verdelhan.ta4j.RunningMoments;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
 import eu.verdelhan.ta4j.indicators.SMAIndicator;
 
 /**
  * Variance indicator.
  * <p>
+ * The variance of the time frame is calculated with a {@link StatisticsAlgorithm statistics algorithm}
+ * (two-pass by default).
  */
 public class VarianceIndicator extends CachedIndicator<Decimal> {
 
@@ -39,30 +43,52 @@ public class VarianceIndicator extends CachedIndicator<Decimal> {
 
     private SMAIndicator sma;
 
+    private final DecimalAccumulator variance = new DecimalAccumulator();
+
+    /** Moments of the time frame (null for the two-pass algorithm) */
+    private final SlidingMoments moments;
+
     /**
      * Constructor.
      * @param indicator the indicator
      * @param timeFrame the time frame
      */
     public VarianceIndicator(Indicator<Decimal> indicator, int timeFrame) {
+        this(indicator, timeFrame, StatisticsAlgorithm.TWO_PASS);
+    }
+
+    /**
+     * Constructor.
+     * @param indicator the indicator
+     * @param timeFrame the time frame
+     * @param algorithm the statistics algorithm
+     */
+    public VarianceIndicator(Indicator<Decimal> indicator, int timeFrame, StatisticsAlgorithm algorithm) {
         super(indicator);
         this.indicator = indicator;
         this.timeFrame = timeFrame;
         sma = new SMAIndicator(indicator, timeFrame);
+        moments = algorithm == StatisticsAlgorithm.ONLINE ? SlidingMoments.of(indicator, timeFrame) : null;
     }
 
     @Override
     protected Decimal calculate(int index) {
+        if (moments != null) {
+            RunningMoments runningMoments = moments.momentsAt(index);
+            if (runningMoments != null) {
+                return runningMoments.getVarianceX();
+            }
+            // Mixed backends or math contexts
+        }
         final int startIndex = Math.max(0, index - timeFrame + 1);
         final int numberOfObservations = index - startIndex + 1;
-        Decimal variance = Decimal.ZERO;
+        variance.reset();
         Decimal average = sma.getValue(index);
         for (int i = startIndex; i <= index; i++) {
-            Decimal pow = indicator.getValue(i).minus(average).pow(2);
-            variance = variance.plus(pow);
+            Decimal value = indicator.getValue(i);
+            variance.multiplyAddDifferences(value, average, value, average);
         }
-        variance = variance.dividedBy(Decimal.valueOf(numberOfObservations));
-        return variance;
+        return variance.toDecimal().dividedBy(Decimal.valueOf(numberOfObservations));
     }
 
     @Override
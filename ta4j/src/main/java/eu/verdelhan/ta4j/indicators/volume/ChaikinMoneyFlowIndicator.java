@@ -24,6 +24,7 @@ package eu.verdelhan.ta4j.indicators.volume;
 
 
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalAccumulator;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
 import eu.verdelhan.ta4j.indicators.helpers.CloseLocationValueIndicator;
@@ -45,6 +46,8 @@ public class ChaikinMoneyFlowIndicator extends CachedIndicator<Decimal> {
     
     private int timeFrame;
 
+    private final DecimalAccumulator sumOfMoneyFlowVolume = new DecimalAccumulator();
+
     public ChaikinMoneyFlowIndicator(TimeSeries series, int timeFrame) {
         super(series);
         this.series = series;
@@ -56,20 +59,13 @@ public class ChaikinMoneyFlowIndicator extends CachedIndicator<Decimal> {
     @Override
     protected Decimal calculate(int index) {
         int startIndex = Math.max(0, index - timeFrame + 1);
-        Decimal sumOfMoneyFlowVolume = Decimal.ZERO;
+        sumOfMoneyFlowVolume.reset();
         for (int i = startIndex; i <= index; i++) {
-            sumOfMoneyFlowVolume = sumOfMoneyFlowVolume.plus(getMoneyFlowVolume(i));
+            // Money flow volume for the i-th period/tick
+            sumOfMoneyFlowVolume.multiplyAdd(clvIndicator.getValue(i), series.getTick(i).getVolume());
         }
         Decimal sumOfVolume = volumeIndicator.getValue(index);
         
-        return sumOfMoneyFlowVolume.dividedBy(sumOfVolume);
-    }
-    
-    /**
-     * @param index the tick index
-     * @return the money flow volume for the i-th period/tick
-     */
-    private Decimal getMoneyFlowVolume(int index) {
-        return clvIndicator.getValue(index).multipliedBy(series.getTick(index).getVolume());
+        return sumOfMoneyFlowVolume.toDecimal().dividedBy(sumOfVolume);
     }
 }
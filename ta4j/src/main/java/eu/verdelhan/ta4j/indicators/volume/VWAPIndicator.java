@@ -23,6 +23,7 @@
 package eu.verdelhan.ta4j.indicators.volume;
 
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalAccumulator;
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.CachedIndicator;
@@ -42,7 +43,11 @@ public class VWAPIndicator extends CachedIndicator<Decimal> {
     private final Indicator<Decimal> typicalPrice;
     
     private final Indicator<Decimal> volume;
-    
+
+    private final DecimalAccumulator cumulativeTPV = new DecimalAccumulator();
+
+    private final DecimalAccumulator cumulativeVolume = new DecimalAccumulator();
+
     /**
      * Constructor.
      * @param series the series
@@ -61,13 +66,13 @@ public class VWAPIndicator extends CachedIndicator<Decimal> {
             return typicalPrice.getValue(index);
         }
         int startIndex = Math.max(0, index - timeFrame + 1);
-        Decimal cumulativeTPV = Decimal.ZERO;
-        Decimal cumulativeVolume = Decimal.ZERO;
+        cumulativeTPV.reset();
+        cumulativeVolume.reset();
         for (int i = startIndex; i <= index; i++) {
             Decimal currentVolume = volume.getValue(i);
-            cumulativeTPV = cumulativeTPV.plus(typicalPrice.getValue(i).multipliedBy(currentVolume));
-            cumulativeVolume = cumulativeVolume.plus(currentVolume);
+            cumulativeTPV.multiplyAdd(typicalPrice.getValue(i), currentVolume);
+            cumulativeVolume.add(currentVolume);
         }
-        return cumulativeTPV.dividedBy(cumulativeVolume);
+        return cumulativeTPV.toDecimal().dividedBy(cumulativeVolume.toDecimal());
     }
 }
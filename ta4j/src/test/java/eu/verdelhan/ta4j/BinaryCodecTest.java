@@ -0,0 +1,251 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import eu.verdelhan.ta4j.Order.OrderType;
+import eu.verdelhan.ta4j.mocks.MockTick;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class BinaryCodecTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2017, 1, 3, 9, 30, 0, 0, ZoneId.of("America/New_York"));
+
+    @Test
+    public void timeSeriesRoundTrip() throws IOException {
+        MathContext mathContext = new MathContext(20, RoundingMode.HALF_EVEN);
+        List<Tick> ticks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Decimal open = Decimal.valueOf(100 + i).dividedBy(Decimal.valueOf(7));
+            ticks.add(new BaseTick(Duration.ofMinutes(1), START.plusMinutes(i + 1), open, open.plus(Decimal.ONE),
+                    open.minus(Decimal.ONE), Decimal.valueOf("123.45"), Decimal.valueOf(1000000 + i), Decimal.NaN, i));
+        }
+        // Empty tick, sub-millisecond time, other zone
+        ticks.add(new BaseTick(Duration.ofMinutes(1), START.plusMinutes(101)));
+        ticks.add(new BaseTick(Duration.ofNanos(60000000123L), START.plusMinutes(102).plusNanos(456),
+                Decimal.ONE, Decimal.ONE, Decimal.ONE, Decimal.ONE, Decimal.ONE, Decimal.ONE, 1));
+        ticks.add(new BaseTick(Duration.ofMinutes(1), START.plusMinutes(103).withZoneSameInstant(ZoneId.of("UTC")),
+                Decimal.ONE, Decimal.ONE, Decimal.ONE, Decimal.exactValueOf(new BigDecimal("123456789012345678901234.5"), null),
+                Decimal.ONE, Decimal.ONE, 1));
+        BaseTimeSeries series = new BaseTimeSeries("codec", ticks, DecimalBackend.BIG_DECIMAL, mathContext);
+
+        TimeSeries decoded = BinaryCodec.readTimeSeries(input(encode(series)));
+        assertEquals("codec", decoded.getName());
+        assertEquals(DecimalBackend.BIG_DECIMAL, decoded.getDecimalBackend());
+        assertEquals(mathContext, decoded.getMathContext());
+        assertSameTicks(series, decoded);
+        assertSame(Decimal.NaN, decoded.getTick(0).getAmount());
+        assertNull(decoded.getTick(100).getOpenPrice());
+        assertEquals(mathContext, decoded.getTick(0).getOpenPrice().getMathContext());
+    }
+
+    @Test
+    public void doubleTimeSeriesRoundTrip() throws IOException {
+        List<Tick> ticks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ticks.add(new MockTick(START.plusMinutes(i), 0.1 * i, 0.3 * i, 1d / (i + 1), 0.2 * i, 1.1, 2.2, i));
+        }
+        BaseTimeSeries series = new BaseTimeSeries("doubles", ticks, DecimalBackend.DOUBLE);
+        TimeSeries decoded = BinaryCodec.readTimeSeries(input(encode(series)));
+        assertEquals(DecimalBackend.DOUBLE, decoded.getDecimalBackend());
+        assertSameTicks(series, decoded);
+        assertEquals(DecimalBackend.DOUBLE, decoded.getTick(3).getClosePrice().getBackend());
+    }
+
+    @Test
+    public void movingTimeSeriesRoundTrip() throws IOException {
+        TimeSeries series = new BaseTimeSeries("moving");
+        series.setMaximumTickCount(10);
+        for (int i = 0; i < 50; i++) {
+            series.addTick(new MockTick(START.plusMinutes(i), i));
+        }
+        TimeSeries decoded = BinaryCodec.readTimeSeries(input(encode(series)));
+        assertEquals(10, decoded.getMaximumTickCount());
+        assertEquals(40, decoded.getRemovedTicksCount());
+        assertEquals(0, decoded.getBeginIndex());
+        assertEquals(49, decoded.getEndIndex());
+        assertSameTicks(series, decoded);
+        // Still a moving series
+        decoded.addTick(new MockTick(START.plusMinutes(50), 50));
+        assertEquals(41, decoded.getRemovedTicksCount());
+        assertEquals(10, decoded.getTickCount());
+    }
+
+    @Test
+    public void constrainedTimeSeriesRoundTrip() throws IOException {
+        List<Tick> ticks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ticks.add(new MockTick(START.plusMinutes(i), i));
+        }
+        TimeSeries series = new BaseTimeSeries(new BaseTimeSeries(ticks), 5, 9);
+        TimeSeries decoded = BinaryCodec.readTimeSeries(input(encode(series)));
+        assertEquals(5, decoded.getBeginIndex());
+        assertEquals(9, decoded.getEndIndex());
+        assertEquals(5, decoded.getTickCount());
+        assertSameTicks(series, decoded);
+    }
+
+    @Test
+    public void columnarTimeSeriesRoundTrip() throws IOException {
+        ColumnarTimeSeries series = new ColumnarTimeSeries("columnar", DecimalBackend.DOUBLE, null, 16);
+        for (int i = 0; i < 30; i++) {
+            series.addTick(new MockTick(START.plusMinutes(i), i, i + 0.5, i + 1, i - 1, i * 2, i * 3, i));
+        }
+        TimeSeries decoded = BinaryCodec.readTimeSeries(input(encode(series)));
+        assertSameTicks(series, decoded);
+    }
+
+    @Test
+    public void smallerThanJavaSerialization() throws IOException {
+        List<Tick> ticks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double close = 100 + (i % 17) * 0.25;
+            ticks.add(new MockTick(START.plusMinutes(i), close - 0.5, close, close + 1, close - 1, close * 10, 10, 1));
+        }
+        BaseTimeSeries series = new BaseTimeSeries("size", ticks);
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(series);
+        }
+        assertTrue(encode(series).length * 5 < serialized.size());
+    }
+
+    @Test
+    public void tradingRecordRoundTrip() throws IOException {
+        BaseTradingRecord record = new BaseTradingRecord(Order.sellAt(1, Decimal.TEN, Decimal.ONE),
+                Order.buyAt(3, Decimal.valueOf("9.5"), Decimal.ONE), Order.buyAt(5, Decimal.NaN, Decimal.NaN),
+                Order.sellAt(8, Decimal.valueOf("11.25"), Decimal.valueOf(2)), Order.sellAt(10, Decimal.TWO, Decimal.ONE));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.writeTradingRecord(record, new DataOutputStream(bytes));
+        TradingRecord decoded = BinaryCodec.readTradingRecord(input(bytes.toByteArray()));
+
+        assertEquals(record.getTrades(), decoded.getTrades());
+        assertEquals(record.getLastOrder(), decoded.getLastOrder());
+        assertEquals(record.getLastEntry(), decoded.getLastEntry());
+        assertEquals(record.getLastExit(), decoded.getLastExit());
+        assertTrue(decoded.getCurrentTrade().isOpened());
+        assertEquals(OrderType.SELL, decoded.getCurrentTrade().getEntry().getType());
+        assertEquals(Decimal.valueOf("11.25"), decoded.getTrades().get(1).getExit().getPrice());
+        assertSame(Decimal.NaN, decoded.getTrades().get(1).getEntry().getPrice());
+    }
+
+    @Test
+    public void emptyTradingRecordRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.writeTradingRecord(new BaseTradingRecord(OrderType.SELL), new DataOutputStream(bytes));
+        TradingRecord decoded = BinaryCodec.readTradingRecord(input(bytes.toByteArray()));
+        assertEquals(0, decoded.getTradeCount());
+        decoded.operate(1);
+        assertEquals(OrderType.SELL, decoded.getLastOrder().getType());
+    }
+
+    @Test
+    public void decimalsRoundTrip() throws IOException {
+        MathContext mathContext = new MathContext(64);
+        List<Decimal> values = Arrays.asList(Decimal.valueOf("0.000001"), null, Decimal.NaN, Decimal.valueOf(-42),
+                Decimal.valueOf(Math.PI), DecimalBackend.DOUBLE.decimalOf(Math.E),
+                DecimalBackend.BIG_DECIMAL.decimalOf("-98765432109876543210.0123456789"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.writeDecimals(values, mathContext, new DataOutputStream(bytes));
+        List<Decimal> decoded = BinaryCodec.readDecimals(input(bytes.toByteArray()));
+
+        assertEquals(values.size(), decoded.size());
+        for (int i = 0; i < values.size(); i++) {
+            Decimal value = values.get(i);
+            Decimal decodedValue = decoded.get(i);
+            if (value == null) {
+                assertNull(decodedValue);
+            } else if (value.isNaN()) {
+                assertSame(Decimal.NaN, decodedValue);
+            } else {
+                assertEquals(value.getBackend(), decodedValue.getBackend());
+                assertEquals(value.toString(), decodedValue.toString());
+            }
+        }
+        assertEquals(mathContext, decoded.get(0).getMathContext());
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void readWrongKind() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.writeTradingRecord(new BaseTradingRecord(), new DataOutputStream(bytes));
+        BinaryCodec.readTimeSeries(input(bytes.toByteArray()));
+    }
+
+    private static byte[] encode(TimeSeries series) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.writeTimeSeries(series, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertSameTicks(TimeSeries expected, TimeSeries actual) {
+        assertEquals(expected.getBeginIndex(), actual.getBeginIndex());
+        assertEquals(expected.getEndIndex(), actual.getEndIndex());
+        assertEquals(expected.getTickCount(), actual.getTickCount());
+        for (int i = Math.max(expected.getBeginIndex(), expected.getRemovedTicksCount()); i <= expected.getEndIndex(); i++) {
+            Tick expectedTick = expected.getTick(i);
+            Tick actualTick = actual.getTick(i);
+            assertEquals(expectedTick.getEndTime(), actualTick.getEndTime());
+            assertEquals(expectedTick.getTimePeriod(), actualTick.getTimePeriod());
+            assertSameDecimal(expectedTick.getOpenPrice(), actualTick.getOpenPrice());
+            assertSameDecimal(expectedTick.getMaxPrice(), actualTick.getMaxPrice());
+            assertSameDecimal(expectedTick.getMinPrice(), actualTick.getMinPrice());
+            assertSameDecimal(expectedTick.getClosePrice(), actualTick.getClosePrice());
+            assertSameDecimal(expectedTick.getVolume(), actualTick.getVolume());
+            assertSameDecimal(expectedTick.getAmount(), actualTick.getAmount());
+            assertEquals(expectedTick.getTrades(), actualTick.getTrades());
+        }
+    }
+
+    /**
+     * Checks that two decimals are identical (same backend, same value and same scale).
+     */
+    private static void assertSameDecimal(Decimal expected, Decimal actual) {
+        if (expected == null || expected.isNaN()) {
+            assertSame(expected, actual);
+            return;
+        }
+        assertEquals(expected.getBackend(), actual.getBackend());
+        assertEquals(expected.toString(), actual.toString());
+    }
+}
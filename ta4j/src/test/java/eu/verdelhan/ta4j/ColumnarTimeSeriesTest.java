@@ -0,0 +1,183 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import eu.verdelhan.ta4j.indicators.SMAIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.TradeCountIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.TypicalPriceIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.VolumeIndicator;
+import eu.verdelhan.ta4j.mocks.MockTick;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnarTimeSeriesTest {
+
+    private List<Tick> ticks;
+
+    private ColumnarTimeSeries series;
+
+    @Before
+    public void setUp() {
+        ticks = new ArrayList<>();
+        ZonedDateTime time = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.of("Europe/Paris"));
+        for (int i = 0; i < 100; i++) {
+            double close = 100 + (i % 7) * 1.5 - (i % 3);
+            ticks.add(new MockTick(time.plusDays(i), close - 1, close, close + 2, close - 3, close * 10, 10 + i, i % 5));
+        }
+        series = new ColumnarTimeSeries("columnar", ticks, DecimalBackend.BIG_DECIMAL);
+    }
+
+    @Test
+    public void getTick() {
+        assertEquals(0, series.getBeginIndex());
+        assertEquals(99, series.getEndIndex());
+        assertEquals(100, series.getTickCount());
+        assertEquals(100, series.getTickData().size());
+        for (int i = 0; i < ticks.size(); i++) {
+            Tick expected = ticks.get(i);
+            Tick tick = series.getTick(i);
+            assertEquals(expected.getEndTime(), tick.getEndTime());
+            assertEquals(expected.getBeginTime(), tick.getBeginTime());
+            assertEquals(expected.getTimePeriod(), tick.getTimePeriod());
+            assertEquals(expected.getOpenPrice(), tick.getOpenPrice());
+            assertEquals(expected.getMaxPrice(), tick.getMaxPrice());
+            assertEquals(expected.getMinPrice(), tick.getMinPrice());
+            assertEquals(expected.getClosePrice(), tick.getClosePrice());
+            assertEquals(expected.getVolume(), tick.getVolume());
+            assertEquals(expected.getAmount(), tick.getAmount());
+            assertEquals(expected.getTrades(), tick.getTrades());
+        }
+    }
+
+    @Test
+    public void indicatorsReadTheColumns() {
+        BaseTimeSeries baseSeries = new BaseTimeSeries("base", ticks);
+        SMAIndicator columnarSma = new SMAIndicator(new ClosePriceIndicator(series), 10);
+        SMAIndicator baseSma = new SMAIndicator(new ClosePriceIndicator(baseSeries), 10);
+        TypicalPriceIndicator columnarTypical = new TypicalPriceIndicator(series);
+        TypicalPriceIndicator baseTypical = new TypicalPriceIndicator(baseSeries);
+        VolumeIndicator columnarVolume = new VolumeIndicator(series, 3);
+        TradeCountIndicator columnarTrades = new TradeCountIndicator(series);
+        for (int i = 0; i < ticks.size(); i++) {
+            assertEquals(baseSma.getValue(i), columnarSma.getValue(i));
+            assertEquals(baseTypical.getValue(i), columnarTypical.getValue(i));
+            assertEquals(new VolumeIndicator(baseSeries, 3).getValue(i), columnarVolume.getValue(i));
+            assertEquals(Integer.valueOf(i % 5), columnarTrades.getValue(i));
+        }
+    }
+
+    @Test
+    public void doubleBackend() {
+        ColumnarTimeSeries doubleSeries = new ColumnarTimeSeries("columnar", ticks, DecimalBackend.DOUBLE);
+        assertEquals(DecimalBackend.DOUBLE, doubleSeries.getDecimalBackend());
+        assertEquals(DecimalBackend.DOUBLE, doubleSeries.getClosePrice(5).getBackend());
+        assertDecimalEquals(new SMAIndicator(new ClosePriceIndicator(doubleSeries), 10).getValue(99),
+                new SMAIndicator(new ClosePriceIndicator(series), 10).getValue(99).toDouble());
+    }
+
+    @Test
+    public void maximumTickCount() {
+        ColumnarTimeSeries movingSeries = new ColumnarTimeSeries("moving", DecimalBackend.BIG_DECIMAL, null, 4);
+        movingSeries.setMaximumTickCount(3);
+        for (Tick tick : ticks) {
+            movingSeries.addTick(tick);
+        }
+        assertEquals(0, movingSeries.getBeginIndex());
+        assertEquals(99, movingSeries.getEndIndex());
+        assertEquals(97, movingSeries.getRemovedTicksCount());
+        assertEquals(3, movingSeries.getTickCount());
+        assertEquals(3, movingSeries.getTickData().size());
+        assertEquals(ticks.get(97).getEndTime(), movingSeries.getTickData().get(0).getEndTime());
+        assertEquals(ticks.get(99).getClosePrice(), movingSeries.getTick(99).getClosePrice());
+        // Removed ticks: first remaining tick
+        assertEquals(ticks.get(97).getClosePrice(), movingSeries.getTick(10).getClosePrice());
+        assertEquals(ticks.get(97).getClosePrice(), movingSeries.getClosePrice(10));
+    }
+
+    @Test
+    public void timeLookups() {
+        for (int i = 0; i < ticks.size(); i++) {
+            Tick tick = ticks.get(i);
+            assertEquals(i, series.floorIndex(tick.getEndTime().toInstant()));
+            assertEquals(i, series.ceilingIndex(tick.getEndTime().toInstant()));
+            assertEquals(i, series.indexOf(tick.getBeginTime().toInstant()));
+            assertEquals(i, series.ceilingIndex(tick.getBeginTime().plusHours(1).toInstant()));
+        }
+        assertEquals(-1, series.floorIndex(ticks.get(0).getBeginTime().toInstant()));
+        assertEquals(-1, series.ceilingIndex(ticks.get(99).getEndTime().plusNanos(1).toInstant()));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getTickOutOfBounds() {
+        series.getTick(100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addTickWithoutLaterEndTime() {
+        series.addTick(new MockTick(ticks.get(99).getEndTime(), 1d));
+    }
+
+    @Test
+    public void addTickWithNullValues() {
+        ColumnarTimeSeries emptySeries = new ColumnarTimeSeries();
+        assertTrue(emptySeries.isEmpty());
+        ZonedDateTime endTime = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.systemDefault());
+        emptySeries.addTick(new BaseTick(Duration.ofMinutes(1), endTime));
+        Tick tick = emptySeries.getTick(0);
+        assertNull(tick.getOpenPrice());
+        assertNull(tick.getClosePrice());
+        tick.addTrade(2, 10.5);
+        tick.addTrade(1, 9.5);
+        assertDecimalEquals(emptySeries.getOpenPrice(0), 10.5);
+        assertDecimalEquals(emptySeries.getClosePrice(0), 9.5);
+        assertDecimalEquals(emptySeries.getMaxPrice(0), 10.5);
+        assertDecimalEquals(emptySeries.getMinPrice(0), 9.5);
+        assertDecimalEquals(emptySeries.getVolume(0), 3);
+        assertDecimalEquals(emptySeries.getAmount(0), 30.5);
+        assertEquals(2, emptySeries.getTrades(0));
+        assertEquals(endTime.minusMinutes(1), tick.getBeginTime());
+    }
+
+    @Test
+    public void updateLastTick() {
+        Tick lastTick = ticks.get(99);
+        series.updateLastTick(new MockTick(lastTick.getEndTime(), 1, 2, 3, 4, 5, 6, 7));
+        assertEquals(1, series.getLastTickUpdateCount());
+        assertEquals(100, series.getTickCount());
+        assertDecimalEquals(series.getClosePrice(99), 2);
+        series.addTrade(Decimal.ONE, Decimal.valueOf(10));
+        assertEquals(2, series.getLastTickUpdateCount());
+        assertDecimalEquals(series.getClosePrice(99), 10);
+        assertDecimalEquals(series.getMaxPrice(99), 10);
+        assertDecimalEquals(series.getVolume(99), 7);
+        assertEquals(ticks.get(98).getClosePrice(), series.getClosePrice(98));
+    }
+}
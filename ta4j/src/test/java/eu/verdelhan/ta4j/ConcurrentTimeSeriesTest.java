@@ -0,0 +1,239 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import eu.verdelhan.ta4j.indicators.SMAIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.mocks.MockTick;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentTimeSeriesTest {
+
+    private ConcurrentTimeSeries series;
+
+    private ZonedDateTime time;
+
+    @Before
+    public void setUp() {
+        series = new ConcurrentTimeSeries("concurrent");
+        time = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.systemDefault());
+    }
+
+    @Test
+    public void addTick() {
+        assertEquals(-1, series.getBeginIndex());
+        assertEquals(-1, series.getEndIndex());
+        assertEquals(0, series.getTickCount());
+        assertTrue(series.isEmpty());
+
+        for (int i = 0; i < 50; i++) {
+            series.addTick(new MockTick(time.plusDays(i), i));
+        }
+        assertEquals(0, series.getBeginIndex());
+        assertEquals(49, series.getEndIndex());
+        assertEquals(50, series.getTickCount());
+        assertEquals(50, series.getTickData().size());
+        assertDecimalEquals(series.getTick(10).getClosePrice(), 10);
+        assertDecimalEquals(series.getClosePrice(49), 49);
+        assertDecimalEquals(series.getLastTick().getClosePrice(), 49);
+        assertEquals(time.plusDays(20).toInstant().toEpochMilli(), series.getEndTimeMillis(20));
+        assertEquals(20, series.floorIndex(time.plusDays(20).plusHours(1).toInstant()));
+    }
+
+    @Test
+    public void maximumTickCount() {
+        series.setMaximumTickCount(3);
+        for (int i = 0; i < 50; i++) {
+            series.addTick(new MockTick(time.plusDays(i), i));
+        }
+        assertEquals(0, series.getBeginIndex());
+        assertEquals(49, series.getEndIndex());
+        assertEquals(47, series.getRemovedTicksCount());
+        assertEquals(3, series.getTickCount());
+        assertEquals(3, series.getTickData().size());
+        assertDecimalEquals(series.getClosePrice(48), 48);
+        // Removed ticks: first remaining tick
+        assertDecimalEquals(series.getClosePrice(10), 47);
+
+        series.setMaximumTickCount(2);
+        assertEquals(48, series.getRemovedTicksCount());
+        assertEquals(2, series.getTickCount());
+        assertDecimalEquals(series.getFirstTick().getClosePrice(), 48);
+    }
+
+    @Test
+    public void snapshot() {
+        series.setMaximumTickCount(5);
+        for (int i = 0; i < 10; i++) {
+            series.addTick(new MockTick(time.plusDays(i), i));
+        }
+        TimeSeries snapshot = series.snapshot();
+        for (int i = 10; i < 100; i++) {
+            series.addTick(new MockTick(time.plusDays(i), i));
+        }
+        assertEquals(9, snapshot.getEndIndex());
+        assertEquals(5, snapshot.getRemovedTicksCount());
+        assertEquals(5, snapshot.getTickCount());
+        assertDecimalEquals(snapshot.getFirstTick().getClosePrice(), 5);
+        assertDecimalEquals(snapshot.getLastTick().getClosePrice(), 9);
+        assertEquals(99, series.getEndIndex());
+    }
+
+    @Test
+    public void view() {
+        series.setMaximumTickCount(10);
+        for (int i = 0; i < 20; i++) {
+            series.addTick(new MockTick(time.plusDays(i), i));
+        }
+        TimeSeries view = series.view(15, 19);
+        series.updateLastTick(new MockTick(time.plusDays(19), 100));
+        series.addTick(new MockTick(time.plusDays(20), 20));
+        assertEquals(15, view.getBeginIndex());
+        assertEquals(19, view.getEndIndex());
+        assertEquals(5, view.getTickCount());
+        assertDecimalEquals(view.getTick(12).getClosePrice(), 12);
+        assertDecimalEquals(view.getLastTick().getClosePrice(), 19);
+        assertDecimalEquals(series.getTick(19).getClosePrice(), 100);
+        assertDecimalEquals(series.snapshot().view(10, 18).getLastTick().getClosePrice(), 18);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addTickToSnapshot() {
+        series.snapshot().addTick(new MockTick(time, 1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void modifyTickData() {
+        series.addTick(new MockTick(time, 1));
+        series.getTickData().clear();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addTickWithoutLaterEndTime() {
+        series.addTick(new MockTick(time, 1));
+        series.addTick(new MockTick(time, 2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getTickOutOfBounds() {
+        series.addTick(new MockTick(time, 1));
+        series.getTick(1);
+    }
+
+    @Test
+    public void concurrentReads() throws InterruptedException {
+        final int tickCount = 20000;
+        series.setMaximumTickCount(100);
+        final List<Tick> ticks = new ArrayList<>(tickCount);
+        for (int i = 0; i < tickCount; i++) {
+            ticks.add(new MockTick(time.plusMinutes(i), i));
+        }
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(new Thread(() -> {
+                try {
+                    while (writing.get()) {
+                        TimeSeries snapshot = series.snapshot();
+                        int endIndex = snapshot.getEndIndex();
+                        if (endIndex < 0) {
+                            continue;
+                        }
+                        // Consistent state: the ticks match their indexes
+                        assertEquals(snapshot.getTickCount(), snapshot.getTickData().size());
+                        assertDecimalEquals(snapshot.getLastTick().getClosePrice(), endIndex);
+                        int firstIndex = snapshot.getRemovedTicksCount();
+                        assertDecimalEquals(snapshot.getClosePrice(firstIndex), firstIndex);
+                        assertEquals(firstIndex, snapshot.ceilingIndex(ticks.get(firstIndex).getEndTime().toInstant()));
+                        // Indicator of the reading thread
+                        if (endIndex >= firstIndex + 4) {
+                            SMAIndicator snapshotSma = new SMAIndicator(new ClosePriceIndicator(snapshot), 5);
+                            assertDecimalEquals(snapshotSma.getValue(endIndex), endIndex - 2);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Tick tick : ticks) {
+            series.addTick(tick);
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(tickCount - 1, series.getEndIndex());
+        assertEquals(100, series.getTickCount());
+        assertDecimalEquals(new SMAIndicator(new ClosePriceIndicator(series), 5).getValue(tickCount - 1), tickCount - 3);
+    }
+
+    @Test
+    public void updateLastTick() {
+        series.setMaximumTickCount(2);
+        series.addTick(new MockTick(time, 1));
+        series.addTick(new MockTick(time.plusDays(1), 2));
+        TimeSeries snapshot = series.snapshot();
+
+        series.addTrade(Decimal.ONE, Decimal.valueOf(3));
+        assertEquals(1, series.getLastTickUpdateCount());
+        assertDecimalEquals(series.getLastTick().getClosePrice(), 3);
+        series.updateLastTick(new MockTick(time.plusDays(1), 4));
+        assertEquals(2, series.getLastTickUpdateCount());
+        assertDecimalEquals(series.getClosePrice(1), 4);
+        assertDecimalEquals(series.getTickData().get(1).getClosePrice(), 4);
+        // The snapshot is not affected
+        assertEquals(0, snapshot.getLastTickUpdateCount());
+        assertDecimalEquals(snapshot.getClosePrice(1), 2);
+
+        // The updated tick is kept once completed
+        series.addTick(new MockTick(time.plusDays(2), 5));
+        assertDecimalEquals(series.getClosePrice(1), 4);
+        assertDecimalEquals(series.getClosePrice(2), 5);
+        assertDecimalEquals(snapshot.getClosePrice(1), 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void updateLastTickWithAnotherEndTime() {
+        series.addTick(new MockTick(time, 1));
+        series.updateLastTick(new MockTick(time.plusDays(1), 2));
+    }
+}
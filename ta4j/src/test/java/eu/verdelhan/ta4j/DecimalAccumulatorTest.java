@@ -0,0 +1,66 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class DecimalAccumulatorTest {
+
+    @Test
+    public void accumulateBigDecimals() {
+        DecimalAccumulator accumulator = new DecimalAccumulator();
+        accumulator.add(Decimal.valueOf("1.5"))
+                .subtract(Decimal.valueOf("0.25"))
+                .multiplyAdd(Decimal.TWO, Decimal.THREE)
+                .multiplyAddDifferences(Decimal.TEN, Decimal.ONE, Decimal.TEN, Decimal.ONE)
+                .addAbsoluteDifference(Decimal.ONE, Decimal.THREE);
+        Decimal result = accumulator.toDecimal();
+        assertEquals(DecimalBackend.BIG_DECIMAL, result.getBackend());
+        assertDecimalEquals(result, "90.25");
+    }
+
+    @Test
+    public void accumulateDoubles() {
+        DecimalAccumulator accumulator = new DecimalAccumulator();
+        accumulator.add(Decimal.valueOf("1.5"))
+                .add(DecimalBackend.DOUBLE.decimalOf(2))
+                .multiplyAdd(Decimal.TWO, Decimal.THREE);
+        Decimal result = accumulator.toDecimal();
+        assertEquals(DecimalBackend.DOUBLE, result.getBackend());
+        assertDecimalEquals(result, 9.5);
+    }
+
+    @Test
+    public void nanAndReset() {
+        DecimalAccumulator accumulator = new DecimalAccumulator();
+        accumulator.add(Decimal.ONE).add(Decimal.NaN).add(Decimal.ONE);
+        assertTrue(accumulator.isNaN());
+        assertSame(Decimal.NaN, accumulator.toDecimal());
+
+        accumulator.reset().add(Decimal.TEN);
+        assertFalse(accumulator.isNaN());
+        assertDecimalEquals(accumulator.toDecimal(), 10);
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class DecimalMathTest {
+
+    private static final MathContext MC_32 = new MathContext(32, RoundingMode.HALF_UP);
+
+    private static final MathContext MC_50 = new MathContext(50, RoundingMode.HALF_EVEN);
+
+    @Test
+    public void sqrt() {
+        assertEquals(new BigDecimal("1.4142135623730950488016887242097"), DecimalMath.sqrt(new BigDecimal(2), MC_32));
+        assertEquals(new BigDecimal("1.4142135623730950488016887242096980785696718753769"), DecimalMath.sqrt(new BigDecimal(2), MC_50));
+        assertEquals(0, new BigDecimal("12").compareTo(DecimalMath.sqrt(new BigDecimal(144), MC_32)));
+        assertEquals(new BigDecimal("0.0031622776601683793319988935444327"), DecimalMath.sqrt(new BigDecimal("0.00001"), MC_32));
+        assertEquals(new BigDecimal("1.41421356"), DecimalMath.sqrt(new BigDecimal(2), new MathContext(9)));
+    }
+
+    @Test
+    public void exp() {
+        assertEquals(BigDecimal.ONE, DecimalMath.exp(BigDecimal.ZERO, MC_32));
+        assertEquals(new BigDecimal("2.7182818284590452353602874713527"), DecimalMath.exp(BigDecimal.ONE, MC_32));
+        assertEquals(new BigDecimal("0.36787944117144232159552377016146"), DecimalMath.exp(BigDecimal.ONE.negate(), MC_32));
+        assertEquals(new BigDecimal("22026.465794806716516957900645284"), DecimalMath.exp(BigDecimal.TEN, MC_32));
+        assertEquals(new BigDecimal("1.0000000001000000000050000000002"), DecimalMath.exp(new BigDecimal("1E-10"), MC_32));
+    }
+
+    @Test
+    public void log() {
+        assertEquals(0, BigDecimal.ZERO.compareTo(DecimalMath.log(BigDecimal.ONE, MC_32)));
+        assertEquals(new BigDecimal("0.69314718055994530941723212145818"), DecimalMath.log(new BigDecimal(2), MC_32));
+        assertEquals(new BigDecimal("2.3025850929940456840179914546844"), DecimalMath.log(BigDecimal.TEN, MC_32));
+        assertEquals(new BigDecimal("-6.9077552789821370520539743640531"), DecimalMath.log(new BigDecimal("0.001"), MC_32));
+        assertEquals(new BigDecimal("0.000099995000333308335333166680951131"), DecimalMath.log(new BigDecimal("1.0001"), MC_32));
+        assertEquals(new BigDecimal("-0.000010000050000333335833353333500001"), DecimalMath.log(new BigDecimal("0.99999"), MC_32));
+        assertEquals(new BigDecimal("2.3025850929940456840179914546843642076011014886288"), DecimalMath.log(BigDecimal.TEN, MC_50));
+    }
+
+    @Test
+    public void pow() {
+        assertEquals(new BigDecimal("1.4142135623730950488016887242097"), DecimalMath.pow(new BigDecimal(2), new BigDecimal("0.5"), MC_32));
+        assertEquals(new BigDecimal("1.1041271638968414049739521866079"), DecimalMath.pow(new BigDecimal("1.5"), new BigDecimal("0.2443"), MC_32));
+        assertEquals(0, new BigDecimal("3").compareTo(DecimalMath.pow(new BigDecimal(27), BigDecimal.ONE.divide(new BigDecimal(3), MC_50), MC_32)));
+    }
+
+    @Test
+    public void doublePrecisionFastPath() {
+        MathContext mc15 = new MathContext(15, RoundingMode.HALF_EVEN);
+        String[] values = { "0.001", "0.5", "0.99", "1.0001", "2", "3.7", "10", "123.456", "-1", "-20.5" };
+        for (String value : values) {
+            BigDecimal x = new BigDecimal(value);
+            assertEquals(DecimalMath.exp(x, MC_50).round(mc15), DecimalMath.exp(x, mc15));
+            if (x.signum() > 0) {
+                assertEquals(DecimalMath.log(x, MC_50).round(mc15), DecimalMath.log(x, mc15));
+                BigDecimal y = new BigDecimal("0.2443");
+                assertEquals(DecimalMath.pow(x, y, MC_50).round(mc15), DecimalMath.pow(x, y, mc15));
+            }
+        }
+        assertEquals(new BigDecimal("1.1041272"), DecimalMath.pow(new BigDecimal("1.5"), new BigDecimal("0.2443"), new MathContext(8)));
+        assertEquals(new BigDecimal("7.3890561"), DecimalMath.exp(new BigDecimal(2), new MathContext(8)));
+    }
+
+    @Test
+    public void decimalFunctions() {
+        assertTrue(Decimal.valueOf(2).sqrt().isEqual(Decimal.valueOf("1.4142135623730950488016887242097")));
+        assertEquals(Decimal.ZERO, Decimal.ZERO.sqrt());
+        assertEquals(Decimal.NaN, Decimal.valueOf(-1).sqrt());
+        assertEquals(Decimal.NaN, Decimal.ZERO.log());
+        assertEquals(Decimal.NaN, Decimal.valueOf(-2).log());
+        assertTrue(Decimal.ONE.exp().isEqual(Decimal.valueOf("2.7182818284590452353602874713527")));
+        assertTrue(Decimal.valueOf(2).pow(Decimal.valueOf(10)).isEqual(Decimal.valueOf(1024)));
+        assertTrue(Decimal.valueOf(4).pow(Decimal.valueOf("0.5")).isEqual(Decimal.valueOf(2)));
+        assertEquals(Decimal.NaN, Decimal.valueOf(-4).pow(Decimal.valueOf("0.5")));
+        assertEquals(Decimal.ZERO, Decimal.ZERO.pow(Decimal.valueOf("0.5")));
+        assertEquals(Decimal.NaN, Decimal.NaN.pow(Decimal.ONE));
+    }
+
+    @Test
+    public void precisionOfTheMathContext() {
+        Decimal two = Decimal.valueOf(2).withMathContext(PrecisionProfile.FAST_8.getMathContext());
+        assertEquals(8, two.sqrt().toString().length() - 1);
+        assertEquals(PrecisionProfile.FAST_8.getMathContext(), two.log().getMathContext());
+        assertEquals("0.69314718", two.log().toString());
+    }
+
+    @Test
+    public void doubleBackedFunctions() {
+        Decimal two = DecimalBackend.DOUBLE.decimalOf(2);
+        assertEquals(DecimalBackend.DOUBLE, two.exp().getBackend());
+        assertEquals(Math.exp(2), two.exp().toDouble(), 0);
+        assertEquals(Math.pow(2, 0.3), two.pow(Decimal.valueOf("0.3")).toDouble(), 0);
+    }
+}
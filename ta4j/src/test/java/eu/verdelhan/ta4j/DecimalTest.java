@@ -0,0 +1,244 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import eu.verdelhan.ta4j.indicators.CCIIndicator;
+import eu.verdelhan.ta4j.indicators.ParabolicSarIndicator;
+import eu.verdelhan.ta4j.indicators.RSIIndicator;
+import eu.verdelhan.ta4j.indicators.SMAIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.indicators.statistics.StandardDeviationIndicator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.MathContext;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class DecimalTest {
+
+    @Test
+    public void deserializedNaNIsUnique() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(Decimal.NaN);
+            out.writeObject(Decimal.valueOf("1.5"));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame(Decimal.NaN, in.readObject());
+            assertDecimalEquals((Decimal) in.readObject(), 1.5);
+        }
+    }
+
+    @Test
+    public void serializationKeepsBackendsAndMathContexts() throws Exception {
+        Decimal doubleZero = DecimalBackend.DOUBLE.decimalOf(0);
+        Decimal doubleValue = DecimalBackend.DOUBLE.decimalOf(2.5);
+        Decimal withMathContext = Decimal.valueOf("1.25").withMathContext(new MathContext(8));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new Decimal[] { Decimal.NaN, doubleZero, doubleValue, withMathContext });
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Decimal[] decimals = (Decimal[]) in.readObject();
+            assertSame(Decimal.NaN, decimals[0]);
+            assertEquals(DecimalBackend.DOUBLE, decimals[1].getBackend());
+            assertFalse(decimals[1].isNaN());
+            assertDecimalEquals(decimals[1], 0d);
+            assertEquals(DecimalBackend.DOUBLE, decimals[2].getBackend());
+            assertDecimalEquals(decimals[2], 2.5);
+            assertEquals(new MathContext(8), decimals[3].getMathContext());
+            assertDecimalEquals(decimals[3], "1.25");
+        }
+    }
+
+    @Test
+    public void deserializeDecimalsOfPreviousVersion() throws Exception {
+        // Decimal[] { NaN, 1.5, 0 } serialized by the version without double-backed decimals
+        byte[] bytes = Base64.getDecoder().decode(
+            "rO0ABXVyABxbTGV1LnZlcmRlbGhhbi50YTRqLkRlY2ltYWw7rPjkk/EBrncCAAB4cAAAAANzcgAZZXUudmVyZGVsaGFuLnRhNGou"
+            + "RGVjaW1hbB7hQFmZPtG6AgABTAAIZGVsZWdhdGV0ABZMamF2YS9tYXRoL0JpZ0RlY2ltYWw7eHBwc3EAfgACc3IAFGphdmEubWF0"
+            + "aC5CaWdEZWNpbWFsVMcVV/mBKE8DAAJJAAVzY2FsZUwABmludFZhbHQAFkxqYXZhL21hdGgvQmlnSW50ZWdlcjt4cgAQamF2YS5s"
+            + "YW5nLk51bWJlcoaslR0LlOCLAgAAeHAAAAABc3IAFGphdmEubWF0aC5CaWdJbnRlZ2VyjPyfH6k7+x0DAAZJAAhiaXRDb3VudEkA"
+            + "CWJpdExlbmd0aEkAE2ZpcnN0Tm9uemVyb0J5dGVOdW1JAAxsb3dlc3RTZXRCaXRJAAZzaWdudW1bAAltYWduaXR1ZGV0AAJbQnhx"
+            + "AH4ACP///////////////v////4AAAABdXIAAltCrPMX+AYIVOACAAB4cAAAAAEPeHhzcQB+AAJzcQB+AAYAAAAAc3EAfgAK////"
+            + "///////////+/////gAAAAB1cQB+AA0AAAAAeHg=");
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            Decimal[] decimals = (Decimal[]) in.readObject();
+            assertSame(Decimal.NaN, decimals[0]);
+            assertDecimalEquals(decimals[1], "1.5");
+            assertEquals(DecimalBackend.BIG_DECIMAL, decimals[2].getBackend());
+            assertDecimalEquals(decimals[2], 0);
+        }
+    }
+
+    @Test
+    public void doubleBackedArithmetic() {
+        Decimal a = DecimalBackend.DOUBLE.decimalOf(7.5);
+        Decimal b = DecimalBackend.DOUBLE.decimalOf(2);
+        assertEquals(DecimalBackend.DOUBLE, a.getBackend());
+        assertDecimalEquals(a.plus(b), 9.5);
+        assertDecimalEquals(a.minus(b), 5.5);
+        assertDecimalEquals(a.multipliedBy(b), 15);
+        assertDecimalEquals(a.dividedBy(b), 3.75);
+        assertDecimalEquals(a.remainder(b), 1.5);
+        assertDecimalEquals(b.pow(3), 8);
+        assertDecimalEquals(Decimal.ZERO.minus(a).abs(), 7.5);
+        assertEquals(b, a.min(b));
+        assertEquals(a, a.max(b));
+        assertTrue(a.isGreaterThan(b));
+        assertTrue(DecimalBackend.DOUBLE.decimalOf(0).isZero());
+    }
+
+    @Test
+    public void equalDecimalsHaveEqualHashCodesAcrossBackends() {
+        Decimal bigDecimal = Decimal.valueOf("2.50");
+        Decimal otherScale = Decimal.valueOf("2.5");
+        Decimal doubleBacked = DecimalBackend.DOUBLE.decimalOf(2.5);
+        assertEquals(bigDecimal, otherScale);
+        assertEquals(bigDecimal, doubleBacked);
+        assertEquals(bigDecimal.hashCode(), otherScale.hashCode());
+        assertEquals(bigDecimal.hashCode(), doubleBacked.hashCode());
+        assertEquals(bigDecimal.hashCode(), bigDecimal.withMathContext(new MathContext(4)).hashCode());
+
+        Decimal negativeZero = DecimalBackend.DOUBLE.decimalOf(-0.0);
+        assertEquals(Decimal.ZERO, negativeZero);
+        assertEquals(Decimal.ZERO.hashCode(), negativeZero.hashCode());
+    }
+
+    @Test
+    public void doubleBackedNaN() {
+        Decimal a = DecimalBackend.DOUBLE.decimalOf(1);
+        assertSame(Decimal.NaN, a.dividedBy(DecimalBackend.DOUBLE.decimalOf(0)));
+        assertSame(Decimal.NaN, a.plus(Decimal.NaN));
+        assertSame(Decimal.NaN, DecimalBackend.DOUBLE.decimalOf(Double.NaN));
+        assertSame(Decimal.NaN, DecimalBackend.DOUBLE.decimalOf(Double.POSITIVE_INFINITY));
+        assertSame(Decimal.NaN, DecimalBackend.DOUBLE.decimalOf(-4).sqrt());
+        assertFalse(Decimal.NaN.isEqual(a));
+    }
+
+    @Test
+    public void mixedBackendsGiveDoubleBackedResults() {
+        Decimal primitive = DecimalBackend.DOUBLE.decimalOf(3);
+        assertEquals(DecimalBackend.DOUBLE, Decimal.ONE.plus(primitive).getBackend());
+        assertEquals(DecimalBackend.DOUBLE, primitive.multipliedBy(Decimal.TEN).getBackend());
+        assertEquals(DecimalBackend.BIG_DECIMAL, Decimal.ONE.plus(Decimal.TWO).getBackend());
+        assertEquals(Decimal.THREE, primitive);
+        assertEquals(0, Decimal.THREE.compareTo(primitive));
+    }
+
+    @Test
+    public void smallIntegersAreCached() {
+        assertSame(Decimal.valueOf(14), Decimal.valueOf(14));
+        assertSame(Decimal.valueOf(14), Decimal.valueOf(14L));
+        assertSame(Decimal.valueOf(14), Decimal.valueOf(14d));
+        assertNotSame(Decimal.valueOf(100000), Decimal.valueOf(100000));
+    }
+
+    @Test
+    public void mathContextPropagation() {
+        MathContext fast = PrecisionProfile.forName("fast-8").getMathContext();
+        Decimal third = Decimal.ONE.withMathContext(fast).dividedBy(Decimal.THREE);
+        assertEquals(fast, third.getMathContext());
+        assertDecimalEquals(third, "0.33333333");
+        assertEquals(fast, Decimal.TEN.multipliedBy(third).getMathContext());
+        assertEquals(Decimal.MATH_CONTEXT, Decimal.ONE.dividedBy(Decimal.THREE).getMathContext());
+        assertDecimalEquals(Decimal.valueOf("123.456789012").withMathContext(fast), "123.45679");
+
+        DecimalAccumulator accumulator = new DecimalAccumulator();
+        accumulator.add(Decimal.ONE).add(third);
+        assertEquals(fast, accumulator.toDecimal().getMathContext());
+    }
+
+    @Test
+    public void indicatorsOnSeriesWithPrecisionProfile() {
+        TimeSeries series = new BaseTimeSeries("fast", buildTicks(), PrecisionProfile.FAST_8);
+        TimeSeries exactSeries = new BaseTimeSeries("exact", buildTicks(), PrecisionProfile.EXACT_32);
+        MathContext fast = PrecisionProfile.FAST_8.getMathContext();
+        assertEquals(fast, series.getMathContext());
+        assertEquals(fast, series.getTick(0).getClosePrice().getMathContext());
+
+        List<Indicator<Decimal>> indicators = buildIndicators(series);
+        List<Indicator<Decimal>> exactIndicators = buildIndicators(exactSeries);
+        for (int i = 0; i < indicators.size(); i++) {
+            for (int j = 0; j <= series.getEndIndex(); j++) {
+                indicators.get(i).getValue(j);
+                exactIndicators.get(i).getValue(j);
+            }
+            Decimal value = indicators.get(i).getValue(series.getEndIndex());
+            assertEquals(fast, value.getMathContext());
+            assertTrue(value.toString().replaceAll("[-.]", "").replaceAll("^0+", "").length() <= 8);
+            assertDecimalEquals(value, exactIndicators.get(i).getValue(series.getEndIndex()).toDouble());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPrecisionProfile() {
+        PrecisionProfile.forName("unknown");
+    }
+
+    @Test
+    public void indicatorsOnDoubleBackedSeries() {
+        TimeSeries bigDecimalSeries = new BaseTimeSeries("big decimal", buildTicks(), DecimalBackend.BIG_DECIMAL);
+        TimeSeries doubleSeries = new BaseTimeSeries("double", buildTicks(), DecimalBackend.DOUBLE);
+        assertEquals(DecimalBackend.DOUBLE, doubleSeries.getDecimalBackend());
+        assertEquals(DecimalBackend.DOUBLE, doubleSeries.getTick(3).getClosePrice().getBackend());
+
+        List<Indicator<Decimal>> bigDecimalIndicators = buildIndicators(bigDecimalSeries);
+        List<Indicator<Decimal>> doubleIndicators = buildIndicators(doubleSeries);
+        for (int i = 0; i < bigDecimalIndicators.size(); i++) {
+            for (int j = 0; j <= bigDecimalSeries.getEndIndex(); j++) {
+                assertDecimalEquals(doubleIndicators.get(i).getValue(j), bigDecimalIndicators.get(i).getValue(j).toDouble());
+            }
+            assertEquals(DecimalBackend.DOUBLE, doubleIndicators.get(i).getValue(doubleSeries.getEndIndex()).getBackend());
+        }
+    }
+
+    private static List<Tick> buildTicks() {
+        List<Tick> ticks = new ArrayList<>();
+        ZonedDateTime time = ZonedDateTime.of(2017, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 60; i++) {
+            double close = 100 + 10 * Math.sin(i / 5d) + i % 3;
+            ticks.add(new BaseTick(time.plusDays(i), close - 1, close + 2, close - 2, close, 1000 + i));
+        }
+        return ticks;
+    }
+
+    private static List<Indicator<Decimal>> buildIndicators(TimeSeries series) {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        List<Indicator<Decimal>> indicators = new ArrayList<>();
+        indicators.add(new SMAIndicator(closePrice, 10));
+        indicators.add(new RSIIndicator(closePrice, 14));
+        indicators.add(new StandardDeviationIndicator(closePrice, 20));
+        indicators.add(new CCIIndicator(series, 20));
+        indicators.add(new ParabolicSarIndicator(series, 10));
+        return indicators;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class FixedDecimalTest {
+
+    @Test
+    public void plusAndMinusAreExact() {
+        FixedDecimal price = FixedDecimal.valueOf("10.25", 2);
+        FixedDecimal tick = FixedDecimal.valueOf("0.0001", 4);
+        assertEquals("10.2501", price.plus(tick).toString());
+        assertEquals(4, price.plus(tick).getScale());
+        assertEquals("10.2499", price.minus(tick).toString());
+        FixedDecimal sum = FixedDecimal.valueOf(0, 2);
+        for (int i = 0; i < 10; i++) {
+            sum = sum.plus(FixedDecimal.valueOf("0.10", 2));
+        }
+        assertEquals(FixedDecimal.valueOf(1, 0), sum);
+    }
+
+    @Test
+    public void multipliedByAndDividedByAreRoundedHalfUp() {
+        FixedDecimal a = FixedDecimal.valueOf("1.25", 2);
+        FixedDecimal b = FixedDecimal.valueOf("0.5", 1);
+        assertEquals("0.63", a.multipliedBy(b).toString());
+        assertEquals("-0.63", a.multipliedBy(FixedDecimal.valueOf("-0.5", 1)).toString());
+        assertEquals("2.50", a.dividedBy(b).toString());
+        assertEquals("0.33", FixedDecimal.valueOf(1, 0).dividedBy(FixedDecimal.valueOf("3.00", 2)).toString());
+        assertEquals("0.67", FixedDecimal.valueOf(2, 0).dividedBy(FixedDecimal.valueOf("3.00", 2)).toString());
+        assertEquals("-0.67", FixedDecimal.valueOf(-2, 0).dividedBy(FixedDecimal.valueOf("3.00", 2)).toString());
+    }
+
+    @Test
+    public void largeIntermediateProducts() {
+        FixedDecimal big = FixedDecimal.valueOf("12345678.12345678", 8);
+        assertEquals("15241577.79149520", big.multipliedBy(FixedDecimal.valueOf("1.23456789", 8)).toString());
+        assertEquals("1234567.81234568", big.dividedBy(FixedDecimal.valueOf(10, 0)).toString());
+    }
+
+    @Test
+    public void compareMinMaxAbs() {
+        FixedDecimal a = FixedDecimal.valueOf("-1.5", 1);
+        FixedDecimal b = FixedDecimal.valueOf("1.50", 2);
+        assertTrue(a.compareTo(b) < 0);
+        assertSame(a, a.min(b));
+        assertSame(b, a.max(b));
+        assertEquals(b, a.abs());
+        assertEquals(b.hashCode(), a.abs().hashCode());
+        assertEquals(Decimal.valueOf("1.5"), b.toDecimal());
+        assertEquals(FixedDecimal.valueOf("1.5", 1), FixedDecimal.valueOf(Decimal.valueOf(1.5), 1));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void additionOverflow() {
+        FixedDecimal.valueOf(Long.MAX_VALUE, 2).plus(FixedDecimal.valueOf(1, 2));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void multiplicationOverflow() {
+        FixedDecimal.valueOf(Long.MAX_VALUE / 10, 0).multipliedBy(FixedDecimal.valueOf(100, 0));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void rescaleOverflow() {
+        FixedDecimal.valueOf(Long.MAX_VALUE / 10, 0).plus(FixedDecimal.valueOf(1, 2));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void divisionByZero() {
+        FixedDecimal.valueOf(1, 0).dividedBy(FixedDecimal.valueOf(0, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidScale() {
+        FixedDecimal.valueOf(1, FixedDecimal.MAX_SCALE + 1);
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import eu.verdelhan.ta4j.indicators.SMAIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.mocks.MockTick;
+import eu.verdelhan.ta4j.trading.rules.CrossedDownIndicatorRule;
+import eu.verdelhan.ta4j.trading.rules.CrossedUpIndicatorRule;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedTimeSeriesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Tick> ticks;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        ticks = new ArrayList<>();
+        ZonedDateTime time = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.of("America/New_York"));
+        for (int i = 0; i < 200; i++) {
+            double close = 100 + (i % 17) * 1.5 - (i % 5);
+            ticks.add(new MockTick(time.plusDays(i), close - 1, close, close + 2, close - 3, close * 10, 10 + i, i % 5));
+        }
+        file = write("series.bin", false);
+    }
+
+    @Test
+    public void readTicks() {
+        MappedTimeSeries series = new MappedTimeSeries("mapped", file);
+        assertEquals(ZoneId.of("America/New_York"), series.getZone());
+        assertEquals(0, series.getBeginIndex());
+        assertEquals(199, series.getEndIndex());
+        assertEquals(200, series.getTickCount());
+        assertEquals(200, series.getTickData().size());
+        assertEquals(Duration.ofDays(1), series.getTimePeriod());
+        for (int i = 0; i < ticks.size(); i++) {
+            Tick expected = ticks.get(i);
+            Tick tick = series.getTick(i);
+            assertEquals(expected.getEndTime(), tick.getEndTime());
+            assertEquals(expected.getBeginTime(), tick.getBeginTime());
+            assertEquals(expected.getOpenPrice(), tick.getOpenPrice());
+            assertEquals(expected.getMaxPrice(), tick.getMaxPrice());
+            assertEquals(expected.getMinPrice(), tick.getMinPrice());
+            assertEquals(expected.getClosePrice(), tick.getClosePrice());
+            assertEquals(expected.getVolume(), tick.getVolume());
+            assertEquals(expected.getAmount(), tick.getAmount());
+            assertEquals(expected.getTrades(), tick.getTrades());
+        }
+    }
+
+    @Test
+    public void runStrategy() {
+        TimeSeries baseSeries = new BaseTimeSeries("base", ticks);
+        TimeSeries mappedSeries = new MappedTimeSeries("mapped", file);
+        TradingRecord baseRecord = new TimeSeriesManager(baseSeries).run(buildStrategy(baseSeries));
+        TradingRecord mappedRecord = new TimeSeriesManager(mappedSeries).run(buildStrategy(mappedSeries));
+        assertTrue(baseRecord.getTradeCount() > 0);
+        assertEquals(baseRecord.getTradeCount(), mappedRecord.getTradeCount());
+        for (int i = 0; i < baseRecord.getTradeCount(); i++) {
+            assertEquals(baseRecord.getTrades().get(i).getEntry(), mappedRecord.getTrades().get(i).getEntry());
+            assertEquals(baseRecord.getTrades().get(i).getExit(), mappedRecord.getTrades().get(i).getExit());
+        }
+    }
+
+    @Test
+    public void serialization() throws IOException, ClassNotFoundException {
+        MappedTimeSeries series = new MappedTimeSeries("mapped", file, DecimalBackend.DOUBLE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(series);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            MappedTimeSeries deserialized = (MappedTimeSeries) in.readObject();
+            assertEquals(200, deserialized.getTickCount());
+            assertEquals(DecimalBackend.DOUBLE, deserialized.getClosePrice(10).getBackend());
+            assertEquals(series.getClosePrice(10), deserialized.getClosePrice(10));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addTickShouldThrowException() {
+        new MappedTimeSeries("mapped", file).addTick(new MockTick(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getTickOutOfBounds() {
+        new MappedTimeSeries("mapped", file).getTick(200);
+    }
+
+    @Test
+    public void sameTicksAsPagedSeriesAndReader() throws IOException {
+        MappedTimeSeries mappedSeries = new MappedTimeSeries("mapped", file);
+        TimeSeries readSeries;
+        try (TickFileReader reader = new TickFileReader(Files.newInputStream(file))) {
+            readSeries = reader.readTimeSeries();
+        }
+        try (PagedTimeSeries pagedSeries = new PagedTimeSeries(file, DecimalBackend.BIG_DECIMAL, 50, 2)) {
+            assertEquals(readSeries.getTickCount(), mappedSeries.getTickCount());
+            assertEquals(readSeries.getTickCount(), pagedSeries.getTickCount());
+            for (int i = 0; i < mappedSeries.getTickCount(); i++) {
+                assertEquals(readSeries.getTick(i).getEndTime(), mappedSeries.getTick(i).getEndTime());
+                assertEquals(readSeries.getClosePrice(i), mappedSeries.getClosePrice(i));
+                assertEquals(pagedSeries.getClosePrice(i), mappedSeries.getClosePrice(i));
+                assertEquals(pagedSeries.getAmount(i), mappedSeries.getAmount(i));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compressedTickFile() throws IOException {
+        new MappedTimeSeries("mapped", write("compressed.bin", true));
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void notATickFile() throws IOException {
+        Path otherFile = folder.newFile("other.bin").toPath();
+        Files.write(otherFile, new byte[64]);
+        new MappedTimeSeries("mapped", otherFile);
+    }
+
+    private Path write(String fileName, boolean compressed) throws IOException {
+        Path tickFile = folder.newFile(fileName).toPath();
+        try (OutputStream out = Files.newOutputStream(tickFile);
+                TickFileWriter writer = new TickFileWriter(out, "TEST", Duration.ofDays(1), ZoneId.of("America/New_York"), 2, compressed)) {
+            for (Tick tick : ticks) {
+                writer.write(tick);
+            }
+        }
+        return tickFile;
+    }
+
+    private static Strategy buildStrategy(TimeSeries series) {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        SMAIndicator shortSma = new SMAIndicator(closePrice, 3);
+        SMAIndicator longSma = new SMAIndicator(closePrice, 10);
+        return new BaseStrategy(new CrossedUpIndicatorRule(shortSma, longSma), new CrossedDownIndicatorRule(shortSma, longSma));
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import eu.verdelhan.ta4j.indicators.SMAIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PagedTimeSeriesTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TimeSeries expected;
+
+    private Path file;
+
+    private PagedTimeSeries series;
+
+    @Before
+    public void setUp() throws IOException {
+        expected = new BaseTimeSeries("EURUSD");
+        ZonedDateTime endTime = ZonedDateTime.of(2017, 1, 2, 9, 1, 0, 0, ZONE);
+        for (int i = 0; i < 1000; i++) {
+            Decimal close = Decimal.valueOf(105000 + (i % 13) * 10 - (i % 7) * 20).dividedBy(Decimal.valueOf(100000));
+            Decimal open = Decimal.valueOf("1.0501");
+            Decimal volume = Decimal.valueOf(1000 + i);
+            expected.addTick(new BaseTick(Duration.ofMinutes(1), endTime.plusMinutes(i), open,
+                    open.max(close).plus(Decimal.valueOf("0.0003")), open.min(close).minus(Decimal.valueOf("0.0002")),
+                    close, volume, volume.multipliedBy(close), i % 20));
+        }
+        file = write(false);
+        series = new PagedTimeSeries(file, DecimalBackend.BIG_DECIMAL, 100, 3);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        series.close();
+    }
+
+    @Test
+    public void readTicks() {
+        assertEquals("EURUSD", series.getName());
+        assertEquals(1000, series.getTickCount());
+        assertEquals(0, series.getBeginIndex());
+        assertEquals(999, series.getEndIndex());
+        for (int i : new int[] { 0, 99, 100, 555, 999 }) {
+            Tick expectedTick = expected.getTick(i);
+            Tick tick = series.getTick(i);
+            assertEquals(expectedTick.getEndTime(), tick.getEndTime());
+            assertEquals(expectedTick.getTimePeriod(), tick.getTimePeriod());
+            assertEquals(expectedTick.getOpenPrice(), tick.getOpenPrice());
+            assertEquals(expectedTick.getMaxPrice(), tick.getMaxPrice());
+            assertEquals(expectedTick.getMinPrice(), tick.getMinPrice());
+            assertEquals(expectedTick.getClosePrice(), series.getClosePrice(i));
+            assertEquals(expectedTick.getVolume(), tick.getVolume());
+            assertEquals(expectedTick.getTrades(), tick.getTrades());
+            assertEquals(expectedTick.getEndTimeMillis(), series.getEndTimeMillis(i));
+        }
+        assertEquals(1000, series.getTickData().size());
+        assertEquals(expected.getTick(42).getEndTime(), series.getTickData().get(42).getEndTime());
+    }
+
+    @Test
+    public void residentPagesAreBounded() {
+        assertEquals(0, series.getResidentPageCount());
+        for (int i = 950; i >= 0; i -= 50) {
+            series.getTick(i);
+            assertTrue(series.getResidentPageCount() <= 3);
+        }
+        assertEquals(3, series.getResidentPageCount());
+        // The least recently used page is evicted, then faulted in again
+        final int pageLoadCount = series.getPageLoadCount();
+        series.getTick(10);
+        assertEquals(pageLoadCount, series.getPageLoadCount());
+        series.getTick(990);
+        assertEquals(pageLoadCount + 1, series.getPageLoadCount());
+    }
+
+    @Test
+    public void sequentialScanPrefetchesNextPage() {
+        Decimal sum = Decimal.ZERO;
+        for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+            sum = sum.plus(series.getClosePrice(i));
+        }
+        Decimal expectedSum = Decimal.ZERO;
+        for (int i = expected.getBeginIndex(); i <= expected.getEndIndex(); i++) {
+            expectedSum = expectedSum.plus(expected.getClosePrice(i));
+        }
+        assertEquals(expectedSum, sum);
+        assertEquals(10, series.getPageLoadCount());
+        assertTrue(series.getResidentPageCount() <= 3);
+    }
+
+    @Test
+    public void indicatorsOnPagedSeries() {
+        SMAIndicator pagedSma = new SMAIndicator(new ClosePriceIndicator(series), 20);
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(expected), 20);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(sma.getValue(i), pagedSma.getValue(i));
+        }
+    }
+
+    @Test
+    public void timeLookupsDoNotFaultPagesIn() {
+        Instant time = expected.getTick(777).getEndTime().toInstant();
+        assertEquals(776, series.floorIndex(time.minusSeconds(30)));
+        assertEquals(777, series.ceilingIndex(time));
+        assertEquals(778, series.ceilingIndex(time.plusSeconds(30)));
+        assertEquals(0, series.getPageLoadCount());
+        assertEquals(777, series.indexOf(time.minusSeconds(1)));
+    }
+
+    @Test
+    public void interruptedThreadCanStillReadTicks() {
+        // Sequential accesses: the page 2 is being prefetched
+        series.getTick(0);
+        series.getTick(100);
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(expected.getClosePrice(200), series.getClosePrice(200));
+            assertEquals(expected.getClosePrice(700), series.getClosePrice(700));
+            assertEquals(expected.getTick(950).getEndTimeMillis(), series.getEndTimeMillis(950));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        // The file is still open
+        assertEquals(expected.getClosePrice(999), series.getClosePrice(999));
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        expected = new BaseTimeSeries("EURUSD");
+        try (PagedTimeSeries emptySeries = new PagedTimeSeries(write(false))) {
+            assertEquals(0, emptySeries.getTickCount());
+            assertEquals(-1, emptySeries.getBeginIndex());
+            assertEquals(-1, emptySeries.getEndIndex());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compressedFile() throws IOException {
+        new PagedTimeSeries(write(true));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addTick() {
+        series.addTick(expected.getTick(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indexOutOfBounds() {
+        series.getTick(1000);
+    }
+
+    private Path write(boolean compressed) throws IOException {
+        Path tickFile = folder.newFile().toPath();
+        try (OutputStream out = Files.newOutputStream(tickFile);
+                TickFileWriter writer = new TickFileWriter(out, "EURUSD", Duration.ofMinutes(1), ZONE, 5, compressed)) {
+            writer.write(expected);
+        }
+        return tickFile;
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class PriceInternerTest {
+
+    @Test
+    public void valueOfRoundsToTickSize() {
+        PriceInterner interner = new PriceInterner(Decimal.valueOf("0.25"), 100);
+        Decimal price = interner.valueOf(101.26);
+        assertDecimalEquals(price, "101.25");
+        assertSame(price, interner.valueOf(101.24));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void internOnlyMultiplesOfTickSize() {
+        PriceInterner interner = new PriceInterner(Decimal.valueOf("0.01"), 100);
+        Decimal price = Decimal.valueOf("12.34");
+        assertSame(price, interner.intern(price));
+        assertSame(price, interner.intern(Decimal.valueOf("12.340")));
+        Decimal offTickPrice = Decimal.valueOf("12.345");
+        assertSame(offTickPrice, interner.intern(offTickPrice));
+        assertSame(Decimal.NaN, interner.intern(Decimal.NaN));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void tableIsBounded() {
+        PriceInterner interner = new PriceInterner(Decimal.ONE, DecimalBackend.DOUBLE, 2);
+        interner.valueOf(1);
+        interner.valueOf(2);
+        Decimal price = interner.valueOf(3);
+        assertNotSame(price, interner.valueOf(3));
+        assertEquals(2, interner.size());
+        assertEquals(DecimalBackend.DOUBLE, price.getBackend());
+    }
+
+    @Test
+    public void internPricesOfSeries() {
+        ZonedDateTime time = ZonedDateTime.of(2017, 1, 1, 0, 0, 0, 0, ZoneId.systemDefault());
+        BaseTimeSeries series = new BaseTimeSeries("series");
+        series.setPriceInterner(new PriceInterner(Decimal.valueOf("0.5"), 1000));
+        series.addTick(new BaseTick(time, "10", "11", "9.5", "10.5", "100"));
+        series.addTick(new BaseTick(time.plusDays(1), "10.5", "11", "10", "10.5", "100"));
+        assertSame(series.getTick(0).getClosePrice(), series.getTick(1).getClosePrice());
+        assertSame(series.getTick(0).getClosePrice(), series.getTick(1).getOpenPrice());
+        assertSame(series.getTick(0).getMaxPrice(), series.getTick(1).getMaxPrice());
+    }
+}
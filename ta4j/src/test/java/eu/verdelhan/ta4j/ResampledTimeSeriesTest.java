@@ -0,0 +1,170 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import eu.verdelhan.ta4j.indicators.SMAIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResampledTimeSeriesTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2017, 1, 3, 9, 30, 0, 0, ZONE);
+
+    private TimeSeries minuteSeries;
+
+    @Before
+    public void setUp() {
+        minuteSeries = new BaseTimeSeries("minutes");
+        for (int i = 0; i < 150; i++) {
+            addMinuteTick(i);
+        }
+    }
+
+    @Test
+    public void resampledTicks() {
+        ResampledTimeSeries hourSeries = new ResampledTimeSeries(minuteSeries, Duration.ofHours(1));
+        // 09:30-10:00, 10:00-11:00, 11:00-12:00
+        assertEquals(3, hourSeries.getTickCount());
+        assertEquals(0, hourSeries.getBeginIndex());
+        assertEquals(2, hourSeries.getEndIndex());
+        Tick firstTick = hourSeries.getTick(0);
+        assertEquals(START.withMinute(0).plusHours(1), firstTick.getEndTime());
+        assertEquals(Duration.ofHours(1), firstTick.getTimePeriod());
+        assertDecimalEquals(firstTick.getOpenPrice(), 100);
+        assertDecimalEquals(firstTick.getClosePrice(), 129);
+        assertDecimalEquals(firstTick.getMaxPrice(), 130);
+        assertDecimalEquals(firstTick.getMinPrice(), 99);
+        assertDecimalEquals(firstTick.getVolume(), 30);
+        assertEquals(30, firstTick.getTrades());
+        Tick secondTick = hourSeries.getTick(1);
+        assertDecimalEquals(secondTick.getOpenPrice(), 130);
+        assertDecimalEquals(secondTick.getClosePrice(), 189);
+        assertDecimalEquals(secondTick.getVolume(), 60);
+    }
+
+    @Test
+    public void incrementalUpdate() {
+        minuteSeries = new BaseTimeSeries("minutes");
+        for (int i = 0; i < 120; i++) {
+            addMinuteTick(i);
+        }
+        ResampledTimeSeries hourSeries = new ResampledTimeSeries(minuteSeries, Duration.ofHours(1));
+        SMAIndicator hourSma = new SMAIndicator(new ClosePriceIndicator(hourSeries), 2);
+        assertEquals(3, hourSeries.getTickCount());
+        assertDecimalEquals(hourSeries.getTick(2).getClosePrice(), 219);
+        assertDecimalEquals(hourSma.getValue(1), (129 + 189) / 2d);
+        for (int i = 120; i < 200; i++) {
+            addMinuteTick(i);
+        }
+        // In-progress tick updated, then a new tick
+        assertEquals(4, hourSeries.getTickCount());
+        assertDecimalEquals(hourSeries.getTick(2).getClosePrice(), 249);
+        assertDecimalEquals(hourSeries.getTick(2).getVolume(), 60);
+        assertDecimalEquals(hourSeries.getTick(3).getClosePrice(), 299);
+        assertDecimalEquals(hourSma.getValue(3), (249 + 299) / 2d);
+    }
+
+    @Test
+    public void indexMapping() {
+        ResampledTimeSeries hourSeries = new ResampledTimeSeries(minuteSeries, Duration.ofHours(1));
+        assertEquals(0, hourSeries.getIndex(0));
+        assertEquals(0, hourSeries.getIndex(29));
+        assertEquals(1, hourSeries.getIndex(30));
+        assertEquals(1, hourSeries.getIndex(89));
+        assertEquals(2, hourSeries.getIndex(90));
+        assertEquals(2, hourSeries.getIndex(149));
+        // Completed ticks
+        assertEquals(-1, hourSeries.getCompletedIndex(0));
+        assertEquals(-1, hourSeries.getCompletedIndex(28));
+        assertEquals(0, hourSeries.getCompletedIndex(29));
+        assertEquals(0, hourSeries.getCompletedIndex(30));
+        assertEquals(1, hourSeries.getCompletedIndex(89));
+        assertEquals(1, hourSeries.getCompletedIndex(148));
+        assertEquals(2, hourSeries.getCompletedIndex(149));
+    }
+
+    @Test
+    public void indexMappingOnMovingSeries() {
+        ResampledTimeSeries hourSeries = new ResampledTimeSeries(minuteSeries, Duration.ofHours(1));
+        hourSeries.setMaximumTickCount(2);
+        for (int i = 150; i < 2550; i++) {
+            addMinuteTick(i);
+            assertEquals(1 + (i - 30) / 60, hourSeries.getIndex(i));
+        }
+        assertEquals(42, hourSeries.getEndIndex());
+        assertEquals(41, hourSeries.getRemovedTicksCount());
+        assertEquals(41, hourSeries.getIndex(2489));
+        assertEquals(42, hourSeries.getIndex(2490));
+        // Source ticks of removed resampled ticks
+        assertEquals(41, hourSeries.getIndex(2400));
+        assertEquals(41, hourSeries.getIndex(0));
+        assertEquals(41, hourSeries.getCompletedIndex(2400));
+        assertEquals(41, hourSeries.getCompletedIndex(2548));
+        assertEquals(42, hourSeries.getCompletedIndex(2549));
+    }
+
+    @Test
+    public void dailyTicksAlignedOnLocalMidnight() {
+        ResampledTimeSeries daySeries = new ResampledTimeSeries("days", minuteSeries, Duration.ofDays(1));
+        assertEquals("days", daySeries.getName());
+        assertEquals(1, daySeries.getTickCount());
+        assertEquals(ZonedDateTime.of(2017, 1, 4, 0, 0, 0, 0, ZONE), daySeries.getTick(0).getEndTime());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addTickShouldThrowException() {
+        new ResampledTimeSeries(minuteSeries, Duration.ofHours(1)).addTick(minuteSeries.getTick(0));
+    }
+
+    private void addMinuteTick(int i) {
+        double open = 100 + i;
+        minuteSeries.addTick(new BaseTick(Duration.ofMinutes(1), START.plusMinutes(i + 1),
+                Decimal.valueOf(open), Decimal.valueOf(open + 1), Decimal.valueOf(open - 1), Decimal.valueOf(open),
+                Decimal.ONE, Decimal.valueOf(open), 1));
+    }
+
+    @Test
+    public void sourceLastTickUpdate() {
+        ResampledTimeSeries hourSeries = new ResampledTimeSeries(minuteSeries, Duration.ofHours(1));
+        SMAIndicator hourSma = new SMAIndicator(new ClosePriceIndicator(hourSeries), 2);
+        assertDecimalEquals(hourSma.getValue(2), (189 + 249) / 2d);
+        long updateCount = hourSeries.getLastTickUpdateCount();
+
+        minuteSeries.addTrade(Decimal.TEN, Decimal.valueOf(301));
+        assertEquals(3, hourSeries.getTickCount());
+        assertTrue(hourSeries.getLastTickUpdateCount() > updateCount);
+        assertDecimalEquals(hourSeries.getLastTick().getClosePrice(), 301);
+        assertDecimalEquals(hourSeries.getLastTick().getMaxPrice(), 301);
+        assertDecimalEquals(hourSeries.getLastTick().getVolume(), 70);
+        assertDecimalEquals(hourSeries.getLastTick().getOpenPrice(), 190);
+        assertDecimalEquals(hourSma.getValue(2), (189 + 301) / 2d);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void addAndRemoveFirst() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        assertTrue(buffer.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            buffer.add(i);
+            if (buffer.size() > 3) {
+                buffer.removeFirst(1);
+            }
+        }
+        assertEquals(4, buffer.getCapacity());
+        assertEquals(Arrays.asList(7, 8, 9), buffer);
+        buffer.removeFirst(2);
+        assertEquals(Arrays.asList(9), buffer);
+    }
+
+    @Test
+    public void grow() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(Arrays.asList(1, 2), 2);
+        buffer.removeFirst(1);
+        buffer.add(3);
+        buffer.add(4);
+        buffer.add(5);
+        assertEquals(4, buffer.getCapacity());
+        assertEquals(Arrays.asList(2, 3, 4, 5), buffer);
+    }
+
+    @Test
+    public void setAddAndRemoveAtIndex() {
+        RingBuffer<String> buffer = new RingBuffer<>(Arrays.asList("a", "b", "c", "d"), 4);
+        buffer.removeFirst(1);
+        buffer.add("e");
+        assertEquals("c", buffer.set(1, "C"));
+        assertEquals(Arrays.asList("b", "C", "d", "e"), buffer);
+        assertEquals("d", buffer.remove(2));
+        assertEquals(Arrays.asList("b", "C", "e"), buffer);
+        buffer.add(1, "x");
+        assertEquals(Arrays.asList("b", "x", "C", "e"), buffer);
+        assertEquals("b", buffer.remove(0));
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByModifications() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(Arrays.asList(1, 2, 3), 4);
+        List<Integer> snapshot = buffer.snapshot(0, 3);
+        buffer.removeFirst(1);
+        buffer.add(4);
+        buffer.add(5);
+        buffer.set(0, 20);
+        assertEquals(Arrays.asList(1, 2, 3), snapshot);
+        assertEquals(Arrays.asList(20, 3, 4, 5), buffer);
+
+        List<Integer> rangeSnapshot = buffer.snapshot(1, 3);
+        buffer.remove(2);
+        buffer.add(1, 30);
+        buffer.clear();
+        buffer.add(6);
+        assertEquals(Arrays.asList(3, 4), rangeSnapshot);
+        assertEquals(Arrays.asList(6), buffer);
+    }
+
+    @Test
+    public void modificationsOutsideOfSnapshotsAreInPlace() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(Arrays.asList(1, 2, 3), 8);
+        List<Integer> snapshot = buffer.snapshot(0, 2);
+        buffer.set(2, 30);
+        buffer.add(4);
+        buffer.removeFirst(1);
+        assertEquals(Arrays.asList(1, 2), snapshot);
+        assertEquals(Arrays.asList(2, 30, 4), buffer);
+        assertEquals(8, buffer.getCapacity());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void modifySnapshot() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(Arrays.asList(1, 2), 4);
+        buffer.snapshot(0, 2).set(0, 10);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfBounds() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(Arrays.asList(1, 2), 4);
+        buffer.get(2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void removeTooManyElements() {
+        new RingBuffer<>(Arrays.asList(1, 2), 4).removeFirst(3);
+    }
+}
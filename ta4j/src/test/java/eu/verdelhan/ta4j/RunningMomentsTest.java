@@ -0,0 +1,140 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class RunningMomentsTest {
+
+    @Test
+    public void slideBigDecimals() {
+        RunningMoments moments = new RunningMoments();
+        moments.add(Decimal.valueOf(1), Decimal.valueOf(2)).add(Decimal.valueOf(2), Decimal.valueOf(4))
+                .add(Decimal.valueOf(3), Decimal.valueOf(9));
+        assertEquals(3, moments.getCount());
+        assertDecimalEquals(moments.getVarianceX(), 2d / 3);
+        assertDecimalEquals(moments.getVarianceY(), 78d / 9);
+        assertDecimalEquals(moments.getCovariance(), 7d / 3);
+        assertDecimalEquals(moments.getCorrelation(), 0.9707);
+
+        assertTrue(moments.slide(Decimal.valueOf(4), Decimal.valueOf(8), Decimal.valueOf(1), Decimal.valueOf(2)));
+        assertEquals(3, moments.getCount());
+        assertDecimalEquals(moments.getVarianceX(), 2d / 3);
+        assertDecimalEquals(moments.getCovariance(), 4d / 3);
+        assertEquals(DecimalBackend.BIG_DECIMAL, moments.getCovariance().getBackend());
+    }
+
+    @Test
+    public void slideSingleValues() {
+        for (DecimalBackend backend : DecimalBackend.values()) {
+            RunningMoments moments = new RunningMoments();
+            moments.add(backend.decimalOf(1)).add(backend.decimalOf(2)).add(backend.decimalOf(3));
+            assertEquals(3, moments.getCount());
+            assertDecimalEquals(moments.getMeanX(), 2);
+            assertDecimalEquals(moments.getVarianceX(), 2d / 3);
+
+            assertTrue(moments.slide(backend.decimalOf(6), backend.decimalOf(1)));
+            assertDecimalEquals(moments.getMeanX(), 11d / 3);
+            assertDecimalEquals(moments.getVarianceX(), 26d / 9);
+            assertTrue(moments.slide(backend.decimalOf(4), null));
+            assertEquals(4, moments.getCount());
+            assertDecimalEquals(moments.getVarianceX(), 2.1875);
+            assertEquals(backend, moments.getVarianceX().getBackend());
+        }
+    }
+
+    @Test
+    public void largeValuesWithSmallDeviations() {
+        RunningMoments moments = new RunningMoments();
+        DecimalBackend backend = DecimalBackend.DOUBLE;
+        for (int i = 0; i < 1000; i++) {
+            double x = 1e9 + (i % 2);
+            moments.add(backend.decimalOf(x), backend.decimalOf(x));
+        }
+        for (int i = 1000; i < 1500; i++) {
+            double x = 1e9 + (i % 2);
+            double outgoing = 1e9 + ((i - 1000) % 2);
+            assertTrue(moments.slide(backend.decimalOf(x), backend.decimalOf(x),
+                    backend.decimalOf(outgoing), backend.decimalOf(outgoing)));
+        }
+        assertEquals(DecimalBackend.DOUBLE, moments.getVarianceX().getBackend());
+        assertEquals(0.25, moments.getVarianceX().toDouble(), 1e-9);
+        assertEquals(1, moments.getCorrelation().toDouble(), 1e-9);
+    }
+
+    @Test
+    public void nanValues() {
+        RunningMoments moments = new RunningMoments();
+        moments.add(Decimal.ONE, Decimal.ONE).add(Decimal.NaN, Decimal.TWO).add(Decimal.THREE, Decimal.THREE);
+        assertSame(Decimal.NaN, moments.getVarianceX());
+        assertSame(Decimal.NaN, moments.getCorrelation());
+        assertTrue(moments.slide(Decimal.TWO, Decimal.TWO, Decimal.NaN, Decimal.TWO));
+        assertDecimalEquals(moments.getVarianceX(), 2d / 3);
+        assertDecimalEquals(moments.getCorrelation(), 1);
+    }
+
+    @Test
+    public void constantValues() {
+        RunningMoments moments = new RunningMoments();
+        moments.add(Decimal.ONE, Decimal.ONE).add(Decimal.ONE, Decimal.TWO);
+        assertDecimalEquals(moments.getVarianceX(), 0);
+        assertSame(Decimal.NaN, moments.getCorrelation());
+    }
+
+    @Test
+    public void slideDoubles() {
+        DecimalBackend backend = DecimalBackend.DOUBLE;
+        RunningMoments moments = new RunningMoments();
+        moments.add(backend.decimalOf(1), backend.decimalOf(1)).add(backend.decimalOf(2), backend.decimalOf(2));
+        assertTrue(moments.slide(backend.decimalOf(3), backend.decimalOf(3), backend.decimalOf(1), backend.decimalOf(1)));
+        assertDecimalEquals(moments.getVarianceX(), 0.25);
+        assertTrue(moments.slide(backend.decimalOf(4), backend.decimalOf(4), backend.decimalOf(2), backend.decimalOf(2)));
+        // All the values of the window have been replaced
+        assertFalse(moments.slide(backend.decimalOf(5), backend.decimalOf(5), backend.decimalOf(3), backend.decimalOf(3)));
+    }
+
+    @Test
+    public void mixedValuesCannotSlide() {
+        RunningMoments moments = new RunningMoments();
+        moments.add(Decimal.ONE, Decimal.ONE).add(DecimalBackend.DOUBLE.decimalOf(2), Decimal.TWO);
+        assertFalse(moments.isSlidable());
+        assertFalse(moments.slide(Decimal.THREE, Decimal.THREE, Decimal.ONE, Decimal.ONE));
+        assertTrue(moments.reset().add(Decimal.ONE, Decimal.ONE).isSlidable());
+    }
+
+    @Test
+    public void abscissas() {
+        RunningMoments moments = new RunningMoments();
+        moments.add(10, Decimal.valueOf(1)).add(11, Decimal.valueOf(3)).add(12, Decimal.valueOf(2));
+        assertDecimalEquals(moments.getMeanX(), 11);
+        assertDecimalEquals(moments.getMeanY(), 2);
+        assertDecimalEquals(moments.getCovariance(), 1d / 3);
+        assertTrue(moments.slide(13, Decimal.valueOf(6), 10, Decimal.valueOf(1)));
+        assertDecimalEquals(moments.getMeanX(), 12);
+        assertDecimalEquals(moments.getMeanY(), 11d / 3);
+        assertDecimalEquals(moments.getVarianceX(), 2d / 3);
+        assertDecimalEquals(moments.getCovariance(), 1);
+    }
+}
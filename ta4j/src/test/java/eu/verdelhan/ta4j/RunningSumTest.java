@@ -0,0 +1,86 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import java.math.MathContext;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class RunningSumTest {
+
+    @Test
+    public void slideBigDecimals() {
+        RunningSum sum = new RunningSum();
+        sum.add(Decimal.valueOf("1.5")).add(Decimal.valueOf("2.25")).add(Decimal.valueOf("3"));
+        assertEquals("6.75", sum.toDecimal().toString());
+        assertTrue(sum.slide(Decimal.valueOf("4.125"), Decimal.valueOf("1.5")));
+        assertEquals("9.375", sum.toDecimal().toString());
+        // Replacing a value
+        assertTrue(sum.slide(Decimal.valueOf("5.125"), Decimal.valueOf("4.125")));
+        assertEquals("10.375", sum.toDecimal().toString());
+        assertEquals(DecimalBackend.BIG_DECIMAL, sum.toDecimal().getBackend());
+    }
+
+    @Test
+    public void decreasingScaleRequiresRecomputation() {
+        RunningSum sum = new RunningSum();
+        sum.add(Decimal.valueOf("1.25")).add(Decimal.valueOf("2"));
+        assertFalse(sum.slide(Decimal.valueOf("3"), Decimal.valueOf("1.25")));
+
+        sum.reset().add(Decimal.valueOf("2")).add(Decimal.valueOf("3"));
+        assertEquals("5", sum.toDecimal().toString());
+    }
+
+    @Test
+    public void nanValues() {
+        RunningSum sum = new RunningSum();
+        sum.add(Decimal.ONE).add(Decimal.NaN).add(Decimal.TWO);
+        assertSame(Decimal.NaN, sum.toDecimal());
+        assertTrue(sum.slide(Decimal.THREE, Decimal.NaN));
+        assertDecimalEquals(sum.toDecimal(), 6);
+    }
+
+    @Test
+    public void slideDoubles() {
+        RunningSum sum = new RunningSum();
+        sum.add(DecimalBackend.DOUBLE.decimalOf(1.5)).add(DecimalBackend.DOUBLE.decimalOf(2));
+        assertTrue(sum.slide(DecimalBackend.DOUBLE.decimalOf(3), DecimalBackend.DOUBLE.decimalOf(1.5)));
+        assertEquals(DecimalBackend.DOUBLE, sum.toDecimal().getBackend());
+        assertDecimalEquals(sum.toDecimal(), 5);
+        assertTrue(sum.slide(DecimalBackend.DOUBLE.decimalOf(4), DecimalBackend.DOUBLE.decimalOf(2)));
+        // All the values of the window have been replaced
+        assertFalse(sum.slide(DecimalBackend.DOUBLE.decimalOf(5), DecimalBackend.DOUBLE.decimalOf(3)));
+    }
+
+    @Test
+    public void mixedValuesCannotSlide() {
+        RunningSum sum = new RunningSum();
+        sum.add(Decimal.ONE).add(DecimalBackend.DOUBLE.decimalOf(2));
+        assertFalse(sum.isSlidable());
+        assertFalse(sum.slide(Decimal.THREE, Decimal.ONE));
+
+        sum.reset().add(Decimal.ONE).add(Decimal.TWO.withMathContext(new MathContext(8)));
+        assertFalse(sum.isSlidable());
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class RunningWeightedSumTest {
+
+    @Test
+    public void slideBigDecimals() {
+        RunningWeightedSum sum = new RunningWeightedSum();
+        sum.add(Decimal.valueOf("1.5")).add(Decimal.valueOf("2.25")).add(Decimal.valueOf(3));
+        // 1 * 1.5 + 2 * 2.25 + 3 * 3
+        assertEquals(3, sum.getCount());
+        assertDecimalEquals(sum.toDecimal(), "15");
+        assertTrue(sum.slide(Decimal.valueOf(4), Decimal.valueOf("1.5")));
+        // 1 * 2.25 + 2 * 3 + 3 * 4
+        assertDecimalEquals(sum.toDecimal(), "20.25");
+        assertTrue(sum.replaceLast(Decimal.valueOf(5), Decimal.valueOf(4)));
+        assertDecimalEquals(sum.toDecimal(), "23.25");
+        assertEquals(DecimalBackend.BIG_DECIMAL, sum.toDecimal().getBackend());
+    }
+
+    @Test
+    public void nanValues() {
+        RunningWeightedSum sum = new RunningWeightedSum();
+        sum.add(Decimal.NaN).add(Decimal.ONE).add(Decimal.TWO);
+        assertSame(Decimal.NaN, sum.toDecimal());
+        assertTrue(sum.slide(Decimal.THREE, Decimal.NaN));
+        // 1 * 1 + 2 * 2 + 3 * 3
+        assertDecimalEquals(sum.toDecimal(), 14);
+    }
+
+    @Test
+    public void slideDoubles() {
+        DecimalBackend backend = DecimalBackend.DOUBLE;
+        RunningWeightedSum sum = new RunningWeightedSum();
+        sum.add(backend.decimalOf(1)).add(backend.decimalOf(2));
+        assertTrue(sum.slide(backend.decimalOf(3), backend.decimalOf(1)));
+        assertEquals(DecimalBackend.DOUBLE, sum.toDecimal().getBackend());
+        assertDecimalEquals(sum.toDecimal(), 8d);
+        assertTrue(sum.slide(backend.decimalOf(4), backend.decimalOf(2)));
+        assertDecimalEquals(sum.toDecimal(), 11d);
+        // All the values of the window have been replaced: drift correction
+        assertFalse(sum.slide(backend.decimalOf(5), backend.decimalOf(3)));
+    }
+
+    @Test
+    public void mixedValuesCannotSlide() {
+        RunningWeightedSum sum = new RunningWeightedSum();
+        sum.add(Decimal.ONE).add(DecimalBackend.DOUBLE.decimalOf(2));
+        assertFalse(sum.isSlidable());
+        assertFalse(sum.slide(Decimal.THREE, Decimal.ONE));
+        assertTrue(sum.reset().add(Decimal.ONE).isSlidable());
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TickAggregatorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    private static final long T0 = ZonedDateTime.of(2017, 1, 2, 0, 0, 0, 0, ZONE).toInstant().toEpochMilli();
+
+    private List<Tick> ticks;
+
+    @Before
+    public void setUp() {
+        ticks = new ArrayList<>();
+    }
+
+    @Test
+    public void timeTicks() {
+        TickAggregator aggregator = TickAggregator.timeTicks(Duration.ofMinutes(1), ZONE, DecimalBackend.BIG_DECIMAL, ticks::add);
+        aggregator.addTrade(T0 + 1000, 10, 1);
+        aggregator.addTrade(T0 + 20000, 12, 2);
+        aggregator.addTrade(T0 + 59999, 9, 1);
+        assertTrue(ticks.isEmpty());
+        // Next period: first tick completed
+        aggregator.addTrade(T0 + 60000, 11, 3);
+        // No trade from 2 to 4 minutes: no tick
+        aggregator.addTrade(T0 + 245000, 13, 1);
+        aggregator.flush();
+
+        assertEquals(3, ticks.size());
+        Tick tick = ticks.get(0);
+        assertEquals(ZonedDateTime.of(2017, 1, 2, 0, 1, 0, 0, ZONE), tick.getEndTime());
+        assertEquals(Duration.ofMinutes(1), tick.getTimePeriod());
+        assertDecimalEquals(tick.getOpenPrice(), 10);
+        assertDecimalEquals(tick.getMaxPrice(), 12);
+        assertDecimalEquals(tick.getMinPrice(), 9);
+        assertDecimalEquals(tick.getClosePrice(), 9);
+        assertDecimalEquals(tick.getVolume(), 4);
+        assertDecimalEquals(tick.getAmount(), 43);
+        assertEquals(3, tick.getTrades());
+        assertEquals(ZonedDateTime.of(2017, 1, 2, 0, 2, 0, 0, ZONE), ticks.get(1).getEndTime());
+        assertEquals(ZonedDateTime.of(2017, 1, 2, 0, 5, 0, 0, ZONE), ticks.get(2).getEndTime());
+        assertEquals(1, ticks.get(2).getTrades());
+    }
+
+    @Test
+    public void timeTicksIntoTimeSeries() {
+        TimeSeries series = new BaseTimeSeries("trades", DecimalBackend.DOUBLE);
+        TickAggregator aggregator = TickAggregator.timeTicks(Duration.ofSeconds(10), ZONE, series.getDecimalBackend(), series::addTick);
+        for (int i = 0; i < 1000; i++) {
+            aggregator.addTrade(T0 + i * 1000, 100 + i % 10, 1);
+        }
+        aggregator.flush();
+        assertEquals(100, series.getTickCount());
+        assertEquals(DecimalBackend.DOUBLE, series.getTick(0).getClosePrice().getBackend());
+        assertDecimalEquals(series.getTick(99).getVolume(), 10);
+        assertDecimalEquals(series.getTick(99).getMaxPrice(), 109);
+    }
+
+    @Test
+    public void tradeCountTicks() {
+        TickAggregator aggregator = TickAggregator.tradeCountTicks(2, ZONE, DecimalBackend.BIG_DECIMAL, ticks::add);
+        aggregator.addTrade(T0, 10, 1);
+        aggregator.addTrade(T0 + 10, 11, 1);
+        // Same millisecond as the completing trade: same tick
+        aggregator.addTrade(T0 + 10, 12, 1);
+        aggregator.addTrade(T0 + 20, 13, 1);
+        aggregator.addTrade(T0 + 30, 14, 1);
+        aggregator.addTrade(T0 + 40, 15, 1);
+        aggregator.flush();
+
+        assertEquals(3, ticks.size());
+        assertEquals(3, ticks.get(0).getTrades());
+        assertDecimalEquals(ticks.get(0).getClosePrice(), 12);
+        assertEquals(T0 + 11, ticks.get(0).getEndTime().toInstant().toEpochMilli());
+        assertEquals(Duration.ofMillis(11), ticks.get(0).getTimePeriod());
+        assertEquals(2, ticks.get(1).getTrades());
+        assertDecimalEquals(ticks.get(1).getOpenPrice(), 13);
+        assertEquals(1, ticks.get(2).getTrades());
+    }
+
+    @Test
+    public void volumeTicks() {
+        TickAggregator aggregator = TickAggregator.volumeTicks(Decimal.valueOf(5), ZONE, DecimalBackend.BIG_DECIMAL, ticks::add);
+        aggregator.addTrade(T0, 10, 2);
+        aggregator.addTrade(T0 + 1, 10, 2);
+        aggregator.addTrade(T0 + 2, 10, 2);
+        aggregator.addTrade(T0 + 3, 10, 5);
+        aggregator.addTrade(T0 + 4, 10, 1);
+        assertEquals(2, ticks.size());
+        assertDecimalEquals(ticks.get(0).getVolume(), 6);
+        assertDecimalEquals(ticks.get(1).getVolume(), 5);
+        aggregator.flush();
+        assertEquals(3, ticks.size());
+    }
+
+    @Test
+    public void amountTicks() {
+        TickAggregator aggregator = TickAggregator.amountTicks(Decimal.valueOf(100), ZONE, DecimalBackend.BIG_DECIMAL, ticks::add);
+        aggregator.addTrade(T0, 10, 5);
+        aggregator.addTrade(T0 + 1, 20, 3);
+        aggregator.addTrade(T0 + 2, 20, 1);
+        aggregator.flush();
+        assertEquals(2, ticks.size());
+        assertDecimalEquals(ticks.get(0).getAmount(), 110);
+        assertDecimalEquals(ticks.get(1).getAmount(), 20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tradesNotInChronologicalOrder() {
+        TickAggregator aggregator = TickAggregator.tradeCountTicks(2, ZONE, DecimalBackend.BIG_DECIMAL, ticks::add);
+        aggregator.addTrade(T0 + 1, 10, 1);
+        aggregator.addTrade(T0, 10, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThreshold() {
+        TickAggregator.volumeTicks(Decimal.ZERO, ZONE, DecimalBackend.BIG_DECIMAL, ticks::add);
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TickFileReaderTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/London");
+
+    private TimeSeries series;
+
+    @Before
+    public void setUp() {
+        series = new BaseTimeSeries("EURUSD");
+        ZonedDateTime endTime = ZonedDateTime.of(2017, 1, 2, 9, 1, 0, 0, ZONE);
+        for (int i = 0; i < 1000; i++) {
+            Decimal close = Decimal.valueOf(105000 + (i % 13) * 10 - (i % 7) * 20).dividedBy(Decimal.valueOf(100000));
+            Decimal open = Decimal.valueOf("1.0501");
+            Decimal volume = Decimal.valueOf(1000 + i);
+            series.addTick(new BaseTick(Duration.ofMinutes(1), endTime.plusMinutes(i), open,
+                    open.max(close).plus(Decimal.valueOf("0.0003")), open.min(close).minus(Decimal.valueOf("0.0002")),
+                    close, volume, volume.multipliedBy(close), i % 20));
+        }
+    }
+
+    @Test
+    public void readFixedWidthRecords() throws IOException {
+        byte[] file = write(false);
+        assertEquals(1000 * 60, file.length - headerSize());
+        checkTimeSeries(read(file, new BaseTimeSeries("EURUSD")));
+    }
+
+    @Test
+    public void readCompressedRecords() throws IOException {
+        byte[] compressedFile = write(true);
+        assertTrue(compressedFile.length * 2 < write(false).length);
+        checkTimeSeries(read(compressedFile, new BaseTimeSeries("EURUSD")));
+    }
+
+    @Test
+    public void readHeader() throws IOException {
+        try (TickFileReader reader = new TickFileReader(new ByteArrayInputStream(write(true)))) {
+            assertEquals("EURUSD", reader.getSymbol());
+            assertEquals(Duration.ofMinutes(1), reader.getTimePeriod());
+            assertEquals(ZONE, reader.getZone());
+            assertEquals(5, reader.getScale());
+            assertTrue(reader.isCompressed());
+            assertEquals("EURUSD", reader.readTimeSeries().getName());
+        }
+    }
+
+    @Test
+    public void readIntoDoubleBackedSeries() throws IOException {
+        TimeSeries doubleSeries = read(write(true), new BaseTimeSeries("EURUSD", DecimalBackend.DOUBLE));
+        assertEquals(1000, doubleSeries.getTickCount());
+        assertEquals(DecimalBackend.DOUBLE, doubleSeries.getTick(10).getClosePrice().getBackend());
+        assertEquals(series.getTick(10).getClosePrice().toDouble(), doubleSeries.getTick(10).getClosePrice().toDouble(), 0);
+    }
+
+    @Test
+    public void readMissingValues() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BaseTick emptyTick = new BaseTick(Duration.ofMinutes(1), ZonedDateTime.of(2017, 1, 2, 9, 1, 0, 0, ZONE));
+        for (boolean compressed : Arrays.asList(false, true)) {
+            out.reset();
+            try (TickFileWriter writer = new TickFileWriter(out, "EURUSD", Duration.ofMinutes(1), ZONE, 5, compressed)) {
+                writer.write(emptyTick);
+            }
+            try (TickFileReader reader = new TickFileReader(new ByteArrayInputStream(out.toByteArray()))) {
+                Tick tick = reader.readTick();
+                assertNull(tick.getOpenPrice());
+                assertNull(tick.getClosePrice());
+                assertEquals(emptyTick.getEndTime(), tick.getEndTime());
+                assertNull(reader.readTick());
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void notATickFile() throws IOException {
+        new TickFileReader(new ByteArrayInputStream(new byte[64]));
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedRecord() throws IOException {
+        byte[] file = write(false);
+        try (TickFileReader reader = new TickFileReader(new ByteArrayInputStream(Arrays.copyOf(file, file.length - 10)))) {
+            reader.readTimeSeries();
+        }
+    }
+
+    private byte[] write(boolean compressed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TickFileWriter writer = new TickFileWriter(out, "EURUSD", Duration.ofMinutes(1), ZONE, 5, compressed)) {
+            writer.write(series);
+        }
+        return out.toByteArray();
+    }
+
+    private static TimeSeries read(byte[] file, TimeSeries targetSeries) throws IOException {
+        try (TickFileReader reader = new TickFileReader(new ByteArrayInputStream(file))) {
+            assertEquals(1000, reader.readInto(targetSeries));
+        }
+        return targetSeries;
+    }
+
+    private static int headerSize() {
+        // Magic, version, flags, symbol, time period, zone id, scale
+        return 4 + 1 + 1 + (2 + "EURUSD".length()) + 8 + (2 + ZONE.getId().length()) + 1;
+    }
+
+    private void checkTimeSeries(TimeSeries readSeries) {
+        assertEquals(series.getTickCount(), readSeries.getTickCount());
+        for (int i = 0; i < series.getTickCount(); i++) {
+            Tick expected = series.getTick(i);
+            Tick tick = readSeries.getTick(i);
+            assertEquals(expected.getEndTime(), tick.getEndTime());
+            assertEquals(expected.getTimePeriod(), tick.getTimePeriod());
+            assertEquals(expected.getOpenPrice(), tick.getOpenPrice());
+            assertEquals(expected.getMaxPrice(), tick.getMaxPrice());
+            assertEquals(expected.getMinPrice(), tick.getMinPrice());
+            assertEquals(expected.getClosePrice(), tick.getClosePrice());
+            assertEquals(expected.getVolume(), tick.getVolume());
+            assertEquals(expected.getAmount().toDouble(), tick.getAmount().toDouble(), 0.000005);
+            assertEquals(expected.getTrades(), tick.getTrades());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class TickFileWriterTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+
+    private static final ZonedDateTime END_TIME = ZonedDateTime.of(2017, 1, 2, 0, 0, 0, 0, ZONE);
+
+    @Test
+    public void valuesAreRoundedToTheScale() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TickFileWriter writer = new TickFileWriter(out, "BTCUSD", Duration.ofDays(1), ZONE, 2, true)) {
+            writer.write(new BaseTick(END_TIME, 10.004, 11.125, 9.999, 10.5, 0.0151));
+            writer.write(new BaseTick(END_TIME.plusDays(1), DecimalBackend.DOUBLE.decimalOf(10.5),
+                    DecimalBackend.DOUBLE.decimalOf(10.555), DecimalBackend.DOUBLE.decimalOf(10.1),
+                    DecimalBackend.DOUBLE.decimalOf(-3.25), DecimalBackend.DOUBLE.decimalOf(7)));
+        }
+        try (TickFileReader reader = new TickFileReader(new ByteArrayInputStream(out.toByteArray()))) {
+            Tick tick = reader.readTick();
+            assertEquals(Decimal.valueOf("10.00"), tick.getOpenPrice());
+            assertEquals(Decimal.valueOf("11.13"), tick.getMaxPrice());
+            assertEquals(Decimal.valueOf("10.00"), tick.getMinPrice());
+            assertEquals(Decimal.valueOf("10.50"), tick.getClosePrice());
+            assertEquals(Decimal.valueOf("0.02"), tick.getVolume());
+            tick = reader.readTick();
+            assertEquals(Decimal.valueOf("10.56"), tick.getMaxPrice());
+            assertEquals(Decimal.valueOf("-3.25"), tick.getClosePrice());
+            assertNull(reader.readTick());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writeTickWithAnotherTimePeriod() throws IOException {
+        try (TickFileWriter writer = new TickFileWriter(new ByteArrayOutputStream(), "BTCUSD", Duration.ofMinutes(1), ZONE, 2, false)) {
+            writer.write(new BaseTick(END_TIME, 1, 1, 1, 1, 1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writeTicksWithoutIncreasingEndTimes() throws IOException {
+        try (TickFileWriter writer = new TickFileWriter(new ByteArrayOutputStream(), "BTCUSD", Duration.ofDays(1), ZONE, 2, false)) {
+            writer.write(new BaseTick(END_TIME, 1, 1, 1, 1, 1));
+            writer.write(new BaseTick(END_TIME, 1, 1, 1, 1, 1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidScale() throws IOException {
+        new TickFileWriter(new ByteArrayOutputStream(), "BTCUSD", Duration.ofDays(1), ZONE, 19, false);
+    }
+}
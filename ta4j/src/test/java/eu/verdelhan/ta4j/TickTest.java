@@ -23,6 +23,10 @@
 package eu.verdelhan.ta4j;
 
 import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -82,4 +86,26 @@ public class TickTest {
         assertTrue(tick.inPeriod(beginTime));
         assertFalse(tick.inPeriod(endTime));
     }
+
+    @Test
+    public void getEndTimeMillis() throws Exception {
+        assertEquals(endTime.toInstant().toEpochMilli(), tick.getEndTimeMillis());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(tick);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Tick deserializedTick = (Tick) in.readObject();
+            assertEquals(endTime.toInstant().toEpochMilli(), deserializedTick.getEndTimeMillis());
+        }
+    }
+
+    @Test
+    public void endsAfter() {
+        Tick nextTick = new BaseTick(Duration.ofHours(1), endTime.plusHours(1));
+        assertTrue(nextTick.endsAfter(tick));
+        assertFalse(tick.endsAfter(nextTick));
+        assertFalse(tick.endsAfter(tick));
+    }
 }
@@ -22,10 +22,14 @@
  */
 package eu.verdelhan.ta4j;
 
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import eu.verdelhan.ta4j.indicators.SMAIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
 import eu.verdelhan.ta4j.mocks.MockTick;
 import eu.verdelhan.ta4j.trading.rules.FixedRule;
 import java.util.LinkedList;
 import java.util.List;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -130,7 +134,7 @@ public class TimeSeriesTest {
     @Test(expected = IndexOutOfBoundsException.class)
     public void getTickOnMovingAndEmptySeriesShouldThrowException() {
         defaultSeries.setMaximumTickCount(2);
-        ticks.clear(); // Should not be used like this
+        defaultSeries.getTickData().clear(); // Should not be used like this
         defaultSeries.getTick(1);
     }
 
@@ -198,6 +202,24 @@ public class TimeSeriesTest {
         assertEquals(3, defaultSeries.getTickCount());
     }
 
+    @Test
+    public void addTickOnMovingSeries() {
+        defaultSeries.setMaximumTickCount(3);
+        ZonedDateTime endTime = ticks.get(ticks.size() - 1).getEndTime();
+        for (int i = 1; i <= 100; i++) {
+            defaultSeries.addTick(new MockTick(endTime.plusDays(i), 6d + i));
+        }
+        assertTrue(defaultSeries.getTickData() instanceof RingBuffer);
+        assertEquals(3, defaultSeries.getTickData().size());
+        assertEquals(3, defaultSeries.getTickCount());
+        assertEquals(103, defaultSeries.getRemovedTicksCount());
+        assertEquals(105, defaultSeries.getEndIndex());
+        assertEquals(Decimal.valueOf(104), defaultSeries.getTick(103).getClosePrice());
+        assertEquals(Decimal.valueOf(106), defaultSeries.getTick(105).getClosePrice());
+        // Removed ticks: first remaining tick
+        assertEquals(Decimal.valueOf(104), defaultSeries.getTick(50).getClosePrice());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void addNullTickShouldThrowException() {
         defaultSeries.addTick(null);
@@ -228,4 +250,179 @@ public class TimeSeriesTest {
         assertEquals(0, defaultSeries.getBeginIndex());
         assertEquals(1, defaultSeries.getEndIndex());
     }
+
+    @Test
+    public void timeLookups() {
+        Instant june15 = ZonedDateTime.of(2014, 6, 15, 0, 0, 0, 0, ZoneId.systemDefault()).toInstant();
+        Instant june17 = ZonedDateTime.of(2014, 6, 17, 0, 0, 0, 0, ZoneId.systemDefault()).toInstant();
+        Instant july1 = ZonedDateTime.of(2014, 7, 1, 0, 0, 0, 0, ZoneId.systemDefault()).toInstant();
+        // Default series
+        assertEquals(2, defaultSeries.floorIndex(june15));
+        assertEquals(2, defaultSeries.ceilingIndex(june15));
+        assertEquals(-1, defaultSeries.indexOf(june15));
+        assertEquals(2, defaultSeries.indexOf(june15.minusMillis(1)));
+        assertEquals(1, defaultSeries.floorIndex(june15.minusNanos(1)));
+        assertEquals(3, defaultSeries.ceilingIndex(june15.plusNanos(1)));
+        assertEquals(2, defaultSeries.floorIndex(june17));
+        assertEquals(3, defaultSeries.ceilingIndex(june17));
+        assertEquals(-1, defaultSeries.indexOf(june17));
+        assertEquals(-1, defaultSeries.floorIndex(june15.minusSeconds(10 * 86400)));
+        assertEquals(0, defaultSeries.ceilingIndex(june15.minusSeconds(10 * 86400)));
+        assertEquals(5, defaultSeries.floorIndex(july1));
+        assertEquals(-1, defaultSeries.ceilingIndex(july1));
+        assertEquals(-1, defaultSeries.indexOf(july1));
+        // Constrained series
+        assertEquals(2, constrainedSeries.floorIndex(june17));
+        assertEquals(4, constrainedSeries.floorIndex(july1));
+        assertEquals(-1, constrainedSeries.ceilingIndex(july1));
+        assertEquals(-1, constrainedSeries.floorIndex(june15.minusMillis(1)));
+        assertEquals(2, constrainedSeries.ceilingIndex(june15.minusSeconds(10 * 86400)));
+        // Empty series
+        assertEquals(-1, emptySeries.indexOf(june15));
+        assertEquals(-1, emptySeries.floorIndex(june15));
+        assertEquals(-1, emptySeries.ceilingIndex(june15));
+    }
+
+    @Test
+    public void timeLookupsOnMovingSeries() {
+        TimeSeries series = new BaseTimeSeries();
+        series.setMaximumTickCount(3);
+        ZonedDateTime time = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 100; i++) {
+            series.addTick(new MockTick(time.plusDays(i), i));
+        }
+        assertEquals(97, series.ceilingIndex(time.toInstant()));
+        assertEquals(-1, series.floorIndex(time.plusDays(96).toInstant()));
+        assertEquals(98, series.floorIndex(time.plusDays(98).toInstant()));
+        assertEquals(99, series.indexOf(time.plusDays(99).minusHours(1).toInstant()));
+        assertEquals(time.plusDays(98).toInstant().toEpochMilli(), series.getEndTimeMillis(98));
+    }
+
+    @Test
+    public void updateLastTick() {
+        TimeSeries series = new BaseTimeSeries();
+        ZonedDateTime time = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.systemDefault());
+        series.addTick(new BaseTick(time, 1, 1, 1, 1, 1));
+        series.addTick(new BaseTick(time.plusDays(1), 2, 2, 2, 2, 1));
+        assertEquals(0, series.getLastTickUpdateCount());
+
+        series.updateLastTick(new BaseTick(time.plusDays(1), 2, 4, 2, 3, 5));
+        assertEquals(1, series.getLastTickUpdateCount());
+        assertEquals(2, series.getTickCount());
+        assertDecimalEquals(series.getLastTick().getClosePrice(), 3);
+
+        series.addTrade(Decimal.TWO, Decimal.valueOf(5));
+        assertEquals(2, series.getLastTickUpdateCount());
+        assertDecimalEquals(series.getLastTick().getClosePrice(), 5);
+        assertDecimalEquals(series.getLastTick().getMaxPrice(), 5);
+        assertDecimalEquals(series.getLastTick().getVolume(), 7);
+        assertDecimalEquals(series.getFirstTick().getClosePrice(), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void updateLastTickWithAnotherEndTimeShouldThrowException() {
+        defaultSeries.updateLastTick(new MockTick(ZonedDateTime.of(2014, 7, 1, 0, 0, 0, 0, ZoneId.systemDefault()), 99d));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void updateLastTickOfEmptySeriesShouldThrowException() {
+        emptySeries.addTrade(Decimal.ONE, Decimal.ONE);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void updateLastTickOfConstrainedSeriesShouldThrowException() {
+        constrainedSeries.updateLastTick(ticks.get(4));
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterModifications() {
+        TimeSeries snapshot = defaultSeries.snapshot();
+        defaultSeries.addTrade(Decimal.ONE, Decimal.valueOf(10));
+        defaultSeries.addTick(new MockTick(ZonedDateTime.of(2014, 7, 1, 0, 0, 0, 0, ZoneId.systemDefault()), 7d));
+        defaultSeries.updateLastTick(new MockTick(ZonedDateTime.of(2014, 7, 1, 0, 0, 0, 0, ZoneId.systemDefault()), 8d));
+
+        assertEquals(0, snapshot.getBeginIndex());
+        assertEquals(5, snapshot.getEndIndex());
+        assertEquals(6, snapshot.getTickCount());
+        assertEquals(6, snapshot.getTickData().size());
+        assertEquals(defaultName, snapshot.getName());
+        assertDecimalEquals(snapshot.getTick(2).getClosePrice(), 3);
+        assertDecimalEquals(snapshot.getLastTick().getClosePrice(), 6);
+        assertEquals(0, snapshot.getLastTickUpdateCount());
+        assertSame(snapshot, snapshot.snapshot());
+
+        assertEquals(6, defaultSeries.getEndIndex());
+        assertDecimalEquals(defaultSeries.getTick(5).getClosePrice(), 10);
+        assertDecimalEquals(defaultSeries.getLastTick().getClosePrice(), 8);
+    }
+
+    @Test
+    public void viewOfMovingSeries() {
+        TimeSeries series = new BaseTimeSeries("moving");
+        series.setMaximumTickCount(4);
+        ZonedDateTime time = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            series.addTick(new MockTick(time.plusDays(i), i));
+        }
+        TimeSeries view = series.view(7, 8);
+        for (int i = 10; i < 30; i++) {
+            series.addTick(new MockTick(time.plusDays(i), i));
+        }
+
+        assertEquals(7, view.getBeginIndex());
+        assertEquals(8, view.getEndIndex());
+        assertEquals(2, view.getTickCount());
+        assertEquals(6, view.getRemovedTicksCount());
+        assertEquals(4, view.getMaximumTickCount());
+        // Ticks before the begin index are still available
+        assertDecimalEquals(view.getTick(6).getClosePrice(), 6);
+        assertDecimalEquals(view.getClosePrice(8), 8);
+        assertDecimalEquals(view.getTick(2).getClosePrice(), 6);
+        assertEquals(8, view.floorIndex(time.plusDays(20).toInstant()));
+        assertDecimalEquals(new SMAIndicator(new ClosePriceIndicator(view), 3).getValue(8), 7);
+
+        TimeSeries subview = view.view(8, 8);
+        assertEquals(1, subview.getTickCount());
+        assertDecimalEquals(subview.getFirstTick().getClosePrice(), 8);
+        assertDecimalEquals(series.getFirstTick().getClosePrice(), 26);
+    }
+
+    @Test
+    public void tickDataIsNotReplacedBySnapshotsOrAdditions() {
+        List<Tick> tickData = defaultSeries.getTickData();
+        defaultSeries.snapshot();
+        defaultSeries.setMaximumTickCount(10);
+        defaultSeries.addTick(new MockTick(ZonedDateTime.of(2014, 7, 1, 0, 0, 0, 0, ZoneId.systemDefault()), 7d));
+
+        assertSame(tickData, defaultSeries.getTickData());
+        assertEquals(7, tickData.size());
+        assertSame(tickData, constrainedSeries.getTickData());
+        assertDecimalEquals(constrainedSeries.getTick(3).getClosePrice(), 4);
+    }
+
+    @Test
+    public void snapshotOfConstrainedAndEmptySeries() {
+        TimeSeries snapshot = constrainedSeries.snapshot();
+        assertEquals(2, snapshot.getBeginIndex());
+        assertEquals(4, snapshot.getEndIndex());
+        assertEquals(3, snapshot.getTickCount());
+        assertDecimalEquals(snapshot.getTick(1).getClosePrice(), 2);
+        assertDecimalEquals(snapshot.getLastTick().getClosePrice(), 5);
+
+        TimeSeries emptySnapshot = emptySeries.snapshot();
+        emptySeries.addTick(ticks.get(0));
+        assertEquals(-1, emptySnapshot.getEndIndex());
+        assertEquals(0, emptySnapshot.getTickCount());
+        assertTrue(emptySnapshot.getTickData().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void viewWithInvalidIndexesShouldThrowException() {
+        defaultSeries.view(2, 6);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addTickToSnapshotShouldThrowException() {
+        defaultSeries.snapshot().addTick(new MockTick(ZonedDateTime.of(2014, 7, 1, 0, 0, 0, 0, ZoneId.systemDefault()), 7d));
+    }
 }
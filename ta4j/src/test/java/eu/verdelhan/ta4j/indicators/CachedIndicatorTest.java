@@ -23,6 +23,8 @@
 package eu.verdelhan.ta4j.indicators;
 
 import eu.verdelhan.ta4j.BaseStrategy;
+import eu.verdelhan.ta4j.BaseTick;
+import eu.verdelhan.ta4j.BaseTimeSeries;
 import eu.verdelhan.ta4j.Decimal;
 import eu.verdelhan.ta4j.Strategy;
 import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
@@ -31,9 +33,12 @@ import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
 import eu.verdelhan.ta4j.indicators.helpers.ConstantIndicator;
 import eu.verdelhan.ta4j.indicators.SMAIndicator;
 import eu.verdelhan.ta4j.indicators.ZLEMAIndicator;
+import eu.verdelhan.ta4j.mocks.MockTick;
 import eu.verdelhan.ta4j.mocks.MockTimeSeries;
 import eu.verdelhan.ta4j.trading.rules.OverIndicatorRule;
 import eu.verdelhan.ta4j.trading.rules.UnderIndicatorRule;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import static org.junit.Assert.*;
 import org.junit.Before;
@@ -158,4 +163,86 @@ public class CachedIndicatorTest {
             fail(t.getMessage());
         }
     }
+
+    @Test
+    public void cachedIndicatorsOnLiveMovingTimeSeries() {
+        TimeSeries movingSeries = new BaseTimeSeries();
+        movingSeries.setMaximumTickCount(20);
+        TimeSeries fullSeries = new BaseTimeSeries();
+        SMAIndicator movingSma = new SMAIndicator(new ClosePriceIndicator(movingSeries), 5);
+        EMAIndicator movingEma = new EMAIndicator(new ClosePriceIndicator(movingSeries), 5);
+        SMAIndicator fullSma = new SMAIndicator(new ClosePriceIndicator(fullSeries), 5);
+        EMAIndicator fullEma = new EMAIndicator(new ClosePriceIndicator(fullSeries), 5);
+        ZonedDateTime time = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 500; i++) {
+            double closePrice = 100 + (i % 11) - (i % 4);
+            movingSeries.addTick(new MockTick(time.plusMinutes(i), closePrice));
+            fullSeries.addTick(new MockTick(time.plusMinutes(i), closePrice));
+            // Live mode: only the last value is asked
+            assertEquals(fullSma.getValue(i), movingSma.getValue(i));
+            if (i < 20) {
+                assertEquals(fullEma.getValue(i), movingEma.getValue(i));
+            }
+        }
+        assertEquals(480, movingSeries.getRemovedTicksCount());
+        // Cached values of the remaining ticks
+        for (int i = 480; i < 500; i++) {
+            assertEquals(fullSma.getValue(i), movingSma.getValue(i));
+        }
+    }
+
+    @Test
+    public void lastTickUpdatesOnlyRecomputeLastIndex() {
+        TimeSeries liveSeries = new BaseTimeSeries();
+        ZonedDateTime time = ZonedDateTime.of(2014, 6, 13, 0, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            liveSeries.addTick(new BaseTick(time.plusMinutes(i), 100, 100, 100, 100, 1));
+        }
+        final int[] calculations = new int[liveSeries.getTickCount() + 1];
+        CachedIndicator<Decimal> closePrice = new CachedIndicator<Decimal>(liveSeries) {
+            @Override
+            protected Decimal calculate(int index) {
+                calculations[index]++;
+                return liveSeries.getTick(index).getClosePrice();
+            }
+        };
+        SMAIndicator sma = new SMAIndicator(closePrice, 3);
+        EMAIndicator ema = new EMAIndicator(closePrice, 3);
+        assertDecimalEquals(sma.getValue(9), 100);
+        assertDecimalEquals(ema.getValue(9), 100);
+
+        // In-progress tick updates
+        liveSeries.addTrade(Decimal.ONE, Decimal.valueOf(103));
+        assertEquals(1, liveSeries.getLastTickUpdateCount());
+        assertDecimalEquals(sma.getValue(9), 101);
+        assertDecimalEquals(ema.getValue(9), 101.5);
+        liveSeries.updateLastTick(new BaseTick(time.plusMinutes(9), 100, 106, 100, 106, 3));
+        assertDecimalEquals(sma.getValue(9), 102);
+        assertDecimalEquals(ema.getValue(9), 103);
+        // Only the last index has been recomputed
+        for (int i = 0; i < 9; i++) {
+            assertEquals(1, calculations[i]);
+        }
+        assertEquals(3, calculations[9]);
+
+        // The last tick is completed by the next one
+        liveSeries.addTick(new BaseTick(time.plusMinutes(10), 106, 106, 106, 106, 1));
+        assertDecimalEquals(sma.getValue(10), 104);
+        assertDecimalEquals(sma.getValue(9), 102);
+        assertEquals(3, calculations[9]);
+        assertEquals(1, calculations[10]);
+    }
+
+    @Test
+    public void lastTickUpdatedThenCompletedIsRecomputed() {
+        TimeSeries liveSeries = new MockTimeSeries(1, 2, 3);
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(liveSeries);
+        assertDecimalEquals(closePrice.getValue(2), 3);
+
+        // The last tick is updated, then completed by the next one before being read again
+        liveSeries.updateLastTick(new MockTick(liveSeries.getLastTick().getEndTime(), 7));
+        liveSeries.addTick(new MockTick(liveSeries.getLastTick().getEndTime().plusDays(1), 8));
+        assertDecimalEquals(closePrice.getValue(3), 8);
+        assertDecimalEquals(closePrice.getValue(2), 7);
+    }
 }
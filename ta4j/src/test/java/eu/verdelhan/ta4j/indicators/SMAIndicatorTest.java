@@ -23,9 +23,13 @@
 package eu.verdelhan.ta4j.indicators;
 
 import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import eu.verdelhan.ta4j.BaseTimeSeries;
+import eu.verdelhan.ta4j.DecimalBackend;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.mocks.MockTick;
 import eu.verdelhan.ta4j.mocks.MockTimeSeries;
+import java.time.ZonedDateTime;
 import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
@@ -65,4 +69,61 @@ public class SMAIndicatorTest {
             assertEquals(data.getTick(i).getClosePrice(), quoteSMA.getValue(i));
         }
     }
+
+    @Test
+    public void sequentialAndRandomAccessesGiveIdenticalResults() {
+        TimeSeries series = new MockTimeSeries(1.5, 2.25, 3, 4.125, 1.1, 7, 0.3333, 12.5, 2, 3.75, 1.01, 6, 5.5, 4, 2.125);
+        SMAIndicator sequentialSma = new SMAIndicator(new ClosePriceIndicator(series), 4);
+        SMAIndicator randomSma = new SMAIndicator(new ClosePriceIndicator(series), 4);
+        for (int i = series.getEndIndex(); i >= 0; i--) {
+            randomSma.getValue(i);
+        }
+        for (int i = 0; i <= series.getEndIndex(); i++) {
+            // Same value, same scale
+            assertEquals(randomSma.getValue(i).toString(), sequentialSma.getValue(i).toString());
+        }
+    }
+
+    @Test
+    public void lastTickUpdates() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3, 4);
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 3);
+        assertDecimalEquals(sma.getValue(3), 3);
+
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 7));
+        assertDecimalEquals(sma.getValue(3), 4);
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 10));
+        series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), 1));
+        assertDecimalEquals(sma.getValue(4), 14d / 3);
+        assertDecimalEquals(sma.getValue(3), 5);
+    }
+
+    @Test
+    public void movingSeries() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3);
+        series.setMaximumTickCount(5);
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 3);
+        for (int i = 4; i < 30; i++) {
+            series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), i));
+            assertDecimalEquals(sma.getValue(series.getEndIndex()), i - 1);
+        }
+    }
+
+    @Test
+    public void doubleBackend() {
+        TimeSeries series = new BaseTimeSeries("double", DecimalBackend.DOUBLE);
+        ZonedDateTime time = ZonedDateTime.now();
+        for (int i = 0; i < 500; i++) {
+            series.addTick(new MockTick(time.plusDays(i), 100 + Math.sin(i) * 10));
+        }
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 20);
+        for (int i = 0; i < 500; i++) {
+            double expected = 0;
+            for (int j = Math.max(0, i - 19); j <= i; j++) {
+                expected += series.getClosePrice(j).toDouble();
+            }
+            assertEquals(DecimalBackend.DOUBLE, sma.getValue(i).getBackend());
+            assertEquals(expected / Math.min(20, i + 1), sma.getValue(i).toDouble(), 1e-9);
+        }
+    }
 }
@@ -22,12 +22,18 @@
  */
 package eu.verdelhan.ta4j.indicators;
 
+import eu.verdelhan.ta4j.BaseTimeSeries;
 import eu.verdelhan.ta4j.Indicator;
 import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalBackend;
 import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.mocks.MockTick;
 import eu.verdelhan.ta4j.mocks.MockTimeSeries;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
 public class WMAIndicatorTest {
@@ -88,4 +94,68 @@ public class WMAIndicatorTest {
         assertDecimalEquals(wma.getValue(19), 78.1504);
         assertDecimalEquals(wma.getValue(20), 77.6133);
     }
+
+    @Test
+    public void sequentialAndRandomAccessesGiveIdenticalResults() {
+        Random random = new Random(42);
+        double[] data = new double[300];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 100 + random.nextInt(1000) / 100d;
+        }
+        TimeSeries series = new MockTimeSeries(data);
+        WMAIndicator sequentialWma = new WMAIndicator(new ClosePriceIndicator(series), 14);
+        WMAIndicator randomWma = new WMAIndicator(new ClosePriceIndicator(series), 14);
+        for (int i = 0; i < data.length; i++) {
+            sequentialWma.getValue(i);
+            randomWma.getValue(random.nextInt(data.length));
+        }
+        for (int i = 0; i <= series.getEndIndex(); i++) {
+            assertEquals(randomWma.getValue(i), sequentialWma.getValue(i));
+        }
+    }
+
+    @Test
+    public void lastTickUpdates() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3, 4);
+        WMAIndicator wma = new WMAIndicator(new ClosePriceIndicator(series), 3);
+        assertDecimalEquals(wma.getValue(3), 20d / 6);
+
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 7));
+        assertDecimalEquals(wma.getValue(3), 29d / 6);
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 10));
+        series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), 1));
+        assertDecimalEquals(wma.getValue(4), 26d / 6);
+        assertDecimalEquals(wma.getValue(3), 38d / 6);
+    }
+
+    @Test
+    public void movingSeries() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3);
+        series.setMaximumTickCount(5);
+        WMAIndicator wma = new WMAIndicator(new ClosePriceIndicator(series), 3);
+        for (int i = 4; i < 30; i++) {
+            series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), i));
+            assertDecimalEquals(wma.getValue(series.getEndIndex()), i - 2d / 3);
+        }
+    }
+
+    @Test
+    public void doubleBackend() {
+        TimeSeries series = new BaseTimeSeries("double", DecimalBackend.DOUBLE);
+        ZonedDateTime time = ZonedDateTime.now();
+        for (int i = 0; i < 500; i++) {
+            series.addTick(new MockTick(time.plusDays(i), 100 + Math.sin(i) * 10));
+        }
+        WMAIndicator wma = new WMAIndicator(new ClosePriceIndicator(series), 20);
+        for (int i = 0; i < 500; i++) {
+            double weightedSum = 0;
+            double weightsSum = 0;
+            for (int j = Math.max(0, i - 19), weight = 1; j <= i; j++, weight++) {
+                weightedSum += weight * series.getClosePrice(j).toDouble();
+                weightsSum += weight;
+            }
+            assertEquals(DecimalBackend.DOUBLE, wma.getValue(i).getBackend());
+            assertEquals(weightedSum / weightsSum, wma.getValue(i).toDouble(), 1e-9);
+        }
+    }
 }
@@ -23,6 +23,7 @@
 package eu.verdelhan.ta4j.indicators.helpers;
 
 import static eu.verdelhan.ta4j.TATestsUtils.*;
+import static org.junit.Assert.assertEquals;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
 import eu.verdelhan.ta4j.mocks.MockTimeSeries;
@@ -64,4 +65,15 @@ public class HighestValueIndicatorTest {
         HighestValueIndicator highestValue = new HighestValueIndicator(new ClosePriceIndicator(data), 500);
         assertDecimalEquals(highestValue.getValue(12), "6");
     }
+
+    @Test
+    public void highestIndexBetweenSequentialValues() {
+        HighestValueIndicator highestValue = new HighestValueIndicator(new ClosePriceIndicator(data), 5);
+        int[] highestIndexes = { 0, 1, 2, 3, 3, 3, 6, 7, 7, 7, 7, 7, 8, 11 };
+        for (int i = 0; i < highestIndexes.length; i++) {
+            assertDecimalEquals(highestValue.getValue(i), data.getTick(highestIndexes[i]).getClosePrice().toDouble());
+            assertEquals(highestIndexes[i], highestValue.getHighestIndex(i));
+            assertEquals(highestIndexes[i / 2], highestValue.getHighestIndex(i / 2));
+        }
+    }
 }
@@ -23,6 +23,7 @@
 package eu.verdelhan.ta4j.indicators.helpers;
 
 import static eu.verdelhan.ta4j.TATestsUtils.*;
+import static org.junit.Assert.assertEquals;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
 import eu.verdelhan.ta4j.mocks.MockTimeSeries;
@@ -65,4 +66,15 @@ public class LowestValueIndicatorTest {
         LowestValueIndicator lowestValue = new LowestValueIndicator(new ClosePriceIndicator(data), 500);
         assertDecimalEquals(lowestValue.getValue(12), "1");
     }
+
+    @Test
+    public void lowestIndexBetweenSequentialValues() {
+        LowestValueIndicator lowestValue = new LowestValueIndicator(new ClosePriceIndicator(data), 5);
+        int[] lowestIndexes = { 0, 0, 0, 0, 0, 1, 2, 4, 4, 9, 10, 10, 10, 13 };
+        for (int i = 0; i < lowestIndexes.length; i++) {
+            assertDecimalEquals(lowestValue.getValue(i), data.getTick(lowestIndexes[i]).getClosePrice().toDouble());
+            assertEquals(lowestIndexes[i], lowestValue.getLowestIndex(i));
+            assertEquals(lowestIndexes[i / 2], lowestValue.getLowestIndex(i / 2));
+        }
+    }
 }
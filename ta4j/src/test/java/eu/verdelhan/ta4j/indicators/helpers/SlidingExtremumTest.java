@@ -0,0 +1,125 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.helpers;
+
+import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.TimeSeries;
+import eu.verdelhan.ta4j.mocks.MockTick;
+import eu.verdelhan.ta4j.mocks.MockTimeSeries;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class SlidingExtremumTest {
+
+    @Test
+    public void tiesAndNaNs() {
+        FixedDecimalIndicator indicator = new FixedDecimalIndicator(1, 3, 2, 3, 1, 0, 0, 2);
+        indicator.addValue(Decimal.NaN);
+        indicator.addValue(Decimal.valueOf(1));
+
+        SlidingExtremum mostRecentHighest = new SlidingExtremum(indicator, 4, true, true);
+        assertEquals(0, mostRecentHighest.getIndex(0));
+        assertEquals(1, mostRecentHighest.getIndex(1));
+        assertEquals(3, mostRecentHighest.getIndex(3));
+        assertEquals(3, mostRecentHighest.getIndex(6));
+        assertEquals(7, mostRecentHighest.getIndex(7));
+        assertEquals(7, mostRecentHighest.getIndex(8));
+        assertEquals(7, mostRecentHighest.getIndex(9));
+
+        SlidingExtremum earliestHighest = new SlidingExtremum(indicator, 4, true, false);
+        assertEquals(1, earliestHighest.getIndex(3));
+        assertEquals(1, earliestHighest.getIndex(4));
+        assertEquals(3, earliestHighest.getIndex(5));
+
+        SlidingExtremum mostRecentLowest = new SlidingExtremum(indicator, 4, false, true);
+        assertEquals(6, mostRecentLowest.getIndex(7));
+        assertEquals(6, mostRecentLowest.getIndex(9));
+        SlidingExtremum earliestLowest = new SlidingExtremum(indicator, 4, false, false);
+        assertEquals(5, earliestLowest.getIndex(7));
+
+        FixedDecimalIndicator nans = new FixedDecimalIndicator(new double[0]);
+        nans.addValue(Decimal.NaN);
+        nans.addValue(Decimal.NaN);
+        assertEquals(-1, new SlidingExtremum(nans, 3, true, true).getIndex(1));
+    }
+
+    @Test
+    public void sequentialAndRandomAccessesGiveIdenticalResults() {
+        Random random = new Random(42);
+        double[] data = new double[300];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextInt(10);
+        }
+        Indicator<Decimal> closePrice = new ClosePriceIndicator(new MockTimeSeries(data));
+        for (boolean highest : new boolean[] { true, false }) {
+            for (boolean mostRecent : new boolean[] { true, false }) {
+                SlidingExtremum sequential = new SlidingExtremum(closePrice, 14, highest, mostRecent);
+                SlidingExtremum randomAccess = new SlidingExtremum(closePrice, 14, highest, mostRecent);
+                for (int i = 0; i < data.length; i++) {
+                    int expected = scan(data, Math.max(0, i - 13), i, highest, mostRecent);
+                    assertEquals(expected, sequential.getIndex(i));
+                    int randomIndex = random.nextInt(data.length);
+                    assertEquals(scan(data, Math.max(0, randomIndex - 13), randomIndex, highest, mostRecent),
+                            randomAccess.getIndex(randomIndex));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lastTickUpdates() {
+        TimeSeries series = new MockTimeSeries(5, 2, 3, 4);
+        SlidingExtremum highest = new SlidingExtremum(new ClosePriceIndicator(series), 3, true, true);
+        assertEquals(3, highest.getIndex(3));
+
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 1));
+        assertEquals(2, highest.getIndex(3));
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 7));
+        series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), 1));
+        assertEquals(3, highest.getIndex(4));
+    }
+
+    @Test
+    public void movingSeries() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3);
+        series.setMaximumTickCount(5);
+        SlidingExtremum lowest = new SlidingExtremum(new ClosePriceIndicator(series), 3, false, true);
+        for (int i = 4; i < 30; i++) {
+            series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), i));
+            assertEquals(series.getEndIndex() - 2, lowest.getIndex(series.getEndIndex()));
+        }
+    }
+
+    private static int scan(double[] data, int startIndex, int index, boolean highest, boolean mostRecent) {
+        int extremumIndex = startIndex;
+        for (int i = startIndex + 1; i <= index; i++) {
+            double difference = highest ? data[i] - data[extremumIndex] : data[extremumIndex] - data[i];
+            if (difference > 0 || (mostRecent && difference == 0)) {
+                extremumIndex = i;
+            }
+        }
+        return extremumIndex;
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.helpers;
+
+import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.Indicator;
+import eu.verdelhan.ta4j.TimeSeries;
+import eu.verdelhan.ta4j.mocks.MockTick;
+import eu.verdelhan.ta4j.mocks.MockTimeSeries;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class SlidingWindowTest {
+
+    @Test
+    public void sequentialIndexesAreSlid() {
+        SumWindow window = new SumWindow(new ClosePriceIndicator(new MockTimeSeries(1, 2, 3, 4, 5, 6)), 3);
+        assertTrue(window.moveTo(0));
+        assertEquals(1, window.sum, 0);
+        assertTrue(window.moveTo(1));
+        assertTrue(window.moveTo(2));
+        assertEquals(6, window.sum, 0);
+        assertTrue(window.moveTo(3));
+        assertTrue(window.moveTo(3));
+        assertEquals(9, window.sum, 0);
+        assertEquals(1, window.fillCount);
+        assertEquals(3, window.slideCount);
+
+        // Random access
+        assertTrue(window.moveTo(1));
+        assertEquals(3, window.sum, 0);
+        assertEquals(2, window.fillCount);
+    }
+
+    @Test
+    public void updatedLastValueIsReplaced() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3);
+        SumWindow window = new SumWindow(new ClosePriceIndicator(series), 2);
+        assertTrue(window.moveTo(2));
+        assertEquals(5, window.sum, 0);
+
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 7));
+        assertTrue(window.moveTo(2));
+        assertEquals(9, window.sum, 0);
+        assertEquals(1, window.replacementCount);
+        assertEquals(1, window.fillCount);
+    }
+
+    @Test
+    public void removedTicksAreNotSlid() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3);
+        series.setMaximumTickCount(3);
+        SumWindow window = new SumWindow(new ClosePriceIndicator(series), 3);
+        assertTrue(window.moveTo(2));
+        series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), 4));
+        assertTrue(SlidingWindow.isRemovedIndex(window.indicator, 0));
+        assertFalse(SlidingWindow.isRemovedIndex(window.indicator, 1));
+        assertTrue(window.moveTo(3));
+        assertEquals(9, window.sum, 0);
+        assertEquals(0, window.slideCount);
+        assertEquals(2, window.fillCount);
+    }
+
+    @Test
+    public void unslidableAggregate() {
+        SumWindow window = new SumWindow(new ClosePriceIndicator(new MockTimeSeries(1, 2, 3)), 2);
+        window.slidable = false;
+        assertFalse(window.moveTo(1));
+        assertFalse(window.moveTo(2));
+        assertEquals(2, window.fillCount);
+        assertEquals(0, window.slideCount);
+    }
+
+    /**
+     * Sliding sum of the double values of an indicator.
+     */
+    private static class SumWindow extends SlidingWindow {
+
+        private static final long serialVersionUID = 1L;
+
+        final Indicator<Decimal> indicator;
+
+        boolean slidable = true;
+
+        double sum;
+
+        int fillCount, replacementCount, slideCount;
+
+        SumWindow(Indicator<Decimal> indicator, int timeFrame) {
+            super(timeFrame, indicator);
+            this.indicator = indicator;
+        }
+
+        @Override
+        protected boolean fill(int startIndex, int endIndex) {
+            fillCount++;
+            sum = 0;
+            for (int i = startIndex; i <= endIndex; i++) {
+                sum += indicator.getValue(i).toDouble();
+            }
+            return slidable;
+        }
+
+        @Override
+        protected boolean replaceLast(int index, Decimal[] values, Decimal[] previousValues) {
+            replacementCount++;
+            sum += values[0].toDouble() - previousValues[0].toDouble();
+            return true;
+        }
+
+        @Override
+        protected boolean slide(int index, Decimal[] values, int outgoingIndex) {
+            slideCount++;
+            sum += values[0].toDouble();
+            if (outgoingIndex >= 0) {
+                sum -= indicator.getValue(outgoingIndex).toDouble();
+            }
+            return true;
+        }
+    }
+}
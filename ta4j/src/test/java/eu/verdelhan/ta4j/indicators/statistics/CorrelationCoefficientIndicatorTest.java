@@ -98,4 +98,17 @@ public class CorrelationCoefficientIndicatorTest {
 		assertDecimalEquals(coef.getValue(18), 0.9841);
 		assertDecimalEquals(coef.getValue(19), 0.9799);
     }
+
+    @Test
+    public void onlineAlgorithm() {
+        CorrelationCoefficientIndicator twoPass = new CorrelationCoefficientIndicator(close, volume, 5);
+        CorrelationCoefficientIndicator online = new CorrelationCoefficientIndicator(close, volume, 5, StatisticsAlgorithm.ONLINE);
+        for (int i = 0; i <= data.getEndIndex(); i++) {
+            if (twoPass.getValue(i).isNaN()) {
+                assertTrue(online.getValue(i).isNaN());
+            } else {
+                assertDecimalEquals(online.getValue(i), twoPass.getValue(i).toDouble());
+            }
+        }
+    }
 }
@@ -33,6 +33,7 @@ import eu.verdelhan.ta4j.indicators.helpers.VolumeIndicator;
 import eu.verdelhan.ta4j.mocks.MockTick;
 import java.util.ArrayList;
 import java.util.List;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -109,4 +110,17 @@ public class CovarianceIndicatorTest {
         assertDecimalEquals(covar.getValue(3), 0);
         assertDecimalEquals(covar.getValue(8), 0);
     }
+
+    @Test
+    public void onlineAlgorithm() {
+        CovarianceIndicator twoPass = new CovarianceIndicator(close, volume, 5);
+        CovarianceIndicator online = new CovarianceIndicator(close, volume, 5, StatisticsAlgorithm.ONLINE);
+        for (int i = 0; i <= data.getEndIndex(); i++) {
+            if (twoPass.getValue(i).isNaN()) {
+                assertTrue(online.getValue(i).isNaN());
+            } else {
+                assertDecimalEquals(online.getValue(i), twoPass.getValue(i).toDouble());
+            }
+        }
+    }
 }
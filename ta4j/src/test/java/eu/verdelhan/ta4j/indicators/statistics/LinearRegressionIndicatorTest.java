@@ -0,0 +1,142 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan & respective authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package eu.verdelhan.ta4j.indicators.statistics;
+
+import eu.verdelhan.ta4j.BaseTimeSeries;
+import eu.verdelhan.ta4j.Decimal;
+import eu.verdelhan.ta4j.DecimalBackend;
+import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
+import eu.verdelhan.ta4j.TimeSeries;
+import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.indicators.helpers.FixedIndicator;
+import eu.verdelhan.ta4j.mocks.MockTick;
+import eu.verdelhan.ta4j.mocks.MockTimeSeries;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class LinearRegressionIndicatorTest {
+
+    @Test
+    public void sequentialAndRandomAccessesGiveIdenticalResults() {
+        Random random = new Random(42);
+        double[] data = new double[200];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 100 + random.nextInt(1000) / 100d;
+        }
+        TimeSeries series = new MockTimeSeries(data);
+        LinearRegressionIndicator sequential = new LinearRegressionIndicator(new ClosePriceIndicator(series), 20);
+        LinearRegressionIndicator randomAccess = new LinearRegressionIndicator(new ClosePriceIndicator(series), 20);
+        for (int i = 0; i < data.length; i++) {
+            sequential.getValue(i);
+            randomAccess.getValue(random.nextInt(data.length));
+        }
+        for (int i = 0; i < data.length; i++) {
+            LinearRegression expected = sequential.getValue(i);
+            LinearRegression actual = randomAccess.getValue(i);
+            assertEquals(expected.getSlope(), actual.getSlope());
+            assertEquals(expected.getIntercept(), actual.getIntercept());
+            assertEquals(expected.getStandardError(), actual.getStandardError());
+        }
+    }
+
+    @Test
+    public void notEnoughObservations() {
+        LinearRegressionIndicator regression = new LinearRegressionIndicator(new ClosePriceIndicator(new MockTimeSeries(1, 2, 3)), 1);
+        assertSame(LinearRegression.NaN, regression.getValue(2));
+        assertTrue(regression.getValue(2).getForecast().isNaN());
+    }
+
+    @Test
+    public void lastTickUpdates() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3, 4);
+        LinearRegressionIndicator regression = new LinearRegressionIndicator(new ClosePriceIndicator(series), 3);
+        assertDecimalEquals(regression.getValue(3).getSlope(), 1d);
+        assertDecimalEquals(regression.getValue(3).getForecast(), 5d);
+
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 6));
+        assertDecimalEquals(regression.getValue(3).getSlope(), 2d);
+        series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), 6));
+        // 3, 6, 6
+        assertDecimalEquals(regression.getValue(4).getSlope(), 1.5);
+        assertDecimalEquals(regression.getValue(4).getIntercept(), 3.5);
+        assertDecimalEquals(regression.getValue(4).getRSquared(), 0.75);
+    }
+
+    @Test
+    public void movingSeries() {
+        TimeSeries series = new MockTimeSeries(2, 4, 6);
+        series.setMaximumTickCount(5);
+        LinearRegressionIndicator regression = new LinearRegressionIndicator(new ClosePriceIndicator(series), 3);
+        for (int i = 4; i < 30; i++) {
+            series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), 2 * i));
+            LinearRegression line = regression.getValue(series.getEndIndex());
+            assertDecimalEquals(line.getSlope(), 2d);
+            assertDecimalEquals(line.getForecast(), 2d * i + 2);
+            assertDecimalEquals(line.getRSquared(), 1d);
+        }
+    }
+
+    @Test
+    public void doubleBackend() {
+        TimeSeries series = new BaseTimeSeries("double", DecimalBackend.DOUBLE);
+        ZonedDateTime time = ZonedDateTime.now();
+        for (int i = 0; i < 300; i++) {
+            series.addTick(new MockTick(time.plusDays(i), 1000 + i * 0.5 + Math.sin(i)));
+        }
+        LinearRegressionIndicator regression = new LinearRegressionIndicator(new ClosePriceIndicator(series), 30);
+        for (int i = 29; i < 300; i++) {
+            double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+            for (int x = 0; x < 30; x++) {
+                double y = series.getClosePrice(i - 29 + x).toDouble();
+                sumX += x;
+                sumY += y;
+                sumXY += x * y;
+                sumXX += x * x;
+            }
+            double slope = (30 * sumXY - sumX * sumY) / (30 * sumXX - sumX * sumX);
+            LinearRegression line = regression.getValue(i);
+            assertEquals(DecimalBackend.DOUBLE, line.getSlope().getBackend());
+            assertEquals(slope, line.getSlope().toDouble(), 1e-9);
+            assertEquals((sumY - slope * sumX) / 30, line.getIntercept().toDouble(), 1e-7);
+        }
+    }
+
+    @Test
+    public void mixedBackends() {
+        Decimal[] values = new Decimal[20];
+        for (int i = 0; i < values.length; i++) {
+            // y = 3 + 2x
+            values[i] = i % 2 == 0 ? Decimal.valueOf(3 + 2 * i) : DecimalBackend.DOUBLE.decimalOf(3 + 2 * i);
+        }
+        LinearRegressionIndicator regression = new LinearRegressionIndicator(new FixedIndicator<>(values), 5);
+        for (int i = 4; i < values.length; i++) {
+            LinearRegression line = regression.getValue(i);
+            assertDecimalEquals(line.getSlope(), 2d);
+            // The intercept is the value at the start index of the time frame
+            assertDecimalEquals(line.getIntercept(), 3 + 2 * (i - 4));
+            assertDecimalEquals(line.getForecast(), 3 + 2 * (i + 1));
+        }
+    }
+}
@@ -27,7 +27,9 @@ import eu.verdelhan.ta4j.Indicator;
 import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
 import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
 import eu.verdelhan.ta4j.mocks.MockTimeSeries;
+import java.util.Arrays;
 import org.apache.commons.math3.stat.regression.SimpleRegression;
+import eu.verdelhan.ta4j.indicators.statistics.SimpleLinearRegressionIndicator.SimpleLinearRegressionType;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
@@ -100,6 +102,27 @@ public class SimpleLinearRegressionIndicatorTest {
         assertDecimalEquals(reg.getValue(4), origReg.predict(4));
     }
     
+    @Test
+    public void regressionOutputs() {
+        LinearRegressionIndicator regression = new LinearRegressionIndicator(closePrice, 5);
+        SimpleLinearRegressionIndicator slope = new SimpleLinearRegressionIndicator(regression, SimpleLinearRegressionType.SLOPE);
+        SimpleLinearRegressionIndicator intercept = new SimpleLinearRegressionIndicator(regression, SimpleLinearRegressionType.INTERCEPT);
+        SimpleLinearRegressionIndicator rSquared = new SimpleLinearRegressionIndicator(regression, SimpleLinearRegressionType.R_SQUARED);
+        SimpleLinearRegressionIndicator standardError = new SimpleLinearRegressionIndicator(regression, SimpleLinearRegressionType.STANDARD_ERROR);
+        SimpleLinearRegressionIndicator forecast = new SimpleLinearRegressionIndicator(regression, SimpleLinearRegressionType.FORECAST);
+        for (int i = 4; i < data.length; i++) {
+            SimpleRegression origReg = buildSimpleRegression(Arrays.copyOfRange(data, i - 4, i + 1));
+            assertDecimalEquals(slope.getValue(i), origReg.getSlope());
+            assertDecimalEquals(intercept.getValue(i), origReg.getIntercept());
+            assertDecimalEquals(rSquared.getValue(i), origReg.getRSquare());
+            assertDecimalEquals(standardError.getValue(i), Math.sqrt(origReg.getMeanSquareError()));
+            assertDecimalEquals(forecast.getValue(i), origReg.predict(5));
+        }
+        // Only 2 observations: no residual standard error
+        assertTrue(standardError.getValue(1).isNaN());
+        assertDecimalEquals(rSquared.getValue(1), 1);
+    }
+
     /**
      * @param values values
      * @return a simple linear regression based on provided values
@@ -22,10 +22,15 @@
  */
 package eu.verdelhan.ta4j.indicators.statistics;
 
+import eu.verdelhan.ta4j.BaseTimeSeries;
+import eu.verdelhan.ta4j.DecimalBackend;
 import static eu.verdelhan.ta4j.TATestsUtils.assertDecimalEquals;
 import eu.verdelhan.ta4j.TimeSeries;
 import eu.verdelhan.ta4j.indicators.helpers.ClosePriceIndicator;
+import eu.verdelhan.ta4j.mocks.MockTick;
 import eu.verdelhan.ta4j.mocks.MockTimeSeries;
+import java.time.ZonedDateTime;
+import static org.junit.Assert.assertEquals;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -78,4 +83,61 @@ public class VarianceIndicatorTest {
         assertDecimalEquals(var.getValue(9), 2.25);
         assertDecimalEquals(var.getValue(10), 20.25);
     }
+
+    @Test
+    public void onlineAlgorithm() {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(data);
+        for (int timeFrame : new int[] { 1, 2, 4, 20 }) {
+            VarianceIndicator twoPass = new VarianceIndicator(closePrice, timeFrame);
+            VarianceIndicator online = new VarianceIndicator(closePrice, timeFrame, StatisticsAlgorithm.ONLINE);
+            for (int i = 0; i <= data.getEndIndex(); i++) {
+                assertDecimalEquals(online.getValue(i), twoPass.getValue(i).toDouble());
+            }
+        }
+        // Random access
+        VarianceIndicator online = new VarianceIndicator(closePrice, 4, StatisticsAlgorithm.ONLINE);
+        assertDecimalEquals(online.getValue(9), 3.5);
+        assertDecimalEquals(online.getValue(3), 1.25);
+    }
+
+    @Test
+    public void onlineAlgorithmWithLastTickUpdates() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3, 4);
+        VarianceIndicator var = new VarianceIndicator(new ClosePriceIndicator(series), 3, StatisticsAlgorithm.ONLINE);
+        assertDecimalEquals(var.getValue(3), 2d / 3);
+
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 7));
+        assertDecimalEquals(var.getValue(3), 14d / 3);
+        series.updateLastTick(new MockTick(series.getLastTick().getEndTime(), 10));
+        series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), 1));
+        assertDecimalEquals(var.getValue(4), 402d / 27);
+        assertDecimalEquals(var.getValue(3), 38d / 3);
+    }
+
+    @Test
+    public void onlineAlgorithmWithMovingSeries() {
+        TimeSeries series = new MockTimeSeries(1, 2, 3);
+        series.setMaximumTickCount(5);
+        VarianceIndicator var = new VarianceIndicator(new ClosePriceIndicator(series), 3, StatisticsAlgorithm.ONLINE);
+        for (int i = 4; i < 30; i++) {
+            series.addTick(new MockTick(series.getLastTick().getEndTime().plusDays(1), i));
+            assertDecimalEquals(var.getValue(series.getEndIndex()), 2d / 3);
+        }
+    }
+
+    @Test
+    public void onlineAlgorithmWithDoubleBackend() {
+        TimeSeries series = new BaseTimeSeries("double", DecimalBackend.DOUBLE);
+        ZonedDateTime time = ZonedDateTime.now();
+        for (int i = 0; i < 500; i++) {
+            series.addTick(new MockTick(time.plusDays(i), 1000 + Math.sin(i) * 10));
+        }
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        VarianceIndicator twoPass = new VarianceIndicator(closePrice, 20);
+        VarianceIndicator online = new VarianceIndicator(closePrice, 20, StatisticsAlgorithm.ONLINE);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(DecimalBackend.DOUBLE, online.getValue(i).getBackend());
+            assertEquals(twoPass.getValue(i).toDouble(), online.getValue(i).toDouble(), 1e-9);
+        }
+    }
 }